@@ -0,0 +1,108 @@
+package com.github.jscancella.benchmark;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * The kinds of bags that have caused scaling problems in production. The sizes are for a scale of 1,
+ * which is meant to match the biggest bags we ingest. Smaller scales shrink the number of files,
+ * or the size of each file for {@link #HUGE_FILES}.
+ */
+public enum BagShape {
+  /**
+   * millions of tiny files, where the cost per file dominates
+   */
+  TINY_FILES(1_000_000, 16, false, List.of("sha512"), BagShape::spreadOut),
+  /**
+   * a few huge files, where the cost per byte dominates
+   */
+  HUGE_FILES(4, 1024L * 1024 * 1024, true, List.of("sha512"), index -> "huge-" + index + ".bin"),
+  /**
+   * files spread along a 64 directory deep tree
+   */
+  DEEP_TREE(100_000, 1024, false, List.of("sha512"), BagShape::deep),
+  /**
+   * every file in the same directory
+   */
+  WIDE_DIRECTORY(200_000, 1024, false, List.of("sha512"), index -> "wide/file-" + index + ".txt"),
+  /**
+   * names in several scripts, with combining characters, spaces, percent signs and characters outside the basic multilingual plane
+   */
+  UNICODE_NAMES(100_000, 1024, false, List.of("sha512"), BagShape::unicode),
+  /**
+   * small files listed in a manifest for each of the standard algorithms
+   */
+  MULTIPLE_MANIFESTS(100_000, 4096, false, List.of("md5", "sha1", "sha256", "sha512"), BagShape::spreadOut);
+
+  private static final int FILES_PER_DIRECTORY = 1000;
+  private static final int DEPTH = 64;
+  private static final String[] UNICODE_PREFIXES = {
+      "\u65e5\u672c\u8a9e", //japanese
+      "\u00e9t\u00e9", //precomposed accents
+      "e\u0301te\u0301", //the same word with combining accents
+      "\u0444\u0430\u0439\u043b with spaces", //cyrillic
+      "100% \u0645\u0644\u0641", //percent sign and arabic
+      "\ud83d\udce6"}; //an emoji, which is outside the basic multilingual plane
+
+  private final int files;
+  private final long fileSize;
+  private final boolean scalesFileSize;
+  private final List<String> algorithms;
+  private final IntFunction<String> naming;
+
+  BagShape(final int files, final long fileSize, final boolean scalesFileSize, final List<String> algorithms, final IntFunction<String> naming) {
+    this.files = files;
+    this.fileSize = fileSize;
+    this.scalesFileSize = scalesFileSize;
+    this.algorithms = algorithms;
+    this.naming = naming;
+  }
+
+  private static String spreadOut(final int index) {
+    return "directory-" + index / FILES_PER_DIRECTORY + "/file-" + index + ".txt";
+  }
+
+  private static String deep(final int index) {
+    final StringBuilder path = new StringBuilder();
+    for(int level = 0; level < index % DEPTH; level++) {
+      path.append("level-").append(level).append('/');
+    }
+    return path.append("file-").append(index).append(".txt").toString();
+  }
+
+  private static String unicode(final int index) {
+    final String prefix = UNICODE_PREFIXES[index % UNICODE_PREFIXES.length];
+    return prefix + "-" + index / FILES_PER_DIRECTORY + "/" + prefix + "-" + index + ".txt";
+  }
+
+  /**
+   * @param scale how big the bag is compared to the biggest bags
+   * @return the number of payload files at that scale
+   */
+  public int getFiles(final double scale) {
+    return scalesFileSize ? files : (int) Math.max(1, Math.round(files * scale));
+  }
+
+  /**
+   * @param scale how big the bag is compared to the biggest bags
+   * @return the size of each payload file at that scale
+   */
+  public long getFileSize(final double scale) {
+    return scalesFileSize ? Math.max(1, Math.round(fileSize * scale)) : fileSize;
+  }
+
+  /**
+   * @param index which payload file
+   * @return where the file is, relative to the payload directory
+   */
+  public String getRelativePath(final int index) {
+    return naming.apply(index);
+  }
+
+  /**
+   * @return the algorithms the bag has a manifest for
+   */
+  public List<String> getAlgorithms() {
+    return algorithms;
+  }
+}
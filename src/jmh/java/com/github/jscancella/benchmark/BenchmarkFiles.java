@@ -0,0 +1,53 @@
+package com.github.jscancella.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Creates and cleans up the files the benchmarks work on. The content is random but seeded, so every run hashes the same bytes.
+ */
+enum BenchmarkFiles {; //using enum to enforce singleton
+  private static final int CHUNK_SIZE = 1024 * 1024;
+  private static final long SEED = 42;
+
+  /**
+   * @param file the file to create
+   * @param size how many bytes to write to it
+   * @return the file
+   * @throws IOException if the file can't be written
+   */
+  static Path createFile(final Path file, final long size) throws IOException {
+    final Random random = new Random(SEED);
+    final byte[] chunk = new byte[CHUNK_SIZE];
+    Files.createDirectories(file.getParent());
+    try(OutputStream out = Files.newOutputStream(file)){
+      long remaining = size;
+      while(remaining > 0) {
+        random.nextBytes(chunk);
+        final int length = (int) Math.min(remaining, chunk.length);
+        out.write(chunk, 0, length);
+        remaining -= length;
+      }
+    }
+    return file;
+  }
+
+  /**
+   * @param directory the directory to delete, along with everything in it
+   * @throws IOException if something can't be deleted
+   */
+  static void delete(final Path directory) throws IOException {
+    if(directory != null && Files.exists(directory)) {
+      try(Stream<Path> files = Files.walk(directory)){
+        for(final Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+          Files.delete(file);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.github.jscancella.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jscancella.hash.BagitChecksumNameMapping;
+import com.github.jscancella.hash.Hasher;
+
+/**
+ * How long {@link com.github.jscancella.hash.standard.AbstractMessageDigestHasher#hash(Path)} takes for each algorithm,
+ * from a tiny file where opening the file dominates, to a large one where the digest itself dominates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HasherBenchmark {
+  @Param({"md5", "sha1", "sha256", "sha512"})
+  private String algorithm;
+
+  @Param({"1024", "1048576", "67108864"})
+  private long fileSize;
+
+  private Path directory;
+  private Path file;
+  private Hasher hasher;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("hasher-benchmark");
+    file = BenchmarkFiles.createFile(directory.resolve("file.bin"), fileSize);
+    hasher = BagitChecksumNameMapping.get(algorithm);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    BenchmarkFiles.delete(directory);
+  }
+
+  @Benchmark
+  public String hash() throws IOException {
+    return hasher.hash(file);
+  }
+}
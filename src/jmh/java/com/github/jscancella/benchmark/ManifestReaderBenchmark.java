@@ -0,0 +1,83 @@
+package com.github.jscancella.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.Version;
+import com.github.jscancella.reader.internal.ManifestReader;
+
+/**
+ * How long {@link ManifestReader#readManifest(Path, Path, Version, java.nio.charset.Charset)} takes as manifests get bigger,
+ * which is dominated by {@link com.github.jscancella.reader.internal.TagFileReader#createFileFromManifest} for each line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ManifestReaderBenchmark {
+  private static final int FILES_PER_DIRECTORY = 1000;
+
+  @Param({"md5", "sha512"})
+  private String algorithm;
+
+  @Param({"100", "10000", "1000000"})
+  private int entries;
+
+  private Path bagRootDir;
+  private Path manifestFile;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    bagRootDir = Files.createTempDirectory("manifest-reader-benchmark");
+    manifestFile = bagRootDir.resolve("manifest-" + algorithm + ".txt");
+    writeManifest(manifestFile, algorithm, entries);
+  }
+
+  /**
+   * @param manifestFile where to write the manifest
+   * @param algorithm the algorithm, which decides the length of the checksums
+   * @param entries how many lines to write
+   * @throws IOException if the manifest can't be written
+   */
+  static void writeManifest(final Path manifestFile, final String algorithm, final int entries) throws IOException {
+    final int checksumLength = "md5".equals(algorithm) ? 32 : 128;
+    try(BufferedWriter writer = Files.newBufferedWriter(manifestFile, StandardCharsets.UTF_8)){
+      for(int index = 0; index < entries; index++) {
+        final String checksum = String.format("%0" + checksumLength + "x", index);
+        writer.write(checksum + "  data/directory-" + index / FILES_PER_DIRECTORY + "/file-" + index + ".txt");
+        writer.newLine();
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    BenchmarkFiles.delete(bagRootDir);
+  }
+
+  @Benchmark
+  public Manifest readManifest() throws IOException {
+    return ManifestReader.readManifest(manifestFile, bagRootDir, Version.LATEST_BAGIT_VERSION(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,67 @@
+package com.github.jscancella.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.Version;
+import com.github.jscancella.reader.internal.ManifestReader;
+import com.github.jscancella.writer.internal.ManifestWriter;
+
+/**
+ * How long {@link ManifestWriter#writePayloadManifests(Set, Path, Version, java.nio.charset.Charset)} takes as manifests get bigger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ManifestWriterBenchmark {
+  @Param({"md5", "sha512"})
+  private String algorithm;
+
+  @Param({"100", "10000", "1000000"})
+  private int entries;
+
+  private Path bagRootDir;
+  private Path outputDir;
+  private Set<Manifest> manifests;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    bagRootDir = Files.createTempDirectory("manifest-writer-benchmark");
+    outputDir = Files.createDirectory(bagRootDir.resolve("output"));
+    final Path manifestFile = bagRootDir.resolve("manifest-" + algorithm + ".txt");
+    ManifestReaderBenchmark.writeManifest(manifestFile, algorithm, entries);
+    manifests = Set.of(ManifestReader.readManifest(manifestFile, bagRootDir, Version.LATEST_BAGIT_VERSION(), StandardCharsets.UTF_8));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    BenchmarkFiles.delete(bagRootDir);
+  }
+
+  @Benchmark
+  public Set<Path> writePayloadManifests() throws IOException {
+    return ManifestWriter.writePayloadManifests(manifests, outputDir, Version.LATEST_BAGIT_VERSION(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,94 @@
+package com.github.jscancella.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jscancella.hash.BagitChecksumNameMapping;
+import com.github.jscancella.hash.Hasher;
+import com.github.jscancella.hash.internal.MultiAlgorithmHasher;
+import com.github.jscancella.hash.read.DirectBufferReadStrategy;
+import com.github.jscancella.hash.read.FileReadStrategy;
+import com.github.jscancella.hash.read.HeapBufferReadStrategy;
+import com.github.jscancella.hash.read.MemoryMappedReadStrategy;
+import com.github.jscancella.hash.read.ReadAheadReadStrategy;
+
+/**
+ * How the buffer size and the way a file is read affect computing one or several checksums of a file at once,
+ * which is what happens to every file when a bag is validated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReadStrategyBenchmark {
+  @Param({"heap", "direct", "mapped", "readahead"})
+  private String strategy;
+
+  @Param({"8192", "65536", "1048576"})
+  private int bufferSize;
+
+  @Param({"sha512", "md5,sha1,sha256,sha512"})
+  private String algorithms;
+
+  @Param({"67108864"})
+  private long fileSize;
+
+  private Path directory;
+  private Path file;
+  private FileReadStrategy readStrategy;
+  private final Map<String, Hasher> hashers = new HashMap<>();
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("read-strategy-benchmark");
+    file = BenchmarkFiles.createFile(directory.resolve("file.bin"), fileSize);
+    for(final String algorithm : algorithms.split(",")) {
+      hashers.put(algorithm, BagitChecksumNameMapping.get(algorithm));
+    }
+    switch(strategy) {
+      case "direct":
+        readStrategy = new DirectBufferReadStrategy(bufferSize);
+        break;
+      case "mapped":
+        //map every file, one window of the buffer size at a time
+        readStrategy = new MemoryMappedReadStrategy(bufferSize, 0);
+        break;
+      case "readahead":
+        //read every file ahead on a background thread
+        readStrategy = new ReadAheadReadStrategy(bufferSize, ReadAheadReadStrategy.DEFAULT_NUMBER_OF_BUFFERS, 0);
+        break;
+      default:
+        readStrategy = new HeapBufferReadStrategy(bufferSize);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    BenchmarkFiles.delete(directory);
+  }
+
+  @Benchmark
+  public Map<String, String> hash() throws IOException {
+    return MultiAlgorithmHasher.hash(file, hashers, readStrategy);
+  }
+}
@@ -0,0 +1,263 @@
+package com.github.jscancella.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.github.jscancella.conformance.BagLinter;
+import com.github.jscancella.domain.Bag;
+import com.github.jscancella.domain.BagBuilder;
+
+/**
+ * Times the whole life of a bag (building, reading, checking it is complete, validating and linting it) for each {@link BagShape}
+ * at several scales, and reports the throughput and peak heap of each operation. Microbenchmarks can't catch an operation that gets
+ * quadratically slower as bags get bigger, so this also reports how the time grows between scales: an exponent of 1 means the time
+ * grows linearly with the size of the bag, 2 means it grows quadratically.
+ * <p>
+ * Arguments, all optional:
+ * <ul>
+ * <li>{@code --shapes=TINY_FILES,HUGE_FILES} which shapes to run, all of them by default</li>
+ * <li>{@code --scales=0.001,0.01} the sizes to run each shape at, compared to the biggest bags</li>
+ * <li>{@code --work-dir=/some/fast/disk} where to create the bags, the temporary directory by default</li>
+ * <li>{@code --results=results.csv} where to write every measurement</li>
+ * </ul>
+ */
+public final class ScalingBenchmark {
+  private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+  private static final double NANOSECONDS_PER_SECOND = 1_000_000_000;
+  //the time grows this much faster than the size of the bag before it is reported as a scaling problem
+  private static final double SUPERLINEAR_EXPONENT = 1.5;
+  //faster than this and the growth is mostly noise
+  private static final Duration MINIMUM_MEANINGFUL_TIME = Duration.ofMillis(50);
+
+  private final List<Measurement> measurements = new ArrayList<>();
+  private final List<String> failures = new ArrayList<>();
+
+  private ScalingBenchmark() {
+    //only created by main
+  }
+
+  /**
+   * @param args see the class documentation
+   * @throws Exception if any operation fails
+   */
+  public static void main(final String[] args) throws Exception {
+    final Map<String, String> options = parseArguments(args);
+    final List<BagShape> shapes = new ArrayList<>();
+    for(final String shape : options.getOrDefault("shapes", joinedShapeNames()).split(",")) {
+      shapes.add(BagShape.valueOf(shape.trim().toUpperCase(Locale.ROOT)));
+    }
+    final double[] scales = Arrays.stream(options.getOrDefault("scales", "0.001,0.01").split(",")).mapToDouble(Double::parseDouble).sorted().toArray();
+    final Path workDir = options.containsKey("work-dir") ? Paths.get(options.get("work-dir")) : Files.createTempDirectory("scaling-benchmark");
+    
+    final ScalingBenchmark benchmark = new ScalingBenchmark();
+    for(final BagShape shape : shapes) {
+      for(final double scale : scales) {
+        benchmark.run(shape, scale, workDir.resolve(shape + "-" + scale));
+      }
+    }
+    if(!options.containsKey("work-dir")) {
+      BenchmarkFiles.delete(workDir);
+    }
+    benchmark.reportGrowth();
+    if(options.containsKey("results")) {
+      benchmark.writeResults(Paths.get(options.get("results")));
+    }
+    if(!benchmark.failures.isEmpty()) {
+      throw new IllegalStateException("These operations failed " + benchmark.failures);
+    }
+  }
+
+  private static Map<String, String> parseArguments(final String... args) {
+    final Map<String, String> options = new HashMap<>();
+    for(final String arg : args) {
+      if(!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected arguments like --name=value but got [" + arg + "]");
+      }
+      final String[] keyValue = arg.substring(2).split("=", 2);
+      options.put(keyValue[0], keyValue[1]);
+    }
+    return options;
+  }
+
+  private static String joinedShapeNames() {
+    return String.join(",", Arrays.stream(BagShape.values()).map(BagShape::name).toArray(String[]::new));
+  }
+
+  private void run(final BagShape shape, final double scale, final Path shapeDir) throws Exception {
+    final Path payloadDir = shapeDir.resolve("payload");
+    final Path bagDir = shapeDir.resolve("bag");
+    final int files = shape.getFiles(scale);
+    final long bytes = files * shape.getFileSize(scale);
+    System.out.printf(Locale.ROOT, "%nGenerating %s at scale %s: %d files, %.1f MB%n", shape, scale, files, bytes / BYTES_PER_MEGABYTE);
+    SyntheticBagGenerator.generatePayload(shape, scale, payloadDir);
+
+    try {
+      measure(shape, scale, "BagBuilder.write", () -> {
+        final BagBuilder builder = new BagBuilder().bagLocation(bagDir).addPayloadFile(payloadDir);
+        shape.getAlgorithms().forEach(builder::addAlgorithm);
+        return builder.write();
+      });
+      final Bag bag = measure(shape, scale, "Bag.read", () -> Bag.read(bagDir));
+      measure(shape, scale, "Bag.isComplete", () -> bag.isComplete(true));
+      measure(shape, scale, "Bag.justValidate", bag::justValidate);
+      measure(shape, scale, "BagLinter.lintBag", () -> BagLinter.lintBag(bagDir));
+    }
+    catch(Exception e) {
+      //carry on with the other shapes, so that one failure doesn't hide how everything else scales
+      failures.add(shape + " at scale " + scale + ": " + e);
+    }
+    finally {
+      BenchmarkFiles.delete(shapeDir);
+    }
+  }
+
+  private <T> T measure(final BagShape shape, final double scale, final String operation, final Operation<T> toMeasure) throws Exception {
+    resetPeakHeap();
+    final long start = System.nanoTime();
+    final T result;
+    try {
+      result = toMeasure.run();
+    }
+    catch(Exception e) {
+      System.out.printf(Locale.ROOT, "%-20s FAILED %s%n", operation, e);
+      throw e;
+    }
+    final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+    final Measurement measurement = new Measurement(shape, scale, operation, elapsed, getPeakHeap());
+    measurements.add(measurement);
+    System.out.println(measurement.format());
+    return result;
+  }
+
+  /*
+   * collect the garbage first so the peak is what the operation needed, rather than what was left over from the one before
+   */
+  @SuppressWarnings("PMD.DoNotCallGarbageCollectionExplicitly")
+  private static void resetPeakHeap() {
+    System.gc();
+    for(final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if(pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  /*
+   * the sum of the peak of each heap pool, which can be slightly more than the heap ever used at once
+   */
+  private static long getPeakHeap() {
+    long peak = 0;
+    for(final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if(pool.getType() == MemoryType.HEAP) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+    return peak;
+  }
+
+  private void reportGrowth() {
+    System.out.printf(Locale.ROOT, "%nHow the time grows with the size of the bag (1 is linear, 2 is quadratic)%n");
+    for(int index = 0; index < measurements.size(); index++) {
+      final Measurement smaller = measurements.get(index);
+      final Measurement larger = nextScaleOf(smaller, index);
+      if(larger != null && smaller.elapsed.compareTo(MINIMUM_MEANINGFUL_TIME) >= 0) {
+        final double exponent = Math.log((double) larger.elapsed.toNanos() / smaller.elapsed.toNanos()) / Math.log((double) larger.bytes / smaller.bytes);
+        System.out.printf(Locale.ROOT, "%-20s %-20s %8s -> %-8s %5.2f%s%n", smaller.shape, smaller.operation, smaller.scale, larger.scale, exponent,
+            exponent > SUPERLINEAR_EXPONENT ? "  <-- grows faster than the bag" : "");
+      }
+    }
+  }
+
+  private Measurement nextScaleOf(final Measurement measurement, final int index) {
+    for(int next = index + 1; next < measurements.size(); next++) {
+      final Measurement candidate = measurements.get(next);
+      if(candidate.shape == measurement.shape && candidate.operation.equals(measurement.operation) && candidate.bytes > measurement.bytes) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  private void writeResults(final Path resultsFile) throws IOException {
+    final Path parent = resultsFile.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    try(BufferedWriter writer = Files.newBufferedWriter(resultsFile, StandardCharsets.UTF_8)){
+      writer.write("shape,scale,operation,files,bytes,milliseconds,filesPerSecond,megabytesPerSecond,peakHeapBytes");
+      writer.newLine();
+      for(final Measurement measurement : measurements) {
+        writer.write(measurement.toCsv());
+        writer.newLine();
+      }
+    }
+    System.out.println("\nResults written to " + resultsFile.toAbsolutePath());
+  }
+
+  /**
+   * an operation to time
+   * 
+   * @param <T> what the operation returns
+   */
+  @FunctionalInterface
+  private interface Operation<T> {
+    T run() throws Exception;
+  }
+
+  /**
+   * how long an operation took for one shape at one scale
+   */
+  private static final class Measurement {
+    private final BagShape shape;
+    private final double scale;
+    private final String operation;
+    private final int files;
+    private final long bytes;
+    private final Duration elapsed;
+    private final long peakHeap;
+
+    private Measurement(final BagShape shape, final double scale, final String operation, final Duration elapsed, final long peakHeap) {
+      this.shape = shape;
+      this.scale = scale;
+      this.operation = operation;
+      this.files = shape.getFiles(scale);
+      this.bytes = files * shape.getFileSize(scale);
+      this.elapsed = elapsed;
+      this.peakHeap = peakHeap;
+    }
+
+    private double filesPerSecond() {
+      return files / seconds();
+    }
+
+    private double megabytesPerSecond() {
+      return bytes / BYTES_PER_MEGABYTE / seconds();
+    }
+
+    private double seconds() {
+      return Math.max(1, elapsed.toNanos()) / NANOSECONDS_PER_SECOND;
+    }
+
+    private String format() {
+      return String.format(Locale.ROOT, "%-20s %10d ms %12.1f files/s %10.1f MB/s %8.1f MB peak heap", operation, elapsed.toMillis(), filesPerSecond(),
+          megabytesPerSecond(), peakHeap / BYTES_PER_MEGABYTE);
+    }
+
+    private String toCsv() {
+      return String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%.1f,%.1f,%d", shape, scale, operation, files, bytes, elapsed.toMillis(), filesPerSecond(),
+          megabytesPerSecond(), peakHeap);
+    }
+  }
+}
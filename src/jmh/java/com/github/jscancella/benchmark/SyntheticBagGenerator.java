@@ -0,0 +1,38 @@
+package com.github.jscancella.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Creates the payload of a bag of a given {@link BagShape}, which can then be turned into a bag with {@link com.github.jscancella.domain.BagBuilder}.
+ */
+public enum SyntheticBagGenerator {; //using enum to enforce singleton
+  private static final long SEED = 42;
+  private static final long LARGE_FILE = 1024 * 1024;
+
+  /**
+   * @param shape the kind of bag
+   * @param scale how big the bag is compared to the biggest bags, for example 0.01 for a hundredth of the files
+   * @param payloadDir where to create the payload files
+   * @throws IOException if a file can't be written
+   */
+  public static void generatePayload(final BagShape shape, final double scale, final Path payloadDir) throws IOException {
+    final Random random = new Random(SEED);
+    final long fileSize = shape.getFileSize(scale);
+    final byte[] content = new byte[(int) Math.min(fileSize, LARGE_FILE)];
+
+    for(int index = 0; index < shape.getFiles(scale); index++) {
+      final Path file = payloadDir.resolve(shape.getRelativePath(index));
+      if(fileSize > LARGE_FILE) {
+        BenchmarkFiles.createFile(file, fileSize);
+      }
+      else {
+        Files.createDirectories(file.getParent());
+        random.nextBytes(content);
+        Files.write(file, content);
+      }
+    }
+  }
+}
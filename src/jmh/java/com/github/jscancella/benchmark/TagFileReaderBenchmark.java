@@ -0,0 +1,70 @@
+package com.github.jscancella.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jscancella.domain.Version;
+import com.github.jscancella.reader.internal.TagFileReader;
+
+/**
+ * How long it takes to turn one path listed in a manifest into a {@link Path},
+ * for the kinds of names found in real bags.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TagFileReaderBenchmark {
+  @Param({"plain", "deep", "unicode", "encoded"})
+  private String name;
+
+  private Path bagRootDir;
+  private String path;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    bagRootDir = Files.createTempDirectory("tag-file-reader-benchmark");
+    switch(name) {
+      case "deep":
+        path = "data/a/b/c/d/e/f/g/h/i/j/k/l/m/n/o/p/file.txt";
+        break;
+      case "unicode":
+        path = "data/\u65e5\u672c\u8a9e/\u00e9t\u00e9/\u0444\u0430\u0439\u043b.txt"; //japanese, accented latin and cyrillic
+        break;
+      case "encoded":
+        path = "data/line%0Dbreaks%0Aand%25percents.txt";
+        break;
+      default:
+        path = "data/directory-1/file-1234.txt";
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    BenchmarkFiles.delete(bagRootDir);
+  }
+
+  @Benchmark
+  public Path createFileFromManifest() {
+    return TagFileReader.createFileFromManifest(bagRootDir, path, Version.LATEST_BAGIT_VERSION(), StandardCharsets.UTF_8);
+  }
+}
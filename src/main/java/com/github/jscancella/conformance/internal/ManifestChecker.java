@@ -2,6 +2,7 @@ package com.github.jscancella.conformance.internal;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
@@ -15,13 +16,14 @@ import java.util.Locale;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.MessageFormatter;
 
 import com.github.jscancella.conformance.BagitWarning;
-import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.ManifestEntry;
 import com.github.jscancella.domain.Version;
 import com.github.jscancella.exceptions.InvalidBagitFileFormatException;
 import com.github.jscancella.exceptions.MaliciousPathException;
@@ -262,19 +264,25 @@ public enum ManifestChecker {;// using enum to enforce singleton
   }
   
   //starting with version 1.0 all manifest types (tag, payload) MUST list the same set of files, but for older versions it SHOULD list all files
+  @SuppressWarnings("PMD.PreserveStackTrace")
   static void checkManifestsListSameSetOfFiles(final Set<BagitWarning> warnings, final List<Path> manifestPaths, final Charset charset) throws IOException{
     
-    Manifest compareToManifest = null;
+    Set<Path> compareToSet = null;
     Path compareToManifestPath = null;
     for (final Path manifestPath : manifestPaths) {
-      final Manifest manifest = ManifestReader.readManifest(manifestPath, manifestPath.getParent(), Version.LATEST_BAGIT_VERSION(), charset);
-      if(compareToManifest == null) {
+      final Set<Path> manifestSet;
+      try(Stream<ManifestEntry> entries = ManifestReader.streamManifest(manifestPath, manifestPath.getParent(), Version.LATEST_BAGIT_VERSION(), charset)){
+        manifestSet = entries.map(entry -> entry.getRelativeLocation()).collect(Collectors.toSet());
+      }
+      catch(UncheckedIOException e) {
+        throw e.getCause();
+      }
+      
+      if(compareToSet == null) {
         compareToManifestPath = manifestPath;
-        compareToManifest = manifest;
+        compareToSet = manifestSet;
         continue;
       }
-      final Set<Path> compareToSet = compareToManifest.getEntries().stream().map(entry -> entry.getRelativeLocation()).collect(Collectors.toSet());
-      final Set<Path> manifestSet = manifest.getEntries().stream().map(entry -> entry.getRelativeLocation()).collect(Collectors.toSet());
       
       if(!compareToSet.equals(manifestSet)) {
         logger.warn(messages.getString("manifest_fileset_differ"), compareToManifestPath, manifestPath);
@@ -1,6 +1,7 @@
 package com.github.jscancella.domain;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryStream;
@@ -8,15 +9,22 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,17 +39,28 @@ import com.github.jscancella.exceptions.MaliciousPathException;
 import com.github.jscancella.exceptions.MissingBagitFileException;
 import com.github.jscancella.exceptions.MissingPayloadDirectoryException;
 import com.github.jscancella.exceptions.MissingPayloadManifestException;
-import com.github.jscancella.hash.BagitChecksumNameMapping;
-import com.github.jscancella.hash.Hasher;
+import com.github.jscancella.exceptions.ValidationCancelledException;
 import com.github.jscancella.internal.ManifestFilter;
 import com.github.jscancella.internal.PathUtils;
+import com.github.jscancella.internal.PerFileExecutors;
+import com.github.jscancella.internal.PhaseTimer;
+import com.github.jscancella.internal.jfr.FileCopiedEvent;
+import com.github.jscancella.progress.BagOperationListener;
+import com.github.jscancella.progress.BagOperationListener.Phase;
 import com.github.jscancella.reader.internal.BagitTextFileReader;
 import com.github.jscancella.reader.internal.FetchReader;
 import com.github.jscancella.reader.internal.ManifestReader;
 import com.github.jscancella.reader.internal.MetadataReader;
+import com.github.jscancella.verify.ValidationOptions;
+import com.github.jscancella.verify.ValidationOptions.ValidationOptionsBuilder;
+import com.github.jscancella.verify.ValidationReport;
+import com.github.jscancella.verify.ValidationReport.ValidationReportBuilder;
 import com.github.jscancella.verify.internal.BagitTextFileVerifier;
+import com.github.jscancella.verify.internal.ChecksumVerifier;
+import com.github.jscancella.verify.internal.CompletenessVerifier;
 import com.github.jscancella.verify.internal.MandatoryVerifier;
 import com.github.jscancella.verify.internal.ManifestVerifier;
+import com.github.jscancella.verify.internal.PayloadOxumVerifier;
 import com.github.jscancella.writer.internal.BagitFileWriter;
 import com.github.jscancella.writer.internal.FetchWriter;
 import com.github.jscancella.writer.internal.ManifestWriter;
@@ -225,8 +244,33 @@ public final class Bag {
    * @throws MissingPayloadManifestException if there is no payload manifest
    */
   public boolean isValid(final boolean ignoreHiddenFiles) throws IOException {
+    return isValid(ignoreHiddenFiles, new ValidationOptionsBuilder().build());
+  }
+  
+  /**
+   * See <a href=
+   * "https://tools.ietf.org/html/draft-kunze-bagit#section-3">https://tools.ietf.org/html/draft-kunze-bagit#section-3</a><br>
+   * A bag is <b>valid</b> if the bag is complete and every checksum has been
+   * verified against the contents of its corresponding file.
+   * 
+   * @param ignoreHiddenFiles to include hidden files when checking
+   * @param options how to go about validating, for example how many files to hash at the same time
+   * 
+   * @return true if the bag is valid or throws an exception
+   * 
+   * @throws InvalidBagitFileFormatException if the file(s) are not formatted correctly
+   * @throws IOException if there is a problem reading a file
+   * @throws CorruptChecksumException the checksum doesn't match what was listed in the manifest
+   * @throws FileNotInPayloadDirectoryException file listed in manifest but doesn't exist
+   * @throws MissingBagitFileException the bagit.txt file is missing
+   * @throws MissingPayloadDirectoryException if a bag is missing a payload directory
+   * @throws MissingPayloadManifestException if there is no payload manifest
+   * @throws ValidationCancelledException if the validation was cancelled, interrupted, or its deadline passed
+   */
+  public boolean isValid(final boolean ignoreHiddenFiles, final ValidationOptions options) throws IOException {
+    //only check bagit.txt once, the manifests are reused from when the bag was read
     BagitTextFileVerifier.checkBagitTextFile(this);
-    return isComplete(ignoreHiddenFiles) && justValidate();
+    return isComplete(ignoreHiddenFiles, options) && checkHashes(options);
   }
   
   /**
@@ -246,39 +290,107 @@ public final class Bag {
    * @throws MissingPayloadManifestException if there is no payload manifest
    */
   public boolean justValidate() throws IOException{
-    boolean isValid = true;
-    
+    return justValidate(new ValidationOptionsBuilder().build());
+  }
+  
+  /**
+   * See <a href=
+   * "https://tools.ietf.org/html/draft-kunze-bagit#section-3">https://tools.ietf.org/html/draft-kunze-bagit#section-3</a><br>
+   * Just checks every checksum has been
+   * verified against the contents of its corresponding file.
+   * 
+   * @param options how to go about validating, for example how many files to hash at the same time
+   * 
+   * @return true if the bag is valid or throws an exception
+   * 
+   * @throws InvalidBagitFileFormatException if the file(s) are not formatted correctly
+   * @throws IOException if there is a problem reading a file
+   * @throws CorruptChecksumException the checksum doesn't match what was listed in the manifest
+   * @throws FileNotInPayloadDirectoryException file listed in manifest but doesn't exist
+   * @throws MissingBagitFileException the bagit.txt file is missing
+   * @throws MissingPayloadDirectoryException if a bag is missing a payload directory
+   * @throws MissingPayloadManifestException if there is no payload manifest
+   * @throws ValidationCancelledException if the validation was cancelled, interrupted, or its deadline passed
+   */
+  public boolean justValidate(final ValidationOptions options) throws IOException{
     BagitTextFileVerifier.checkBagitTextFile(this);
-    
-    for(final Manifest payloadManifest : payLoadManifests){
-      isValid = checkHashes(payloadManifest) && isValid;
+    return checkHashes(options);
+  }
+  
+  /**
+   * Check that the bag is complete and valid, finding every problem in a single pass instead of stopping at the first one.
+   * See {@link #validate(boolean, ValidationOptions)}
+   * 
+   * @param ignoreHiddenFiles to include hidden files when checking
+   * 
+   * @return everything that is wrong with the files of the bag
+   * 
+   * @throws InvalidBagitFileFormatException if the file(s) are not formatted correctly
+   * @throws IOException if there is a problem that isn't specific to a single file, for example reading a directory
+   * @throws MissingBagitFileException the bagit.txt file is missing
+   * @throws MissingPayloadDirectoryException if a bag is missing a payload directory
+   * @throws MissingPayloadManifestException if there is no payload manifest
+   */
+  public ValidationReport validate(final boolean ignoreHiddenFiles) throws IOException{
+    return validate(ignoreHiddenFiles, new ValidationOptionsBuilder().build());
+  }
+  
+  /**
+   * Check that the bag is complete and valid, the same as {@link #isValid(boolean, ValidationOptions)}, but instead of stopping 
+   * at the first problem every missing, extra, corrupt, and unreadable file is found in a single pass and returned in a report.
+   * Problems with the bag itself (for example a missing bagit.txt file) are still thrown as they mean the files can't be checked.
+   * 
+   * @param ignoreHiddenFiles to include hidden files when checking
+   * @param options how to go about validating, for example how many files to hash at the same time
+   * 
+   * @return everything that is wrong with the files of the bag
+   * 
+   * @throws InvalidBagitFileFormatException if the file(s) are not formatted correctly
+   * @throws IOException if there is a problem that isn't specific to a single file, for example reading a directory
+   * @throws MissingBagitFileException the bagit.txt file is missing
+   * @throws MissingPayloadDirectoryException if a bag is missing a payload directory
+   * @throws MissingPayloadManifestException if there is no payload manifest
+   * @throws ValidationCancelledException if the validation was cancelled, interrupted, or its deadline passed
+   */
+  public ValidationReport validate(final boolean ignoreHiddenFiles, final ValidationOptions options) throws IOException{
+    BagitTextFileVerifier.checkBagitTextFile(this);
+    final BagOperationListener listener = options.getListener();
+    final ValidationReportBuilder report = new ValidationReportBuilder();
+    CompletenessVerifier.checkCompleteness(this, ignoreHiddenFiles, options, report);
+    if(!tagManifests.isEmpty()) {
+      PhaseTimer.time(listener, Phase.CHECK_TAG_CHECKSUMS, () -> ChecksumVerifier.checkHashes(tagManifests, options, report));
     }
+    PhaseTimer.time(listener, Phase.CHECK_PAYLOAD_CHECKSUMS, () -> ChecksumVerifier.checkHashes(payLoadManifests, options, report));
     
-    for(final Manifest tagManifest : tagManifests){
-      isValid = checkHashes(tagManifest) && isValid;
+    final ValidationReport builtReport = report.build();
+    if(builtReport.isValid()) {
+      clearCheckpoint(options, rootDir);
     }
-    
-    return isValid;
+    return builtReport;
   }
   
-  private boolean checkHashes(final Manifest manifest) throws IOException{
-    final Hasher hasher = BagitChecksumNameMapping.get(manifest.getBagitAlgorithmName());
-    
-    for(final ManifestEntry entry : manifest.getEntries()) {
-      if(Files.exists(entry.getPhysicalLocation())) {
-        final String hash = hasher.hash(entry.getPhysicalLocation());
-        //https://www.rfc-editor.org/rfc/rfc8493#section-2.1.3
-        //* The hex-encoded checksum MAY use uppercase and/or lowercase letters.
-        if (!hash.equalsIgnoreCase(entry.getChecksum())){
-          throw new CorruptChecksumException("File [{}] is suppose to have a [{}] hash of [{}] but was computed [{}].", entry.getPhysicalLocation(), //entry.getRelativeLocation(),
-              manifest.getBagitAlgorithmName(), entry.getChecksum(), hash);
-        }
-      }
+  /*
+   * the tag files are few and small, so check them before spending time on the payload
+   */
+  private boolean checkHashes(final ValidationOptions options) throws IOException{
+    if(!tagManifests.isEmpty()) {
+      PhaseTimer.time(options.getListener(), Phase.CHECK_TAG_CHECKSUMS, () -> ChecksumVerifier.checkHashes(tagManifests, options));
     }
-
+    PhaseTimer.time(options.getListener(), Phase.CHECK_PAYLOAD_CHECKSUMS, () -> ChecksumVerifier.checkHashes(payLoadManifests, options));
+    clearCheckpoint(options, rootDir);
+    
     return true;
   }
   
+  /*
+   * the whole bag is valid, so the next validation needs to check every file again. Other bags may share the checkpoint, so only this bag is cleared
+   */
+  private static void clearCheckpoint(final ValidationOptions options, final Path bagRootDir) throws IOException{
+    if(options.getCheckpoint().isPresent()) {
+      options.getCheckpoint().get().clear(bagRootDir);
+    }
+  }
+  
   /**
    * See <a href=
    * "https://tools.ietf.org/html/draft-kunze-bagit#section-3">https://tools.ietf.org/html/draft-kunze-bagit#section-3</a><br>
@@ -307,13 +419,47 @@ public final class Bag {
    * @throws MaliciousPathException if the path is specifying a path outside the bag
    */
   public boolean isComplete(final boolean ignoreHiddenFiles) throws IOException {
-    
-    MandatoryVerifier.checkFetchItemsExist(itemsToFetch, rootDir);
-    MandatoryVerifier.checkBagitFileExists(this);
-    MandatoryVerifier.checkPayloadDirectoryExists(this);
-    MandatoryVerifier.checkIfAtLeastOnePayloadManifestsExist(this);
+    return isComplete(ignoreHiddenFiles, new ValidationOptionsBuilder().build());
+  }
+  
+  /**
+   * See <a href=
+   * "https://tools.ietf.org/html/draft-kunze-bagit#section-3">https://tools.ietf.org/html/draft-kunze-bagit#section-3</a><br>
+   * A bag is <b>complete</b> if <br>
+   * <ul>
+   * <li>every element is present
+   * <li>every file in the payload manifest(s) are present
+   * <li>every file in the tag manifest(s) are present. Tag files not listed in a
+   * tag manifest may be present.
+   * <li>every file in the data directory must be listed in at least one payload
+   * manifest
+   * <li>each element must comply with the bagit spec
+   * </ul>
+   * 
+   * @param ignoreHiddenFiles when checking to ignore hidden files
+   * @param options how to go about validating, for example if the memory used should be bounded
+   * 
+   * @return true or throws an exception
+   * 
+   * @throws InvalidBagitFileFormatException if the file(s) are not formatted correctly
+   * @throws IOException if there is a problem reading a file
+   * @throws CorruptChecksumException the checksum doesn't match what was listed in the manifest
+   * @throws FileNotInPayloadDirectoryException file listed in manifest but doesn't exist
+   * @throws MissingBagitFileException the bagit.txt file is missing
+   * @throws MissingPayloadDirectoryException if a bag is missing a payload directory
+   * @throws MissingPayloadManifestException if there is no payload manifest
+   * @throws MaliciousPathException if the path is specifying a path outside the bag
+   */
+  public boolean isComplete(final boolean ignoreHiddenFiles, final ValidationOptions options) throws IOException {
+    PhaseTimer.time(options.getListener(), Phase.CHECK_MANDATORY_FILES, () -> {
+      MandatoryVerifier.checkFetchItemsExist(itemsToFetch, rootDir);
+      MandatoryVerifier.checkBagitFileExists(this);
+      MandatoryVerifier.checkPayloadDirectoryExists(this);
+      MandatoryVerifier.checkIfAtLeastOnePayloadManifestsExist(this);
+    });
+    PayloadOxumVerifier.checkPayloadOxum(this, options);
 
-    ManifestVerifier.verifyManifests(this, ignoreHiddenFiles);
+    PhaseTimer.time(options.getListener(), Phase.CHECK_COMPLETENESS, () -> ManifestVerifier.verifyManifests(this, ignoreHiddenFiles, options));
     
     return true;
   }
@@ -326,6 +472,40 @@ public final class Bag {
    * @throws IOException if there is a problem writing the files
    */
   public Bag write(final Path writeTo) throws IOException {
+    return write(writeTo, 1);
+  }
+  
+  /**
+   * Write a bag to a physical location (on disk), copying up to maxConcurrentIo files at the same time.
+   * Each file is copied on its own thread, which on Java 21 and newer is a virtual thread.
+   * 
+   * @param writeTo the root location of the bag
+   * @param maxConcurrentIo the maximum number of files to copy at the same time, 1 copies them on the calling thread
+   * @return a new immutable bag
+   * @throws IOException if there is a problem writing the files
+   */
+  public Bag write(final Path writeTo, final int maxConcurrentIo) throws IOException {
+    return write(writeTo, maxConcurrentIo, BagOperationListener.NONE);
+  }
+  
+  /**
+   * Write a bag to a physical location (on disk), copying up to maxConcurrentIo files at the same time 
+   * and telling the listener each time a file has been copied.
+   * 
+   * @param writeTo the root location of the bag
+   * @param maxConcurrentIo the maximum number of files to copy at the same time, 1 copies them on the calling thread
+   * @param listener who to tell about the progress of writing the bag
+   * @return a new immutable bag
+   * @throws IOException if there is a problem writing the files
+   */
+  public Bag write(final Path writeTo, final int maxConcurrentIo, final BagOperationListener listener) throws IOException {
+    if(maxConcurrentIo < 1) {
+      throw new IllegalArgumentException("Must copy at least 1 file at a time but was [" + maxConcurrentIo + "]");
+    }
+    return PhaseTimer.compute(listener, Phase.WRITE_BAG, () -> writeBag(writeTo, maxConcurrentIo, listener));
+  }
+  
+  private Bag writeBag(final Path writeTo, final int maxConcurrentIo, final BagOperationListener listener) throws IOException {
     if(Files.exists(rootDir) && writeTo.equals(rootDir)) {
       logger.warn(messages.getString("skipping_write_to_same_location"), writeTo);
     }
@@ -345,11 +525,11 @@ public final class Bag {
     	fetchFile = Optional.of(FetchWriter.writeFetchFile(itemsToFetch, writeTo, version, fileEncoding));
     }
     
-    final Set<Manifest> newPayloadManifests = writeManifests(writeTo, payLoadManifests);
+    final Set<Manifest> newPayloadManifests = writeManifests(writeTo, payLoadManifests, maxConcurrentIo, listener);
     final Set<Path> newPayloadManifestFiles = ManifestWriter.writePayloadManifests(newPayloadManifests, writeTo, version, fileEncoding);
     final Set<Manifest> updatedTagManifests = updateTagManifests(bagitFile, newPayloadManifestFiles, metadataFile, fetchFile);
     
-    final Set<Manifest> newTagManifests = writeManifests(writeTo, updatedTagManifests);
+    final Set<Manifest> newTagManifests = writeManifests(writeTo, updatedTagManifests, maxConcurrentIo, listener);
     ManifestWriter.writeTagManifests(newTagManifests, writeTo, version, fileEncoding);
     
     return new Bag(version, fileEncoding, newPayloadManifests, newTagManifests, itemsToFetch, metadata, writeTo);
@@ -385,34 +565,86 @@ public final class Bag {
   }
   
   @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-  private Set<Manifest> writeManifests(final Path writeTo, final Set<Manifest> manifests) throws IOException{
+  private Set<Manifest> writeManifests(final Path writeTo, final Set<Manifest> manifests, final int maxConcurrentIo, 
+      final BagOperationListener listener) throws IOException{
     final Set<Manifest> newTagManifests = new HashSet<>();
+    //the same file is usually listed in every manifest, but should only be copied once
+    final Map<Path, Path> filesToCopy = new LinkedHashMap<>();
 
     for(final Manifest manifest : manifests) {
       final ManifestBuilder manifestBuilder = new ManifestBuilder(manifest.getBagitAlgorithmName());
       
       for(final ManifestEntry entry : manifest.getEntries()) {
-        updateEntry(writeTo, manifestBuilder, entry);
+        //update physical location in new manifest entry
+        final ManifestEntry newEntry = new ManifestEntry(writeTo.resolve(entry.getRelativeLocation()), entry.getRelativeLocation(), entry.getChecksum());
+        manifestBuilder.addEntry(newEntry);
+        filesToCopy.putIfAbsent(newEntry.getPhysicalLocation(), entry.getPhysicalLocation());
       }
       
       newTagManifests.add(manifestBuilder.build());
     }
+    
+    if(maxConcurrentIo == 1) {
+      for(final Entry<Path, Path> file : filesToCopy.entrySet()) {
+        copyIfNeeded(file.getValue(), file.getKey(), listener);
+      }
+    }
+    else {
+      copyConcurrently(filesToCopy, maxConcurrentIo, listener);
+    }
     return newTagManifests;
   }
   
-  private void updateEntry(final Path writeTo, final ManifestBuilder manifestBuilder, final ManifestEntry entry) throws IOException {
-    //update physical location in new manifest entry
-    final ManifestEntry newEntry = new ManifestEntry(writeTo.resolve(entry.getRelativeLocation()), entry.getRelativeLocation(), entry.getChecksum());
-    manifestBuilder.addEntry(newEntry);
-    //copy to new location
-    createDirectoriesIfNeeded(newEntry);
-    if(!Files.exists(newEntry.getPhysicalLocation())) {
-      Files.copy(entry.getPhysicalLocation(), newEntry.getPhysicalLocation(), StandardCopyOption.REPLACE_EXISTING);
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  private static void copyConcurrently(final Map<Path, Path> filesToCopy, final int maxConcurrentIo, 
+      final BagOperationListener listener) throws IOException {
+    final ExecutorService executor = PerFileExecutors.newExecutor(maxConcurrentIo);
+    final List<Future<Void>> futures = new ArrayList<>(filesToCopy.size());
+    try {
+      for(final Entry<Path, Path> file : filesToCopy.entrySet()) {
+        futures.add(executor.submit(() -> {
+          copyIfNeeded(file.getValue(), file.getKey(), listener);
+          return null;
+        }));
+      }
+      for(final Future<Void> future : futures) {
+        future.get();
+      }
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(e.getMessage());
+    }
+    catch(ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if(cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if(cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+  
+  private static void copyIfNeeded(final Path source, final Path destination, final BagOperationListener listener) throws IOException {
+    createDirectoriesIfNeeded(destination);
+    if(!Files.exists(destination)) {
+      final FileCopiedEvent event = new FileCopiedEvent();
+      final long start = System.nanoTime();
+      event.begin();
+      Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING);
+      final long size = Files.size(destination);
+      event.finish(source, destination, size, List.of());
+      listener.fileProcessed(destination, size, Duration.ofNanos(System.nanoTime() - start));
     }
   }
   
-  private void createDirectoriesIfNeeded(final ManifestEntry entry) throws IOException {
-    final Path newParentLocation = entry.getPhysicalLocation().getParent();
+  private static void createDirectoriesIfNeeded(final Path file) throws IOException {
+    final Path newParentLocation = file.getParent();
     if(newParentLocation != null && !Files.exists(newParentLocation)) {
       Files.createDirectories(newParentLocation);
     }
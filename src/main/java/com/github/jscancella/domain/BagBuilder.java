@@ -14,12 +14,17 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.jscancella.domain.Manifest.ManifestBuilder;
+import com.github.jscancella.domain.Manifest.MultiManifestBuilder;
 import com.github.jscancella.domain.Metadata.MetadataBuilder;
 import com.github.jscancella.domain.internal.PathPair;
 import com.github.jscancella.exceptions.InvalidBagStateException;
 import com.github.jscancella.exceptions.NoSuchBagitAlgorithmException;
 import com.github.jscancella.hash.BagitChecksumNameMapping;
+import com.github.jscancella.hash.internal.MultiAlgorithmHasher;
+import com.github.jscancella.hash.read.FileReadStrategy;
+import com.github.jscancella.internal.PhaseTimer;
+import com.github.jscancella.progress.BagOperationListener;
+import com.github.jscancella.progress.BagOperationListener.Phase;
 
 /**
  * Used to conveniently create a bag programmatically and incrementally
@@ -38,6 +43,9 @@ public final class BagBuilder {
   private final MetadataBuilder metadataBuilder = new MetadataBuilder();
   // the current location of the bag on the filesystem
   private Path rootDir;
+  private boolean hashWhileCopying;
+  private BagOperationListener listener = BagOperationListener.NONE;
+  private FileReadStrategy readStrategy = MultiAlgorithmHasher.DEFAULT_READ_STRATEGY;
 
   /**
    * Set the bagit specification version
@@ -164,6 +172,45 @@ public final class BagBuilder {
     return this;
   }
 
+  /**
+   * Compute the checksums while copying the files into the bag, instead of hashing the original files and then copying them.
+   * This reads each file only once and the checksums describe exactly the bytes that were written to the bag.
+   * Defaults to false.
+   * 
+   * @param shouldHashWhileCopying true to hash the files while they are copied into the bag
+   * @return this builder so as to chain commands
+   */
+  public BagBuilder hashWhileCopying(final boolean shouldHashWhileCopying) {
+    this.hashWhileCopying = shouldHashWhileCopying;
+    return this;
+  }
+
+  /**
+   * Set how files are read when they are hashed, for example a {@link com.github.jscancella.hash.read.ReadAheadReadStrategy}
+   * so that the next part of a very large file is read while the current one is being hashed.
+   * Not used when {@link #hashWhileCopying(boolean)}, as the files are hashed from the bytes being copied.
+   * Defaults to reading into a buffer on the heap.
+   * 
+   * @param strategy how to read each file
+   * @return this builder so as to chain commands
+   */
+  public BagBuilder readStrategy(final FileReadStrategy strategy) {
+    this.readStrategy = strategy;
+    return this;
+  }
+
+  /**
+   * Tell the listener when each phase of creating the bag starts and finishes and each time a file has been hashed or copied, 
+   * for example a {@link com.github.jscancella.progress.ProgressAggregator} to find the throughput.
+   * 
+   * @param progressListener who to tell about the progress of creating the bag
+   * @return this builder so as to chain commands
+   */
+  public BagBuilder listener(final BagOperationListener progressListener) {
+    this.listener = progressListener;
+    return this;
+  }
+
   /**
    * Write the bag out to a physical location (on disk)
    * 
@@ -175,10 +222,12 @@ public final class BagBuilder {
       throw new InvalidBagStateException("Bags must have a root directory");
     }
 
-    final Bag bag = new Bag(this.specificationVersion, this.tagFilesEncoding, createPayloadManifests(),
-        createTagManifests(), this.itemsToFetch, metadataBuilder.build(), this.rootDir);
+    final Set<Manifest> payloadManifests = PhaseTimer.compute(listener, Phase.BUILD_PAYLOAD_MANIFESTS, this::createPayloadManifests);
+    final Set<Manifest> tagManifests = PhaseTimer.compute(listener, Phase.BUILD_TAG_MANIFESTS, this::createTagManifests);
+    final Bag bag = new Bag(this.specificationVersion, this.tagFilesEncoding, payloadManifests,
+        tagManifests, this.itemsToFetch, metadataBuilder.build(), this.rootDir);
 
-    return bag.write(this.rootDir);
+    return bag.write(this.rootDir, 1, listener);
   }
 
   /**
@@ -186,44 +235,37 @@ public final class BagBuilder {
    * @return the set of manifests for the bag
    * @throws IOException if unable to write the tag manifests
    */
-  @SuppressWarnings({"PMD.AvoidInstantiatingObjectsInLoops", "PMD.AvoidProtectedMethodInFinalClassNotExtending"})
+  @SuppressWarnings("PMD.AvoidProtectedMethodInFinalClassNotExtending")
   protected Set<Manifest> createTagManifests() throws IOException {
-    final Set<Manifest> manifests = new HashSet<>();
+    final MultiManifestBuilder builder = new MultiManifestBuilder(bagitAlgorithmNames, listener).readStrategy(readStrategy);
 
-    for (final String name : bagitAlgorithmNames) {
-      final ManifestBuilder builder = new ManifestBuilder(name);
-
-      for (final Path tagFile : tagFiles) {
-        builder.addFile(tagFile, Paths.get(""));
-      }
-
-      manifests.add(builder.build());
+    for (final Path tagFile : tagFiles) {
+      addFile(builder, tagFile, Paths.get(""));
     }
 
-    return manifests;
+    return builder.build();
   }
 
-  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  /*
+   * each payload file is read once and hashed with every algorithm at the same time
+   */
   private Set<Manifest> createPayloadManifests() throws IOException {
-    final Set<Manifest> manifests = new HashSet<>();
-    logger.debug("building payload manifests");
-
-    for (final String name : bagitAlgorithmNames) {
-      logger.debug("building payload manifest for algorithm [{}]", name);
-      final ManifestBuilder builder = new ManifestBuilder(name);
-      for (final PathPair pair : payloadFiles) {
-//        logger.debug("source [{}] file should be located at [{}] relative to the bag's root directory", pair.getPayloadFile(), pair.getRelativeLocation());
-//        final Path fullPathToNewLocation = rootDir.resolve(pair.getRelativeLocation());
-//        logger.debug("full path to new location [{}]", fullPathToNewLocation);
-//        final Path relativeToBaseDir = rootDir.relativize(fullPathToNewLocation);
-//        logger.debug("relative to base dir [{}]", relativeToBaseDir);
-//        builder.addFile(pair.getPayloadFile(), relativeToBaseDir);
-        builder.addFile(pair.getPayloadFile(), Paths.get(pair.getRelativeLocation()));
-      }
-
-      manifests.add(builder.build());
+    logger.debug("building payload manifests for algorithms {}", bagitAlgorithmNames);
+    final MultiManifestBuilder builder = new MultiManifestBuilder(bagitAlgorithmNames, listener).readStrategy(readStrategy);
+    
+    for (final PathPair pair : payloadFiles) {
+      addFile(builder, pair.getPayloadFile(), Paths.get(pair.getRelativeLocation()));
     }
 
-    return manifests;
+    return builder.build();
+  }
+  
+  private void addFile(final MultiManifestBuilder builder, final Path file, final Path relative) throws IOException {
+    if(hashWhileCopying) {
+      builder.copyFile(file, relative, rootDir);
+    }
+    else {
+      builder.addFile(file, relative);
+    }
   }
 }
@@ -4,15 +4,29 @@ package com.github.jscancella.domain;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
+import com.github.jscancella.domain.internal.CompactManifestEntryList;
 import com.github.jscancella.domain.internal.EclipseGenerated;
 import com.github.jscancella.domain.internal.ManifestBuilderVistor;
+import com.github.jscancella.domain.internal.MultiManifestBuilderVistor;
 import com.github.jscancella.hash.BagitChecksumNameMapping;
 import com.github.jscancella.hash.Hasher;
+import com.github.jscancella.hash.internal.MultiAlgorithmHasher;
+import com.github.jscancella.hash.read.FileReadStrategy;
+import com.github.jscancella.internal.jfr.TreeWalkedEvent;
+import com.github.jscancella.progress.BagOperationListener;
 
 /**
  * A manifest is a list of files,their corresponding checksum generated using {@link com.github.jscancella.hash.Hasher}, and their relative path in the bag
@@ -71,6 +85,7 @@ public final class Manifest {
   public static final class ManifestBuilder {
     private String algorithmName;
     private Hasher hasher;
+    private FileReadStrategy readStrategy = MultiAlgorithmHasher.DEFAULT_READ_STRATEGY;
     private final List<ManifestEntry> entries;
     
     /**
@@ -81,6 +96,18 @@ public final class Manifest {
       this.entries = new ArrayList<>();
     }
     
+    /**
+     * Build a manifest that stores its entries compactly, for manifests with a very large number of entries.
+     * The entries are recreated when requested, and their physical location is always computed from the root directory.
+     * 
+     * @param bagitAlgorithmName the bagit algorithm name
+     * @param bagRootDir the root directory of the bag that the entries are relative to
+     */
+    public ManifestBuilder(final String bagitAlgorithmName, final Path bagRootDir){
+      this.bagitAlgorithmName(bagitAlgorithmName);
+      this.entries = new CompactManifestEntryList(bagRootDir);
+    }
+    
     /**
      * because a manifest is immutable, if you want to clone and edit you must return a manifest builder
      * @param manifestToClone the manifest you wish to clone and optionally change
@@ -102,6 +129,18 @@ public final class Manifest {
       return this;
     }
     
+    /**
+     * Set how files are read when they are added, for example a {@link com.github.jscancella.hash.read.ReadAheadReadStrategy}
+     * to read the next part of a very large file while the current one is being hashed. Defaults to reading into a buffer on the heap.
+     * 
+     * @param strategy how to read each file
+     * @return this builder for chaining
+     */
+    public ManifestBuilder readStrategy(final FileReadStrategy strategy) {
+      this.readStrategy = strategy;
+      return this;
+    }
+    
     /**
      * a convenience method for adding an entry from another manifest
      * @param entry the entry
@@ -123,14 +162,14 @@ public final class Manifest {
      */
     public ManifestBuilder addFile(final Path file, final Path relative) throws IOException {
       if(Files.isDirectory(file)) {
-        final ManifestBuilderVistor vistor = new ManifestBuilderVistor(file, relative, hasher);
-        Files.walkFileTree(file, vistor);
+        final ManifestBuilderVistor vistor = new ManifestBuilderVistor(file, relative, hasher, readStrategy);
+        TreeWalkedEvent.walkFileTree(file, vistor, "manifest");
         entries.addAll(vistor.getEntries());
       }
       else {
         final Path physicalLocation = file.toAbsolutePath();
         final Path relativeLocation = relative.resolve(file.getFileName());
-        final String checksum = hasher.hash(physicalLocation);
+        final String checksum = MultiAlgorithmHasher.hash(physicalLocation, hasher, readStrategy);
         final ManifestEntry entry = new ManifestEntry(physicalLocation, relativeLocation, checksum);
         entries.add(entry);
       }
@@ -142,6 +181,9 @@ public final class Manifest {
      * @return the manifest
      */
     public Manifest build() {
+      if(entries instanceof CompactManifestEntryList) {
+        ((CompactManifestEntryList) entries).trimToSize();
+      }
       return new Manifest(algorithmName, entries);
     }
 
@@ -152,4 +194,125 @@ public final class Manifest {
       return algorithmName;
     }
   }
+  
+  /**
+   * Programmatically build a manifest for each of several algorithms at the same time.
+   * Each file is only read once no matter how many algorithms are used.
+   */
+  @SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+  public static final class MultiManifestBuilder {
+    private final Map<String, Hasher> hashers;
+    private final Map<String, List<ManifestEntry>> entries;
+    private final BagOperationListener listener;
+    private FileReadStrategy readStrategy = MultiAlgorithmHasher.DEFAULT_READ_STRATEGY;
+    
+    /**
+     * @param bagitAlgorithmNames the bagit algorithm names, one manifest will be built for each
+     */
+    public MultiManifestBuilder(final Collection<String> bagitAlgorithmNames){
+      this(bagitAlgorithmNames, BagOperationListener.NONE);
+    }
+    
+    /**
+     * @param bagitAlgorithmNames the bagit algorithm names, one manifest will be built for each
+     * @param listener who to tell each time a file has been hashed
+     */
+    public MultiManifestBuilder(final Collection<String> bagitAlgorithmNames, final BagOperationListener listener){
+      this.listener = listener;
+      this.hashers = new LinkedHashMap<>();
+      this.entries = new LinkedHashMap<>();
+      for(final String name : bagitAlgorithmNames) {
+        hashers.put(name, BagitChecksumNameMapping.get(name));
+        entries.put(name, new ArrayList<>());
+      }
+    }
+    
+    /**
+     * Set how files are read when they are only hashed, for example a {@link com.github.jscancella.hash.read.ReadAheadReadStrategy}
+     * to read the next part of a very large file while the current one is being hashed. Files that are copied into the bag
+     * are hashed from the bytes being copied instead. Defaults to reading into a buffer on the heap.
+     * 
+     * @param strategy how to read each file
+     * @return this builder for chaining
+     */
+    public MultiManifestBuilder readStrategy(final FileReadStrategy strategy) {
+      this.readStrategy = strategy;
+      return this;
+    }
+    
+    /**
+     * Add a file or directory on disk to all the manifests
+     * 
+     * @param file the file or directory to add to the manifests
+     * @param relative the relative path to put this in the bag
+     * @return the builder for chaining
+     * @throws IOException if the file or directory can't be read
+     */
+    public MultiManifestBuilder addFile(final Path file, final Path relative) throws IOException {
+      return addFile(file, relative, Optional.empty());
+    }
+    
+    /**
+     * Copy a file or directory on disk into the bag and add it to all the manifests.
+     * The checksums are computed from the same bytes that are written, so the source is only read once.
+     * The resulting entries point to the copied files.
+     * 
+     * @param file the file or directory to copy and add to the manifests
+     * @param relative the relative path to put this in the bag
+     * @param bagRootDir the root directory of the bag to copy into
+     * @return the builder for chaining
+     * @throws IOException if the file or directory can't be read or written
+     */
+    public MultiManifestBuilder copyFile(final Path file, final Path relative, final Path bagRootDir) throws IOException {
+      return addFile(file, relative, Optional.of(bagRootDir));
+    }
+    
+    private MultiManifestBuilder addFile(final Path file, final Path relative, final Optional<Path> copyToRootDir) throws IOException {
+      if(Files.isDirectory(file)) {
+        final MultiManifestBuilderVistor vistor = new MultiManifestBuilderVistor(file, relative, hashers, copyToRootDir, listener, readStrategy);
+        TreeWalkedEvent.walkFileTree(file, vistor, "manifest");
+        for(final Entry<String, List<ManifestEntry>> vistorEntries : vistor.getEntries().entrySet()) {
+          entries.get(vistorEntries.getKey()).addAll(vistorEntries.getValue());
+        }
+      }
+      else {
+        final Path relativeLocation = relative.resolve(file.getFileName());
+        Path physicalLocation = file.toAbsolutePath();
+        final Map<String, String> checksums;
+        final long start = System.nanoTime();
+        if(copyToRootDir.isPresent()) {
+          final Path destination = copyToRootDir.get().resolve(relativeLocation).toAbsolutePath();
+          checksums = MultiManifestBuilderVistor.copyAndHash(physicalLocation, destination, hashers);
+          physicalLocation = destination;
+        }
+        else {
+          checksums = MultiAlgorithmHasher.hash(physicalLocation, hashers, readStrategy);
+        }
+        listener.fileProcessed(physicalLocation, Files.size(physicalLocation), Duration.ofNanos(System.nanoTime() - start));
+        for(final Entry<String, String> checksum : checksums.entrySet()) {
+          entries.get(checksum.getKey()).add(new ManifestEntry(physicalLocation, relativeLocation, checksum.getValue()));
+        }
+      }
+      
+      return this;
+    }
+    
+    /**
+     * @return a manifest for each of the algorithms
+     */
+    public Set<Manifest> build() {
+      final Set<Manifest> manifests = new HashSet<>();
+      for(final Entry<String, List<ManifestEntry>> manifestEntries : entries.entrySet()) {
+        manifests.add(new Manifest(manifestEntries.getKey(), new ArrayList<>(manifestEntries.getValue())));
+      }
+      return manifests;
+    }
+    
+    /**
+     * @return the checksum algorithm names
+     */
+    public Set<String> getAlgorithmNames(){
+      return Collections.unmodifiableSet(hashers.keySet());
+    }
+  }
 }
@@ -0,0 +1,239 @@
+package com.github.jscancella.domain.internal;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import com.github.jscancella.domain.ManifestEntry;
+
+/**
+ * A memory efficient list of {@link ManifestEntry} for manifests with a very large number of entries.
+ * Instead of keeping each entry as an object, the relative paths are stored as a tree of shared path segments,
+ * the checksums are stored as raw bytes in a single packed array, and the physical location is computed from the
+ * root directory of the bag. Entries are created on demand when requested.
+ * Any entry that can't be stored this way (for example a checksum with mixed case hex) is kept as is.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.AvoidFieldNameMatchingMethodName"})
+public final class CompactManifestEntryList extends AbstractList<ManifestEntry> implements RandomAccess {
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int NO_PARENT = -1;
+  private static final int UNKNOWN = -1;
+  private static final HexFormat LOWER_CASE = HexFormat.of();
+  private static final HexFormat UPPER_CASE = HexFormat.of().withUpperCase();
+
+  private final Path rootDir;
+  private int size;
+  private int[] entryNodes = new int[INITIAL_CAPACITY];
+  private byte[] checksums = new byte[0];
+  private int checksumLength = UNKNOWN;
+  private final BitSet upperCaseChecksums = new BitSet();
+  private final Map<Integer, ManifestEntry> uncompactableEntries = new HashMap<>();
+
+  //the path segments tree, each node is a single segment of a path (a file or directory name)
+  private int nodeCount;
+  private int[] nodeParents = new int[INITIAL_CAPACITY];
+  private String[] nodeNames = new String[INITIAL_CAPACITY];
+  private Map<Node, Integer> nodeLookup = new HashMap<>();
+
+  /**
+   * @param rootDir the root directory of the bag, used to compute the physical location of each entry
+   */
+  public CompactManifestEntryList(final Path rootDir) {
+    super();
+    this.rootDir = Paths.get(rootDir.toAbsolutePath().toString());
+  }
+
+  @Override
+  public boolean add(final ManifestEntry entry) {
+    final int index = size;
+    ensureEntryCapacity(index + 1);
+    size++;
+
+    if(!compact(index, entry) || !entry.equals(get(index))) {
+      uncompactableEntries.put(index, entry);
+    }
+
+    return true;
+  }
+
+  private boolean compact(final int index, final ManifestEntry entry) {
+    final Path relative = entry.getRelativeLocation();
+    int node = NO_PARENT;
+    for(final Path segment : relative) {
+      node = addNode(node, segment.toString());
+    }
+    entryNodes[index] = node;
+
+    return node != NO_PARENT && compactChecksum(index, entry.getChecksum());
+  }
+
+  private boolean compactChecksum(final int index, final String checksum) {
+    boolean isCompacted = false;
+    if(checksumLength == UNKNOWN && checksum.length() > 0 && checksum.length() % 2 == 0) {
+      checksumLength = checksum.length() / 2;
+    }
+
+    if(checksumLength != UNKNOWN && checksum.length() == checksumLength * 2) {
+      //hex that is all digits is both, mixed case hex can't be recreated so it isn't compacted
+      final boolean isUpperCase = checksum.equals(checksum.toUpperCase(Locale.ROOT));
+      final boolean isLowerCase = checksum.equals(checksum.toLowerCase(Locale.ROOT));
+      if(isUpperCase || isLowerCase) {
+        isCompacted = parseChecksum(index, checksum);
+        upperCaseChecksums.set(index, !isLowerCase);
+      }
+    }
+
+    return isCompacted;
+  }
+
+  private boolean parseChecksum(final int index, final String checksum) {
+    boolean isParsed = true;
+    try {
+      final byte[] bytes = LOWER_CASE.parseHex(checksum);
+      ensureChecksumCapacity((index + 1) * checksumLength);
+      System.arraycopy(bytes, 0, checksums, index * checksumLength, checksumLength);
+    }
+    catch(IllegalArgumentException e) {
+      isParsed = false;
+    }
+    return isParsed;
+  }
+
+  private int addNode(final int parent, final String name) {
+    if(nodeLookup == null) {
+      rebuildNodeLookup();
+    }
+    final Node key = new Node(parent, name);
+    Integer node = nodeLookup.get(key);
+    if(node == null) {
+      node = nodeCount;
+      ensureNodeCapacity(nodeCount + 1);
+      nodeParents[nodeCount] = parent;
+      nodeNames[nodeCount] = name;
+      nodeCount++;
+      nodeLookup.put(key, node);
+    }
+    return node;
+  }
+
+  @Override
+  public ManifestEntry get(final int index) {
+    Objects.checkIndex(index, size);
+    ManifestEntry entry = uncompactableEntries.get(index);
+
+    if(entry == null) {
+      final Path relative = toRelativePath(entryNodes[index]);
+      entry = new ManifestEntry(rootDir.resolve(relative), relative, toChecksum(index));
+    }
+
+    return entry;
+  }
+
+  private Path toRelativePath(final int leafNode) {
+    int depth = 0;
+    for(int node = leafNode; node != NO_PARENT; node = nodeParents[node]) {
+      depth++;
+    }
+
+    final String[] segments = new String[depth];
+    int node = leafNode;
+    for(int segmentIndex = depth - 1; segmentIndex >= 0; segmentIndex--) {
+      segments[segmentIndex] = nodeNames[node];
+      node = nodeParents[node];
+    }
+
+    return Paths.get(segments[0], Arrays.copyOfRange(segments, 1, depth));
+  }
+
+  private String toChecksum(final int index) {
+    final HexFormat format = upperCaseChecksums.get(index) ? UPPER_CASE : LOWER_CASE;
+    return format.formatHex(checksums, index * checksumLength, (index + 1) * checksumLength);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Free any extra memory that was reserved for adding more entries
+   */
+  public void trimToSize() {
+    entryNodes = Arrays.copyOf(entryNodes, size);
+    checksums = Arrays.copyOf(checksums, Math.max(0, size * Math.max(0, checksumLength)));
+    nodeParents = Arrays.copyOf(nodeParents, nodeCount);
+    nodeNames = Arrays.copyOf(nodeNames, nodeCount);
+    nodeLookup = null; //only needed while adding, can be rebuilt from the nodes if needed
+  }
+
+  private void rebuildNodeLookup() {
+    nodeLookup = new HashMap<>();
+    for(int node = 0; node < nodeCount; node++) {
+      nodeLookup.put(new Node(nodeParents[node], nodeNames[node]), node);
+    }
+  }
+
+  private void ensureEntryCapacity(final int capacity) {
+    if(capacity > entryNodes.length) {
+      entryNodes = Arrays.copyOf(entryNodes, grow(entryNodes.length, capacity));
+    }
+  }
+
+  private void ensureChecksumCapacity(final int capacity) {
+    if(capacity > checksums.length) {
+      checksums = Arrays.copyOf(checksums, grow(checksums.length, capacity));
+    }
+  }
+
+  private void ensureNodeCapacity(final int capacity) {
+    if(capacity > nodeParents.length) {
+      final int newLength = grow(nodeParents.length, capacity);
+      nodeParents = Arrays.copyOf(nodeParents, newLength);
+      nodeNames = Arrays.copyOf(nodeNames, newLength);
+    }
+  }
+
+  private static int grow(final int currentLength, final int minimumLength) {
+    return Math.max(minimumLength, currentLength + (currentLength >> 1) + 1);
+  }
+
+  /**
+   * @return the number of distinct path segments stored
+   */
+  public int getNumberOfPathSegments() {
+    return nodeCount;
+  }
+
+  private static final class Node {
+    private final int parent;
+    private final String name;
+
+    private Node(final int parent, final String name) {
+      this.parent = parent;
+      this.name = name;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * parent + name.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      boolean isEqual = false;
+      if(obj instanceof Node) {
+        final Node other = (Node) obj;
+        isEqual = parent == other.parent && name.equals(other.name);
+      }
+      return isEqual;
+    }
+  }
+}
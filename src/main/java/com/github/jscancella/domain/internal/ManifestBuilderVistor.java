@@ -15,6 +15,8 @@ import org.slf4j.LoggerFactory;
 
 import com.github.jscancella.domain.ManifestEntry;
 import com.github.jscancella.hash.Hasher;
+import com.github.jscancella.hash.internal.MultiAlgorithmHasher;
+import com.github.jscancella.hash.read.FileReadStrategy;
 
 /**
  * Creates a manifest from the supplied starting point
@@ -27,6 +29,7 @@ public final class ManifestBuilderVistor extends SimpleFileVisitor<Path> {
   private final Path startingPoint;
   private final Path relative;
   private final Hasher hasher;
+  private final FileReadStrategy readStrategy;
   
   /**
    * Create a manifest from the starting point
@@ -36,24 +39,43 @@ public final class ManifestBuilderVistor extends SimpleFileVisitor<Path> {
    * @param hasher the hashing implementation
    */
   public ManifestBuilderVistor(final Path startingPoint, final Path relative, final Hasher hasher) {
+    this(startingPoint, relative, hasher, MultiAlgorithmHasher.DEFAULT_READ_STRATEGY);
+  }
+  
+  /**
+   * Create a manifest from the starting point, reading each file with the read strategy
+   * 
+   * @param startingPoint used for determining the relative path
+   * @param relative the relative place to start in the bag (must include data if a payload path)
+   * @param hasher the hashing implementation
+   * @param readStrategy how to read each file
+   */
+  public ManifestBuilderVistor(final Path startingPoint, final Path relative, final Hasher hasher, final FileReadStrategy readStrategy) {
     super();
     this.entries =  new ArrayList<>();
-    final Path absoluteStartingPoint = Paths.get(startingPoint.toAbsolutePath().toString());
-    if(absoluteStartingPoint.getParent() == null) {
-      this.startingPoint = absoluteStartingPoint;
-    }
-    else {
-      this.startingPoint = absoluteStartingPoint.getParent();
-    }
+    this.startingPoint = computeStartingPoint(startingPoint);
     this.relative = relative;
     this.hasher = hasher;
+    this.readStrategy = readStrategy;
+  }
+  
+  /*
+   * the relative path of each file includes the name of the directory being added, so start from its parent
+   */
+  static Path computeStartingPoint(final Path startingPoint) {
+    final Path absoluteStartingPoint = Paths.get(startingPoint.toAbsolutePath().toString());
+    Path computedStartingPoint = absoluteStartingPoint;
+    if(absoluteStartingPoint.getParent() != null) {
+      computedStartingPoint = absoluteStartingPoint.getParent();
+    }
+    return computedStartingPoint;
   }
 
   @Override
   public FileVisitResult visitFile(final Path path, final BasicFileAttributes attrs) throws IOException{
     final Path physicalLocation = path.toAbsolutePath();
     final Path relativeLocation = relative.resolve(startingPoint.relativize(physicalLocation));
-    final String checksum = hasher.hash(physicalLocation);
+    final String checksum = MultiAlgorithmHasher.hash(physicalLocation, hasher, readStrategy);
     final ManifestEntry entry = new ManifestEntry(physicalLocation, relativeLocation, checksum);
     
     logger.debug(messages.getString("adding_manifest_entry"), entry);
@@ -0,0 +1,187 @@
+package com.github.jscancella.domain.internal;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.ResourceBundle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.jscancella.domain.ManifestEntry;
+import com.github.jscancella.hash.Hasher;
+import com.github.jscancella.hash.internal.MultiAlgorithmHasher;
+import com.github.jscancella.hash.read.FileReadStrategy;
+import com.github.jscancella.progress.BagOperationListener;
+
+/**
+ * Creates the entries for multiple manifests from the supplied starting point, reading each file only once.
+ * Optionally copies each file into the bag at the same time.
+ */
+public final class MultiManifestBuilderVistor extends SimpleFileVisitor<Path> {
+  private static final Logger logger = LoggerFactory.getLogger(MultiManifestBuilderVistor.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  
+  private final Map<String, List<ManifestEntry>> entries;
+  private final Path startingPoint;
+  private final Path relative;
+  private final Map<String, Hasher> hashers;
+  private final Optional<Path> copyToRootDir;
+  private final BagOperationListener listener;
+  private final FileReadStrategy readStrategy;
+  
+  /**
+   * Create the entries for multiple manifests from the starting point
+   * 
+   * @param startingPoint used for determining the relative path
+   * @param relative the relative place to start in the bag (must include data if a payload path)
+   * @param hashers the bagit algorithm name mapped to the hashing implementation
+   */
+  public MultiManifestBuilderVistor(final Path startingPoint, final Path relative, final Map<String, Hasher> hashers) {
+    this(startingPoint, relative, hashers, Optional.empty());
+  }
+  
+  /**
+   * Create the entries for multiple manifests from the starting point, optionally copying each file into the bag
+   * while it is being hashed. When copying, the entries point to the copied files.
+   * 
+   * @param startingPoint used for determining the relative path
+   * @param relative the relative place to start in the bag (must include data if a payload path)
+   * @param hashers the bagit algorithm name mapped to the hashing implementation
+   * @param copyToRootDir the root directory of the bag to copy the files into, if any
+   */
+  public MultiManifestBuilderVistor(final Path startingPoint, final Path relative, final Map<String, Hasher> hashers, final Optional<Path> copyToRootDir) {
+    this(startingPoint, relative, hashers, copyToRootDir, BagOperationListener.NONE);
+  }
+  
+  /**
+   * Create the entries for multiple manifests from the starting point, optionally copying each file into the bag
+   * while it is being hashed, and telling the listener each time a file has been hashed.
+   * 
+   * @param startingPoint used for determining the relative path
+   * @param relative the relative place to start in the bag (must include data if a payload path)
+   * @param hashers the bagit algorithm name mapped to the hashing implementation
+   * @param copyToRootDir the root directory of the bag to copy the files into, if any
+   * @param listener who to tell each time a file has been hashed
+   */
+  public MultiManifestBuilderVistor(final Path startingPoint, final Path relative, final Map<String, Hasher> hashers, final Optional<Path> copyToRootDir,
+      final BagOperationListener listener) {
+    this(startingPoint, relative, hashers, copyToRootDir, listener, MultiAlgorithmHasher.DEFAULT_READ_STRATEGY);
+  }
+  
+  /**
+   * Same as {@link #MultiManifestBuilderVistor(Path, Path, Map, Optional, BagOperationListener)} but reads each file that isn't copied
+   * with the read strategy.
+   * 
+   * @param startingPoint used for determining the relative path
+   * @param relative the relative place to start in the bag (must include data if a payload path)
+   * @param hashers the bagit algorithm name mapped to the hashing implementation
+   * @param copyToRootDir the root directory of the bag to copy the files into, if any
+   * @param listener who to tell each time a file has been hashed
+   * @param readStrategy how to read each file that is only hashed
+   */
+  public MultiManifestBuilderVistor(final Path startingPoint, final Path relative, final Map<String, Hasher> hashers, final Optional<Path> copyToRootDir,
+      final BagOperationListener listener, final FileReadStrategy readStrategy) {
+    super();
+    this.entries = new HashMap<>();
+    this.startingPoint = ManifestBuilderVistor.computeStartingPoint(startingPoint);
+    this.relative = relative;
+    this.hashers = new HashMap<>(hashers);
+    this.copyToRootDir = copyToRootDir;
+    this.listener = listener;
+    this.readStrategy = readStrategy;
+  }
+
+  @Override
+  public FileVisitResult visitFile(final Path path, final BasicFileAttributes attrs) throws IOException{
+    final Path sourceLocation = path.toAbsolutePath();
+    final Path relativeLocation = relative.resolve(startingPoint.relativize(sourceLocation));
+    Path physicalLocation = sourceLocation;
+    final Map<String, String> checksums;
+    final long start = System.nanoTime();
+    
+    if(copyToRootDir.isPresent()) {
+      physicalLocation = copyToRootDir.get().resolve(relativeLocation).toAbsolutePath();
+      checksums = copyAndHash(sourceLocation, physicalLocation, hashers);
+    }
+    else {
+      checksums = MultiAlgorithmHasher.hash(sourceLocation, hashers, readStrategy);
+    }
+    listener.fileProcessed(physicalLocation, attrs.size(), Duration.ofNanos(System.nanoTime() - start));
+    
+    for(final Entry<String, String> checksum : checksums.entrySet()) {
+      final ManifestEntry entry = new ManifestEntry(physicalLocation, relativeLocation, checksum.getValue());
+      logger.debug(messages.getString("adding_manifest_entry"), entry);
+      entries.computeIfAbsent(checksum.getKey(), key -> new ArrayList<>()).add(entry);
+    }
+    
+    return FileVisitResult.CONTINUE;
+  }
+
+  /**
+   * Copy a file into the bag while hashing it. If the file is already at its destination it is only hashed.
+   * 
+   * @param source the file to copy
+   * @param destination the location in the bag to copy the file to
+   * @param hashers the bagit algorithm name mapped to the hashing implementation
+   * @return the bagit algorithm name mapped to the HEX formatted checksum of the file
+   * @throws IOException if there is a problem reading or writing the file
+   */
+  public static Map<String, String> copyAndHash(final Path source, final Path destination, final Map<String, Hasher> hashers) throws IOException {
+    final Map<String, String> checksums;
+    if(Files.exists(destination) && Files.isSameFile(source, destination)) {
+      checksums = MultiAlgorithmHasher.hash(source, hashers);
+    }
+    else {
+      final Path parent = destination.getParent();
+      if(parent != null) {
+        Files.createDirectories(parent);
+      }
+      logger.debug(messages.getString("copying_while_hashing"), source, destination);
+      checksums = MultiAlgorithmHasher.copyAndHash(source, destination, hashers);
+    }
+    return checksums;
+  }
+
+  /**
+   * @return the bagit algorithm name mapped to the list of entries for that manifest
+   */
+  public Map<String, List<ManifestEntry>> getEntries(){
+    final Map<String, List<ManifestEntry>> copy = new HashMap<>();
+    for(final Entry<String, List<ManifestEntry>> entry : entries.entrySet()) {
+      copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+    }
+    return copy;
+  }
+
+  /**
+   * @return the relative point to start at
+   */
+  public Path getStartingPoint(){
+    return startingPoint;
+  }
+
+  /**
+   * @return the root directory of the bag that files are copied into, if any
+   */
+  public Optional<Path> getCopyToRootDir() {
+    return copyToRootDir;
+  }
+
+  /**
+   * @return the relative path to the root of the bag
+   */
+  public Path getRelative() {
+    return relative;
+  }
+}
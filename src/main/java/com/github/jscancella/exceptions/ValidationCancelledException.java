@@ -0,0 +1,19 @@
+package com.github.jscancella.exceptions;
+
+/**
+ * Class to represent validation being stopped before it finished, because it was cancelled, 
+ * the thread doing it was interrupted, or its deadline passed.
+ */
+public class ValidationCancelledException extends VerificationException {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Class to represent validation being stopped before it finished, because it was cancelled, 
+   * the thread doing it was interrupted, or its deadline passed.
+   * 
+   * @param message error message for the user
+   */
+  public ValidationCancelledException(final String message){
+    super(message);
+  }
+}
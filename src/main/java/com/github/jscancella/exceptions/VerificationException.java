@@ -14,4 +14,13 @@ public class VerificationException extends RuntimeException {
   public VerificationException(final Exception exception){
     super(exception);
   }
+  
+  /**
+   * Class to represent an generic exception that happened during verification.
+   * 
+   * @param message error message for the user
+   */
+  public VerificationException(final String message){
+    super(message);
+  }
 }
@@ -1,9 +1,14 @@
 package com.github.jscancella.hash;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,10 +26,11 @@ import com.github.jscancella.hash.standard.SHA512Hasher;
 /**
  * Responsible for mapping between the bagit algorithm name and the actual implementation of that checksum.
  * By default this includes implementations {@link MD5Hasher}, {@link SHA1Hasher}, {@link SHA224Hasher}, {@link SHA256Hasher},
- *  {@link SHA384Hasher}, and {@link SHA512Hasher}.
+ *  {@link SHA384Hasher}, and {@link SHA512Hasher}, plus any {@link Hasher} listed in a 
+ *  {@code META-INF/services/com.github.jscancella.hash.Hasher} file on the classpath (see {@link ServiceLoader}).
  * To override a default implementation, simple add the same bagit algorithm name and new {@link Hasher} implementation. 
  * Example:
- * {@code BagitChecksumNameMapping.add("md5", new MyNewMD5Hasher());} 
+ * {@code BagitChecksumNameMapping.add("md5", MyNewMD5Hasher::new);} 
  */
 public enum BagitChecksumNameMapping {
   /**
@@ -33,15 +39,42 @@ public enum BagitChecksumNameMapping {
   INSTANCE;
   
   private static final Logger logger = LoggerFactory.getLogger(BagitChecksumNameMapping.class);
-  private final Map<String, Class<? extends Hasher>> map = new ConcurrentHashMap<>();
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  private final Map<String, Supplier<? extends Hasher>> map = new ConcurrentHashMap<>();
+  //changes every time the mapping changes so that hashers reused by a thread are replaced
+  private final AtomicLong generation = new AtomicLong();
+  private final ThreadLocal<ThreadHashers> threadHashers = ThreadLocal.withInitial(ThreadHashers::new);
 
   BagitChecksumNameMapping() {
-    map.put(MD5Hasher.BAGIT_ALGORITHM_NAME, MD5Hasher.class);
-    map.put(SHA1Hasher.BAGIT_ALGORITHM_NAME, SHA1Hasher.class);
-    map.put(SHA224Hasher.BAGIT_ALGORITHM_NAME, SHA224Hasher.class);
-    map.put(SHA256Hasher.BAGIT_ALGORITHM_NAME, SHA256Hasher.class);
-    map.put(SHA384Hasher.BAGIT_ALGORITHM_NAME, SHA384Hasher.class);
-    map.put(SHA512Hasher.BAGIT_ALGORITHM_NAME, SHA512Hasher.class);
+    map.put(MD5Hasher.BAGIT_ALGORITHM_NAME, MD5Hasher::new);
+    map.put(SHA1Hasher.BAGIT_ALGORITHM_NAME, SHA1Hasher::new);
+    map.put(SHA224Hasher.BAGIT_ALGORITHM_NAME, SHA224Hasher::new);
+    map.put(SHA256Hasher.BAGIT_ALGORITHM_NAME, SHA256Hasher::new);
+    map.put(SHA384Hasher.BAGIT_ALGORITHM_NAME, SHA384Hasher::new);
+    map.put(SHA512Hasher.BAGIT_ALGORITHM_NAME, SHA512Hasher::new);
+  }
+  
+  static {
+    //static fields of an enum aren't set until after the constructor runs, so this can't be done in the constructor
+    INSTANCE.loadServiceProviders();
+  }
+  
+  private void loadServiceProviders() {
+    try {
+      ServiceLoader.load(Hasher.class).stream().forEach(this::addServiceProvider);
+    } catch(ServiceConfigurationError e) {
+      logger.error(messages.getString("failed_to_load_hasher_service_providers"), e);
+    }
+  }
+  
+  private void addServiceProvider(final ServiceLoader.Provider<Hasher> provider) {
+    try {
+      final String bagitAlgorithmName = provider.get().getBagitAlgorithmName();
+      logger.debug(messages.getString("loaded_hasher_service_provider"), provider.type().getName(), bagitAlgorithmName);
+      map.put(bagitAlgorithmName, provider::get);
+    } catch(ServiceConfigurationError e) {
+      logger.error(messages.getString("failed_to_load_hasher_service_provider"), provider.type().getName(), e);
+    }
   }
   
   /**
@@ -51,7 +84,18 @@ public enum BagitChecksumNameMapping {
    * @return if the implementation was successfully added
    */
   public static boolean add(final String bagitAlgorithmName, final Class<? extends Hasher> implementation) {
-    INSTANCE.map.put(bagitAlgorithmName, implementation);
+    return add(bagitAlgorithmName, () -> newInstance(implementation, bagitAlgorithmName));
+  }
+  
+  /**
+   * map an implementation to the bagit algorithm name 
+   * @param bagitAlgorithmName the all lowercase name as defined in the specification
+   * @param factory creates a new instance of the implementation that will be used to compute the checksum, for example {@code MD5Hasher::new}
+   * @return if the implementation was successfully added
+   */
+  public static boolean add(final String bagitAlgorithmName, final Supplier<? extends Hasher> factory) {
+    INSTANCE.map.put(bagitAlgorithmName, factory);
+    INSTANCE.generation.incrementAndGet();
     return true;
   }
   
@@ -61,6 +105,7 @@ public enum BagitChecksumNameMapping {
    */
   public static void clear(final String bagitAlgorithmName) {
     INSTANCE.map.remove(bagitAlgorithmName);
+    INSTANCE.generation.incrementAndGet();
   }
   
   /**
@@ -73,25 +118,55 @@ public enum BagitChecksumNameMapping {
   }
   
   /**
-   * Get a specific implementation associated with the bagit algorithm name
+   * Get a new instance of the specific implementation associated with the bagit algorithm name
    * @param bagitAlgorithmName the name of the algorithm
    * @return specific implementation associated with the bagit algorithm name
    */
   public static Hasher get(final String bagitAlgorithmName){
-    if(!INSTANCE.map.containsKey(bagitAlgorithmName)) {
-      final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+    final Supplier<? extends Hasher> factory = INSTANCE.map.get(bagitAlgorithmName);
+    if(factory == null) {
       final String message = MessageFormatter.format(messages.getString("no_implementation_error"), bagitAlgorithmName, INSTANCE.toString()).getMessage();
       throw new NoSuchBagitAlgorithmException(message);
     }
     
+    final Hasher hasher = factory.get();
+    hasher.initialize();
+    return hasher;
+  }
+  
+  /**
+   * Get an implementation associated with the bagit algorithm name that belongs to the current thread. 
+   * The same instance is returned each time it is called from the same thread, so that multi-threaded callers 
+   * can reuse hashers without creating new ones for each file. 
+   * It must <b>not</b> be shared with other threads, and must be reset before it is used.
+   * 
+   * @param bagitAlgorithmName the name of the algorithm
+   * @return specific implementation associated with the bagit algorithm name, owned by the current thread
+   */
+  public static Hasher getForCurrentThread(final String bagitAlgorithmName) {
+    final ThreadHashers hashers = INSTANCE.threadHashers.get();
+    final long currentGeneration = INSTANCE.generation.get();
+    if(hashers.generation != currentGeneration) {
+      hashers.hashers.clear();
+      hashers.generation = currentGeneration;
+    }
+    return hashers.hashers.computeIfAbsent(bagitAlgorithmName, BagitChecksumNameMapping::get);
+  }
+  
+  private static Hasher newInstance(final Class<? extends Hasher> implementation, final String bagitAlgorithmName) {
     try {
-      final Hasher hasher = INSTANCE.map.get(bagitAlgorithmName).getDeclaredConstructor().newInstance();
-      hasher.initialize();
-      return hasher;
+      return implementation.getDeclaredConstructor().newInstance();
     } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException | NoSuchMethodException | SecurityException e) {
-      final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
       logger.error(messages.getString("failed_to_init_hasher"), bagitAlgorithmName, e);
       throw new HasherInitializationException(e);
     }
   }
+  
+  /**
+   * The hashers created for a single thread
+   */
+  private static final class ThreadHashers {
+    private final Map<String, Hasher> hashers = new HashMap<>();
+    private long generation = -1;
+  }
 }
@@ -1,7 +1,10 @@
 package com.github.jscancella.hash;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HexFormat;
 
 import com.github.jscancella.exceptions.HasherInitializationException;
 
@@ -36,11 +39,65 @@ public interface Hasher {
    */
   void update(final byte[] bytes);
   
+  /**
+   * Same as {@link #update(byte[])} but only uses part of the array, so callers don't need to copy a partially filled buffer.
+   * Implementations should override this, as the default copies the bytes.
+   * <b>NOT THREAD SAFE</b> 
+   * 
+   * @param bytes the bytes with which to update the checksum
+   * @param offset where to start in the array
+   * @param length the number of bytes to use
+   */
+  default void update(final byte[] bytes, final int offset, final int length) {
+    if(offset == 0 && length == bytes.length) {
+      update(bytes);
+    }
+    else {
+      update(Arrays.copyOfRange(bytes, offset, offset + length));
+    }
+  }
+  
+  /**
+   * Update the checksum with the remaining bytes of the buffer, which can be a heap, direct, or memory mapped buffer.
+   * Afterwards the position of the buffer is equal to its limit.
+   * Implementations should override this, as the default copies the bytes of a direct buffer.
+   * <b>NOT THREAD SAFE</b> 
+   * 
+   * @param buffer the bytes with which to update the checksum
+   */
+  default void update(final ByteBuffer buffer) {
+    if(buffer.hasArray()) {
+      update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      buffer.position(buffer.limit());
+    }
+    else {
+      final byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      update(bytes);
+    }
+  }
+  
   /**
    * @return the checksum of the streamed file. If no file has been streamed, returns a default hash.
    */
   String getHash();
   
+  /**
+   * Same as {@link #getHash()} but copies the raw bytes of the checksum into an existing array instead of creating a HEX formatted string.
+   * Implementations should override this, as the default parses the string returned by {@link #getHash()}.
+   * 
+   * @param destination where to copy the checksum, must be large enough to hold it (for example 16 bytes for md5)
+   * @return the number of bytes copied
+   */
+  default int digestInto(final byte[] destination) {
+    final byte[] digest = HexFormat.of().parseHex(getHash());
+    if(destination.length < digest.length) {
+      throw new IllegalArgumentException("Checksum is [" + digest.length + "] bytes but destination is only [" + destination.length + "] bytes");
+    }
+    System.arraycopy(digest, 0, destination, 0, digest.length);
+    return digest.length;
+  }
+  
   /**
    * When streaming a file, we have no way of knowing when we are done updating. This method allows for a reset of the current stream.
    */
@@ -1,10 +1,10 @@
 package com.github.jscancella.hash;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 import com.github.jscancella.hash.internal.FileCountAndTotalSizeVistor;
+import com.github.jscancella.internal.jfr.TreeWalkedEvent;
 
 /**
  * a singleton used to generate the payload oxum for a bag
@@ -23,7 +23,7 @@ public enum PayloadOxumGenerator {;//using enum to enforce singleton
   public static String generatePayloadOxum(final Path dataDir) throws IOException{
     final FileCountAndTotalSizeVistor visitor = new FileCountAndTotalSizeVistor();
     
-    Files.walkFileTree(dataDir, visitor);
+    TreeWalkedEvent.walkFileTree(dataDir, visitor, "payload-oxum");
     
     return visitor.getTotalSize() + "." + visitor.getCount();
   }
@@ -0,0 +1,34 @@
+package com.github.jscancella.hash.cache;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * A place to remember checksums that were previously computed so that unchanged files don't need to be hashed again.
+ * Implementations <b>MUST</b> be thread safe since files may be validated in parallel.
+ */
+public interface ChecksumCache {
+  
+  /**
+   * Get the previously computed checksum for a file, if the file hasn't changed since then.
+   * 
+   * @param key the identity of the file and the algorithm used
+   * @return the HEX formatted checksum or empty if it isn't known (or should be computed again)
+   */
+  Optional<String> get(ChecksumCacheKey key);
+  
+  /**
+   * Remember the checksum computed for a file.
+   * 
+   * @param key the identity of the file and the algorithm used
+   * @param checksum the HEX formatted checksum
+   */
+  void put(ChecksumCacheKey key, String checksum);
+  
+  /**
+   * Persist the cache, if needed. Called once a validation has finished.
+   * 
+   * @throws IOException if there is a problem writing the cache
+   */
+  void save() throws IOException;
+}
@@ -0,0 +1,129 @@
+package com.github.jscancella.hash.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+import com.github.jscancella.domain.internal.EclipseGenerated;
+
+/**
+ * Identifies a file by its location and attributes, along with the algorithm used to hash it.
+ * If any of the attributes change, the key changes, and thus the file needs to be hashed again.
+ * <p>
+ * The modified time is only as precise as the file system stores it. On file systems with coarse timestamps 
+ * (for example FAT, which only stores even seconds, and some network mounts) a file that is rewritten with the same size 
+ * shortly after it was hashed keeps the same key, and the cached checksum would be used even though it is stale.
+ * Don't use a {@link ChecksumCache} for bags on such file systems if their files may be modified in place.
+ */
+public final class ChecksumCacheKey {
+  private final String path;
+  private final long size;
+  private final long lastModified;
+  private final String fileKey;
+  private final String bagitAlgorithmName;
+  
+  /**
+   * @param path the absolute path of the file
+   * @param size the size of the file in bytes
+   * @param lastModified the last time the file was modified in milliseconds since the epoch
+   * @param fileKey the file system specific identity of the file (for example the inode), or an empty string if not available
+   * @param bagitAlgorithmName the bagit algorithm name used to hash the file
+   */
+  public ChecksumCacheKey(final String path, final long size, final long lastModified, final String fileKey, final String bagitAlgorithmName) {
+    this.path = path;
+    this.size = size;
+    this.lastModified = lastModified;
+    this.fileKey = fileKey;
+    this.bagitAlgorithmName = bagitAlgorithmName;
+  }
+  
+  /**
+   * Create a key from the current attributes of a file
+   * 
+   * @param file the file
+   * @param bagitAlgorithmName the bagit algorithm name used to hash the file
+   * @return the key
+   * @throws IOException if the attributes of the file can't be read
+   */
+  public static ChecksumCacheKey of(final Path file, final String bagitAlgorithmName) throws IOException {
+    return of(file, Files.readAttributes(file, BasicFileAttributes.class), bagitAlgorithmName);
+  }
+
+  /**
+   * Create a key from attributes of a file that were already read, so that keys for several algorithms 
+   * don't each need to read them again
+   * 
+   * @param file the file
+   * @param attributes the attributes of the file
+   * @param bagitAlgorithmName the bagit algorithm name used to hash the file
+   * @return the key
+   */
+  public static ChecksumCacheKey of(final Path file, final BasicFileAttributes attributes, final String bagitAlgorithmName) {
+    final Object fileKey = attributes.fileKey();
+    
+    return new ChecksumCacheKey(file.toAbsolutePath().toString(), attributes.size(), attributes.lastModifiedTime().toMillis(), 
+        fileKey == null ? "" : fileKey.toString(), bagitAlgorithmName);
+  }
+
+  /**
+   * @return the absolute path of the file
+   */
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * @return the size of the file in bytes
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * @return the last time the file was modified in milliseconds since the epoch
+   */
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  /**
+   * @return the file system specific identity of the file, or an empty string if not available
+   */
+  public String getFileKey() {
+    return fileKey;
+  }
+
+  /**
+   * @return the bagit algorithm name used to hash the file
+   */
+  public String getBagitAlgorithmName() {
+    return bagitAlgorithmName;
+  }
+
+  @EclipseGenerated
+  @Override
+  public int hashCode() {
+    return Objects.hash(path, size, lastModified, fileKey, bagitAlgorithmName);
+  }
+
+  @EclipseGenerated
+  @Override
+  public boolean equals(final Object obj) {
+    boolean isEqual = false;
+    if (obj instanceof ChecksumCacheKey){
+      final ChecksumCacheKey other = (ChecksumCacheKey) obj;
+      isEqual = Objects.equals(path, other.getPath()) && size == other.getSize() && lastModified == other.getLastModified()
+          && Objects.equals(fileKey, other.getFileKey()) && Objects.equals(bagitAlgorithmName, other.getBagitAlgorithmName());
+    }
+    return isEqual;
+  }
+
+  @EclipseGenerated
+  @Override
+  public String toString() {
+    return "ChecksumCacheKey [path=" + path + ", size=" + size + ", lastModified=" + lastModified + ", fileKey=" + fileKey
+        + ", bagitAlgorithmName=" + bagitAlgorithmName + "]";
+  }
+}
@@ -0,0 +1,175 @@
+package com.github.jscancella.hash.cache;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ChecksumCache} that is kept in memory and persisted to a single file so that it can be reused across validations.
+ * Since a file could become corrupt without its size or modified time changing (bit rot), each checksum is only trusted
+ * for a maximum age, after which the file is hashed again.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+public final class FileBackedChecksumCache implements ChecksumCache {
+  private static final Logger logger = LoggerFactory.getLogger(FileBackedChecksumCache.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  private static final String SEPARATOR = "\t";
+  private static final int NUMBER_OF_FIELDS = 7;
+  
+  private final Path cacheFile;
+  private final Duration maxAge;
+  private final Clock clock;
+  private final Map<ChecksumCacheKey, CachedChecksum> checksums = new ConcurrentHashMap<>();
+  
+  /**
+   * Load the cache from a file, if it exists.
+   * 
+   * @param cacheFile where the cache is stored
+   * @param maxAge how long a computed checksum is trusted before the file has to be hashed again
+   * @throws IOException if there is a problem reading the cache file
+   */
+  public FileBackedChecksumCache(final Path cacheFile, final Duration maxAge) throws IOException {
+    this(cacheFile, maxAge, Clock.systemUTC());
+  }
+  
+  /**
+   * Load the cache from a file, if it exists.
+   * 
+   * @param cacheFile where the cache is stored
+   * @param maxAge how long a computed checksum is trusted before the file has to be hashed again
+   * @param clock the clock used to determine the age of a checksum
+   * @throws IOException if there is a problem reading the cache file
+   */
+  public FileBackedChecksumCache(final Path cacheFile, final Duration maxAge, final Clock clock) throws IOException {
+    this.cacheFile = cacheFile;
+    this.maxAge = maxAge;
+    this.clock = clock;
+    load();
+  }
+  
+  private void load() throws IOException {
+    if(Files.exists(cacheFile)) {
+      try(BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)){
+        String line = reader.readLine();
+        while(line != null) {
+          parseLine(line);
+          line = reader.readLine();
+        }
+      }
+      logger.debug(messages.getString("loaded_checksum_cache"), checksums.size(), cacheFile);
+    }
+  }
+  
+  private void parseLine(final String line) {
+    final String[] parts = line.split(SEPARATOR, NUMBER_OF_FIELDS);
+    if(parts.length == NUMBER_OF_FIELDS) {
+      try {
+        final ChecksumCacheKey key = new ChecksumCacheKey(parts[6], Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[5], parts[0]);
+        checksums.put(key, new CachedChecksum(parts[4], Long.parseLong(parts[3])));
+      }
+      catch(NumberFormatException e) {
+        logger.warn(messages.getString("skipping_bad_checksum_cache_line"), line, e);
+      }
+    }
+    else {
+      logger.warn(messages.getString("skipping_bad_checksum_cache_line"), line);
+    }
+  }
+
+  @Override
+  public Optional<String> get(final ChecksumCacheKey key) {
+    final CachedChecksum cached = checksums.get(key);
+    Optional<String> checksum = Optional.empty();
+    
+    if(cached != null && !isExpired(cached)) {
+      checksum = Optional.of(cached.checksum);
+    }
+    
+    return checksum;
+  }
+
+  @Override
+  public void put(final ChecksumCacheKey key, final String checksum) {
+    //can't store line breaks in the cache file
+    if(key.getPath().indexOf('\n') == -1 && key.getPath().indexOf('\r') == -1) {
+      checksums.put(key, new CachedChecksum(checksum, clock.millis()));
+    }
+  }
+  
+  /**
+   * Write the cache to disk, dropping any checksums that are too old to be used anymore.
+   * The file is first written to a temporary file and then moved into place so that a failure doesn't corrupt the cache.
+   */
+  @Override
+  public void save() throws IOException {
+    final Path parent = cacheFile.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    final Path tempFile = Files.createTempFile(parent, cacheFile.getFileName().toString(), ".tmp");
+    
+    try(BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)){
+      for(final Entry<ChecksumCacheKey, CachedChecksum> entry : checksums.entrySet()) {
+        if(!isExpired(entry.getValue())) {
+          writeLine(writer, entry.getKey(), entry.getValue());
+        }
+      }
+    }
+    
+    Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    logger.debug(messages.getString("saved_checksum_cache"), cacheFile);
+  }
+  
+  private static void writeLine(final BufferedWriter writer, final ChecksumCacheKey key, final CachedChecksum cached) throws IOException {
+    writer.write(String.join(SEPARATOR, key.getBagitAlgorithmName(), String.valueOf(key.getSize()), 
+        String.valueOf(key.getLastModified()), String.valueOf(cached.computedAt), cached.checksum, key.getFileKey(), key.getPath()));
+    writer.newLine();
+  }
+  
+  private boolean isExpired(final CachedChecksum cached) {
+    return clock.millis() - cached.computedAt > maxAge.toMillis();
+  }
+
+  /**
+   * @return where the cache is stored
+   */
+  public Path getCacheFile() {
+    return cacheFile;
+  }
+
+  /**
+   * @return how long a computed checksum is trusted before the file has to be hashed again
+   */
+  public Duration getMaxAge() {
+    return maxAge;
+  }
+  
+  /**
+   * @return the number of checksums currently in the cache, including expired ones
+   */
+  public int size() {
+    return checksums.size();
+  }
+  
+  private static final class CachedChecksum {
+    private final String checksum;
+    private final long computedAt;
+    
+    private CachedChecksum(final String checksum, final long computedAt) {
+      this.checksum = checksum;
+      this.computedAt = computedAt;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.github.jscancella.hash.internal;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.github.jscancella.hash.Hasher;
+import com.github.jscancella.hash.read.FileReadStrategy;
+import com.github.jscancella.hash.read.HeapBufferReadStrategy;
+import com.github.jscancella.internal.jfr.FileCopiedEvent;
+import com.github.jscancella.internal.jfr.FileHashedEvent;
+
+/**
+ * Computes the checksums of a file for multiple algorithms while only reading the file once.
+ */
+public enum MultiAlgorithmHasher {;//using enum to enforce singleton
+  private static final int _64_KB = 1024 * 64;
+  private static final int CHUNK_SIZE = _64_KB;
+  /**
+   * How files are read when no other read strategy is given
+   */
+  public static final FileReadStrategy DEFAULT_READ_STRATEGY = new HeapBufferReadStrategy(CHUNK_SIZE);
+
+  /**
+   * Stream the file once, updating every hasher with the same bytes.
+   * 
+   * @param path the file to hash
+   * @param hashers the bagit algorithm name mapped to the hasher that implements it
+   * 
+   * @return the bagit algorithm name mapped to the HEX formatted checksum of the file
+   * 
+   * @throws IOException if there is a problem reading the file
+   */
+  public static Map<String, String> hash(final Path path, final Map<String, Hasher> hashers) throws IOException {
+    return hash(path, hashers, DEFAULT_READ_STRATEGY);
+  }
+  
+  /**
+   * Read the file using the read strategy to compute the checksum of a single algorithm.
+   * 
+   * @param path the file to hash
+   * @param hasher the implementation of the algorithm
+   * @param readStrategy how to read the file
+   * 
+   * @return the HEX formatted checksum of the file
+   * 
+   * @throws IOException if there is a problem reading the file
+   */
+  public static String hash(final Path path, final Hasher hasher, final FileReadStrategy readStrategy) throws IOException {
+    final String bagitAlgorithmName = hasher.getBagitAlgorithmName();
+    return hash(path, Collections.singletonMap(bagitAlgorithmName, hasher), readStrategy).get(bagitAlgorithmName);
+  }
+  
+  /**
+   * Read the file once using the read strategy, updating every hasher with the same bytes.
+   * 
+   * @param path the file to hash
+   * @param hashers the bagit algorithm name mapped to the hasher that implements it
+   * @param readStrategy how to read the file
+   * 
+   * @return the bagit algorithm name mapped to the HEX formatted checksum of the file
+   * 
+   * @throws IOException if there is a problem reading the file
+   */
+  public static Map<String, String> hash(final Path path, final Map<String, Hasher> hashers, final FileReadStrategy readStrategy) throws IOException {
+    final Map<String, String> checksums = new HashMap<>();
+    if(!hashers.isEmpty()) { //no reason to read the file otherwise
+      for(final Hasher hasher : hashers.values()) {
+        hasher.reset();
+      }
+      
+      final FileHashedEvent event = new FileHashedEvent();
+      final long[] bytesRead = new long[1];
+      event.begin();
+      readStrategy.read(path, chunk -> {
+        bytesRead[0] += chunk.remaining();
+        final int start = chunk.position();
+        for(final Hasher hasher : hashers.values()) {
+          chunk.position(start); //each hasher needs to see the same bytes
+          hasher.update(chunk);
+        }
+      });
+      event.finish(path, bytesRead[0], hashers.keySet());
+      
+      for(final Entry<String, Hasher> entry : hashers.entrySet()) {
+        checksums.put(entry.getKey(), entry.getValue().getHash());
+      }
+    }
+    
+    return checksums;
+  }
+  
+  /**
+   * Copy the file while updating every hasher with the bytes that are written to the destination, 
+   * thus the source is only read once and the checksums describe exactly what was written.
+   * 
+   * @param source the file to copy and hash
+   * @param destination where to copy the file to, any existing file is replaced
+   * @param hashers the bagit algorithm name mapped to the hasher that implements it
+   * 
+   * @return the bagit algorithm name mapped to the HEX formatted checksum of the file
+   * 
+   * @throws IOException if there is a problem reading or writing the file
+   */
+  public static Map<String, String> copyAndHash(final Path source, final Path destination, final Map<String, Hasher> hashers) throws IOException {
+    final FileCopiedEvent event = new FileCopiedEvent();
+    event.begin();
+    final Map<String, String> checksums;
+    try(OutputStream outputStream = Files.newOutputStream(destination, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+      checksums = stream(source, hashers, outputStream);
+    }
+    if(event.shouldCommit()) {
+      event.finish(source, destination, Files.size(destination), hashers.keySet());
+    }
+    return checksums;
+  }
+  
+  private static Map<String, String> stream(final Path path, final Map<String, Hasher> hashers, final OutputStream copyTo) throws IOException {
+    for(final Hasher hasher : hashers.values()) {
+      hasher.reset();
+    }
+    
+    try(InputStream inputStream = new BufferedInputStream(Files.newInputStream(path, StandardOpenOption.READ))){
+      final byte[] buffer = new byte[CHUNK_SIZE];
+      int read = inputStream.read(buffer);
+
+      while(read != -1){
+        copyTo.write(buffer, 0, read);
+        for(final Hasher hasher : hashers.values()) {
+          hasher.update(buffer, 0, read);
+        }
+        read = inputStream.read(buffer);
+      }
+    }
+    
+    final Map<String, String> checksums = new HashMap<>();
+    for(final Entry<String, Hasher> entry : hashers.entrySet()) {
+      checksums.put(entry.getKey(), entry.getValue().getHash());
+    }
+    
+    return checksums;
+  }
+}
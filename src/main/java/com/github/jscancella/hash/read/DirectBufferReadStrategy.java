@@ -0,0 +1,58 @@
+package com.github.jscancella.hash.read;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the file into a buffer outside of the java heap, which avoids copying the bytes an extra time when reading from the file.
+ * Each thread reuses a single buffer, since direct buffers are expensive to create. Larger buffers (for example 1 MB) 
+ * mean fewer system calls.
+ */
+public final class DirectBufferReadStrategy implements FileReadStrategy {
+  private final int bufferSize;
+  private final ThreadLocal<ByteBuffer> buffers;
+
+  /**
+   * Use a buffer of {@link FileReadStrategy#DEFAULT_BUFFER_SIZE}
+   */
+  public DirectBufferReadStrategy() {
+    this(DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @param bufferSize the number of bytes to read at once
+   */
+  public DirectBufferReadStrategy(final int bufferSize) {
+    this.bufferSize = ReadStrategyUtils.checkBufferSize(bufferSize);
+    this.buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(bufferSize));
+  }
+
+  @Override
+  public void read(final Path file, final ChunkHandler handler) throws IOException {
+    try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+      read(channel, handler);
+    }
+  }
+
+  /*
+   * read a file that is already open, for strategies that only know how to read a file after opening it
+   */
+  void read(final FileChannel channel, final ChunkHandler handler) throws IOException {
+    ReadStrategyUtils.readFully(channel, buffers.get(), handler);
+  }
+
+  /**
+   * @return the number of bytes read at once
+   */
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  @Override
+  public String toString() {
+    return "DirectBufferReadStrategy [bufferSize=" + bufferSize + "]";
+  }
+}
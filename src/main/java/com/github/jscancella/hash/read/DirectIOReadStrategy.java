@@ -0,0 +1,146 @@
+package com.github.jscancella.hash.read;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ResourceBundle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.nio.file.ExtendedOpenOption;
+
+/**
+ * Reads files bypassing the operating system page cache (O_DIRECT), so that checking the fixity of a large amount of data 
+ * doesn't evict everything else other programs have cached. This requires buffers aligned to the block size of the file system, 
+ * which are reused by each thread. File systems that don't support direct I/O (for example tmpfs) 
+ * are read using a {@link DirectBufferReadStrategy} instead.
+ */
+public final class DirectIOReadStrategy implements FileReadStrategy {
+  private static final Logger logger = LoggerFactory.getLogger(DirectIOReadStrategy.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  /**
+   * The default number of bytes to read at once, larger than the other strategies since every read goes to the disk
+   */
+  public static final int DEFAULT_DIRECT_BUFFER_SIZE = 1024 * 1024;
+  private final int bufferSize;
+  private final ThreadLocal<AlignedBuffer> buffers = new ThreadLocal<>();
+  private final FileReadStrategy fallbackStrategy;
+
+  /**
+   * Use a buffer of {@link #DEFAULT_DIRECT_BUFFER_SIZE}
+   */
+  public DirectIOReadStrategy() {
+    this(DEFAULT_DIRECT_BUFFER_SIZE);
+  }
+
+  /**
+   * @param bufferSize the number of bytes to read at once, rounded up to a multiple of the file system block size
+   */
+  public DirectIOReadStrategy(final int bufferSize) {
+    this.bufferSize = ReadStrategyUtils.checkBufferSize(bufferSize);
+    this.fallbackStrategy = new DirectBufferReadStrategy(bufferSize);
+  }
+
+  @Override
+  public void read(final Path file, final ChunkHandler handler) throws IOException {
+    final FileChannel channel = openDirect(file);
+    if(channel == null) {
+      fallbackStrategy.read(file, handler);
+    }
+    else {
+      try(FileChannel directChannel = channel){
+        final int blockSize = (int) Files.getFileStore(file).getBlockSize();
+        final long size = directChannel.size();
+        final long position = readAligned(directChannel, getBuffer(blockSize), blockSize, handler);
+        if(position < size) {
+          readRemaining(file, position, handler);
+        }
+      }
+    }
+  }
+
+  /*
+   * direct reads must start at a multiple of the block size, so read one whole buffer at a time until the end of the file or a short read
+   */
+  private static long readAligned(final FileChannel channel, final ByteBuffer buffer, final int blockSize, final ChunkHandler handler) throws IOException {
+    long position = 0;
+    int read = 0;
+    while(read % blockSize == 0) {
+      buffer.clear();
+      read = channel.read(buffer);
+      if(read <= 0) {
+        break;
+      }
+      buffer.flip();
+      handler.handle(buffer);
+      position += read;
+    }
+    return position;
+  }
+
+  /*
+   * should only happen if the file is being changed while it is read, but make sure nothing is skipped
+   */
+  private void readRemaining(final Path file, final long position, final ChunkHandler handler) throws IOException {
+    try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+      channel.position(position);
+      final ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+      while(channel.read(buffer) != -1) {
+        buffer.flip();
+        handler.handle(buffer);
+        buffer.clear();
+      }
+    }
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private static FileChannel openDirect(final Path file) throws IOException {
+    FileChannel channel = null;
+    try {
+      channel = FileChannel.open(file, StandardOpenOption.READ, ExtendedOpenOption.DIRECT);
+    }
+    catch(UnsupportedOperationException | IOException e) {
+      if(!Files.isReadable(file)) {
+        throw e;
+      }
+      logger.debug(messages.getString("direct_io_not_supported"), file, e.getMessage());
+    }
+    return channel;
+  }
+
+  private ByteBuffer getBuffer(final int blockSize) {
+    AlignedBuffer buffer = buffers.get();
+    if(buffer == null || buffer.blockSize != blockSize) {
+      final int alignedSize = (bufferSize + blockSize - 1) / blockSize * blockSize;
+      buffer = new AlignedBuffer(ByteBuffer.allocateDirect(alignedSize + blockSize).alignedSlice(blockSize), blockSize);
+      buffers.set(buffer);
+    }
+    return buffer.buffer;
+  }
+
+  /**
+   * @return the number of bytes read at once, before rounding to the block size
+   */
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  @Override
+  public String toString() {
+    return "DirectIOReadStrategy [bufferSize=" + bufferSize + "]";
+  }
+
+  private static final class AlignedBuffer {
+    private final ByteBuffer buffer;
+    private final int blockSize;
+
+    private AlignedBuffer(final ByteBuffer buffer, final int blockSize) {
+      this.buffer = buffer;
+      this.blockSize = blockSize;
+    }
+  }
+}
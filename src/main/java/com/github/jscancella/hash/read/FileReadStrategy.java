@@ -0,0 +1,41 @@
+package com.github.jscancella.hash.read;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * How the bytes of a file are read when computing its checksums. Implementations must be thread safe, 
+ * as the same strategy is used by every thread hashing files during a validation.
+ * Choose {@link HeapBufferReadStrategy} (the default), {@link DirectBufferReadStrategy} to avoid copying into the java heap,
+ * {@link MemoryMappedReadStrategy} for large files, or {@link DirectIOReadStrategy} to avoid filling the operating system page cache.
+ */
+public interface FileReadStrategy {
+  /**
+   * The default size of the buffer used to read a file
+   */
+  int DEFAULT_BUFFER_SIZE = 1024 * 64;
+
+  /**
+   * Read the whole file, handing each chunk of bytes to the handler in order.
+   *
+   * @param file the file to read
+   * @param handler what to do with each chunk of the file
+   * @throws IOException if there is a problem reading the file, or the handler throws it
+   */
+  void read(Path file, ChunkHandler handler) throws IOException;
+
+  /**
+   * Receives the bytes of a file one chunk at a time
+   */
+  @FunctionalInterface
+  interface ChunkHandler {
+    /**
+     * The buffer is only valid until this method returns, as it is reused (or unmapped) for the next chunk. 
+     *
+     * @param chunk the next bytes of the file, from the position to the limit of the buffer
+     * @throws IOException if there is a problem processing the bytes
+     */
+    void handle(ByteBuffer chunk) throws IOException;
+  }
+}
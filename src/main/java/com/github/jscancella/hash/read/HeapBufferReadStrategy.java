@@ -0,0 +1,49 @@
+package com.github.jscancella.hash.read;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the file into a buffer on the java heap. This is the default, and works everywhere.
+ */
+public final class HeapBufferReadStrategy implements FileReadStrategy {
+  private final int bufferSize;
+  private final ThreadLocal<ByteBuffer> buffers;
+
+  /**
+   * Use a buffer of {@link FileReadStrategy#DEFAULT_BUFFER_SIZE}
+   */
+  public HeapBufferReadStrategy() {
+    this(DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @param bufferSize the number of bytes to read at once
+   */
+  public HeapBufferReadStrategy(final int bufferSize) {
+    this.bufferSize = ReadStrategyUtils.checkBufferSize(bufferSize);
+    this.buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(bufferSize));
+  }
+
+  @Override
+  public void read(final Path file, final ChunkHandler handler) throws IOException {
+    try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+      ReadStrategyUtils.readFully(channel, buffers.get(), handler);
+    }
+  }
+
+  /**
+   * @return the number of bytes read at once
+   */
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  @Override
+  public String toString() {
+    return "HeapBufferReadStrategy [bufferSize=" + bufferSize + "]";
+  }
+}
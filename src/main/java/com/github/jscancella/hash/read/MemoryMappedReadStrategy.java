@@ -0,0 +1,96 @@
+package com.github.jscancella.hash.read;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Maps large files into memory a window at a time, so their bytes are read straight from the operating system page cache
+ * without any copying. Mapping has a fixed cost, so files smaller than the threshold are read into a direct buffer instead 
+ * (like {@link DirectBufferReadStrategy}), from the same open file.
+ */
+public final class MemoryMappedReadStrategy implements FileReadStrategy {
+  /**
+   * The default size of each mapped window of a file
+   */
+  public static final int DEFAULT_WINDOW_SIZE = 1024 * 1024 * 64;
+  /**
+   * The default size a file must be before it is mapped
+   */
+  public static final long DEFAULT_THRESHOLD = 1024 * 1024;
+  private final int windowSize;
+  private final long threshold;
+  private final DirectBufferReadStrategy smallFileStrategy;
+
+  /**
+   * Use a window of {@link #DEFAULT_WINDOW_SIZE} and only map files of at least {@link #DEFAULT_THRESHOLD}
+   */
+  public MemoryMappedReadStrategy() {
+    this(DEFAULT_WINDOW_SIZE, DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Read files smaller than the threshold using a buffer of {@link FileReadStrategy#DEFAULT_BUFFER_SIZE}
+   * 
+   * @param windowSize the number of bytes to map at once
+   * @param threshold the minimum size of a file before it is mapped instead of read
+   */
+  public MemoryMappedReadStrategy(final int windowSize, final long threshold) {
+    this(windowSize, threshold, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @param windowSize the number of bytes to map at once
+   * @param threshold the minimum size of a file before it is mapped instead of read
+   * @param smallFileBufferSize the number of bytes to read at once from files smaller than the threshold
+   */
+  public MemoryMappedReadStrategy(final int windowSize, final long threshold, final int smallFileBufferSize) {
+    this.windowSize = ReadStrategyUtils.checkBufferSize(windowSize);
+    this.threshold = threshold;
+    this.smallFileStrategy = new DirectBufferReadStrategy(smallFileBufferSize);
+  }
+
+  @Override
+  public void read(final Path file, final ChunkHandler handler) throws IOException {
+    try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+      final long size = channel.size();
+      if(size < threshold) {
+        smallFileStrategy.read(channel, handler);
+      }
+      else {
+        for(long position = 0; position < size; position += windowSize) {
+          handler.handle(channel.map(MapMode.READ_ONLY, position, Math.min(windowSize, size - position)));
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the number of bytes mapped at once
+   */
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  /**
+   * @return the minimum size of a file before it is mapped instead of read
+   */
+  public long getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * @return the number of bytes read at once from files smaller than the threshold
+   */
+  public int getSmallFileBufferSize() {
+    return smallFileStrategy.getBufferSize();
+  }
+
+  @Override
+  public String toString() {
+    return "MemoryMappedReadStrategy [windowSize=" + windowSize + ", threshold=" + threshold 
+        + ", smallFileBufferSize=" + smallFileStrategy.getBufferSize() + "]";
+  }
+}
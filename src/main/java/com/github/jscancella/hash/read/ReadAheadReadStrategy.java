@@ -0,0 +1,255 @@
+package com.github.jscancella.hash.read;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads large files on a background thread, filling the next buffer while the current one is being hashed,
+ * so that the disk and the CPU are both kept busy. This matters most for very large files, 
+ * which can't be sped up by hashing multiple files at the same time. 
+ * Files smaller than the threshold are read on the calling thread using a {@link HeapBufferReadStrategy}, 
+ * since handing off between threads isn't worth it for them.
+ * Each thread that hashes with it keeps its own direct buffers, so use it with a small pool of threads rather than a thread per file.
+ */
+@SuppressWarnings({"PMD.DoNotUseThreads"})
+public final class ReadAheadReadStrategy implements FileReadStrategy {
+  /**
+   * The default number of bytes in each buffer
+   */
+  public static final int DEFAULT_READ_AHEAD_BUFFER_SIZE = 1024 * 1024;
+  /**
+   * The default number of buffers, 2 means one is read while the other is hashed
+   */
+  public static final int DEFAULT_NUMBER_OF_BUFFERS = 2;
+  /**
+   * The default size a file must be before it is read on a background thread
+   */
+  public static final long DEFAULT_THRESHOLD = 1024 * 1024 * 4;
+  private static final ByteBuffer END_OF_FILE = ByteBuffer.allocate(0);
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+  //daemon threads so that reading never prevents the JVM from exiting
+  private static final ExecutorService READERS = Executors.newCachedThreadPool(runnable -> {
+    final Thread thread = new Thread(runnable, "bagging-read-ahead-" + THREAD_COUNT.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final int bufferSize;
+  private final int numberOfBuffers;
+  private final long threshold;
+  private final FileReadStrategy smallFileStrategy = new HeapBufferReadStrategy();
+  private final ThreadLocal<ByteBuffer[]> buffers;
+
+  /**
+   * Use {@link #DEFAULT_NUMBER_OF_BUFFERS} buffers of {@link #DEFAULT_READ_AHEAD_BUFFER_SIZE} for files of at least {@link #DEFAULT_THRESHOLD}
+   */
+  public ReadAheadReadStrategy() {
+    this(DEFAULT_READ_AHEAD_BUFFER_SIZE, DEFAULT_NUMBER_OF_BUFFERS, DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * @param bufferSize the number of bytes in each buffer
+   * @param numberOfBuffers how many buffers may be filled ahead of hashing, must be at least 2
+   * @param threshold the minimum size of a file before it is read on a background thread
+   */
+  public ReadAheadReadStrategy(final int bufferSize, final int numberOfBuffers, final long threshold) {
+    if(numberOfBuffers < 2) {
+      throw new IllegalArgumentException("Must have at least 2 buffers to read ahead but was [" + numberOfBuffers + "]");
+    }
+    this.bufferSize = ReadStrategyUtils.checkBufferSize(bufferSize);
+    this.numberOfBuffers = numberOfBuffers;
+    this.threshold = threshold;
+    this.buffers = ThreadLocal.withInitial(this::allocateBuffers);
+  }
+
+  private ByteBuffer[] allocateBuffers() {
+    final ByteBuffer[] allocated = new ByteBuffer[numberOfBuffers];
+    for(int index = 0; index < numberOfBuffers; index++) {
+      allocated[index] = ByteBuffer.allocateDirect(bufferSize);
+    }
+    return allocated;
+  }
+
+  @Override
+  public void read(final Path file, final ChunkHandler handler) throws IOException {
+    if(Files.size(file) < threshold) {
+      smallFileStrategy.read(file, handler);
+    }
+    else {
+      readAhead(file, handler);
+    }
+  }
+
+  @SuppressWarnings({"PMD.AvoidCatchingThrowable", "PMD.PreserveStackTrace"})
+  private void readAhead(final Path file, final ChunkHandler handler) throws IOException {
+    final BlockingQueue<ByteBuffer> emptyBuffers = new ArrayBlockingQueue<>(numberOfBuffers);
+    final BlockingQueue<ByteBuffer> filledBuffers = new ArrayBlockingQueue<>(numberOfBuffers + 1);
+    for(final ByteBuffer buffer : buffers.get()) {
+      emptyBuffers.add(buffer);
+    }
+    final FileReader reader = new FileReader(file, emptyBuffers, filledBuffers);
+    READERS.execute(reader);
+
+    try {
+      ByteBuffer buffer = filledBuffers.take();
+      while(buffer != END_OF_FILE) {
+        handler.handle(buffer);
+        emptyBuffers.add(buffer);
+        buffer = filledBuffers.take();
+      }
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(e.getMessage());
+    }
+    finally {
+      //the buffers are reused, so the reader must be finished with them before returning
+      reader.cancel();
+      reader.awaitFinished();
+    }
+
+    reader.rethrowFailure();
+  }
+
+  /**
+   * @return the number of bytes in each buffer
+   */
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * @return how many buffers may be filled ahead of hashing
+   */
+  public int getNumberOfBuffers() {
+    return numberOfBuffers;
+  }
+
+  /**
+   * @return the minimum size of a file before it is read on a background thread
+   */
+  public long getThreshold() {
+    return threshold;
+  }
+
+  @Override
+  public String toString() {
+    return "ReadAheadReadStrategy [bufferSize=" + bufferSize + ", numberOfBuffers=" + numberOfBuffers + ", threshold=" + threshold + "]";
+  }
+
+  /**
+   * Fills the empty buffers from the file and passes them back in order, ending with {@link ReadAheadReadStrategy#END_OF_FILE}
+   */
+  @SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+  private static final class FileReader implements Runnable {
+    private final Path file;
+    private final BlockingQueue<ByteBuffer> emptyBuffers;
+    private final BlockingQueue<ByteBuffer> filledBuffers;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile Throwable failure;
+    private volatile boolean isCancelled;
+    private Thread readingThread;
+
+    private FileReader(final Path file, final BlockingQueue<ByteBuffer> emptyBuffers, final BlockingQueue<ByteBuffer> filledBuffers) {
+      this.file = file;
+      this.emptyBuffers = emptyBuffers;
+      this.filledBuffers = filledBuffers;
+    }
+
+    @Override
+    @SuppressWarnings({"PMD.AvoidCatchingThrowable"})
+    public void run() {
+      setReadingThread(Thread.currentThread());
+      try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+        boolean isEndOfFile = false;
+        while(!isEndOfFile && !isCancelled) {
+          final ByteBuffer buffer = emptyBuffers.take();
+          buffer.clear();
+          isEndOfFile = fill(channel, buffer);
+          if(buffer.position() > 0) {
+            buffer.flip();
+            filledBuffers.add(buffer);
+          }
+        }
+      }
+      catch(InterruptedException e) {
+        Thread.currentThread().interrupt(); //cancelled because hashing stopped early, nothing is waiting for the result
+      }
+      catch(Throwable e) {
+        failure = e;
+      }
+      finally {
+        setReadingThread(null);
+        filledBuffers.add(END_OF_FILE);
+        finished.countDown();
+      }
+    }
+
+    /*
+     * stop reading, even if the reader hasn't started yet or is waiting for an empty buffer
+     */
+    private synchronized void cancel() {
+      isCancelled = true;
+      if(readingThread != null) {
+        readingThread.interrupt();
+      }
+    }
+
+    /*
+     * synchronized with cancel so that a pooled thread is never interrupted after it has moved on to reading another file
+     */
+    private synchronized void setReadingThread(final Thread thread) {
+      readingThread = thread;
+    }
+
+    private static boolean fill(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+      int read = 0;
+      while(buffer.hasRemaining() && read != -1) {
+        read = channel.read(buffer);
+      }
+      return read == -1;
+    }
+
+    private void awaitFinished() {
+      boolean isInterrupted = false;
+      while(finished.getCount() > 0) {
+        try {
+          finished.await();
+        }
+        catch(InterruptedException e) {
+          isInterrupted = true;
+        }
+      }
+      if(isInterrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private void rethrowFailure() throws IOException {
+      if(failure instanceof IOException) {
+        throw (IOException) failure;
+      }
+      if(failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      }
+      if(failure instanceof Error) {
+        throw (Error) failure;
+      }
+      if(failure != null) {
+        throw new UncheckedIOException(new IOException(failure));
+      }
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.github.jscancella.hash.read;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import com.github.jscancella.hash.read.FileReadStrategy.ChunkHandler;
+
+/**
+ * Code shared by the read strategies
+ */
+enum ReadStrategyUtils {; //using enum to enforce singleton
+
+  static int checkBufferSize(final int bufferSize) {
+    if(bufferSize < 1) {
+      throw new IllegalArgumentException("Buffer size must be at least 1 byte but was [" + bufferSize + "]");
+    }
+    return bufferSize;
+  }
+
+  /*
+   * read the whole channel using the buffer, handing off each time the buffer is filled (or the end of the file is reached)
+   */
+  static void readFully(final FileChannel channel, final ByteBuffer buffer, final ChunkHandler handler) throws IOException {
+    buffer.clear();
+    while(channel.read(buffer) != -1) {
+      if(!buffer.hasRemaining()) {
+        handOff(buffer, handler);
+      }
+    }
+    if(buffer.position() > 0) {
+      handOff(buffer, handler);
+    }
+  }
+
+  private static void handOff(final ByteBuffer buffer, final ChunkHandler handler) throws IOException {
+    buffer.flip();
+    handler.handle(buffer);
+    buffer.clear();
+  }
+}
@@ -1,17 +1,19 @@
 package com.github.jscancella.hash.standard;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Formatter;
+import java.util.HexFormat;
+import java.util.List;
 
 import com.github.jscancella.exceptions.HasherInitializationException;
 import com.github.jscancella.hash.Hasher;
+import com.github.jscancella.internal.jfr.FileHashedEvent;
 
 /**
  * A {@link MessageDigest} based hasher, where all you need to implement are the algorithm to bagit algorithm name mapping
@@ -38,30 +40,30 @@ public abstract class AbstractMessageDigestHasher implements Hasher{
   @Override
   public String hash(final Path path) throws IOException{
     reset();
-    updateMessageDigest(path, messageDigestInstance);
+    final FileHashedEvent event = new FileHashedEvent();
+    event.begin();
+    final long bytesRead = updateMessageDigest(path, messageDigestInstance);
+    event.finish(path, bytesRead, List.of(getBagitAlgorithmName()));
     return formatMessageDigest(messageDigestInstance);
   }
   
-  private static void updateMessageDigest(final Path path, final MessageDigest messageDigest) throws IOException{
-    try(InputStream inputStream = new BufferedInputStream(Files.newInputStream(path, StandardOpenOption.READ))){
-      final byte[] buffer = new byte[CHUNK_SIZE];
-      int read = inputStream.read(buffer);
+  private static long updateMessageDigest(final Path path, final MessageDigest messageDigest) throws IOException{
+    long bytesRead = 0;
+    try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+      final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
 
-      while(read != -1){
-        messageDigest.update(buffer, 0, read);
-        read = inputStream.read(buffer);
+      while(channel.read(buffer) != -1){
+        buffer.flip();
+        bytesRead += buffer.remaining();
+        messageDigest.update(buffer);
+        buffer.clear();
       }
     }
+    return bytesRead;
   }
   
   private static String formatMessageDigest(final MessageDigest messageDigest){
-    try(Formatter formatter = new Formatter()){
-      for (final byte b : messageDigest.digest()) {
-        formatter.format("%02x", b);
-      }
-      
-      return formatter.toString();
-    }
+    return HexFormat.of().formatHex(messageDigest.digest());
   }
   
   @Override
@@ -74,6 +76,32 @@ public abstract class AbstractMessageDigestHasher implements Hasher{
     messageDigestInstance.update(bytes);
   }
 
+  @Override
+  public void update(final byte[] bytes, final int offset, final int length){
+    messageDigestInstance.update(bytes, offset, length);
+  }
+
+  @Override
+  public void update(final ByteBuffer buffer){
+    messageDigestInstance.update(buffer);
+  }
+
+  @Override
+  public int digestInto(final byte[] destination){
+    try {
+      return messageDigestInstance.digest(destination, 0, destination.length);
+    } catch (DigestException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  /**
+   * @return the number of bytes in the checksum, for example 16 for md5
+   */
+  public int getDigestLength(){
+    return messageDigestInstance.getDigestLength();
+  }
+
   @Override
   public void reset(){
     messageDigestInstance.reset();
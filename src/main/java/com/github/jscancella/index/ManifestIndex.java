@@ -0,0 +1,380 @@
+package com.github.jscancella.index;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.jscancella.domain.Version;
+import com.github.jscancella.index.ManifestIndexWriter.Header;
+import com.github.jscancella.internal.PathUtils;
+import com.github.jscancella.reader.internal.BagitTextFileReader;
+
+/**
+ * A read only, memory mapped index of a manifest file that allows looking up the checksum of a file without reading 
+ * the whole manifest into memory. The index is a file containing the paths sorted by their UTF-8 bytes, 
+ * each with a fixed size binary digest, so looking up a path is a binary search over the mapped file 
+ * and only the pages that are touched are ever loaded by the operating system.
+ * <br>
+ * The file format is a {@link Header} followed by a fixed width record for each entry 
+ * (offset of the path, length of the path, digest) and then all the UTF-8 encoded paths.
+ * Paths are relative to the bag root directory and always use forward slashes.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.TooManyMethods"})
+public final class ManifestIndex implements Closeable {
+  private static final Logger logger = LoggerFactory.getLogger(ManifestIndex.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  private static final int CHUNK_SIZE = 1 << 30;
+  private static final int RECORD_PREFIX_LENGTH = Long.BYTES + Integer.BYTES;
+  private static final HexFormat HEX = HexFormat.of();
+
+  private final Path indexFile;
+  private final Header header;
+  private final MappedByteBuffer[] chunks;
+  private final int recordLength;
+  private final long pathsStart;
+
+  private ManifestIndex(final Path indexFile, final Header header, final MappedByteBuffer... chunks) {
+    this.indexFile = indexFile;
+    this.header = header;
+    this.chunks = chunks;
+    this.recordLength = RECORD_PREFIX_LENGTH + header.getDigestLength();
+    this.pathsStart = Header.LENGTH + header.getCount() * recordLength;
+  }
+
+  /**
+   * Open an existing index file.
+   *
+   * @param indexFile the index created by {@link ManifestIndexWriter}
+   * @return the opened index
+   * @throws IOException if the file can't be read or isn't an index
+   */
+  public static ManifestIndex open(final Path indexFile) throws IOException {
+    try(FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)){
+      final long size = channel.size();
+      if(size < Header.LENGTH) {
+        throw new IOException("Manifest index [" + indexFile + "] is truncated");
+      }
+      final int numberOfChunks = (int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+      final MappedByteBuffer[] chunks = new MappedByteBuffer[numberOfChunks];
+      for(int index = 0; index < numberOfChunks; index++) {
+        final long start = (long) index * CHUNK_SIZE;
+        chunks[index] = channel.map(MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, size - start));
+      }
+      final Header header = Header.fromBytes(chunks[0]);
+      final ManifestIndex index = new ManifestIndex(indexFile, header, chunks);
+      if(index.pathsStart > size) {
+        throw new IOException("Manifest index [" + indexFile + "] is truncated");
+      }
+      logger.debug(messages.getString("opened_manifest_index"), indexFile, header.getCount());
+      return index;
+    }
+  }
+
+  /**
+   * Open the index for a manifest that is stored in the cache directory, creating it if it doesn't exist yet 
+   * or recreating it if the manifest has changed since it was created.
+   *
+   * @param manifestFile the manifest to index, for example /foo/bag/manifest-sha512.txt
+   * @param cacheDir the directory to store the index in
+   * @return the opened index
+   * @throws IOException if there is a problem reading the manifest or creating the index
+   */
+  @SuppressWarnings("PMD.CloseResource")
+  public static ManifestIndex openOrCreate(final Path manifestFile, final Path cacheDir) throws IOException {
+    final Path indexFile = cacheDir.resolve(indexFileName(manifestFile));
+    ManifestIndex index = null;
+
+    if(Files.exists(indexFile)) {
+      try {
+        index = open(indexFile);
+        if(index.isStale(manifestFile)) {
+          logger.info(messages.getString("stale_manifest_index"), indexFile, manifestFile);
+          index.close();
+          index = null;
+        }
+      }
+      catch(IOException e) {
+        logger.warn(messages.getString("unreadable_manifest_index"), indexFile, e);
+      }
+    }
+
+    if(index == null) {
+      Files.createDirectories(cacheDir);
+      final Path bagRootDir = manifestFile.toAbsolutePath().getParent();
+      final SimpleImmutableEntry<Version, Charset> versionAndEncoding = readBagitTextFile(bagRootDir);
+      ManifestIndexWriter.write(manifestFile, bagRootDir, versionAndEncoding.getKey(), versionAndEncoding.getValue(), indexFile);
+      index = open(indexFile);
+    }
+
+    return index;
+  }
+
+  private static SimpleImmutableEntry<Version, Charset> readBagitTextFile(final Path bagRootDir) throws IOException {
+    final Path bagitFile = bagRootDir.resolve("bagit.txt");
+    SimpleImmutableEntry<Version, Charset> versionAndEncoding = new SimpleImmutableEntry<>(Version.LATEST_BAGIT_VERSION(), StandardCharsets.UTF_8);
+    if(Files.exists(bagitFile)) {
+      versionAndEncoding = BagitTextFileReader.readBagitTextFile(bagitFile);
+    }
+    return versionAndEncoding;
+  }
+
+  /*
+   * a digest of the absolute path is part of the name so that manifests from different bags can share the same cache directory
+   */
+  private static String indexFileName(final Path manifestFile) {
+    return PathUtils.getFilename(manifestFile) + "-" + HEX.formatHex(ManifestIndexWriter.digestOfPath(manifestFile)) + ".idx";
+  }
+
+  /**
+   * @param manifestFile the manifest this index was created from
+   * @return true if the index was created from a different manifest, or the manifest has been modified since this index was created
+   * @throws IOException if the attributes of the manifest can't be read
+   */
+  public boolean isStale(final Path manifestFile) throws IOException {
+    final BasicFileAttributes attributes = Files.readAttributes(manifestFile, BasicFileAttributes.class);
+    return !header.isFor(manifestFile)
+        || attributes.size() != header.getManifestSize() 
+        || attributes.lastModifiedTime().toMillis() != header.getManifestLastModified();
+  }
+
+  /**
+   * @param relativePath the path of the file relative to the bag root directory, using forward slashes
+   * @return the lower case hex checksum of the file, or empty if the file isn't in the manifest
+   */
+  public Optional<String> getChecksum(final String relativePath) {
+    final long record = find(relativePath.getBytes(StandardCharsets.UTF_8));
+    Optional<String> checksum = Optional.empty();
+    if(record >= 0) {
+      final byte[] digest = new byte[header.getDigestLength()];
+      readDigest(record, digest);
+      checksum = Optional.of(HEX.formatHex(digest));
+    }
+    return checksum;
+  }
+
+  /**
+   * Copy the digest of a file into an existing array, so that repeated lookups don't create any objects.
+   *
+   * @param relativePath the path of the file relative to the bag root directory, using forward slashes
+   * @param destination where to copy the digest to, must be at least {@link #getDigestLength()} long
+   * @return true if the file is in the manifest and the digest was copied
+   */
+  public boolean copyDigest(final String relativePath, final byte[] destination) {
+    final long record = find(relativePath.getBytes(StandardCharsets.UTF_8));
+    if(record >= 0) {
+      readDigest(record, destination);
+    }
+    return record >= 0;
+  }
+
+  /**
+   * Visit every entry whose path starts with the prefix, in sorted order. To avoid creating an object for each entry, 
+   * the same {@link Entry} is reused for every call to the consumer, so it must not be kept once the consumer returns.
+   *
+   * @param prefix the start of the relative paths to visit, for example "data/images/". An empty prefix visits everything
+   * @param consumer what to do with each entry
+   * @return the number of entries visited
+   */
+  public long scanPrefix(final String prefix, final Consumer<Entry> consumer) {
+    final byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+    final Entry entry = new Entry();
+    long visited = 0;
+    for(long record = lowerBound(prefixBytes); record < header.getCount() && startsWith(record, prefixBytes); record++) {
+      entry.record = record;
+      consumer.accept(entry);
+      visited++;
+    }
+    return visited;
+  }
+
+  /*
+   * binary search for the first record that is not less than the key
+   */
+  private long lowerBound(final byte[] key) {
+    long low = 0;
+    long high = header.getCount();
+    while(low < high) {
+      final long middle = (low + high) >>> 1;
+      if(comparePath(middle, key) < 0) {
+        low = middle + 1;
+      }
+      else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private long find(final byte[] key) {
+    final long record = lowerBound(key);
+    long found = -1;
+    if(record < header.getCount() && comparePath(record, key) == 0) {
+      found = record;
+    }
+    return found;
+  }
+
+  private int comparePath(final long record, final byte[] key) {
+    final long pathStart = pathStart(record);
+    final int pathLength = pathLength(record);
+    final int length = Math.min(pathLength, key.length);
+    int comparison = 0;
+    for(int index = 0; comparison == 0 && index < length; index++) {
+      comparison = Integer.compare(Byte.toUnsignedInt(getByte(pathStart + index)), Byte.toUnsignedInt(key[index]));
+    }
+    if(comparison == 0) {
+      comparison = Integer.compare(pathLength, key.length);
+    }
+    return comparison;
+  }
+
+  private boolean startsWith(final long record, final byte[] prefix) {
+    final long pathStart = pathStart(record);
+    boolean matches = pathLength(record) >= prefix.length;
+    for(int index = 0; matches && index < prefix.length; index++) {
+      matches = getByte(pathStart + index) == prefix[index];
+    }
+    return matches;
+  }
+
+  private long recordStart(final long record) {
+    return Header.LENGTH + record * recordLength;
+  }
+
+  private long pathStart(final long record) {
+    return pathsStart + getLong(recordStart(record));
+  }
+
+  private int pathLength(final long record) {
+    return getInt(recordStart(record) + Long.BYTES);
+  }
+
+  private void readDigest(final long record, final byte[] destination) {
+    final long digestStart = recordStart(record) + RECORD_PREFIX_LENGTH;
+    for(int index = 0; index < header.getDigestLength(); index++) {
+      destination[index] = getByte(digestStart + index);
+    }
+  }
+
+  private String readPath(final long record) {
+    final long pathStart = pathStart(record);
+    final byte[] path = new byte[pathLength(record)];
+    for(int index = 0; index < path.length; index++) {
+      path[index] = getByte(pathStart + index);
+    }
+    return new String(path, StandardCharsets.UTF_8);
+  }
+
+  private byte getByte(final long position) {
+    return chunks[(int) (position / CHUNK_SIZE)].get((int) (position % CHUNK_SIZE));
+  }
+
+  private int getInt(final long position) {
+    final ByteBuffer chunk = chunks[(int) (position / CHUNK_SIZE)];
+    final int offset = (int) (position % CHUNK_SIZE);
+    int value;
+    if(offset + Integer.BYTES <= chunk.limit()) {
+      value = chunk.getInt(offset);
+    }
+    else { //spans two chunks
+      value = 0;
+      for(int index = 0; index < Integer.BYTES; index++) {
+        value = value << 8 | Byte.toUnsignedInt(getByte(position + index));
+      }
+    }
+    return value;
+  }
+
+  private long getLong(final long position) {
+    return ((long) getInt(position)) << 32 | Integer.toUnsignedLong(getInt(position + Integer.BYTES));
+  }
+
+  /**
+   * @return the number of files in the index
+   */
+  public long size() {
+    return header.getCount();
+  }
+
+  /**
+   * @return the number of bytes in each digest, for example 64 for sha512
+   */
+  public int getDigestLength() {
+    return header.getDigestLength();
+  }
+
+  /**
+   * @return the file backing this index
+   */
+  public Path getIndexFile() {
+    return indexFile;
+  }
+
+  /**
+   * Releases the index. The memory mapping itself is released once it is garbage collected.
+   */
+  @Override
+  public void close() {
+    for(int index = 0; index < chunks.length; index++) {
+      chunks[index] = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "ManifestIndex [indexFile=%s, size=%d, digestLength=%d]", 
+        indexFile, header.getCount(), header.getDigestLength());
+  }
+
+  /**
+   * A single entry of the index. Only valid during the call to the consumer passed to {@link ManifestIndex#scanPrefix(String, Consumer)}
+   */
+  public final class Entry {
+    private long record;
+
+    private Entry() {
+      //only created by the index
+    }
+
+    /**
+     * @return the path relative to the bag root directory, using forward slashes
+     */
+    public String getRelativePath() {
+      return readPath(record);
+    }
+
+    /**
+     * @return the lower case hex checksum
+     */
+    public String getChecksum() {
+      final byte[] digest = new byte[header.getDigestLength()];
+      readDigest(record, digest);
+      return HEX.formatHex(digest);
+    }
+
+    /**
+     * @param destination where to copy the digest to, must be at least {@link ManifestIndex#getDigestLength()} long
+     */
+    public void copyDigest(final byte[] destination) {
+      readDigest(record, destination);
+    }
+  }
+}
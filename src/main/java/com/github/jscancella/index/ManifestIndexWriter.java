@@ -0,0 +1,276 @@
+package com.github.jscancella.index;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.ResourceBundle;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.MessageFormatter;
+
+import com.github.jscancella.domain.ManifestEntry;
+import com.github.jscancella.domain.Version;
+import com.github.jscancella.exceptions.HasherInitializationException;
+import com.github.jscancella.exceptions.InvalidBagitFileFormatException;
+import com.github.jscancella.internal.ExternalSorter;
+import com.github.jscancella.internal.ExternalSorter.SortedStrings;
+import com.github.jscancella.reader.internal.ManifestReader;
+
+/**
+ * Responsible for creating the file used by {@link ManifestIndex}. The manifest is read one line at a time and sorted 
+ * using temporary files, so that manifests of any size can be indexed with a bounded amount of memory.
+ */
+public enum ManifestIndexWriter {; //using enum to enforce singleton
+  private static final Logger logger = LoggerFactory.getLogger(ManifestIndexWriter.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  private static final int MAX_ENTRIES_IN_MEMORY = 100_000;
+  private static final char SEPARATOR = '\0';
+  private static final HexFormat HEX = HexFormat.of();
+  /**
+   * Orders strings by their unicode code points, which is the same as the order of their UTF-8 bytes
+   */
+  static final Comparator<String> CODE_POINT_ORDER = ManifestIndexWriter::compareCodePoints;
+
+  /**
+   * Create an index of a manifest file.
+   *
+   * @param manifestFile the manifest to index
+   * @param bagRootDir the root directory of the bag
+   * @param version the version of the bag
+   * @param charset the encoding of the manifest
+   * @param indexFile where to write the index
+   *
+   * @throws IOException if there is a problem reading the manifest or writing the index
+   * @throws InvalidBagitFileFormatException if a checksum isn't hex or they aren't all the same length
+   */
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  public static void write(final Path manifestFile, final Path bagRootDir, final Version version, final Charset charset, final Path indexFile) throws IOException {
+    logger.info(messages.getString("building_manifest_index"), manifestFile, indexFile);
+    final Path tempDir = Files.createTempDirectory(indexFile.toAbsolutePath().getParent(), "manifest-index");
+    final BasicFileAttributes manifestAttributes = Files.readAttributes(manifestFile, BasicFileAttributes.class);
+
+    final Path records = tempDir.resolve("records");
+    final Path paths = tempDir.resolve("paths");
+    final Path index = tempDir.resolve("index");
+    try(ExternalSorter sorter = new ExternalSorter(tempDir, MAX_ENTRIES_IN_MEMORY, CODE_POINT_ORDER)){
+      try(Stream<ManifestEntry> entries = ManifestReader.streamManifest(manifestFile, bagRootDir, version, charset)){
+        entries.forEachOrdered(entry -> add(sorter, entry));
+      }
+      catch(UncheckedIOException e) {
+        throw e.getCause();
+      }
+
+      final Header header = writeRecordsAndPaths(sorter, records, paths, manifestAttributes, digestOfPath(manifestFile));
+      try(FileChannel output = FileChannel.open(index, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+          FileChannel recordsInput = FileChannel.open(records, StandardOpenOption.READ);
+          FileChannel pathsInput = FileChannel.open(paths, StandardOpenOption.READ)){
+        output.write(header.toBytes());
+        transfer(recordsInput, output);
+        transfer(pathsInput, output);
+      }
+      Files.move(index, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    finally {
+      Files.deleteIfExists(records);
+      Files.deleteIfExists(paths);
+      Files.deleteIfExists(index);
+      Files.deleteIfExists(tempDir);
+    }
+  }
+
+  private static void add(final ExternalSorter sorter, final ManifestEntry entry) {
+    try {
+      sorter.add(toIndexPath(entry.getRelativeLocation()) + SEPARATOR + entry.getChecksum());
+    }
+    catch(IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @param manifestFile the manifest file
+   * @return the SHA-256 digest of the absolute path of the manifest, which identifies the manifest an index was created from
+   */
+  static byte[] digestOfPath(final Path manifestFile) {
+    try {
+      final String absolutePath = manifestFile.toAbsolutePath().normalize().toString();
+      return MessageDigest.getInstance("SHA-256").digest(absolutePath.getBytes(StandardCharsets.UTF_8));
+    }
+    catch(NoSuchAlgorithmException e) {
+      throw new HasherInitializationException(e);
+    }
+  }
+
+  /**
+   * @param relativePath a path relative to the bag root directory
+   * @return the path as stored in the index, which always uses forward slashes to separate the directories
+   */
+  static String toIndexPath(final Path relativePath) {
+    final StringBuilder indexPath = new StringBuilder();
+    for(final Path name : relativePath) {
+      if(indexPath.length() > 0) {
+        indexPath.append('/');
+      }
+      indexPath.append(name);
+    }
+    return indexPath.toString();
+  }
+
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  private static Header writeRecordsAndPaths(final ExternalSorter sorter, final Path records, final Path paths, 
+      final BasicFileAttributes manifestAttributes, final byte[] manifestPathDigest) throws IOException {
+    long count = 0;
+    long pathsLength = 0;
+    int digestLength = -1;
+    String previousPath = null;
+
+    try(SortedStrings sorted = sorter.read();
+        DataOutputStream recordsOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(records)));
+        BufferedOutputStream pathsOutput = new BufferedOutputStream(Files.newOutputStream(paths))){
+      String record = sorted.next();
+      while(record != null) {
+        final int separatorIndex = record.indexOf(SEPARATOR);
+        final String path = record.substring(0, separatorIndex);
+        final String checksum = record.substring(separatorIndex + 1);
+
+        if(path.equals(previousPath)) { //the records are sorted by path, so a file listed more than once is next to itself
+          throw new InvalidBagitFileFormatException(MessageFormatter.format(messages.getString("index_duplicate_path_error"), path).getMessage());
+        }
+        final byte[] digest = parseChecksum(path, checksum, digestLength);
+        digestLength = digest.length;
+        final byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+        recordsOutput.writeLong(pathsLength);
+        recordsOutput.writeInt(pathBytes.length);
+        recordsOutput.write(digest);
+        pathsOutput.write(pathBytes);
+        pathsLength += pathBytes.length;
+        count++;
+        previousPath = path;
+        record = sorted.next();
+      }
+    }
+
+    return new Header(count, Math.max(0, digestLength), manifestAttributes.size(), manifestAttributes.lastModifiedTime().toMillis(), manifestPathDigest);
+  }
+
+  private static byte[] parseChecksum(final String path, final String checksum, final int expectedLength) {
+    final byte[] digest;
+    try {
+      digest = HEX.parseHex(checksum);
+    }
+    catch(IllegalArgumentException e) {
+      throw new InvalidBagitFileFormatException(MessageFormatter.format(messages.getString("index_checksum_not_hex_error"), checksum, path).getMessage(), e);
+    }
+    if(expectedLength != -1 && digest.length != expectedLength) {
+      throw new InvalidBagitFileFormatException(MessageFormatter.arrayFormat(messages.getString("index_checksum_length_error"), 
+          new Object[] {checksum, path, expectedLength}).getMessage());
+    }
+    return digest;
+  }
+
+  private static void transfer(final FileChannel input, final FileChannel output) throws IOException {
+    long position = 0;
+    final long size = input.size();
+    while(position < size) {
+      position += input.transferTo(position, size - position, output);
+    }
+  }
+
+  private static int compareCodePoints(final String first, final String second) {
+    int firstIndex = 0;
+    int secondIndex = 0;
+    int comparison = 0;
+    while(comparison == 0 && firstIndex < first.length() && secondIndex < second.length()) {
+      final int firstCodePoint = first.codePointAt(firstIndex);
+      final int secondCodePoint = second.codePointAt(secondIndex);
+      comparison = Integer.compare(firstCodePoint, secondCodePoint);
+      firstIndex += Character.charCount(firstCodePoint);
+      secondIndex += Character.charCount(secondCodePoint);
+    }
+    if(comparison == 0) {
+      comparison = Integer.compare(first.length() - firstIndex, second.length() - secondIndex);
+    }
+    return comparison;
+  }
+
+  /**
+   * The fixed size start of an index file
+   */
+  @SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.ArrayIsStoredDirectly", "PMD.MethodReturnsInternalArray"})
+  static final class Header {
+    static final int MAGIC = 0x42414758; //BAGX
+    static final int FORMAT_VERSION = 2;
+    static final int PATH_DIGEST_LENGTH = 32;
+    static final int LENGTH = 40 + PATH_DIGEST_LENGTH;
+    private final long count;
+    private final int digestLength;
+    private final long manifestSize;
+    private final long manifestLastModified;
+    private final byte[] manifestPathDigest;
+
+    Header(final long count, final int digestLength, final long manifestSize, final long manifestLastModified, final byte[] manifestPathDigest) {
+      this.count = count;
+      this.digestLength = digestLength;
+      this.manifestSize = manifestSize;
+      this.manifestLastModified = manifestLastModified;
+      this.manifestPathDigest = manifestPathDigest;
+    }
+
+    ByteBuffer toBytes() {
+      final ByteBuffer bytes = ByteBuffer.allocate(LENGTH);
+      bytes.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(count).putInt(digestLength).putInt(0)
+        .putLong(manifestSize).putLong(manifestLastModified).put(manifestPathDigest);
+      bytes.flip();
+      return bytes;
+    }
+
+    static Header fromBytes(final ByteBuffer bytes) throws IOException {
+      if(bytes.getInt(0) != MAGIC || bytes.getInt(4) != FORMAT_VERSION) {
+        throw new IOException("Not a manifest index, or was created by a different version of this library");
+      }
+      final byte[] manifestPathDigest = new byte[PATH_DIGEST_LENGTH];
+      bytes.get(40, manifestPathDigest);
+      return new Header(bytes.getLong(8), bytes.getInt(16), bytes.getLong(24), bytes.getLong(32), manifestPathDigest);
+    }
+
+    /*
+     * an index is only for the manifest it was created from, even if another manifest has the same size and modified time
+     */
+    boolean isFor(final Path manifestFile) {
+      return Arrays.equals(manifestPathDigest, digestOfPath(manifestFile));
+    }
+
+    long getCount() {
+      return count;
+    }
+
+    int getDigestLength() {
+      return digestLength;
+    }
+
+    long getManifestSize() {
+      return manifestSize;
+    }
+
+    long getManifestLastModified() {
+      return manifestLastModified;
+    }
+  }
+}
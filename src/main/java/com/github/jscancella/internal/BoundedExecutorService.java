@@ -0,0 +1,93 @@
+package com.github.jscancella.internal;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how many tasks of another executor may run at the same time. Intended for executors that start a new thread 
+ * for every task, so that creating a task per file doesn't mean opening every file at once. Tasks wait for a permit 
+ * on their own thread, so submitting never blocks. A submitted task whose thread is interrupted while waiting is cancelled.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.DoNotUseThreads"})
+public final class BoundedExecutorService extends AbstractExecutorService {
+  private final ExecutorService delegate;
+  private final Semaphore permits;
+  private final int maxConcurrent;
+
+  /**
+   * @param delegate the executor that actually runs the tasks
+   * @param maxConcurrent the maximum number of tasks that may run at the same time
+   */
+  public BoundedExecutorService(final ExecutorService delegate, final int maxConcurrent) {
+    super();
+    if(maxConcurrent < 1) {
+      throw new IllegalArgumentException("Must allow at least 1 concurrent task but was [" + maxConcurrent + "]");
+    }
+    this.delegate = delegate;
+    this.maxConcurrent = maxConcurrent;
+    this.permits = new Semaphore(maxConcurrent);
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    delegate.execute(() -> runWithPermit(command));
+  }
+
+  private void runWithPermit(final Runnable command) {
+    try {
+      permits.acquire();
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      if(command instanceof Future) {
+        //complete the task so that nothing waiting on it blocks forever
+        ((Future<?>) command).cancel(false);
+        return;
+      }
+      throw new RejectedExecutionException(e);
+    }
+    try {
+      command.run();
+    }
+    finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * @return the maximum number of tasks that may run at the same time
+   */
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+}
@@ -0,0 +1,245 @@
+package com.github.jscancella.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts more strings than can fit in memory by sorting them in batches, writing each sorted batch (a run) to a temporary file,
+ * and then merging the runs when they are read back. Only one batch plus one string per run is ever held in memory.
+ * Each run being merged holds an open file and a read buffer, so when there are more runs than can be merged at once
+ * they are first merged into fewer, longer runs, which costs reading and writing the strings again for each extra pass.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+public final class ExternalSorter implements Closeable {
+  /**
+   * The number of runs merged at once by default
+   */
+  public static final int DEFAULT_MAX_OPEN_RUNS = 64;
+  private final Path tempDir;
+  private final int maxInMemory;
+  private final int maxOpenRuns;
+  private final Comparator<String> comparator;
+  private final List<String> buffer = new ArrayList<>();
+  private final List<Path> runs = new ArrayList<>();
+  private boolean isFinished;
+
+  /**
+   * Merge at most {@link #DEFAULT_MAX_OPEN_RUNS} runs at once
+   * 
+   * @param tempDir where to write the sorted runs
+   * @param maxInMemory the maximum number of strings to keep in memory before writing them to a run
+   * @param comparator how to order the strings
+   */
+  public ExternalSorter(final Path tempDir, final int maxInMemory, final Comparator<String> comparator) {
+    this(tempDir, maxInMemory, comparator, DEFAULT_MAX_OPEN_RUNS);
+  }
+
+  /**
+   * @param tempDir where to write the sorted runs
+   * @param maxInMemory the maximum number of strings to keep in memory before writing them to a run
+   * @param comparator how to order the strings
+   * @param maxOpenRuns the maximum number of runs to merge (and so files to have open) at once
+   */
+  public ExternalSorter(final Path tempDir, final int maxInMemory, final Comparator<String> comparator, final int maxOpenRuns) {
+    if(maxInMemory < 1) {
+      throw new IllegalArgumentException("Must be able to keep at least 1 string in memory but was [" + maxInMemory + "]");
+    }
+    if(maxOpenRuns < 2) {
+      throw new IllegalArgumentException("Must be able to merge at least 2 runs at once but was [" + maxOpenRuns + "]");
+    }
+    this.tempDir = tempDir;
+    this.maxInMemory = maxInMemory;
+    this.maxOpenRuns = maxOpenRuns;
+    this.comparator = comparator;
+  }
+
+  /**
+   * Add a string to be sorted
+   *
+   * @param value the string to add
+   * @throws IOException if there is a problem writing a run to disk
+   */
+  public void add(final String value) throws IOException {
+    if(isFinished) {
+      throw new IllegalStateException("Can not add to the sorter once it has been read");
+    }
+    buffer.add(value);
+    if(buffer.size() >= maxInMemory) {
+      spill();
+    }
+  }
+
+  /**
+   * Read back all the strings that were added, in sorted order. May be called multiple times, but no more strings may
+   * be added afterwards.
+   *
+   * @return the sorted strings
+   * @throws IOException if there is a problem reading the runs from disk
+   */
+  public SortedStrings read() throws IOException {
+    if(!isFinished) {
+      isFinished = true;
+      if(runs.isEmpty()) {
+        buffer.sort(comparator);
+      }
+      else {
+        spill();
+        mergeRuns();
+      }
+    }
+
+    final SortedStrings sorted;
+    if(runs.isEmpty()) {
+      sorted = new SortedStrings(buffer.iterator());
+    }
+    else {
+      sorted = new SortedStrings(runs, comparator);
+    }
+
+    return sorted;
+  }
+
+  private void spill() throws IOException {
+    if(!buffer.isEmpty()) {
+      buffer.sort(comparator);
+      final Path run = Files.createTempFile(tempDir, "run", ".sorted");
+      try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))){
+        for(final String value : buffer) {
+          output.writeUTF(value);
+        }
+      }
+      runs.add(run);
+      buffer.clear();
+    }
+  }
+
+  /*
+   * merge the oldest runs into a new one until there are few enough to merge them all at once while reading
+   */
+  private void mergeRuns() throws IOException {
+    while(runs.size() > maxOpenRuns) {
+      final List<Path> merging = new ArrayList<>(runs.subList(0, maxOpenRuns));
+      final Path merged = Files.createTempFile(tempDir, "run", ".sorted");
+      runs.add(merged);
+      try(SortedStrings sorted = new SortedStrings(merging, comparator);
+          DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(merged)))){
+        String value = sorted.next();
+        while(value != null) {
+          output.writeUTF(value);
+          value = sorted.next();
+        }
+      }
+      for(final Path run : merging) {
+        Files.delete(run);
+      }
+      runs.subList(0, merging.size()).clear();
+    }
+  }
+
+  /**
+   * @return the number of runs on disk, which once the strings have been read is at most the maximum number of runs merged at once
+   */
+  public int getNumberOfRuns() {
+    return runs.size();
+  }
+
+  /**
+   * Deletes all the runs written to disk
+   */
+  @Override
+  public void close() throws IOException {
+    for(final Path run : runs) {
+      Files.deleteIfExists(run);
+    }
+    runs.clear();
+    buffer.clear();
+  }
+
+  /**
+   * The strings that were added to the sorter, in sorted order
+   */
+  public static final class SortedStrings implements Closeable {
+    private final Iterator<String> inMemory;
+    private final List<DataInputStream> inputs = new ArrayList<>();
+    private final PriorityQueue<Head> heads;
+
+    private SortedStrings(final Iterator<String> inMemory) {
+      this.inMemory = inMemory;
+      this.heads = new PriorityQueue<>();
+    }
+
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private SortedStrings(final List<Path> runs, final Comparator<String> comparator) throws IOException {
+      this.inMemory = null;
+      this.heads = new PriorityQueue<>(runs.size(), (first, second) -> comparator.compare(first.value, second.value));
+      try {
+        for(final Path run : runs) {
+          final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(run)));
+          inputs.add(input);
+          advance(input);
+        }
+      }
+      catch(IOException e) {
+        close();
+        throw e;
+      }
+    }
+
+    /**
+     * @return the next string in sorted order, or null if there are no more
+     * @throws IOException if there is a problem reading a run from disk
+     */
+    @SuppressWarnings("PMD.OnlyOneReturn")
+    public String next() throws IOException {
+      if(inMemory != null) {
+        return inMemory.hasNext() ? inMemory.next() : null;
+      }
+
+      final Head head = heads.poll();
+      if(head == null) {
+        return null;
+      }
+      advance(head.input);
+      return head.value;
+    }
+
+    private void advance(final DataInputStream input) throws IOException {
+      try {
+        heads.add(new Head(input.readUTF(), input));
+      }
+      catch(EOFException e) {
+        input.close();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      for(final DataInputStream input : inputs) {
+        input.close();
+      }
+      heads.clear();
+    }
+  }
+
+  private static final class Head {
+    private final String value;
+    private final DataInputStream input;
+
+    private Head(final String value, final DataInputStream input) {
+      this.value = value;
+      this.input = input;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.github.jscancella.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executors used to work on one task per file, for example when validating or writing a bag. 
+ * On Java 21 and newer a different version of this class is used (see src/main/java21) which starts a virtual thread 
+ * for each file. This version, for older versions of Java, uses a pool of platform threads.
+ */
+@SuppressWarnings({"PMD.DoNotUseThreads"})
+public enum PerFileExecutors {; //using enum to enforce singleton
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  /**
+   * @param maxConcurrentIo the maximum number of files being worked on at the same time
+   * @return an executor that works on at most maxConcurrentIo files at once. The caller must shut it down.
+   */
+  public static ExecutorService newExecutor(final int maxConcurrentIo) {
+    if(maxConcurrentIo < 1) {
+      throw new IllegalArgumentException("Must allow at least 1 file at a time but was [" + maxConcurrentIo + "]");
+    }
+    return Executors.newFixedThreadPool(maxConcurrentIo, runnable -> {
+      final Thread thread = new Thread(runnable, "bagging-worker-" + THREAD_COUNT.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * @return true if each file is worked on by its own virtual thread
+   */
+  public static boolean isUsingVirtualThreads() {
+    return false;
+  }
+}
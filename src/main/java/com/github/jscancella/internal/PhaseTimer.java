@@ -0,0 +1,74 @@
+package com.github.jscancella.internal;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import com.github.jscancella.progress.BagOperationListener;
+import com.github.jscancella.progress.BagOperationListener.Phase;
+
+/**
+ * Tells a {@link BagOperationListener} when a phase starts and finishes, and how long it took.
+ */
+public enum PhaseTimer {; //using enum to enforce singleton
+
+  /**
+   * Run the step, sending the listener the start and end of the phase. The end is sent even if the step fails.
+   * 
+   * @param listener who to tell about the phase
+   * @param phase the phase the step is part of
+   * @param step the work to do
+   * @throws IOException if the step throws it
+   */
+  public static void time(final BagOperationListener listener, final Phase phase, final Step step) throws IOException {
+    compute(listener, phase, () -> {
+      step.run();
+      return null;
+    });
+  }
+
+  /**
+   * Same as {@link #time(BagOperationListener, Phase, Step)} for work that has a result.
+   * 
+   * @param <T> the type of the result
+   * @param listener who to tell about the phase
+   * @param phase the phase the operation is part of
+   * @param operation the work to do
+   * @return the result of the operation
+   * @throws IOException if the operation throws it
+   */
+  public static <T> T compute(final BagOperationListener listener, final Phase phase, final Operation<T> operation) throws IOException {
+    listener.phaseStarted(phase);
+    final long start = System.nanoTime();
+    try {
+      return operation.run();
+    }
+    finally {
+      listener.phaseFinished(phase, Duration.ofNanos(System.nanoTime() - start));
+    }
+  }
+
+  /**
+   * Some work that may throw an exception
+   */
+  @FunctionalInterface
+  public interface Step {
+    /**
+     * @throws IOException if there is a problem doing the work
+     */
+    void run() throws IOException;
+  }
+
+  /**
+   * Some work with a result that may throw an exception
+   * 
+   * @param <T> the type of the result
+   */
+  @FunctionalInterface
+  public interface Operation<T> {
+    /**
+     * @return the result of the work
+     * @throws IOException if there is a problem doing the work
+     */
+    T run() throws IOException;
+  }
+}
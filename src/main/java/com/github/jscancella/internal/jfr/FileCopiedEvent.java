@@ -0,0 +1,57 @@
+package com.github.jscancella.internal.jfr;
+
+import java.nio.file.Path;
+import java.util.Collection;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for copying a file into a bag, optionally computing its checksums at the same time.
+ * The duration of the event is the time it took.
+ * Create it and call {@link #begin()} before copying the file, then {@link #finish(Path, Path, long, Collection)} once done.
+ */
+@Name("com.github.jscancella.FileCopied")
+@Label("File Copied")
+@Category({"Bagging", "Writing"})
+@Description("A file was copied, and possibly hashed while copying")
+@StackTrace(false)
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.CommentDefaultAccessModifier"})
+public final class FileCopiedEvent extends Event {
+  @Label("Source")
+  String source;
+
+  @Label("Destination")
+  String destination;
+
+  @Label("Bytes")
+  @DataAmount
+  long bytes;
+
+  @Label("Algorithms")
+  @Description("The bagit algorithm names of the checksums computed while copying, if any")
+  String algorithms;
+
+  /**
+   * End the event and record it, if recording
+   * 
+   * @param from the file that was copied
+   * @param to where it was copied to
+   * @param bytesCopied the size of the file
+   * @param bagitAlgorithmNames the algorithms used to hash the file while copying it, empty if it was only copied
+   */
+  public void finish(final Path from, final Path to, final long bytesCopied, final Collection<String> bagitAlgorithmNames) {
+    if(shouldCommit()) {
+      this.source = from.toString();
+      this.destination = to.toString();
+      this.bytes = bytesCopied;
+      this.algorithms = String.join(",", bagitAlgorithmNames);
+      commit();
+    }
+  }
+}
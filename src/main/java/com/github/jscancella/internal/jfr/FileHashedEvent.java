@@ -0,0 +1,52 @@
+package com.github.jscancella.internal.jfr;
+
+import java.nio.file.Path;
+import java.util.Collection;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for reading a file and computing its checksums. The duration of the event is the time it took.
+ * Create it and call {@link #begin()} before reading the file, then {@link #finish(Path, long, Collection)} once done. 
+ * When recording is off this costs next to nothing, as nothing is recorded unless {@link #shouldCommit()}.
+ */
+@Name("com.github.jscancella.FileHashed")
+@Label("File Hashed")
+@Category({"Bagging", "Hashing"})
+@Description("A file was read and its checksums computed")
+@StackTrace(false)
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.CommentDefaultAccessModifier"})
+public final class FileHashedEvent extends Event {
+  @Label("Path")
+  String path;
+
+  @Label("Bytes")
+  @DataAmount
+  long bytes;
+
+  @Label("Algorithms")
+  @Description("The bagit algorithm names of the checksums computed")
+  String algorithms;
+
+  /**
+   * End the event and record it, if recording
+   * 
+   * @param file the file that was hashed
+   * @param bytesRead how many bytes of the file were read
+   * @param bagitAlgorithmNames the algorithms used
+   */
+  public void finish(final Path file, final long bytesRead, final Collection<String> bagitAlgorithmNames) {
+    if(shouldCommit()) {
+      this.path = file.toString();
+      this.bytes = bytesRead;
+      this.algorithms = String.join(",", bagitAlgorithmNames);
+      commit();
+    }
+  }
+}
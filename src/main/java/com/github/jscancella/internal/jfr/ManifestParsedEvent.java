@@ -0,0 +1,49 @@
+package com.github.jscancella.internal.jfr;
+
+import java.nio.file.Path;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for reading a manifest file into memory. The duration of the event is the time it took.
+ * Create it and call {@link #begin()} before reading the manifest, then {@link #finish(Path, int, long)} once done.
+ */
+@Name("com.github.jscancella.ManifestParsed")
+@Label("Manifest Parsed")
+@Category({"Bagging", "Reading"})
+@Description("A manifest file was read and its entries parsed")
+@StackTrace(false)
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.CommentDefaultAccessModifier"})
+public final class ManifestParsedEvent extends Event {
+  @Label("Path")
+  String path;
+
+  @Label("Entries")
+  int entries;
+
+  @Label("Bytes")
+  @DataAmount
+  long bytes;
+
+  /**
+   * End the event and record it, if recording
+   * 
+   * @param manifestFile the manifest that was read
+   * @param numberOfEntries how many entries it has
+   * @param size the size of the manifest file
+   */
+  public void finish(final Path manifestFile, final int numberOfEntries, final long size) {
+    if(shouldCommit()) {
+      this.path = manifestFile.toString();
+      this.entries = numberOfEntries;
+      this.bytes = size;
+      commit();
+    }
+  }
+}
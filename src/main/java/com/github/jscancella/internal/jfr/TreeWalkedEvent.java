@@ -0,0 +1,50 @@
+package com.github.jscancella.internal.jfr;
+
+import java.io.IOException;
+import java.nio.file.FileVisitor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for walking a directory tree, for example the payload directory when checking if a bag is complete.
+ * The duration of the event is the time the whole walk took, including what the visitor did with each file.
+ */
+@Name("com.github.jscancella.TreeWalked")
+@Label("Tree Walked")
+@Category({"Bagging", "Reading"})
+@Description("A directory tree was walked")
+@StackTrace(false)
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.CommentDefaultAccessModifier"})
+public final class TreeWalkedEvent extends Event {
+  @Label("Path")
+  String path;
+
+  @Label("Purpose")
+  String purpose;
+
+  /**
+   * Same as {@link Files#walkFileTree(Path, FileVisitor)}, recording how long it took if recording.
+   * 
+   * @param start the directory to start walking from
+   * @param visitor what to do with each file
+   * @param purpose why the tree is being walked, for example "completeness"
+   * @throws IOException if the visitor throws it
+   */
+  public static void walkFileTree(final Path start, final FileVisitor<? super Path> visitor, final String purpose) throws IOException {
+    final TreeWalkedEvent event = new TreeWalkedEvent();
+    event.begin();
+    Files.walkFileTree(start, visitor);
+    if(event.shouldCommit()) {
+      event.path = start.toString();
+      event.purpose = purpose;
+      event.commit();
+    }
+  }
+}
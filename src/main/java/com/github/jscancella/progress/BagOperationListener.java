@@ -0,0 +1,93 @@
+package com.github.jscancella.progress;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Receives progress events while a bag is being validated, built, or written, for example to show throughput on a dashboard
+ * or to notice a degraded disk. Every method does nothing by default, so implement only the events needed.
+ * Events for files may be sent from many threads at the same time, so implementations must be thread safe and should return quickly.
+ * See {@link ProgressAggregator} for a listener that computes the throughput and estimated time remaining.
+ */
+public interface BagOperationListener {
+  /**
+   * A listener that ignores every event, the default
+   */
+  BagOperationListener NONE = new BagOperationListener() {};
+
+  /**
+   * @param phase the phase that is starting
+   */
+  default void phaseStarted(final Phase phase) {
+    //does nothing by default
+  }
+
+  /**
+   * Sent once a phase is done, even if it failed.
+   * 
+   * @param phase the phase that finished
+   * @param elapsed how long the phase took
+   */
+  default void phaseFinished(final Phase phase, final Duration elapsed) {
+    //does nothing by default
+  }
+
+  /**
+   * Sent once the sizes of the payload files are known, which is after they have been found to match the Payload-Oxum.
+   * 
+   * @param totalBytes the total size of the payload files
+   * @param totalFiles the number of payload files
+   */
+  default void payloadSizeKnown(final long totalBytes, final long totalFiles) {
+    //does nothing by default
+  }
+
+  /**
+   * Sent each time a file has been hashed or copied during the current phase.
+   * 
+   * @param file the file
+   * @param bytes the number of bytes read, which is 0 if the checksums came from a cache
+   * @param elapsed how long it took
+   */
+  default void fileProcessed(final Path file, final long bytes, final Duration elapsed) {
+    //does nothing by default
+  }
+
+  /**
+   * The steps of validating, building, or writing a bag, in the order they happen
+   */
+  enum Phase {
+    /**
+     * checking that the bagit.txt file, payload directory, fetched files, and at least one payload manifest exist
+     */
+    CHECK_MANDATORY_FILES,
+    /**
+     * comparing the sizes of the payload files to the Payload-Oxum
+     */
+    CHECK_PAYLOAD_OXUM,
+    /**
+     * checking that every file listed in a manifest exists, and that every payload file is listed in a manifest
+     */
+    CHECK_COMPLETENESS,
+    /**
+     * hashing the tag files and comparing them to the tag manifests
+     */
+    CHECK_TAG_CHECKSUMS,
+    /**
+     * hashing the payload files and comparing them to the payload manifests
+     */
+    CHECK_PAYLOAD_CHECKSUMS,
+    /**
+     * hashing (and optionally copying) the payload files added to a {@link com.github.jscancella.domain.BagBuilder}
+     */
+    BUILD_PAYLOAD_MANIFESTS,
+    /**
+     * hashing (and optionally copying) the tag files added to a {@link com.github.jscancella.domain.BagBuilder}
+     */
+    BUILD_TAG_MANIFESTS,
+    /**
+     * writing the tag files and manifests and copying the files into the new location of the bag
+     */
+    WRITE_BAG
+  }
+}
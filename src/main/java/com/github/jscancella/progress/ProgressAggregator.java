@@ -0,0 +1,180 @@
+package com.github.jscancella.progress;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.jscancella.domain.internal.EclipseGenerated;
+
+/**
+ * A {@link BagOperationListener} that adds up the events into the overall throughput (files per second and megabytes per second),
+ * how long each phase took, and an estimate of how long it will take to hash the rest of the payload based on the Payload-Oxum.
+ * It is safe to read the statistics from another thread while the operation is running. The statistics of every operation
+ * using the same aggregator are added together, including the expected payload size, so the estimate covers all of their payloads.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.AvoidSynchronizedAtMethodLevel"})
+public final class ProgressAggregator implements BagOperationListener {
+  private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+  private static final double MILLISECONDS_PER_SECOND = 1000;
+  private static final long UNKNOWN = -1;
+
+  private final Clock clock;
+  private final LongAdder filesProcessed = new LongAdder();
+  private final LongAdder bytesProcessed = new LongAdder();
+  private final LongAdder payloadBytesProcessed = new LongAdder();
+  private final Map<Phase, Duration> phaseTimings = new EnumMap<>(Phase.class);
+  private volatile Phase currentPhase;
+  private volatile long startedAt = UNKNOWN;
+  private volatile long payloadStartedAt = UNKNOWN;
+  private final LongAdder expectedPayloadBytes = new LongAdder();
+  private final LongAdder expectedPayloadFiles = new LongAdder();
+  private volatile boolean isPayloadSizeKnown;
+
+  /**
+   * Aggregate the events using the system clock
+   */
+  public ProgressAggregator() {
+    this(Clock.systemUTC());
+  }
+
+  /**
+   * @param clock the clock used to compute the throughput
+   */
+  public ProgressAggregator(final Clock clock) {
+    this.clock = clock;
+  }
+
+  @Override
+  public synchronized void phaseStarted(final Phase phase) {
+    currentPhase = phase;
+    if(startedAt == UNKNOWN) {
+      startedAt = clock.millis();
+    }
+    if(isPayload(phase) && payloadStartedAt == UNKNOWN) {
+      payloadStartedAt = clock.millis();
+    }
+  }
+
+  @Override
+  public synchronized void phaseFinished(final Phase phase, final Duration elapsed) {
+    phaseTimings.merge(phase, elapsed, Duration::plus);
+  }
+
+  @Override
+  public void payloadSizeKnown(final long totalBytes, final long totalFiles) {
+    expectedPayloadBytes.add(totalBytes);
+    expectedPayloadFiles.add(totalFiles);
+    isPayloadSizeKnown = true;
+  }
+
+  @Override
+  public void fileProcessed(final Path file, final long bytes, final Duration elapsed) {
+    filesProcessed.increment();
+    bytesProcessed.add(bytes);
+    if(isPayload(currentPhase)) {
+      payloadBytesProcessed.add(bytes);
+    }
+  }
+
+  private static boolean isPayload(final Phase phase) {
+    return phase == Phase.CHECK_PAYLOAD_CHECKSUMS || phase == Phase.BUILD_PAYLOAD_MANIFESTS;
+  }
+
+  /**
+   * @return the number of files hashed or copied so far
+   */
+  public long getFilesProcessed() {
+    return filesProcessed.sum();
+  }
+
+  /**
+   * @return the number of bytes read so far
+   */
+  public long getBytesProcessed() {
+    return bytesProcessed.sum();
+  }
+
+  /**
+   * @return how long since the first phase started
+   */
+  public Duration getElapsed() {
+    return startedAt == UNKNOWN ? Duration.ZERO : Duration.ofMillis(clock.millis() - startedAt);
+  }
+
+  /**
+   * @return the average number of files hashed or copied per second since the first phase started
+   */
+  public double getFilesPerSecond() {
+    return perSecond(getFilesProcessed(), getElapsed());
+  }
+
+  /**
+   * @return the average number of megabytes read per second since the first phase started
+   */
+  public double getMegabytesPerSecond() {
+    return perSecond(getBytesProcessed(), getElapsed()) / BYTES_PER_MEGABYTE;
+  }
+
+  private static double perSecond(final long count, final Duration elapsed) {
+    return elapsed.isZero() ? 0 : count / (elapsed.toMillis() / MILLISECONDS_PER_SECOND);
+  }
+
+  /**
+   * The estimate is the payload bytes left to read divided by how fast the payload has been read so far.
+   * It is only available once the payload is being hashed and the size of the payload is known from the Payload-Oxum.
+   *
+   * @return how much longer it should take to hash the rest of the payload
+   */
+  public Optional<Duration> getEstimatedTimeRemaining() {
+    final long payloadBytes = payloadBytesProcessed.sum();
+    final long elapsed = payloadStartedAt == UNKNOWN ? 0 : clock.millis() - payloadStartedAt;
+    Optional<Duration> estimate = Optional.empty();
+
+    if(isPayloadSizeKnown && payloadBytes > 0 && elapsed > 0) {
+      final long remainingBytes = Math.max(0, expectedPayloadBytes.sum() - payloadBytes);
+      estimate = Optional.of(Duration.ofMillis((long) (remainingBytes * ((double) elapsed / payloadBytes))));
+    }
+
+    return estimate;
+  }
+
+  /**
+   * @return the total size of the payload from the Payload-Oxum of every operation so far, if known
+   */
+  public Optional<Long> getExpectedPayloadBytes() {
+    return isPayloadSizeKnown ? Optional.of(expectedPayloadBytes.sum()) : Optional.empty();
+  }
+
+  /**
+   * @return the number of payload files from the Payload-Oxum of every operation so far, if known
+   */
+  public Optional<Long> getExpectedPayloadFiles() {
+    return isPayloadSizeKnown ? Optional.of(expectedPayloadFiles.sum()) : Optional.empty();
+  }
+
+  /**
+   * @return the phase most recently started, if any
+   */
+  public Optional<Phase> getCurrentPhase() {
+    return Optional.ofNullable(currentPhase);
+  }
+
+  /**
+   * @return how long each finished phase took
+   */
+  public synchronized Map<Phase, Duration> getPhaseTimings() {
+    return Collections.unmodifiableMap(new EnumMap<>(phaseTimings));
+  }
+
+  @EclipseGenerated
+  @Override
+  public String toString() {
+    return "ProgressAggregator [filesProcessed=" + getFilesProcessed() + ", bytesProcessed=" + getBytesProcessed() + ", currentPhase="
+        + currentPhase + ", elapsed=" + getElapsed() + ", expectedPayloadBytes=" + getExpectedPayloadBytes() + "]";
+  }
+}
@@ -2,10 +2,12 @@ package com.github.jscancella.reader.internal;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ResourceBundle;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +19,7 @@ import com.github.jscancella.domain.Version;
 import com.github.jscancella.exceptions.InvalidBagitFileFormatException;
 import com.github.jscancella.exceptions.MaliciousPathException;
 import com.github.jscancella.internal.PathUtils;
+import com.github.jscancella.internal.jfr.ManifestParsedEvent;
 
 /**
  * This class is responsible for reading and parsing manifest files on the filesystem
@@ -39,25 +42,72 @@ public enum ManifestReader {;//using enum to enforce singleton
    * @throws MaliciousPathException if the manifest has a path that is outside the bag
    * @throws InvalidBagitFileFormatException if the manifest is not formatted correctly
    */
-  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  @SuppressWarnings("PMD.PreserveStackTrace")
   public static Manifest readManifest(final Path manifestFile, final Path bagRootDir, final Version version, final Charset charset) throws IOException{
-    logger.debug(messages.getString("reading_manifest"), manifestFile);
-    final String algorithm = PathUtils.getFilename(manifestFile).split("[-\\.]")[1];
+    final ManifestBuilder manifestBuilder = new ManifestBuilder(getBagitAlgorithmName(manifestFile), bagRootDir);
+    final ManifestParsedEvent event = new ManifestParsedEvent();
+    event.begin();
     
-    final ManifestBuilder manifestBuilder = new ManifestBuilder(algorithm);
+    try(Stream<ManifestEntry> entries = streamManifest(manifestFile, bagRootDir, version, charset)){
+      entries.forEachOrdered(manifestBuilder::addEntry);
+    }
+    catch(UncheckedIOException e){
+      throw e.getCause();
+    }
     
-    try(BufferedReader reader = Files.newBufferedReader(manifestFile, charset)){
-      String line = reader.readLine();
-      while(line != null){
-        final String[] parts = line.split("\\s+", 2);
-        final Path file = TagFileReader.createFileFromManifest(bagRootDir, parts[1], version, charset);
-        final Path relative = bagRootDir.relativize(file);
-        final ManifestEntry entry = new ManifestEntry(file, relative, parts[0]);
-        manifestBuilder.addEntry(entry);
-        line = reader.readLine();
-      }
+    final Manifest manifest = manifestBuilder.build();
+    if(event.shouldCommit()) {
+      event.finish(manifestFile, manifest.getEntries().size(), Files.size(manifestFile));
     }
+    return manifest;
+  }
+  
+  /**
+   * Lazily reads the entries of a manifest file, one line at a time, so that the whole manifest doesn't need to fit in memory.
+   * Each path is checked as its line is read. Like {@link Files#lines(Path)}, the stream <b>must</b> be closed 
+   * (for example using a try-with-resources) and any problem reading the file is thrown as an {@link UncheckedIOException}.
+   * 
+   * @param manifestFile the path to the manifest file to read
+   * @param bagRootDir the root directory of the bag
+   * @param version the version of the bag
+   * @param charset what encoding to use when reading the manifest file
+   * 
+   * @return the entries in the order they are listed in the manifest
+   * 
+   * @throws IOException if there is a problem opening the manifest file
+   * @throws MaliciousPathException if the manifest has a path that is outside the bag (thrown while consuming the stream)
+   * @throws InvalidBagitFileFormatException if the manifest is not formatted correctly (thrown while consuming the stream)
+   */
+  public static Stream<ManifestEntry> streamManifest(final Path manifestFile, final Path bagRootDir, final Version version, final Charset charset) throws IOException{
+    logger.debug(messages.getString("reading_manifest"), manifestFile);
+    final BufferedReader reader = Files.newBufferedReader(manifestFile, charset);
     
-    return manifestBuilder.build();
+    return reader.lines()
+        .map(line -> parseLine(line, bagRootDir, version, charset))
+        .onClose(() -> close(reader));
+  }
+  
+  /**
+   * @param manifestFile the manifest file, for example manifest-md5.txt
+   * @return the bagit algorithm name that is part of the manifest file name, for example md5
+   */
+  public static String getBagitAlgorithmName(final Path manifestFile) {
+    return PathUtils.getFilename(manifestFile).split("[-\\.]")[1];
+  }
+  
+  private static ManifestEntry parseLine(final String line, final Path bagRootDir, final Version version, final Charset charset) {
+    final String[] parts = line.split("\\s+", 2);
+    final Path file = TagFileReader.createFileFromManifest(bagRootDir, parts[1], version, charset);
+    final Path relative = bagRootDir.relativize(file);
+    return new ManifestEntry(file, relative, parts[0]);
+  }
+  
+  private static void close(final BufferedReader reader) {
+    try {
+      reader.close();
+    }
+    catch(IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 }
@@ -0,0 +1,58 @@
+package com.github.jscancella.verify;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import com.github.jscancella.domain.internal.EclipseGenerated;
+
+/**
+ * The outcome of validating one bag of a batch, see {@link BagBatchValidator}. Either the bag was checked and has a report
+ * of everything wrong with its files, or the bag itself couldn't be checked (for example it is missing its bagit.txt file)
+ * and has the error that stopped it from being checked.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+public final class BagBatchResult {
+  private final Path rootDir;
+  private final ValidationReport report;
+  private final Exception error;
+
+  BagBatchResult(final Path rootDir, final ValidationReport report, final Exception error) {
+    this.rootDir = rootDir;
+    this.report = report;
+    this.error = error;
+  }
+
+  /**
+   * @return true if the bag was checked and nothing is wrong with it
+   */
+  public boolean isValid() {
+    return report != null && report.isValid();
+  }
+
+  /**
+   * @return the root directory of the bag
+   */
+  public Path getRootDir() {
+    return rootDir;
+  }
+
+  /**
+   * @return everything wrong with the files of the bag, if it could be checked
+   */
+  public Optional<ValidationReport> getReport() {
+    return Optional.ofNullable(report);
+  }
+
+  /**
+   * @return why the bag couldn't be checked, if it couldn't
+   */
+  public Optional<Exception> getError() {
+    return Optional.ofNullable(error);
+  }
+
+  @EclipseGenerated
+  @Override
+  public String toString() {
+    return "BagBatchResult [rootDir=" + rootDir + ", report=" + report + ", error=" + error + "]";
+  }
+}
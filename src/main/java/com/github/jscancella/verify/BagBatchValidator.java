@@ -0,0 +1,268 @@
+package com.github.jscancella.verify;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.jscancella.domain.Bag;
+import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.internal.EclipseGenerated;
+import com.github.jscancella.exceptions.ValidationCancelledException;
+import com.github.jscancella.exceptions.VerificationException;
+import com.github.jscancella.internal.PhaseTimer;
+import com.github.jscancella.progress.BagOperationListener.Phase;
+import com.github.jscancella.verify.ValidationReport.ValidationReportBuilder;
+import com.github.jscancella.verify.internal.BagitTextFileVerifier;
+import com.github.jscancella.verify.internal.BatchChecksumVerifier;
+import com.github.jscancella.verify.internal.BatchChecksumVerifier.BagChecksums;
+import com.github.jscancella.verify.internal.CompletenessVerifier;
+
+/**
+ * Validates many bags at once, for example every bag ingested in a day. Unlike validating each bag in turn, the files of every bag
+ * are hashed by the same pool of threads, largest first across all the bags, so a few huge bags don't leave the other threads idle at the end.
+ * To avoid thrashing the disks, only a limited number of files on the same file store are read at the same time,
+ * so the pool can be sized for all the disks at once: for example 4 disks with 4 reads per file store would use a parallelism of 16.
+ * <p>
+ * Each bag gets its own result, the same as {@link Bag#validate(boolean, ValidationOptions)}, so one broken bag doesn't stop the others from being checked.
+ * The {@link ValidationOptions} are shared by every bag: the parallelism (or executor) is the pool, see {@link #BagBatchValidator(ValidationOptions, int, int)}
+ * for how many of its threads hash files, and the read strategy, checksum cache, Payload-Oxum check, cancellation, deadline, checkpoint and listener apply to all the bags.
+ * Asynchronous reads and thread per file are not used, as the batch does its own scheduling: each bag is checked for completeness 
+ * by a single task of the pool, and its files are hashed by the pool, so a batch never has more than the pool's threads reading at once.
+ * <p>
+ * To hash the largest files first, every file of every bag is listed, with its size and manifest entries, before any of them are hashed.
+ * So memory grows with the total number of files in the batch, not the number of bags, until each file is hashed and its entry let go.
+ * Split batches of many millions of files into several smaller batches.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+public final class BagBatchValidator {
+  private static final Logger logger = LoggerFactory.getLogger(BagBatchValidator.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  /**
+   * How many files are read from the same file store at once by default
+   */
+  public static final int DEFAULT_MAX_READS_PER_FILE_STORE = 4;
+
+  private final ValidationOptions options;
+  private final ValidationOptions completenessOptions;
+  private final int maxReadsPerFileStore;
+  private final int threads;
+
+  /**
+   * Validate the bags reading at most {@link #DEFAULT_MAX_READS_PER_FILE_STORE} files from the same file store at once.
+   * See {@link #BagBatchValidator(ValidationOptions, int)} for how many files are hashed at once.
+   *
+   * @param options how to go about validating, shared by every bag
+   */
+  public BagBatchValidator(final ValidationOptions options) {
+    this(options, DEFAULT_MAX_READS_PER_FILE_STORE);
+  }
+
+  /**
+   * Hash as many files at once as the pool has threads: the parallelism of the options, or when they have an executor, 
+   * the core pool size of a {@link ThreadPoolExecutor} or the parallelism of a {@link ForkJoinPool}. 
+   * For any other executor use {@link #BagBatchValidator(ValidationOptions, int, int)}.
+   * 
+   * @param options how to go about validating, shared by every bag
+   * @param maxReadsPerFileStore how many files to read from the same file store (disk) at once, lower for spinning disks and higher for SSDs
+   * 
+   * @throws IllegalArgumentException if the number of threads of the executor of the options can't be found
+   */
+  public BagBatchValidator(final ValidationOptions options, final int maxReadsPerFileStore) {
+    this(options, maxReadsPerFileStore, threadsOf(options));
+  }
+
+  /**
+   * @param options how to go about validating, shared by every bag
+   * @param maxReadsPerFileStore how many files to read from the same file store (disk) at once, lower for spinning disks and higher for SSDs
+   * @param threads how many files to hash at once across all the bags, at most the number of threads of the executor of the options.
+   * When the options don't have an executor, this is the size of the pool that is created instead of the parallelism.
+   */
+  public BagBatchValidator(final ValidationOptions options, final int maxReadsPerFileStore, final int threads) {
+    if(maxReadsPerFileStore < 1) {
+      throw new IllegalArgumentException("The maximum reads per file store must be at least 1 but was [" + maxReadsPerFileStore + "]");
+    }
+    if(threads < 1) {
+      throw new IllegalArgumentException("The number of threads must be at least 1 but was [" + threads + "]");
+    }
+    this.options = options;
+    //each bag is already a task of the pool, a thread per file inside each of them would multiply the reads in flight by the number of bags
+    this.completenessOptions = options.withoutThreadPerFile();
+    this.maxReadsPerFileStore = maxReadsPerFileStore;
+    this.threads = threads;
+  }
+
+  /*
+   * the parallelism of the options only sizes the pool when there isn't an executor, otherwise it is left at 1
+   */
+  private static int threadsOf(final ValidationOptions options) {
+    if(!options.getExecutor().isPresent()) {
+      return options.getParallelism();
+    }
+    final ExecutorService executor = options.getExecutor().get();
+    if(executor instanceof ThreadPoolExecutor && ((ThreadPoolExecutor) executor).getCorePoolSize() > 0) {
+      return ((ThreadPoolExecutor) executor).getCorePoolSize();
+    }
+    if(executor instanceof ForkJoinPool) {
+      return ((ForkJoinPool) executor).getParallelism();
+    }
+    throw new IllegalArgumentException("Could not find how many threads the executor [" + executor + "] has, pass the number of threads to hash with instead");
+  }
+
+  /**
+   * Check that each bag is complete and valid, finding every problem with each bag instead of stopping at the first one.
+   *
+   * @param bagRootDirs the root directory of each bag
+   * @param ignoreHiddenFiles to include hidden files when checking
+   *
+   * @return the result of each bag, in the same order as the root directories
+   *
+   * @throws IOException if there is a problem that isn't specific to a single bag
+   * @throws ValidationCancelledException if the validation was cancelled, interrupted, or its deadline passed
+   */
+  public List<BagBatchResult> validate(final Collection<Path> bagRootDirs, final boolean ignoreHiddenFiles) throws IOException {
+    logger.info(messages.getString("validating_bags_in_batch"), bagRootDirs.size(), threads, maxReadsPerFileStore);
+    final ExecutorService executor = options.getExecutor().orElseGet(() -> Executors.newFixedThreadPool(threads));
+    try {
+      final List<CheckedBag> bags = checkCompleteness(bagRootDirs, ignoreHiddenFiles, executor);
+
+      final List<BagChecksums> checksums = new ArrayList<>();
+      for(final CheckedBag bag : bags) {
+        if(bag.error == null) {
+          checksums.add(bag.checksums);
+        }
+      }
+      PhaseTimer.time(options.getListener(), Phase.CHECK_PAYLOAD_CHECKSUMS, () ->
+        BatchChecksumVerifier.checkHashes(checksums, executor, threads, maxReadsPerFileStore, options));
+
+      return results(bags);
+    }
+    finally {
+      if(!options.getExecutor().isPresent()) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  /*
+   * reading each bag, walking its files and reading their sizes is done on the pool as well, so thousands of bags are read in parallel
+   */
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  private List<CheckedBag> checkCompleteness(final Collection<Path> bagRootDirs, final boolean ignoreHiddenFiles, final ExecutorService executor) {
+    final List<Future<CheckedBag>> futures = new ArrayList<>();
+    for(final Path rootDir : bagRootDirs) {
+      futures.add(executor.submit(() -> checkCompleteness(rootDir, ignoreHiddenFiles)));
+    }
+
+    final List<CheckedBag> bags = new ArrayList<>();
+    try {
+      for(final Future<CheckedBag> future : futures) {
+        bags.add(future.get());
+      }
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ValidationCancelledException(messages.getString("validation_interrupted_error"));
+    }
+    catch(ExecutionException e) {
+      //only cancelling the validation or an error fails the whole batch, everything else is the fault of a single bag
+      if(e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      if(e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new VerificationException((Exception) e.getCause());
+    }
+    finally {
+      for(final Future<CheckedBag> future : futures) {
+        future.cancel(true);
+      }
+    }
+    return bags;
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private CheckedBag checkCompleteness(final Path rootDir, final boolean ignoreHiddenFiles) {
+    final ValidationReportBuilder report = new ValidationReportBuilder();
+    try {
+      final Bag bag = Bag.read(rootDir);
+      BagitTextFileVerifier.checkBagitTextFile(bag);
+      CompletenessVerifier.checkCompleteness(bag, ignoreHiddenFiles, completenessOptions, report);
+      //only the files are kept, not the whole bag, until it is time to hash them
+      final List<Manifest> manifests = new ArrayList<>(bag.getTagManifests());
+      manifests.addAll(bag.getPayLoadManifests());
+      return new CheckedBag(rootDir, BagChecksums.of(rootDir, manifests, report), report, null);
+    }
+    catch(ValidationCancelledException e) {
+      throw e;
+    }
+    catch(IOException | RuntimeException e) {
+      logger.warn(messages.getString("could_not_validate_bag_in_batch"), rootDir, e.toString());
+      return new CheckedBag(rootDir, null, report, e);
+    }
+  }
+
+  /*
+   * the checkpoint is shared by every bag, so only the files of the valid bags are cleared from it
+   */
+  private List<BagBatchResult> results(final List<CheckedBag> bags) throws IOException {
+    final List<BagBatchResult> results = new ArrayList<>();
+    for(final CheckedBag bag : bags) {
+      final BagBatchResult result = new BagBatchResult(bag.rootDir, bag.error == null ? bag.report.build() : null, bag.error);
+      if(result.isValid() && options.getCheckpoint().isPresent()) {
+        options.getCheckpoint().get().clear(bag.rootDir);
+      }
+      results.add(result);
+    }
+    return results;
+  }
+
+  /**
+   * @return how many files are read from the same file store at once
+   */
+  public int getMaxReadsPerFileStore() {
+    return maxReadsPerFileStore;
+  }
+
+  /**
+   * @return how many files are hashed at once across all the bags
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  @EclipseGenerated
+  @Override
+  public String toString() {
+    return "BagBatchValidator [options=" + options + ", maxReadsPerFileStore=" + maxReadsPerFileStore + ", threads=" + threads + "]";
+  }
+
+  /*
+   * a bag whose completeness has been checked, ready for its checksums to be checked
+   */
+  private static final class CheckedBag {
+    private final Path rootDir;
+    private final BagChecksums checksums;
+    private final ValidationReportBuilder report;
+    private final Exception error;
+
+    private CheckedBag(final Path rootDir, final BagChecksums checksums, final ValidationReportBuilder report, final Exception error) {
+      this.rootDir = rootDir;
+      this.checksums = checksums;
+      this.report = report;
+      this.error = error;
+    }
+  }
+}
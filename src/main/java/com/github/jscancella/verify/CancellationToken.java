@@ -0,0 +1,31 @@
+package com.github.jscancella.verify;
+
+import com.github.jscancella.domain.internal.EclipseGenerated;
+
+/**
+ * Used to stop a validation that is in progress from another thread, see {@link ValidationOptions.ValidationOptionsBuilder#cancellationToken(CancellationToken)}.
+ * Validation stops before it starts on the next file or chunk of a file, so it doesn't wait for a large file to be fully hashed.
+ */
+public final class CancellationToken {
+  private volatile boolean cancelled;
+
+  /**
+   * Ask every validation using this token to stop. This can't be undone.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * @return true if {@link #cancel()} has been called
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  @EclipseGenerated
+  @Override
+  public String toString() {
+    return "CancellationToken [cancelled=" + cancelled + "]";
+  }
+}
@@ -0,0 +1,295 @@
+package com.github.jscancella.verify;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.ResourceBundle;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.jscancella.domain.internal.EclipseGenerated;
+
+/**
+ * Records which files have already had all their checksums verified, so that a validation which was cancelled, timed out,
+ * or stopped by the host rebooting continues where it left off instead of hashing every file again.
+ * Each verified file is appended to a local file, which is flushed at most every flush interval so that
+ * only the files verified since the last flush are hashed again after a crash.
+ * A file is only skipped if its size and modified time are the same as when it was verified, and the manifests still list
+ * the same checksums for it, so one checkpoint can safely be shared by many bags.
+ * Once a bag has been found to be valid only the files inside that bag are forgotten, see {@link #clear(Path)},
+ * so the progress of the other bags sharing the checkpoint is kept. The checkpoint is closed at the end of every validation.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.AvoidSynchronizedAtMethodLevel"})
+public final class ValidationCheckpoint implements Closeable {
+  private static final Logger logger = LoggerFactory.getLogger(ValidationCheckpoint.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  private static final String SEPARATOR = "\t";
+  private static final int NUMBER_OF_FIELDS = 4;
+  /**
+   * How often the checkpoint is written to disk by default
+   */
+  public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(30);
+
+  private final Path checkpointFile;
+  private final Duration flushInterval;
+  //the absolute path of each verified file, mapped to its size and modified time when it was verified and the checksums it matched
+  private final Map<String, String> verifiedFiles = new ConcurrentHashMap<>();
+  private BufferedWriter writer;
+  private long lastFlush;
+
+  /**
+   * Load the checkpoint from a file, if it exists, flushing it to disk every {@link #DEFAULT_FLUSH_INTERVAL}.
+   *
+   * @param checkpointFile where the checkpoint is stored
+   * @throws IOException if there is a problem reading the checkpoint file
+   */
+  public ValidationCheckpoint(final Path checkpointFile) throws IOException {
+    this(checkpointFile, DEFAULT_FLUSH_INTERVAL);
+  }
+
+  /**
+   * Load the checkpoint from a file, if it exists.
+   *
+   * @param checkpointFile where the checkpoint is stored
+   * @param flushInterval how often the verified files are written to disk, {@link Duration#ZERO} to write each one as soon as it is verified
+   * @throws IOException if there is a problem reading the checkpoint file
+   */
+  public ValidationCheckpoint(final Path checkpointFile, final Duration flushInterval) throws IOException {
+    this.checkpointFile = checkpointFile;
+    this.flushInterval = flushInterval;
+    load();
+  }
+
+  private void load() throws IOException {
+    if(Files.exists(checkpointFile)) {
+      try(BufferedReader reader = Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)){
+        String line = reader.readLine();
+        while(line != null) {
+          parseLine(line);
+          line = reader.readLine();
+        }
+      }
+      logger.info(messages.getString("loaded_validation_checkpoint"), verifiedFiles.size(), checkpointFile);
+    }
+  }
+
+  /*
+   * the last line may be partially written if the host crashed, in which case that file is simply verified again
+   */
+  private void parseLine(final String line) {
+    if(line.isEmpty()) {
+      return;
+    }
+    final String[] parts = line.split(SEPARATOR, NUMBER_OF_FIELDS);
+    if(parts.length == NUMBER_OF_FIELDS) {
+      verifiedFiles.put(parts[3], parts[0] + SEPARATOR + parts[1] + SEPARATOR + parts[2]);
+    }
+    else {
+      logger.warn(messages.getString("skipping_bad_validation_checkpoint_line"), line);
+    }
+  }
+
+  /**
+   * @param file the file to check
+   * @param checksums the bagit algorithm name mapped to the checksum the manifests list for the file
+   * @return true if the file was already verified against the same checksums and hasn't changed since
+   * @throws IOException if there is a problem reading the attributes of the file
+   */
+  public boolean isVerified(final Path file, final Map<String, String> checksums) throws IOException {
+    final String verified = verifiedFiles.get(file.toAbsolutePath().toString());
+    return verified != null && verified.equals(attributesOf(file) + SEPARATOR + describe(checksums));
+  }
+
+  /**
+   * Same as {@link #isVerified(Path, Map)} but using attributes of the file that were already read
+   * 
+   * @param file the file to check
+   * @param attributes the attributes of the file
+   * @param checksums the bagit algorithm name mapped to the checksum the manifests list for the file
+   * @return true if the file was already verified against the same checksums and hasn't changed since
+   */
+  public boolean isVerified(final Path file, final BasicFileAttributes attributes, final Map<String, String> checksums) {
+    final String verified = verifiedFiles.get(file.toAbsolutePath().toString());
+    return verified != null && verified.equals(describe(attributes) + SEPARATOR + describe(checksums));
+  }
+
+  /**
+   * Record that all the checksums of a file matched, writing the checkpoint to disk if the flush interval has passed.
+   *
+   * @param file the file that was verified
+   * @param checksums the bagit algorithm name mapped to the checksum the manifests list for the file
+   * @throws IOException if there is a problem reading the attributes of the file or writing the checkpoint
+   */
+  public synchronized void markVerified(final Path file, final Map<String, String> checksums) throws IOException {
+    markVerified(file, Files.readAttributes(file, BasicFileAttributes.class), checksums);
+  }
+
+  /**
+   * Same as {@link #markVerified(Path, Map)} but using attributes of the file that were already read, 
+   * for example before it was hashed so that a change made while hashing it means it is hashed again.
+   *
+   * @param file the file that was verified
+   * @param fileAttributes the attributes of the file
+   * @param checksums the bagit algorithm name mapped to the checksum the manifests list for the file
+   * @throws IOException if there is a problem writing the checkpoint
+   */
+  public synchronized void markVerified(final Path file, final BasicFileAttributes fileAttributes, final Map<String, String> checksums) throws IOException {
+    final String path = file.toAbsolutePath().toString();
+    //can't store line breaks in the checkpoint file
+    if(path.indexOf('\n') == -1 && path.indexOf('\r') == -1) {
+      final String attributes = describe(fileAttributes) + SEPARATOR + describe(checksums);
+      verifiedFiles.put(path, attributes);
+      if(writer == null) {
+        Files.createDirectories(checkpointFile.toAbsolutePath().getParent());
+        final boolean isResuming = Files.exists(checkpointFile) && Files.size(checkpointFile) > 0;
+        writer = Files.newBufferedWriter(checkpointFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if(isResuming) {
+          //start on a new line in case the last one was only partially written
+          writer.newLine();
+        }
+        lastFlush = System.nanoTime();
+      }
+      writer.write(attributes + SEPARATOR + path);
+      writer.newLine();
+      if(System.nanoTime() - lastFlush >= flushInterval.toNanos()) {
+        flush();
+      }
+    }
+  }
+
+  /**
+   * Write any files verified since the last flush to disk.
+   *
+   * @throws IOException if there is a problem writing the checkpoint
+   */
+  public synchronized void flush() throws IOException {
+    if(writer != null) {
+      writer.flush();
+      lastFlush = System.nanoTime();
+    }
+  }
+
+  /**
+   * Write any files verified since the last flush to disk and close the checkpoint file. 
+   * The checkpoint can still be used afterwards, the file is opened again when the next file is verified.
+   *
+   * @throws IOException if there is a problem writing the checkpoint
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if(writer != null) {
+      try {
+        writer.close();
+      }
+      finally {
+        writer = null;
+      }
+    }
+  }
+
+  /**
+   * Forget the verified files inside a bag, for when the whole bag has been found to be valid. 
+   * The files of any other bags sharing this checkpoint are kept, and the checkpoint file is deleted once no files are left.
+   *
+   * @param bagRootDir the root directory of the bag that was found to be valid
+   * @throws IOException if there is a problem writing or deleting the checkpoint file
+   */
+  public synchronized void clear(final Path bagRootDir) throws IOException {
+    final Path rootDir = bagRootDir.toAbsolutePath().normalize();
+    if(!verifiedFiles.keySet().removeIf(path -> Paths.get(path).normalize().startsWith(rootDir))) {
+      return;
+    }
+    if(verifiedFiles.isEmpty()) {
+      clear();
+      return;
+    }
+
+    close();
+    //written next to the checkpoint and then moved over it, so a crash part way through leaves the old checkpoint instead of half of one
+    final Path rewritten = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+    try(BufferedWriter rewriter = Files.newBufferedWriter(rewritten, StandardCharsets.UTF_8)){
+      for(final Entry<String, String> verified : verifiedFiles.entrySet()) {
+        rewriter.write(verified.getValue() + SEPARATOR + verified.getKey());
+        rewriter.newLine();
+      }
+    }
+    Files.move(rewritten, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    logger.debug(messages.getString("cleared_bag_from_validation_checkpoint"), rootDir, checkpointFile, verifiedFiles.size());
+  }
+
+  /**
+   * Forget every verified file and delete the checkpoint file.
+   *
+   * @throws IOException if there is a problem deleting the checkpoint file
+   */
+  public synchronized void clear() throws IOException {
+    close();
+    verifiedFiles.clear();
+    Files.deleteIfExists(checkpointFile);
+    logger.debug(messages.getString("cleared_validation_checkpoint"), checkpointFile);
+  }
+
+  /*
+   * sorted by algorithm so the same checksums are always described the same way, and lower case as checksums are case insensitive
+   */
+  private static String describe(final Map<String, String> checksums) {
+    final StringBuilder description = new StringBuilder();
+    for(final Entry<String, String> checksum : new TreeMap<>(checksums).entrySet()) {
+      if(description.length() > 0) {
+        description.append(',');
+      }
+      description.append(checksum.getKey()).append(':').append(checksum.getValue().toLowerCase(Locale.ROOT));
+    }
+    return description.toString();
+  }
+
+  private static String attributesOf(final Path file) throws IOException {
+    return describe(Files.readAttributes(file, BasicFileAttributes.class));
+  }
+
+  private static String describe(final BasicFileAttributes attributes) {
+    return attributes.size() + SEPARATOR + attributes.lastModifiedTime().toMillis();
+  }
+
+  /**
+   * @return where the checkpoint is stored
+   */
+  public Path getCheckpointFile() {
+    return checkpointFile;
+  }
+
+  /**
+   * @return how often the verified files are written to disk
+   */
+  public Duration getFlushInterval() {
+    return flushInterval;
+  }
+
+  /**
+   * @return the number of files recorded as verified
+   */
+  public int size() {
+    return verifiedFiles.size();
+  }
+
+  @EclipseGenerated
+  @Override
+  public String toString() {
+    return "ValidationCheckpoint [checkpointFile=" + checkpointFile + ", flushInterval=" + flushInterval + "]";
+  }
+}
@@ -0,0 +1,389 @@
+package com.github.jscancella.verify;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import com.github.jscancella.domain.internal.EclipseGenerated;
+import com.github.jscancella.hash.cache.ChecksumCache;
+import com.github.jscancella.hash.read.FileReadStrategy;
+import com.github.jscancella.hash.read.HeapBufferReadStrategy;
+import com.github.jscancella.progress.BagOperationListener;
+
+/**
+ * Options that control how a bag is validated, for example how many files are hashed at the same time.
+ * This is an immutable object, use {@link ValidationOptionsBuilder} to create one.
+ */
+public final class ValidationOptions {
+  private final int parallelism;
+  private final ExecutorService executor;
+  private final ChecksumCache checksumCache;
+  private final int maxPathsInMemory;
+  private final FileReadStrategy readStrategy;
+  private final int maxReadsInFlight;
+  private final int maxConcurrentIo;
+  private final PayloadOxumCheck payloadOxumCheck;
+  private final CancellationToken cancellationToken;
+  private final Instant deadline;
+  private final ValidationCheckpoint checkpoint;
+  private final BagOperationListener listener;
+
+  @SuppressWarnings("PMD.ExcessiveParameterList")
+  private ValidationOptions(final int parallelism, final ExecutorService executor, final ChecksumCache checksumCache, 
+      final int maxPathsInMemory, final FileReadStrategy readStrategy, final int maxReadsInFlight, final int maxConcurrentIo,
+      final PayloadOxumCheck payloadOxumCheck, final CancellationToken cancellationToken, final Instant deadline, 
+      final ValidationCheckpoint checkpoint, final BagOperationListener listener) {
+    this.parallelism = parallelism;
+    this.executor = executor;
+    this.checksumCache = checksumCache;
+    this.maxPathsInMemory = maxPathsInMemory;
+    this.readStrategy = readStrategy;
+    this.maxReadsInFlight = maxReadsInFlight;
+    this.maxConcurrentIo = maxConcurrentIo;
+    this.payloadOxumCheck = payloadOxumCheck;
+    this.cancellationToken = cancellationToken;
+    this.deadline = deadline;
+    this.checkpoint = checkpoint;
+    this.listener = listener;
+  }
+
+  /**
+   * @return the number of files that may be hashed at the same time
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * @return the executor supplied by the caller to hash files with, if any
+   */
+  public Optional<ExecutorService> getExecutor() {
+    return Optional.ofNullable(executor);
+  }
+
+  /**
+   * @return the cache of previously computed checksums to consult before hashing a file, if any
+   */
+  public Optional<ChecksumCache> getChecksumCache() {
+    return Optional.ofNullable(checksumCache);
+  }
+
+  /**
+   * @return the maximum number of paths to hold in memory when checking if a bag is complete, or 0 if there is no limit
+   */
+  public int getMaxPathsInMemory() {
+    return maxPathsInMemory;
+  }
+
+  /**
+   * @return true if checking if a bag is complete should sort the paths on disk instead of holding them all in memory
+   */
+  public boolean isBoundedMemory() {
+    return maxPathsInMemory > 0;
+  }
+
+  /**
+   * @return how files are read when computing their checksums
+   */
+  public FileReadStrategy getReadStrategy() {
+    return readStrategy;
+  }
+
+  /**
+   * @return the maximum number of small files being read at the same time, or 0 if files are not read asynchronously
+   */
+  public int getMaxReadsInFlight() {
+    return maxReadsInFlight;
+  }
+
+  /**
+   * @return true if small files should be read asynchronously, with many reads outstanding at once
+   */
+  public boolean isAsynchronousReads() {
+    return maxReadsInFlight > 0;
+  }
+
+  /**
+   * @return the maximum number of files being hashed at the same time when each file gets its own thread, or 0 if not
+   */
+  public int getMaxConcurrentIo() {
+    return maxConcurrentIo;
+  }
+
+  /**
+   * @return true if each file should be hashed by its own thread (a virtual thread on Java 21 and newer)
+   */
+  public boolean isThreadPerFile() {
+    return maxConcurrentIo > 0;
+  }
+
+  /*
+   * the same options but checking each file on the calling thread, for when the caller already runs many checks at once
+   */
+  ValidationOptions withoutThreadPerFile() {
+    return new ValidationOptions(parallelism, executor, checksumCache, maxPathsInMemory, readStrategy, maxReadsInFlight, 0, 
+        payloadOxumCheck, cancellationToken, deadline, checkpoint, listener);
+  }
+
+  /**
+   * @return if and how the Payload-Oxum is checked before any file is hashed
+   */
+  public PayloadOxumCheck getPayloadOxumCheck() {
+    return payloadOxumCheck;
+  }
+
+  /**
+   * @return the token used to stop the validation from another thread, if any
+   */
+  public Optional<CancellationToken> getCancellationToken() {
+    return Optional.ofNullable(cancellationToken);
+  }
+
+  /**
+   * @return when the validation is stopped if it hasn't finished yet, if ever
+   */
+  public Optional<Instant> getDeadline() {
+    return Optional.ofNullable(deadline);
+  }
+
+  /**
+   * @return where the files that have already been verified are recorded, if anywhere
+   */
+  public Optional<ValidationCheckpoint> getCheckpoint() {
+    return Optional.ofNullable(checkpoint);
+  }
+
+  /**
+   * @return who is told about the progress of the validation
+   */
+  public BagOperationListener getListener() {
+    return listener;
+  }
+
+  /**
+   * @return true if files should be hashed using more than just the calling thread
+   */
+  public boolean isParallel() {
+    return executor != null || parallelism > 1 || maxConcurrentIo > 0;
+  }
+
+  @EclipseGenerated
+  @Override
+  public String toString() {
+    return "ValidationOptions [parallelism=" + parallelism + ", executor=" + executor + ", checksumCache=" + checksumCache
+        + ", maxPathsInMemory=" + maxPathsInMemory + ", readStrategy=" + readStrategy + ", maxReadsInFlight=" + maxReadsInFlight 
+        + ", maxConcurrentIo=" + maxConcurrentIo + ", payloadOxumCheck=" + payloadOxumCheck + ", cancellationToken=" + cancellationToken 
+        + ", deadline=" + deadline + ", checkpoint=" + checkpoint + ", listener=" + listener + "]";
+  }
+
+  /**
+   * If and how the Payload-Oxum in the bag metadata is compared to the payload files before any file is hashed
+   */
+  public enum PayloadOxumCheck {
+    /**
+     * don't check the Payload-Oxum
+     */
+    SKIP,
+    /**
+     * check the Payload-Oxum if the bag has one
+     */
+    IF_PRESENT,
+    /**
+     * the bag must have a Payload-Oxum, and it is checked
+     */
+    REQUIRED
+  }
+
+  /**
+   * Programmatically create validation options
+   */
+  @SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+  public static final class ValidationOptionsBuilder {
+    private int parallelism = 1;
+    private ExecutorService executor;
+    private ChecksumCache checksumCache;
+    private int maxPathsInMemory;
+    private FileReadStrategy readStrategy = new HeapBufferReadStrategy();
+    private int maxReadsInFlight;
+    private int maxConcurrentIo;
+    private PayloadOxumCheck payloadOxumCheck = PayloadOxumCheck.IF_PRESENT;
+    private CancellationToken cancellationToken;
+    private Instant deadline;
+    private ValidationCheckpoint checkpoint;
+    private BagOperationListener listener = BagOperationListener.NONE;
+
+    /**
+     * Set how many files may be hashed at the same time. When more than 1 a thread pool of that size is created
+     * for the duration of the validation. Defaults to 1, which hashes everything on the calling thread.
+     *
+     * @param threads the degree of parallelism
+     * @return this builder so as to chain commands
+     */
+    public ValidationOptionsBuilder parallelism(final int threads) {
+      if(threads < 1) {
+        throw new IllegalArgumentException("Parallelism must be at least 1 but was [" + threads + "]");
+      }
+      this.parallelism = threads;
+      return this;
+    }
+
+    /**
+     * Use an existing executor to hash files with. The executor is <b>not</b> shutdown after validation,
+     * that is the responsibility of the caller. Setting this overrides {@link #parallelism(int)}.
+     *
+     * @param executorService the executor to submit the hashing tasks to
+     * @return this builder so as to chain commands
+     */
+    public ValidationOptionsBuilder executor(final ExecutorService executorService) {
+      this.executor = executorService;
+      return this;
+    }
+
+    /**
+     * Skip hashing files that haven't changed since their checksums were last computed. A file is considered unchanged
+     * if its path, size, modified time, and file system identity are the same. The cache is saved once validation finishes.
+     *
+     * @param cache the cache of previously computed checksums
+     * @return this builder so as to chain commands
+     */
+    public ValidationOptionsBuilder checksumCache(final ChecksumCache cache) {
+      this.checksumCache = cache;
+      return this;
+    }
+
+    /**
+     * Check if a bag is complete using a bounded amount of memory, for bags with too many files to hold all their paths in memory.
+     * The paths are sorted in batches using temporary files and then compared in a single streaming pass.
+     * Every batch is a temporary file that is open while they are merged, up to {@link com.github.jscancella.internal.ExternalSorter#DEFAULT_MAX_OPEN_RUNS}
+     * at once, so a small number of paths means more files, and past that limit reading and writing the paths again to merge them.
+     *
+     * @param maxPaths the maximum number of paths to hold in memory at once
+     * @return this builder so as to chain commands
+     */
+    public ValidationOptionsBuilder boundedMemory(final int maxPaths) {
+      if(maxPaths < 1) {
+        throw new IllegalArgumentException("Must be able to hold at least 1 path in memory but was [" + maxPaths + "]");
+      }
+      this.maxPathsInMemory = maxPaths;
+      return this;
+    }
+
+    /**
+     * Set how files are read when computing their checksums, for example {@link com.github.jscancella.hash.read.DirectIOReadStrategy}
+     * to avoid filling the operating system page cache, or {@link com.github.jscancella.hash.read.ReadAheadReadStrategy} 
+     * to read very large files on a background thread while they are hashed. Defaults to {@link HeapBufferReadStrategy}.
+     *
+     * @param strategy how to read files
+     * @return this builder so as to chain commands
+     */
+    public ValidationOptionsBuilder readStrategy(final FileReadStrategy strategy) {
+      this.readStrategy = strategy;
+      return this;
+    }
+
+    /**
+     * Read small files asynchronously, keeping many reads outstanding at once so that validating millions of small files 
+     * isn't limited by the latency of opening and reading each one in turn. Completed reads are hashed by 
+     * the executor (or a pool the size of {@link #parallelism(int)}). Large files are hashed using the {@link #readStrategy(FileReadStrategy)}.
+     * 
+     * @param maxInFlight the maximum number of files being read at the same time, for example 64 for an NVMe drive
+     * @return this builder so as to chain commands
+     */
+    public ValidationOptionsBuilder asynchronousReads(final int maxInFlight) {
+      if(maxInFlight < 1) {
+        throw new IllegalArgumentException("Must allow at least 1 read in flight but was [" + maxInFlight + "]");
+      }
+      this.maxReadsInFlight = maxInFlight;
+      return this;
+    }
+
+    /**
+     * Hash each file on its own thread, with at most maxConcurrentIo files being read at the same time. On Java 21 and newer 
+     * these are virtual threads, so a task per file is cheap even for bags with millions of files and the limit is only there 
+     * to not overwhelm the storage. On older versions of Java a pool of maxConcurrentIo platform threads is used instead.
+     * Checking if the bag is complete reads the size of each file the same way, and checks that it exists unless the memory is bounded.
+     * Ignored if an {@link #executor(ExecutorService)} is set.
+     * 
+     * @param maxConcurrentIo the maximum number of files being hashed at the same time
+     * @return this builder so as to chain commands
+     */
+    public ValidationOptionsBuilder threadPerFile(final int maxConcurrentIo) {
+      if(maxConcurrentIo < 1) {
+        throw new IllegalArgumentException("Must allow at least 1 file at a time but was [" + maxConcurrentIo + "]");
+      }
+      this.maxConcurrentIo = maxConcurrentIo;
+      return this;
+    }
+
+    /**
+     * Set if and how the Payload-Oxum is checked. Before any file is hashed the sizes of the files listed in the payload manifests 
+     * are added up and compared to the Payload-Oxum, so that an incomplete transfer is found in seconds instead of after hashing 
+     * everything. Checking if the bag is complete or valid does this, {@link com.github.jscancella.domain.Bag#justValidate(ValidationOptions)}
+     * only checks the checksums. Defaults to {@link PayloadOxumCheck#IF_PRESENT}.
+     * 
+     * @param check if and how to check the Payload-Oxum
+     * @return this builder so as to chain commands
+     */
+    public ValidationOptionsBuilder payloadOxumCheck(final PayloadOxumCheck check) {
+      this.payloadOxumCheck = check;
+      return this;
+    }
+
+    /**
+     * Stop the validation when the token is cancelled, by throwing a {@link com.github.jscancella.exceptions.ValidationCancelledException}.
+     * Interrupting the thread doing the validation stops it the same way, whether or not a token is set.
+     * 
+     * @param token the token used to stop the validation from another thread
+     * @return this builder so as to chain commands
+     */
+    public ValidationOptionsBuilder cancellationToken(final CancellationToken token) {
+      this.cancellationToken = token;
+      return this;
+    }
+
+    /**
+     * Stop the validation if it hasn't finished by a certain time, by throwing a {@link com.github.jscancella.exceptions.ValidationCancelledException}.
+     * Combined with a {@link #checkpoint(ValidationCheckpoint)} a bag too large to validate in one maintenance window 
+     * can be validated over several.
+     * 
+     * @param stopAt when to stop the validation
+     * @return this builder so as to chain commands
+     */
+    public ValidationOptionsBuilder deadline(final Instant stopAt) {
+      this.deadline = stopAt;
+      return this;
+    }
+
+    /**
+     * Record each file once all of its checksums have been verified, and skip the files already recorded, so that a validation 
+     * which was stopped continues where it left off. The checkpoint is cleared once the bag is found to be valid.
+     * 
+     * @param validationCheckpoint where the files that have already been verified are recorded
+     * @return this builder so as to chain commands
+     */
+    public ValidationOptionsBuilder checkpoint(final ValidationCheckpoint validationCheckpoint) {
+      this.checkpoint = validationCheckpoint;
+      return this;
+    }
+
+    /**
+     * Tell the listener when each phase of the validation starts and finishes and each time a file has been hashed,
+     * for example a {@link com.github.jscancella.progress.ProgressAggregator} to find the throughput and estimated time remaining.
+     * 
+     * @param progressListener who to tell about the progress of the validation
+     * @return this builder so as to chain commands
+     */
+    public ValidationOptionsBuilder listener(final BagOperationListener progressListener) {
+      this.listener = progressListener;
+      return this;
+    }
+
+    /**
+     * @return the validation options
+     */
+    public ValidationOptions build() {
+      return new ValidationOptions(parallelism, executor, checksumCache, maxPathsInMemory, readStrategy, maxReadsInFlight, maxConcurrentIo, 
+          payloadOxumCheck, cancellationToken, deadline, checkpoint, listener);
+    }
+  }
+}
@@ -0,0 +1,288 @@
+package com.github.jscancella.verify;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import com.github.jscancella.domain.internal.EclipseGenerated;
+
+/**
+ * Everything that is wrong with the files of a bag, found in a single pass instead of stopping at the first problem.
+ * This is an immutable object, see {@link com.github.jscancella.domain.Bag#validate(boolean, ValidationOptions)}.
+ */
+public final class ValidationReport {
+  private final List<Path> missingFiles;
+  private final List<Path> extraFiles;
+  private final List<CorruptFile> corruptFiles;
+  private final List<UnreadableFile> unreadableFiles;
+  private final String payloadOxumError;
+
+  private ValidationReport(final List<Path> missingFiles, final List<Path> extraFiles, final List<CorruptFile> corruptFiles,
+      final List<UnreadableFile> unreadableFiles, final String payloadOxumError) {
+    this.missingFiles = Collections.unmodifiableList(missingFiles);
+    this.extraFiles = Collections.unmodifiableList(extraFiles);
+    this.corruptFiles = Collections.unmodifiableList(corruptFiles);
+    this.unreadableFiles = Collections.unmodifiableList(unreadableFiles);
+    this.payloadOxumError = payloadOxumError;
+  }
+
+  /**
+   * @return true if nothing is wrong with the bag
+   */
+  public boolean isValid() {
+    return missingFiles.isEmpty() && extraFiles.isEmpty() && corruptFiles.isEmpty() && unreadableFiles.isEmpty() && payloadOxumError == null;
+  }
+
+  /**
+   * @return the files listed in a manifest that don't exist
+   */
+  public List<Path> getMissingFiles() {
+    return missingFiles;
+  }
+
+  /**
+   * @return the files in the payload directory that are not listed in (all) the payload manifests
+   */
+  public List<Path> getExtraFiles() {
+    return extraFiles;
+  }
+
+  /**
+   * @return the files whose checksum doesn't match the manifest, one for each algorithm that doesn't match
+   */
+  public List<CorruptFile> getCorruptFiles() {
+    return corruptFiles;
+  }
+
+  /**
+   * @return the files that exist but couldn't be read
+   */
+  public List<UnreadableFile> getUnreadableFiles() {
+    return unreadableFiles;
+  }
+
+  /**
+   * @return why the Payload-Oxum is wrong, if it is
+   */
+  public Optional<String> getPayloadOxumError() {
+    return Optional.ofNullable(payloadOxumError);
+  }
+
+  @EclipseGenerated
+  @Override
+  public String toString() {
+    return "ValidationReport [missingFiles=" + missingFiles + ", extraFiles=" + extraFiles + ", corruptFiles=" + corruptFiles
+        + ", unreadableFiles=" + unreadableFiles + ", payloadOxumError=" + payloadOxumError + "]";
+  }
+
+  /**
+   * A file whose computed checksum doesn't match the one listed in the manifest
+   */
+  public static final class CorruptFile {
+    private final Path file;
+    private final String bagitAlgorithmName;
+    private final String expectedChecksum;
+    private final String actualChecksum;
+
+    /**
+     * @param file the corrupt file
+     * @param bagitAlgorithmName the bagit algorithm name of the manifest that lists the file
+     * @param expectedChecksum the checksum listed in the manifest
+     * @param actualChecksum the checksum that was computed
+     */
+    public CorruptFile(final Path file, final String bagitAlgorithmName, final String expectedChecksum, final String actualChecksum) {
+      this.file = file;
+      this.bagitAlgorithmName = bagitAlgorithmName;
+      this.expectedChecksum = expectedChecksum;
+      this.actualChecksum = actualChecksum;
+    }
+
+    /**
+     * @return the corrupt file
+     */
+    public Path getFile() {
+      return file;
+    }
+
+    /**
+     * @return the bagit algorithm name of the manifest that lists the file
+     */
+    public String getBagitAlgorithmName() {
+      return bagitAlgorithmName;
+    }
+
+    /**
+     * @return the checksum listed in the manifest
+     */
+    public String getExpectedChecksum() {
+      return expectedChecksum;
+    }
+
+    /**
+     * @return the checksum that was computed
+     */
+    public String getActualChecksum() {
+      return actualChecksum;
+    }
+
+    @EclipseGenerated
+    @Override
+    public String toString() {
+      return "CorruptFile [file=" + file + ", bagitAlgorithmName=" + bagitAlgorithmName + ", expectedChecksum=" + expectedChecksum
+          + ", actualChecksum=" + actualChecksum + "]";
+    }
+
+    @EclipseGenerated
+    @Override
+    public int hashCode() {
+      return Objects.hash(file, bagitAlgorithmName, expectedChecksum, actualChecksum);
+    }
+
+    @EclipseGenerated
+    @Override
+    public boolean equals(final Object obj) {
+      boolean isEqual = false;
+      if(obj instanceof CorruptFile) {
+        final CorruptFile other = (CorruptFile) obj;
+        isEqual = Objects.equals(file, other.getFile()) && Objects.equals(bagitAlgorithmName, other.getBagitAlgorithmName())
+            && Objects.equals(expectedChecksum, other.getExpectedChecksum()) && Objects.equals(actualChecksum, other.getActualChecksum());
+      }
+      return isEqual;
+    }
+  }
+
+  /**
+   * A file that exists but couldn't be read
+   */
+  public static final class UnreadableFile {
+    private final Path file;
+    private final String reason;
+
+    /**
+     * @param file the file that couldn't be read
+     * @param reason why it couldn't be read
+     */
+    public UnreadableFile(final Path file, final String reason) {
+      this.file = file;
+      this.reason = reason;
+    }
+
+    /**
+     * @return the file that couldn't be read
+     */
+    public Path getFile() {
+      return file;
+    }
+
+    /**
+     * @return why it couldn't be read
+     */
+    public String getReason() {
+      return reason;
+    }
+
+    @EclipseGenerated
+    @Override
+    public String toString() {
+      return "UnreadableFile [file=" + file + ", reason=" + reason + "]";
+    }
+
+    @EclipseGenerated
+    @Override
+    public int hashCode() {
+      return Objects.hash(file, reason);
+    }
+
+    @EclipseGenerated
+    @Override
+    public boolean equals(final Object obj) {
+      boolean isEqual = false;
+      if(obj instanceof UnreadableFile) {
+        final UnreadableFile other = (UnreadableFile) obj;
+        isEqual = Objects.equals(file, other.getFile()) && Objects.equals(reason, other.getReason());
+      }
+      return isEqual;
+    }
+  }
+
+  /**
+   * Collects the problems found while validating. Problems may be added from many threads at the same time.
+   */
+  @SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.AvoidSynchronizedAtMethodLevel"})
+  public static final class ValidationReportBuilder {
+    private final Set<Path> missingFiles = new LinkedHashSet<>();
+    private final Set<Path> extraFiles = new LinkedHashSet<>();
+    private final Set<CorruptFile> corruptFiles = new LinkedHashSet<>();
+    private final Set<UnreadableFile> unreadableFiles = new LinkedHashSet<>();
+    private String payloadOxumError;
+
+    /**
+     * @param file a file listed in a manifest that doesn't exist
+     * @return this builder so as to chain commands
+     */
+    public synchronized ValidationReportBuilder addMissingFile(final Path file) {
+      missingFiles.add(file);
+      return this;
+    }
+
+    /**
+     * @param file a file in the payload directory that isn't listed in (all) the payload manifests
+     * @return this builder so as to chain commands
+     */
+    public synchronized ValidationReportBuilder addExtraFile(final Path file) {
+      extraFiles.add(file);
+      return this;
+    }
+
+    /**
+     * @param file a file whose checksum doesn't match the manifest
+     * @return this builder so as to chain commands
+     */
+    public synchronized ValidationReportBuilder addCorruptFile(final CorruptFile file) {
+      corruptFiles.add(file);
+      return this;
+    }
+
+    /**
+     * @param file a file that exists but couldn't be read
+     * @return this builder so as to chain commands
+     */
+    public synchronized ValidationReportBuilder addUnreadableFile(final UnreadableFile file) {
+      unreadableFiles.add(file);
+      return this;
+    }
+
+    /**
+     * @param error why the Payload-Oxum is wrong
+     * @return this builder so as to chain commands
+     */
+    public synchronized ValidationReportBuilder payloadOxumError(final String error) {
+      this.payloadOxumError = error;
+      return this;
+    }
+
+    /**
+     * @return the report, with the files sorted by path so that the order doesn't depend on how many threads were used
+     */
+    public synchronized ValidationReport build() {
+      final List<CorruptFile> sortedCorruptFiles = new ArrayList<>(corruptFiles);
+      sortedCorruptFiles.sort(Comparator.comparing(CorruptFile::getFile).thenComparing(CorruptFile::getBagitAlgorithmName));
+      final List<UnreadableFile> sortedUnreadableFiles = new ArrayList<>(unreadableFiles);
+      sortedUnreadableFiles.sort(Comparator.comparing(UnreadableFile::getFile));
+
+      return new ValidationReport(sorted(missingFiles), sorted(extraFiles), sortedCorruptFiles, sortedUnreadableFiles, payloadOxumError);
+    }
+
+    private static List<Path> sorted(final Set<Path> files) {
+      final List<Path> sortedFiles = new ArrayList<>(files);
+      Collections.sort(sortedFiles);
+      return sortedFiles;
+    }
+  }
+}
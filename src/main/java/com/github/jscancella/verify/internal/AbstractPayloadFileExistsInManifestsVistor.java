@@ -5,6 +5,8 @@ import java.nio.file.FileVisitResult;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.ResourceBundle;
 import java.util.Set;
 
@@ -48,15 +50,25 @@ abstract public class AbstractPayloadFileExistsInManifestsVistor extends SimpleF
   }
 
   /**
-   * Returns true if the path exists in the provided set of manifest paths, false otherwise.
-   * @param path The file path.
+   * Normalize all the paths once so that checking if a file is in a manifest is a simple lookup.
    * @param manifestPaths The manifest paths.
+   * @return the normalized manifest paths.
+   */
+  protected static Set<String> toNormalizedStrings(final Collection<Path> manifestPaths) {
+    final Set<String> normalizedPaths = new HashSet<>(manifestPaths.size() * 2);
+    for(final Path manifestPath : manifestPaths) {
+      normalizedPaths.add(ManifestVerifier.toNormalizedString(manifestPath));
+    }
+    return normalizedPaths;
+  }
+
+  /**
+   * Returns true if the path exists in the provided set of normalized manifest paths, false otherwise.
+   * @param path The file path.
+   * @param normalizedManifestPaths The manifest paths, normalized using {@link #toNormalizedStrings(Collection)}.
    * @return true if the path exists, false otherwise.
    */
-  protected static boolean inManifest(final Path path, final Set<Path> manifestPaths) {
-    final String normalizedPath = ManifestVerifier.toNormalizedString(path);
-    return manifestPaths.stream().anyMatch(
-        (mp) -> ManifestVerifier.toNormalizedString(mp).equals(normalizedPath)
-    );
+  protected static boolean inManifest(final Path path, final Set<String> normalizedManifestPaths) {
+    return normalizedManifestPaths.contains(ManifestVerifier.toNormalizedString(path));
   }
 }
@@ -0,0 +1,341 @@
+package com.github.jscancella.verify.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.jscancella.domain.ManifestEntry;
+import com.github.jscancella.exceptions.CorruptChecksumException;
+import com.github.jscancella.exceptions.ValidationCancelledException;
+import com.github.jscancella.verify.ValidationOptions;
+
+/**
+ * Checks the checksums of many small files by keeping many reads outstanding at once using {@link AsynchronousFileChannel}, 
+ * and handing each completed read to the digest workers. Validating millions of small files is limited by the latency of 
+ * opening and reading each file rather than the throughput of the disk, which a deep queue of reads hides.
+ * Files larger than {@link #SMALL_FILE_SIZE} are hashed by the digest workers the same way as {@link ChecksumVerifier} does.
+ */
+@SuppressWarnings({"PMD.DoNotUseThreads"})
+public enum AsynchronousChecksumVerifier {; //using enum to enforce singleton
+  private static final Logger logger = LoggerFactory.getLogger(AsynchronousChecksumVerifier.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  /**
+   * Files up to this size are read asynchronously into a single buffer. There is at most one such buffer for each read in flight.
+   */
+  public static final int SMALL_FILE_SIZE = 1024 * 1024;
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+  //daemon threads so that reading never prevents the JVM from exiting, shared so that every validation doesn't start its own
+  private static final ExecutorService IO_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+    final Thread thread = new Thread(runnable, "bagging-async-read-" + THREAD_COUNT.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+  //buffers kept between validations, any more than this are left for the garbage collector once a validation finishes
+  private static final int MAX_SHARED_BUFFERS = 16;
+  private static final BlockingQueue<ByteBuffer> SHARED_BUFFERS = new ArrayBlockingQueue<>(MAX_SHARED_BUFFERS);
+
+  /**
+   * Check all the checksums for the files, stopping at the first problem encountered.
+   *
+   * @param entriesByFile each file paired with the bagit algorithm name and manifest entry of each manifest that lists it
+   * @param options how to go about checking the checksums, see {@link ValidationOptions#getMaxReadsInFlight()}
+   *
+   * @throws IOException if there is a problem reading a file
+   * @throws CorruptChecksumException if a checksum doesn't match what was listed in the manifest
+   * @throws ValidationCancelledException if the validation was cancelled, interrupted, or its deadline passed
+   */
+  public static void checkHashes(final Iterable<Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>>> entriesByFile, 
+      final ValidationOptions options) throws IOException {
+    checkHashes(entriesByFile, options, FileFailures.THROW);
+  }
+  
+  static void checkHashes(final Iterable<Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>>> entriesByFile, 
+      final ValidationOptions options, final FileFailures failures) throws IOException {
+    logger.debug(messages.getString("checking_checksums_asynchronously"), options.getMaxReadsInFlight());
+    final ExecutorService digestExecutor = options.getExecutor().orElseGet(() -> Executors.newFixedThreadPool(options.getParallelism()));
+
+    try {
+      new AsynchronousCheck(options, failures, IO_EXECUTOR, digestExecutor).check(entriesByFile);
+    }
+    finally {
+      if(!options.getExecutor().isPresent()) {
+        digestExecutor.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * The state of checking a single set of files. Each file holds a permit from when it starts being read 
+   * until it has been hashed, which bounds both the number of reads in flight and the number of buffers in use.
+   * The buffers are pooled for each check with room for one per read in flight, so that every buffer is reused 
+   * until the check is done instead of being dropped whenever more reads are in flight than the shared pool holds.
+   */
+  @SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.AvoidCatchingThrowable"})
+  private static final class AsynchronousCheck {
+    private final ValidationOptions options;
+    private final FileFailures failures;
+    private final ExecutorService ioExecutor;
+    private final ExecutorService digestExecutor;
+    private final Semaphore permits;
+    private final BlockingQueue<ByteBuffer> buffers;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private AsynchronousCheck(final ValidationOptions options, final FileFailures failures, final ExecutorService ioExecutor, 
+        final ExecutorService digestExecutor) {
+      this.options = options;
+      this.failures = failures;
+      this.ioExecutor = ioExecutor;
+      this.digestExecutor = digestExecutor;
+      this.permits = new Semaphore(options.getMaxReadsInFlight());
+      this.buffers = new ArrayBlockingQueue<>(options.getMaxReadsInFlight());
+    }
+
+    private void check(final Iterable<Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>>> entriesByFile) throws IOException {
+      try {
+        for(final Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>> file : entriesByFile) {
+          if(failure.get() != null || isCancelled()) {
+            break;
+          }
+          permits.acquire();
+          startReading(file.getKey(), file.getValue());
+        }
+        //wait for everything in flight to finish
+        permits.acquire(options.getMaxReadsInFlight());
+      }
+      catch(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw CancellationChecker.interrupted();
+      }
+      finally {
+        keepBuffersForNextCheck();
+      }
+
+      if(failure.get() != null) {
+        ChecksumVerifier.rethrow(failure.get());
+      }
+    }
+
+    /*
+     * stop starting new reads, but still wait for the ones in flight to finish before throwing
+     */
+    private boolean isCancelled() {
+      try {
+        CancellationChecker.checkNotCancelled(options);
+        return false;
+      }
+      catch(ValidationCancelledException e) {
+        fail(e);
+        return true;
+      }
+    }
+
+    private void startReading(final Path file, final List<SimpleImmutableEntry<String, ManifestEntry>> entries) {
+      try {
+        ioExecutor.execute(() -> start(file, entries));
+      }
+      catch(Throwable e) {
+        fail(e);
+        release(null);
+      }
+    }
+
+    /*
+     * the attributes of each file are read once, and used to decide how to read it as well as for the checkpoint and cache
+     */
+    private void start(final Path file, final List<SimpleImmutableEntry<String, ManifestEntry>> entries) {
+      ByteBuffer buffer = null;
+      try {
+        //a missing file is left for checking if the bag is complete to report
+        final Optional<BasicFileAttributes> attributes = failure.get() == null ? ChecksumVerifier.readAttributes(file) : Optional.empty();
+        if(!attributes.isPresent()) {
+          release(null);
+        }
+        else if(!ChecksumVerifier.needsReading(file, attributes.get(), entries, options)) {
+          //nothing to read, but checkFile still compares any cached checksums
+          ChecksumVerifier.checkFile(file, attributes.get(), entries, options, options.getReadStrategy(), failures);
+          release(null);
+        }
+        else if(attributes.get().size() > SMALL_FILE_SIZE) {
+          execute(digestExecutor, () -> ChecksumVerifier.checkFile(file, attributes.get(), entries, options, options.getReadStrategy(), failures), null);
+        }
+        else {
+          buffer = takeBuffer();
+          buffer.clear().limit((int) attributes.get().size());
+          final AsynchronousFileChannel channel = AsynchronousFileChannel.open(file, Set.of(StandardOpenOption.READ), ioExecutor);
+          try {
+            channel.read(buffer, 0, null, new ReadHandler(file, attributes.get(), entries, channel, buffer));
+          }
+          catch(RuntimeException | Error e) {
+            //the read never started, so the handler won't close the channel
+            closeAfterFailure(channel, e);
+            throw e;
+          }
+        }
+      }
+      catch(Throwable e) {
+        fail(file, e);
+        release(buffer);
+      }
+    }
+
+    private ByteBuffer takeBuffer() {
+      ByteBuffer buffer = buffers.poll();
+      if(buffer == null) {
+        buffer = SHARED_BUFFERS.poll();
+      }
+      return buffer == null ? ByteBuffer.allocateDirect(SMALL_FILE_SIZE) : buffer;
+    }
+
+    private void keepBuffersForNextCheck() {
+      ByteBuffer buffer = buffers.poll();
+      while(buffer != null && SHARED_BUFFERS.offer(buffer)) {
+        buffer = buffers.poll();
+      }
+    }
+
+    private static void closeAfterFailure(final AsynchronousFileChannel channel, final Throwable cause) {
+      try {
+        channel.close();
+      }
+      catch(IOException e) {
+        cause.addSuppressed(e);
+      }
+    }
+
+    /*
+     * run the work on the executor, and once it is done return the buffer (if any) and the permit
+     */
+    private void execute(final ExecutorService executor, final Work work, final ByteBuffer buffer) {
+      try {
+        executor.execute(() -> finish(work, buffer));
+      }
+      catch(Throwable e) {
+        fail(e);
+        release(buffer);
+      }
+    }
+
+    private void finish(final Work work, final ByteBuffer buffer) {
+      try {
+        if(failure.get() == null) {
+          work.run();
+        }
+      }
+      catch(Throwable e) {
+        fail(e);
+      }
+      finally {
+        release(buffer);
+      }
+    }
+
+    private void release(final ByteBuffer buffer) {
+      if(buffer != null) {
+        buffers.offer(buffer);
+      }
+      permits.release();
+    }
+
+    private void fail(final Throwable cause) {
+      failure.compareAndSet(null, cause);
+    }
+
+    /*
+     * a file that can't be read may be recorded instead of stopping everything
+     */
+    private void fail(final Path file, final Throwable cause) {
+      if(cause instanceof IOException) {
+        try {
+          failures.unreadable(file, (IOException) cause);
+        }
+        catch(IOException e) {
+          fail(e);
+        }
+      }
+      else {
+        fail(cause);
+      }
+    }
+
+    /**
+     * Keeps reading until the buffer holds the whole file, then hands it off to be hashed
+     */
+    private final class ReadHandler implements CompletionHandler<Integer, Void> {
+      private final Path file;
+      private final BasicFileAttributes attributes;
+      private final List<SimpleImmutableEntry<String, ManifestEntry>> entries;
+      private final AsynchronousFileChannel channel;
+      private final ByteBuffer buffer;
+
+      private ReadHandler(final Path file, final BasicFileAttributes attributes, final List<SimpleImmutableEntry<String, ManifestEntry>> entries, 
+          final AsynchronousFileChannel channel, final ByteBuffer buffer) {
+        this.file = file;
+        this.attributes = attributes;
+        this.entries = entries;
+        this.channel = channel;
+        this.buffer = buffer;
+      }
+
+      @Override
+      public void completed(final Integer read, final Void attachment) {
+        if(read == -1 || !buffer.hasRemaining()) {
+          close();
+          buffer.flip();
+          execute(digestExecutor, () -> ChecksumVerifier.checkFile(file, attributes, entries, options, (path, handler) -> handler.handle(buffer), failures), buffer);
+        }
+        else {
+          try {
+            channel.read(buffer, buffer.position(), null, this);
+          }
+          catch(RuntimeException e) {
+            failed(e, attachment);
+          }
+        }
+      }
+
+      @Override
+      public void failed(final Throwable exception, final Void attachment) {
+        close();
+        fail(file, exception);
+        release(buffer);
+      }
+
+      private void close() {
+        try {
+          channel.close();
+        }
+        catch(IOException e) {
+          fail(file, e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Some work that may throw an exception
+   */
+  @FunctionalInterface
+  private interface Work {
+    void run() throws IOException;
+  }
+}
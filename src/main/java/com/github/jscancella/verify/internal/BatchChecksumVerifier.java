@@ -0,0 +1,277 @@
+package com.github.jscancella.verify.internal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.ManifestEntry;
+import com.github.jscancella.domain.internal.EclipseGenerated;
+import com.github.jscancella.exceptions.ValidationCancelledException;
+import com.github.jscancella.verify.ValidationOptions;
+import com.github.jscancella.verify.ValidationReport.ValidationReportBuilder;
+
+/**
+ * Responsible for checking the checksums of many bags at once using one pool of threads for all of them.
+ * Files are hashed largest first, so that the threads finish at about the same time instead of one of them
+ * starting a huge file just as the rest run out of work. Only a limited number of files on the same file store (disk)
+ * are read at the same time, so that a pool big enough to keep every disk busy doesn't thrash any one of them.
+ */
+public enum BatchChecksumVerifier {; //using enum to enforce singleton
+  private static final Logger logger = LoggerFactory.getLogger(BatchChecksumVerifier.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+
+  /**
+   * Check every checksum of every bag, adding the corrupt and unreadable files to the report of the bag they belong to.
+   *
+   * @param bags the manifests of each bag and where to report its problems
+   * @param executor the threads used to compute the checksums
+   * @param threads how many files to hash at once across all the bags, at most the number of threads of the executor
+   * @param maxReadsPerFileStore how many files to hash at once from the same file store
+   * @param options how to read the files, and if the checking should be cancelled
+   *
+   * @throws IOException if there is a problem that isn't specific to a single file
+   * @throws ValidationCancelledException if the checking was cancelled, interrupted, or its deadline passed
+   */
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  public static void checkHashes(final Collection<BagChecksums> bags, final ExecutorService executor, final int threads,
+      final int maxReadsPerFileStore, final ValidationOptions options) throws IOException {
+    final Scheduler scheduler = new Scheduler(listFilesLargestFirst(bags, options), maxReadsPerFileStore);
+    final CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+    final List<Future<Void>> futures = new ArrayList<>();
+
+    try {
+      for(int index = 0; index < threads; index++) {
+        futures.add(completionService.submit(() -> hashUntilDone(scheduler, options)));
+      }
+      for(int index = 0; index < futures.size(); index++) {
+        completionService.take().get();
+      }
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw CancellationChecker.interrupted();
+    }
+    catch(ExecutionException e) {
+      ChecksumVerifier.rethrow(e.getCause());
+    }
+    finally {
+      scheduler.stop();
+      for(final Future<Void> future : futures) {
+        future.cancel(true);
+      }
+      ChecksumVerifier.saveCache(options.getChecksumCache());
+      ChecksumVerifier.closeCheckpoint(options.getCheckpoint());
+    }
+  }
+
+  /*
+   * the files are handed over to the scheduler, so each one can be garbage collected as soon as it has been hashed
+   */
+  private static List<FileToCheck> listFilesLargestFirst(final Collection<BagChecksums> bags, final ValidationOptions options) {
+    final List<FileToCheck> files = new ArrayList<>();
+    final Map<Object, Integer> bagsPerStore = new LinkedHashMap<>();
+    long totalSize = 0;
+
+    for(final BagChecksums bag : bags) {
+      files.addAll(bag.files);
+      totalSize += bag.totalSize;
+      bag.files.clear();
+      bagsPerStore.merge(bag.fileStore, 1, Integer::sum);
+    }
+    files.sort(Comparator.comparingLong((FileToCheck file) -> file.size).reversed());
+    logger.info(messages.getString("checking_checksums_in_batch"), files.size(), bags.size(), bagsPerStore.size());
+    options.getListener().payloadSizeKnown(totalSize, files.size());
+
+    return files;
+  }
+
+  /*
+   * bags whose file store can't be found are treated as being on their own file store
+   */
+  private static Object fileStoreOf(final Path rootDir) {
+    try {
+      return Files.getFileStore(rootDir);
+    }
+    catch(IOException e) {
+      logger.warn(messages.getString("unknown_file_store"), rootDir, e.toString());
+      return rootDir;
+    }
+  }
+
+  private static Void hashUntilDone(final Scheduler scheduler, final ValidationOptions options) throws IOException, InterruptedException {
+    FileToCheck file = scheduler.next();
+    while(file != null) {
+      try {
+        ChecksumVerifier.checkFile(file.path, file.entries, options, options.getReadStrategy(), file.failures);
+      }
+      finally {
+        scheduler.finished(file);
+      }
+      file = scheduler.next();
+    }
+    return null;
+  }
+
+  /**
+   * The files of a bag, with their sizes, and where to report its problems
+   */
+  @SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+  public static final class BagChecksums {
+    private final Path rootDir;
+    private final Object fileStore;
+    private final List<FileToCheck> files;
+    private final long totalSize;
+
+    private BagChecksums(final Path rootDir, final Object fileStore, final List<FileToCheck> files, final long totalSize) {
+      this.rootDir = rootDir;
+      this.fileStore = fileStore;
+      this.files = files;
+      this.totalSize = totalSize;
+    }
+
+    /**
+     * List the files of a bag and read their sizes, so that they can be hashed largest first.
+     * Each file is stat'd once, so this should be called on the pool along with the rest of the checks of the bag.
+     *
+     * @param rootDir the root directory of the bag, used to find which file store it is on
+     * @param manifests the tag and payload manifests of the bag
+     * @param report where to add the corrupt and unreadable files of the bag
+     *
+     * @return the files of the bag, ready to be passed to {@link BatchChecksumVerifier#checkHashes}
+     */
+    public static BagChecksums of(final Path rootDir, final Collection<Manifest> manifests, final ValidationReportBuilder report) {
+      final Object fileStore = fileStoreOf(rootDir);
+      final FileFailures failures = FileFailures.recordTo(report);
+      final List<FileToCheck> files = new ArrayList<>();
+      long totalSize = 0;
+      for(final Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>> file : ChecksumVerifier.groupEntriesByFile(manifests)) {
+        final long size = sizeOf(file.getKey());
+        files.add(new FileToCheck(file.getKey(), file.getValue(), size, fileStore, failures));
+        totalSize += size;
+      }
+      return new BagChecksums(rootDir, fileStore, files, totalSize);
+    }
+
+    /*
+     * a missing file is left for checking if the bag is complete to report, and an unreadable one for hashing it to report
+     */
+    private static long sizeOf(final Path file) {
+      try {
+        return Files.size(file);
+      }
+      catch(IOException e) {
+        return 0;
+      }
+    }
+
+    @EclipseGenerated
+    @Override
+    public String toString() {
+      return "BagChecksums [rootDir=" + rootDir + "]";
+    }
+  }
+
+  /*
+   * a file to hash and which bag it belongs to
+   */
+  @SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+  private static final class FileToCheck {
+    private final Path path;
+    private final List<SimpleImmutableEntry<String, ManifestEntry>> entries;
+    private final long size;
+    private final Object fileStore;
+    private final FileFailures failures;
+
+    private FileToCheck(final Path path, final List<SimpleImmutableEntry<String, ManifestEntry>> entries, final long size,
+        final Object fileStore, final FileFailures failures) {
+      this.path = path;
+      this.entries = entries;
+      this.size = size;
+      this.fileStore = fileStore;
+      this.failures = failures;
+    }
+  }
+
+  /*
+   * hands out the largest file left on any file store that isn't already being read by as many threads as allowed
+   */
+  @SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.AvoidSynchronizedAtMethodLevel"})
+  private static final class Scheduler {
+    private final Map<Object, Deque<FileToCheck>> filesByStore = new LinkedHashMap<>();
+    private final Map<Object, Integer> readsByStore = new HashMap<>();
+    private final int maxReadsPerFileStore;
+    private boolean isStopped;
+
+    private Scheduler(final List<FileToCheck> filesLargestFirst, final int maxReadsPerFileStore) {
+      for(final FileToCheck file : filesLargestFirst) {
+        filesByStore.computeIfAbsent(file.fileStore, key -> new ArrayDeque<>()).addLast(file);
+      }
+      this.maxReadsPerFileStore = maxReadsPerFileStore;
+    }
+
+    /*
+     * waits until a file store can be read from, returning null once every file has been handed out or the checking was stopped
+     */
+    private synchronized FileToCheck next() throws InterruptedException {
+      FileToCheck next = null;
+      while(next == null && !isStopped && !filesByStore.isEmpty()) {
+        next = largestReadableFile();
+        if(next == null) {
+          wait();
+        }
+      }
+
+      if(next != null) {
+        final Deque<FileToCheck> files = filesByStore.get(next.fileStore);
+        files.removeFirst();
+        if(files.isEmpty()) {
+          filesByStore.remove(next.fileStore);
+        }
+        readsByStore.merge(next.fileStore, 1, Integer::sum);
+      }
+      return next;
+    }
+
+    private FileToCheck largestReadableFile() {
+      FileToCheck largest = null;
+      for(final Entry<Object, Deque<FileToCheck>> files : filesByStore.entrySet()) {
+        final FileToCheck candidate = files.getValue().peekFirst();
+        if(readsByStore.getOrDefault(files.getKey(), 0) < maxReadsPerFileStore && (largest == null || candidate.size > largest.size)) {
+          largest = candidate;
+        }
+      }
+      return largest;
+    }
+
+    private synchronized void finished(final FileToCheck file) {
+      readsByStore.merge(file.fileStore, -1, Integer::sum);
+      notifyAll();
+    }
+
+    private synchronized void stop() {
+      isStopped = true;
+      notifyAll();
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.github.jscancella.verify.internal;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.ResourceBundle;
+
+import org.slf4j.helpers.MessageFormatter;
+
+import com.github.jscancella.exceptions.ValidationCancelledException;
+import com.github.jscancella.verify.CancellationToken;
+import com.github.jscancella.verify.ValidationOptions;
+
+/**
+ * Responsible for stopping a validation when it is cancelled, the thread doing it is interrupted, or its deadline passes.
+ * This is checked before each file and each chunk of a file, so even a validation hashing a single huge file stops promptly.
+ */
+enum CancellationChecker {; //using enum to enforce singleton
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+
+  /**
+   * @param options the options containing the cancellation token and deadline, if any
+   * @throws ValidationCancelledException if the validation should stop
+   */
+  static void checkNotCancelled(final ValidationOptions options) {
+    if(Thread.currentThread().isInterrupted()) {
+      throw new ValidationCancelledException(messages.getString("validation_interrupted_error"));
+    }
+    final Optional<CancellationToken> token = options.getCancellationToken();
+    if(token.isPresent() && token.get().isCancelled()) {
+      throw new ValidationCancelledException(messages.getString("validation_cancelled_error"));
+    }
+    final Optional<Instant> deadline = options.getDeadline();
+    if(deadline.isPresent() && Instant.now().isAfter(deadline.get())) {
+      final String formattedMessage = messages.getString("validation_deadline_passed_error");
+      throw new ValidationCancelledException(MessageFormatter.format(formattedMessage, deadline.get()).getMessage());
+    }
+  }
+
+  /**
+   * @return the exception to throw when the thread waiting for the validation to finish is interrupted
+   */
+  static ValidationCancelledException interrupted() {
+    return new ValidationCancelledException(messages.getString("validation_interrupted_error"));
+  }
+}
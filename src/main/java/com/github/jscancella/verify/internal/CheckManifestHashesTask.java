@@ -0,0 +1,60 @@
+package com.github.jscancella.verify.internal;
+
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.github.jscancella.domain.ManifestEntry;
+import com.github.jscancella.verify.ValidationOptions;
+
+/**
+ * Checks that the checksums listed for a single file in all the manifests match the file on disk.
+ * Used to check many files at the same time.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+public final class CheckManifestHashesTask implements Callable<Void> {
+  private final Path file;
+  private final List<SimpleImmutableEntry<String, ManifestEntry>> entries;
+  private final ValidationOptions options;
+  private final FileFailures failures;
+
+  /**
+   * @param file the file to check
+   * @param entries the bagit algorithm name paired with the manifest entry for this file, one for each manifest that lists it
+   * @param options how to go about checking the checksums
+   */
+  public CheckManifestHashesTask(final Path file, final List<SimpleImmutableEntry<String, ManifestEntry>> entries, 
+      final ValidationOptions options) {
+    this(file, entries, options, FileFailures.THROW);
+  }
+  
+  CheckManifestHashesTask(final Path file, final List<SimpleImmutableEntry<String, ManifestEntry>> entries, 
+      final ValidationOptions options, final FileFailures failures) {
+    this.file = file;
+    this.entries = new ArrayList<>(entries);
+    this.options = options;
+    this.failures = failures;
+  }
+
+  @Override
+  public Void call() throws Exception {
+    ChecksumVerifier.checkFile(file, entries, options, options.getReadStrategy(), failures);
+    return null;
+  }
+
+  /**
+   * @return the file being checked
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * @return the manifest entries for the file being checked
+   */
+  public List<SimpleImmutableEntry<String, ManifestEntry>> getEntries() {
+    return new ArrayList<>(entries);
+  }
+}
@@ -0,0 +1,434 @@
+package com.github.jscancella.verify.internal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.ManifestEntry;
+import com.github.jscancella.exceptions.CorruptChecksumException;
+import com.github.jscancella.exceptions.ValidationCancelledException;
+import com.github.jscancella.exceptions.VerificationException;
+import com.github.jscancella.hash.BagitChecksumNameMapping;
+import com.github.jscancella.hash.Hasher;
+import com.github.jscancella.hash.cache.ChecksumCache;
+import com.github.jscancella.hash.cache.ChecksumCacheKey;
+import com.github.jscancella.hash.internal.MultiAlgorithmHasher;
+import com.github.jscancella.hash.read.FileReadStrategy;
+import com.github.jscancella.internal.PerFileExecutors;
+import com.github.jscancella.verify.ValidationCheckpoint;
+import com.github.jscancella.verify.ValidationOptions;
+import com.github.jscancella.verify.ValidationOptions.ValidationOptionsBuilder;
+import com.github.jscancella.verify.ValidationReport.ValidationReportBuilder;
+
+/**
+ * Responsible for checking that the checksums listed in the manifests match the files on disk.
+ */
+public enum ChecksumVerifier {; //using enum to enforce singleton
+  private static final Logger logger = LoggerFactory.getLogger(ChecksumVerifier.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+
+  /**
+   * Check all the checksums in the manifests, either on the calling thread, in parallel, or using asynchronous reads depending on the options.
+   * Each file is only read once, even when it is listed in multiple manifests.
+   *
+   * @param manifests the manifests to check
+   * @param options how to go about checking the checksums
+   *
+   * @throws IOException if there is a problem reading a file
+   * @throws CorruptChecksumException if a checksum doesn't match what was listed in the manifest
+   * @throws ValidationCancelledException if the validation was cancelled, interrupted, or its deadline passed
+   */
+  public static void checkHashes(final Collection<Manifest> manifests, final ValidationOptions options) throws IOException {
+    checkHashes(manifests, options, FileFailures.THROW);
+  }
+  
+  /**
+   * Check all the checksums in the manifests the same as {@link #checkHashes(Collection, ValidationOptions)}, 
+   * but instead of stopping at the first problem every corrupt or unreadable file is added to the report.
+   *
+   * @param manifests the manifests to check
+   * @param options how to go about checking the checksums
+   * @param report where to add the corrupt and unreadable files
+   *
+   * @throws IOException if there is a problem that isn't specific to a single file
+   * @throws ValidationCancelledException if the validation was cancelled, interrupted, or its deadline passed
+   */
+  public static void checkHashes(final Collection<Manifest> manifests, final ValidationOptions options, final ValidationReportBuilder report) throws IOException {
+    checkHashes(manifests, options, FileFailures.recordTo(report));
+  }
+  
+  private static void checkHashes(final Collection<Manifest> manifests, final ValidationOptions options, final FileFailures failures) throws IOException {
+    try {
+      if(options.isAsynchronousReads()) {
+        AsynchronousChecksumVerifier.checkHashes(groupEntriesByFile(manifests), options, failures);
+      }
+      else if(options.isParallel()) {
+        if(options.getExecutor().isPresent()) {
+          checkInParallel(manifests, options.getExecutor().get(), options, failures);
+        }
+        else {
+          final ExecutorService executor = newExecutor(options);
+          try {
+            checkInParallel(manifests, executor, options, failures);
+          }
+          finally {
+            executor.shutdownNow();
+          }
+        }
+      }
+      else {
+        checkSequentially(manifests, options, failures);
+      }
+    }
+    finally {
+      saveCache(options.getChecksumCache());
+      closeCheckpoint(options.getCheckpoint());
+    }
+  }
+  
+  private static ExecutorService newExecutor(final ValidationOptions options) {
+    if(options.isThreadPerFile()) {
+      logger.debug(messages.getString("checking_checksums_thread_per_file"), options.getMaxConcurrentIo(), PerFileExecutors.isUsingVirtualThreads());
+      return PerFileExecutors.newExecutor(options.getMaxConcurrentIo());
+    }
+    return Executors.newFixedThreadPool(options.getParallelism());
+  }
+  
+  /*
+   * failing to save the cache only means files will be hashed again next time, so it shouldn't fail the validation
+   */
+  static void saveCache(final Optional<ChecksumCache> cache) {
+    if(cache.isPresent()) {
+      try {
+        cache.get().save();
+      }
+      catch(IOException e) {
+        logger.warn(messages.getString("failed_to_save_checksum_cache"), e);
+      }
+    }
+  }
+
+  /*
+   * likewise failing to save the checkpoint only means files will be hashed again if the validation is restarted
+   */
+  static void closeCheckpoint(final Optional<ValidationCheckpoint> checkpoint) {
+    if(checkpoint.isPresent()) {
+      try {
+        checkpoint.get().close();
+      }
+      catch(IOException e) {
+        logger.warn(messages.getString("failed_to_save_validation_checkpoint"), e);
+      }
+    }
+  }
+
+  /**
+   * Check all the checksums in the manifests using the calling thread.
+   * Each file is only read once, even when it is listed in multiple manifests.
+   *
+   * @param manifests the manifests to check
+   *
+   * @throws IOException if there is a problem reading a file
+   * @throws CorruptChecksumException if a checksum doesn't match what was listed in the manifest
+   */
+  public static void checkHashes(final Collection<Manifest> manifests) throws IOException {
+    checkSequentially(manifests, new ValidationOptionsBuilder().build(), FileFailures.THROW);
+  }
+  
+  private static void checkSequentially(final Collection<Manifest> manifests, final ValidationOptions options, final FileFailures failures) throws IOException {
+    for(final Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>> file : groupEntriesByFile(manifests)) {
+      checkFile(file.getKey(), file.getValue(), options, options.getReadStrategy(), failures);
+    }
+  }
+
+  /**
+   * Check all the checksums in the manifests by submitting each file as a task to the executor.
+   * Stops at the first problem encountered and cancels the rest of the checks.
+   *
+   * @param manifests the manifests to check
+   * @param executor the executor used to compute the checksums
+   *
+   * @throws IOException if there is a problem reading a file
+   * @throws CorruptChecksumException if a checksum doesn't match what was listed in the manifest
+   * @throws ValidationCancelledException if the current thread is interrupted while waiting for the checks to finish
+   */
+  public static void checkHashes(final Collection<Manifest> manifests, final ExecutorService executor) throws IOException {
+    checkInParallel(manifests, executor, new ValidationOptionsBuilder().build(), FileFailures.THROW);
+  }
+  
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  private static void checkInParallel(final Collection<Manifest> manifests, final ExecutorService executor, final ValidationOptions options, 
+      final FileFailures failures) throws IOException {
+    final CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+    final List<Future<Void>> futures = new ArrayList<>();
+
+    for(final Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>> file : groupEntriesByFile(manifests)) {
+      futures.add(completionService.submit(new CheckManifestHashesTask(file.getKey(), file.getValue(), options, failures)));
+    }
+    logger.debug(messages.getString("checking_checksums_in_parallel"), futures.size());
+
+    try {
+      for(int index = 0; index < futures.size(); index++) {
+        completionService.take().get();
+      }
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw CancellationChecker.interrupted();
+    }
+    catch(ExecutionException e) {
+      rethrow(e.getCause());
+    }
+    finally {
+      for(final Future<Void> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+  
+  /*
+   * combine the entries from all the manifests so that each file only needs to be read once, as the files are checked
+   */
+  static Iterable<Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>>> groupEntriesByFile(final Collection<Manifest> manifests){
+    logger.debug(messages.getString("grouped_manifest_entries"), manifests.size());
+    return new ManifestEntriesByFile(manifests);
+  }
+  
+  /**
+   * Compute all the needed checksums of a file in a single pass and compare them to what the manifests list.
+   * Checksums found in the {@link ChecksumCache} (if any) are used instead of reading the file.
+   * 
+   * @param file the file to check
+   * @param entries the bagit algorithm name paired with the manifest entry for this file
+   * @param options how to go about checking the checksums
+   * 
+   * @throws IOException if there is a problem reading the file
+   * @throws CorruptChecksumException if a checksum doesn't match what was listed in the manifest
+   */
+  static void checkFile(final Path file, final List<SimpleImmutableEntry<String, ManifestEntry>> entries, 
+      final ValidationOptions options) throws IOException {
+    checkFile(file, entries, options, options.getReadStrategy());
+  }
+  
+  /**
+   * Same as {@link #checkFile(Path, List, ValidationOptions)} but reads the file using a specific strategy, 
+   * for example one that uses bytes that were already read.
+   * 
+   * @param file the file to check
+   * @param entries the bagit algorithm name paired with the manifest entry for this file
+   * @param options how to go about checking the checksums
+   * @param readStrategy how to read the file
+   * 
+   * @throws IOException if there is a problem reading the file
+   * @throws CorruptChecksumException if a checksum doesn't match what was listed in the manifest
+   */
+  static void checkFile(final Path file, final List<SimpleImmutableEntry<String, ManifestEntry>> entries, 
+      final ValidationOptions options, final FileReadStrategy readStrategy) throws IOException {
+    checkFile(file, entries, options, readStrategy, FileFailures.THROW);
+  }
+  
+  /*
+   * a missing file is left for checking if the bag is complete to report
+   */
+  static void checkFile(final Path file, final List<SimpleImmutableEntry<String, ManifestEntry>> entries, 
+      final ValidationOptions options, final FileReadStrategy readStrategy, final FileFailures failures) throws IOException {
+    CancellationChecker.checkNotCancelled(options);
+    final Optional<BasicFileAttributes> attributes;
+    try {
+      //reading the attributes of the file for the checkpoint or cache can fail the same as reading its contents
+      attributes = readAttributes(file);
+    }
+    catch(IOException e) {
+      failures.unreadable(file, e);
+      return;
+    }
+    if(attributes.isPresent()) {
+      checkFile(file, attributes.get(), entries, options, readStrategy, failures);
+    }
+  }
+
+  /*
+   * the attributes are read once for each file, and used for the checkpoint and the cache key of every algorithm
+   */
+  static void checkFile(final Path file, final BasicFileAttributes attributes, final List<SimpleImmutableEntry<String, ManifestEntry>> entries, 
+      final ValidationOptions options, final FileReadStrategy readStrategy, final FileFailures failures) throws IOException {
+    CancellationChecker.checkNotCancelled(options);
+    final Optional<ValidationCheckpoint> checkpoint = options.getCheckpoint();
+    if(isCheckpointed(file, attributes, entries, checkpoint)) {
+      return;
+    }
+    final Optional<ChecksumCache> cache = options.getChecksumCache();
+    final Map<String, String> checksums = new HashMap<>();
+    final Map<String, ChecksumCacheKey> cacheKeys = new HashMap<>();
+    final Map<String, Hasher> hashersForFile = new HashMap<>();
+    final Map<String, String> computed;
+    final AtomicLong bytesRead = new AtomicLong();
+    final long start = System.nanoTime();
+    try {
+      for(final SimpleImmutableEntry<String, ManifestEntry> entry : entries) {
+        final String algorithm = entry.getKey();
+        if(cache.isPresent()) {
+          final ChecksumCacheKey key = ChecksumCacheKey.of(file, attributes, algorithm);
+          cacheKeys.put(algorithm, key);
+          cache.get().get(key).ifPresent(checksum -> checksums.put(algorithm, checksum));
+        }
+        if(!checksums.containsKey(algorithm)) {
+          hashersForFile.put(algorithm, BagitChecksumNameMapping.getForCurrentThread(algorithm));
+        }
+      }
+      computed = MultiAlgorithmHasher.hash(file, hashersForFile, monitored(readStrategy, options, bytesRead));
+    }
+    catch(ClosedByInterruptException | InterruptedIOException e) {
+      //the read was stopped by interrupting a thread, for example to cancel the validation, which isn't a problem with the file
+      Thread.currentThread().interrupt();
+      final ValidationCancelledException cancelled = CancellationChecker.interrupted();
+      cancelled.initCause(e);
+      throw cancelled;
+    }
+    catch(IOException e) {
+      CancellationChecker.checkNotCancelled(options);
+      failures.unreadable(file, e);
+      return;
+    }
+    options.getListener().fileProcessed(file, bytesRead.get(), Duration.ofNanos(System.nanoTime() - start));
+    if(cache.isPresent()) {
+      for(final Entry<String, String> checksum : computed.entrySet()) {
+        cache.get().put(cacheKeys.get(checksum.getKey()), checksum.getValue());
+      }
+    }
+    checksums.putAll(computed);
+    
+    boolean matches = true;
+    for(final SimpleImmutableEntry<String, ManifestEntry> entry : entries) {
+      matches = checkChecksum(entry.getValue(), entry.getKey(), checksums.get(entry.getKey()), failures) && matches;
+    }
+    if(matches && checkpoint.isPresent()) {
+      checkpoint.get().markVerified(file, attributes, expectedChecksums(entries));
+    }
+  }
+  
+  /*
+   * stop before each chunk if the validation was cancelled, and count the bytes read for the listener
+   */
+  private static FileReadStrategy monitored(final FileReadStrategy readStrategy, final ValidationOptions options, final AtomicLong bytesRead) {
+    return (path, handler) -> readStrategy.read(path, chunk -> {
+      CancellationChecker.checkNotCancelled(options);
+      bytesRead.addAndGet(chunk.remaining());
+      handler.handle(chunk);
+    });
+  }
+  
+  /*
+   * @return the attributes of the file, or empty if it doesn't exist
+   */
+  static Optional<BasicFileAttributes> readAttributes(final Path file) throws IOException {
+    try {
+      return Optional.of(Files.readAttributes(file, BasicFileAttributes.class));
+    }
+    catch(NoSuchFileException e) {
+      return Optional.empty();
+    }
+  }
+  
+  private static boolean isCheckpointed(final Path file, final BasicFileAttributes attributes, 
+      final List<SimpleImmutableEntry<String, ManifestEntry>> entries, final Optional<ValidationCheckpoint> checkpoint) {
+    final boolean isCheckpointed = checkpoint.isPresent() && checkpoint.get().isVerified(file, attributes, expectedChecksums(entries));
+    if(isCheckpointed) {
+      logger.debug(messages.getString("skipping_checkpointed_file"), file);
+    }
+    return isCheckpointed;
+  }
+
+  /*
+   * the checksums the manifests list for the file, which the checkpoint must have verified it against to skip it
+   */
+  private static Map<String, String> expectedChecksums(final List<SimpleImmutableEntry<String, ManifestEntry>> entries) {
+    final Map<String, String> checksums = new HashMap<>();
+    for(final SimpleImmutableEntry<String, ManifestEntry> entry : entries) {
+      checksums.put(entry.getKey(), entry.getValue().getChecksum());
+    }
+    return checksums;
+  }
+
+  /**
+   * @param file the file to check
+   * @param attributes the attributes of the file
+   * @param entries the bagit algorithm name paired with the manifest entry for this file
+   * @param options how to go about checking the checksums
+   * @return true if the file must be read, false if all of its checksums are in the {@link ChecksumCache} or it was already verified
+   */
+  static boolean needsReading(final Path file, final BasicFileAttributes attributes, final List<SimpleImmutableEntry<String, ManifestEntry>> entries, 
+      final ValidationOptions options) {
+    if(options.getCheckpoint().isPresent() && options.getCheckpoint().get().isVerified(file, attributes, expectedChecksums(entries))) {
+      return false;
+    }
+    boolean needsReading = !options.getChecksumCache().isPresent();
+    for(int index = 0; !needsReading && index < entries.size(); index++) {
+      final ChecksumCacheKey key = ChecksumCacheKey.of(file, attributes, entries.get(index).getKey());
+      needsReading = !options.getChecksumCache().get().get(key).isPresent();
+    }
+    return needsReading;
+  }
+
+  /*
+   * unwrap the exception that caused the task to fail so that callers see the same exceptions as when checking sequentially
+   */
+  static void rethrow(final Throwable cause) throws IOException {
+    if(cause instanceof IOException) {
+      throw (IOException) cause;
+    }
+    if(cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    if(cause instanceof Error) {
+      throw (Error) cause;
+    }
+    throw new VerificationException((Exception) cause);
+  }
+
+  /**
+   * Compare the computed checksum against the checksum listed in the manifest.
+   *
+   * @param entry the manifest entry containing the expected checksum
+   * @param bagitAlgorithmName the name of the algorithm used to compute the checksum
+   * @param hash the computed checksum
+   * @param failures what to do if the checksums don't match
+   * @return true if the checksums match
+   *
+   * @throws CorruptChecksumException if the checksums don't match and the failures are thrown
+   */
+  static boolean checkChecksum(final ManifestEntry entry, final String bagitAlgorithmName, final String hash, final FileFailures failures) {
+    //https://www.rfc-editor.org/rfc/rfc8493#section-2.1.3
+    //* The hex-encoded checksum MAY use uppercase and/or lowercase letters.
+    final boolean matches = hash.equalsIgnoreCase(entry.getChecksum());
+    if (!matches){
+      failures.corrupt(entry, bagitAlgorithmName, hash);
+    }
+    return matches;
+  }
+}
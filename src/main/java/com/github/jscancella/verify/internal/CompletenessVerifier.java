@@ -0,0 +1,71 @@
+package com.github.jscancella.verify.internal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.jscancella.domain.Bag;
+import com.github.jscancella.domain.FetchItem;
+import com.github.jscancella.exceptions.FileNotInPayloadDirectoryException;
+import com.github.jscancella.exceptions.InvalidBagitFileFormatException;
+import com.github.jscancella.exceptions.InvalidPayloadOxumException;
+import com.github.jscancella.exceptions.MissingBagitFileException;
+import com.github.jscancella.exceptions.MissingPayloadDirectoryException;
+import com.github.jscancella.exceptions.MissingPayloadManifestException;
+import com.github.jscancella.exceptions.PayloadOxumDoesNotExistException;
+import com.github.jscancella.internal.PhaseTimer;
+import com.github.jscancella.progress.BagOperationListener;
+import com.github.jscancella.progress.BagOperationListener.Phase;
+import com.github.jscancella.verify.ValidationOptions;
+import com.github.jscancella.verify.ValidationReport.ValidationReportBuilder;
+
+/**
+ * Responsible for finding everything wrong with a bag that can be found without hashing a file, 
+ * adding every missing and extra file to a report instead of stopping at the first one.
+ */
+public enum CompletenessVerifier {; //using enum to enforce singleton
+  private static final Logger logger = LoggerFactory.getLogger(CompletenessVerifier.class);
+
+  /**
+   * Check the mandatory files, the fetched files, the Payload-Oxum, and that every file is listed in the manifests.
+   * Problems with the bag itself (for example a missing bagit.txt file) are still thrown as they mean the files can't be checked.
+   * 
+   * @param bag the bag to check
+   * @param ignoreHiddenFiles to include hidden files when checking
+   * @param options how to go about checking, for example if the memory used should be bounded
+   * @param report where to add the missing and extra files, and any problem with the Payload-Oxum
+   * 
+   * @throws InvalidBagitFileFormatException if the file(s) are not formatted correctly
+   * @throws IOException if there is a problem that isn't specific to a single file, for example reading a directory
+   * @throws MissingBagitFileException the bagit.txt file is missing
+   * @throws MissingPayloadDirectoryException if a bag is missing a payload directory
+   * @throws MissingPayloadManifestException if there is no payload manifest
+   */
+  public static void checkCompleteness(final Bag bag, final boolean ignoreHiddenFiles, final ValidationOptions options, 
+      final ValidationReportBuilder report) throws IOException{
+    final BagOperationListener listener = options.getListener();
+    PhaseTimer.time(listener, Phase.CHECK_MANDATORY_FILES, () -> {
+      MandatoryVerifier.checkBagitFileExists(bag);
+      MandatoryVerifier.checkPayloadDirectoryExists(bag);
+      MandatoryVerifier.checkIfAtLeastOnePayloadManifestsExist(bag);
+      for(final FetchItem item : bag.getItemsToFetch()) {
+        if(!Files.exists(item.getPath())) {
+          report.addMissingFile(item.getPath());
+        }
+      }
+    });
+    try {
+      PayloadOxumVerifier.checkPayloadOxum(bag, options);
+    }
+    catch(InvalidPayloadOxumException | PayloadOxumDoesNotExistException e) {
+      report.payloadOxumError(e.getMessage());
+    }
+    catch(FileNotInPayloadDirectoryException e) {
+      //the Payload-Oxum can't be compared, but every missing file is added to the report when checking if the bag is complete
+      logger.debug(e.getMessage(), e);
+    }
+    PhaseTimer.time(listener, Phase.CHECK_COMPLETENESS, () -> ManifestVerifier.verifyManifests(bag, ignoreHiddenFiles, options, report));
+  }
+}
@@ -0,0 +1,86 @@
+package com.github.jscancella.verify.internal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.github.jscancella.domain.ManifestEntry;
+import com.github.jscancella.exceptions.CorruptChecksumException;
+import com.github.jscancella.exceptions.FileNotInManifestException;
+import com.github.jscancella.exceptions.FileNotInPayloadDirectoryException;
+import com.github.jscancella.verify.ValidationReport.CorruptFile;
+import com.github.jscancella.verify.ValidationReport.UnreadableFile;
+import com.github.jscancella.verify.ValidationReport.ValidationReportBuilder;
+
+/**
+ * What to do when a file fails a check: either stop at the first failure by throwing an exception,
+ * or record it in a {@link ValidationReportBuilder} and carry on with the rest of the files.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+final class FileFailures {
+  /**
+   * stop at the first failure, the default when validating
+   */
+  static final FileFailures THROW = new FileFailures(null);
+
+  //null when throwing
+  private final ValidationReportBuilder report;
+
+  private FileFailures(final ValidationReportBuilder report) {
+    this.report = report;
+  }
+
+  /**
+   * @param report where to record the failures
+   * @return failures that are recorded instead of thrown
+   */
+  static FileFailures recordTo(final ValidationReportBuilder report) {
+    return new FileFailures(report);
+  }
+
+  /**
+   * @param file the file listed in a manifest that doesn't exist
+   * @param message the message of the exception to throw if not recording
+   */
+  void missing(final Path file, final String message) {
+    if(report == null) {
+      throw new FileNotInPayloadDirectoryException(message);
+    }
+    report.addMissingFile(file);
+  }
+
+  /**
+   * @param file the file in the payload directory that isn't listed in a manifest
+   * @param message the message of the exception to throw if not recording
+   */
+  void notInManifest(final Path file, final String message) {
+    if(report == null) {
+      throw new FileNotInManifestException(message);
+    }
+    report.addExtraFile(file);
+  }
+
+  /**
+   * @param entry the manifest entry containing the expected checksum
+   * @param bagitAlgorithmName the name of the algorithm used to compute the checksum
+   * @param hash the computed checksum that doesn't match
+   */
+  void corrupt(final ManifestEntry entry, final String bagitAlgorithmName, final String hash) {
+    if(report == null) {
+      throw new CorruptChecksumException("File [{}] is suppose to have a [{}] hash of [{}] but was computed [{}].", entry.getPhysicalLocation(),
+          bagitAlgorithmName, entry.getChecksum(), hash);
+    }
+    report.addCorruptFile(new CorruptFile(entry.getPhysicalLocation(), bagitAlgorithmName, entry.getChecksum(), hash));
+  }
+
+  /**
+   * @param file the file that couldn't be read
+   * @param cause why it couldn't be read, which is thrown if not recording
+   * @throws IOException the cause, if not recording
+   */
+  void unreadable(final Path file, final IOException cause) throws IOException {
+    if(report == null) {
+      throw cause;
+    }
+    report.addUnreadableFile(new UnreadableFile(file, cause.toString()));
+  }
+}
@@ -0,0 +1,186 @@
+package com.github.jscancella.verify.internal;
+
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.ManifestEntry;
+
+/**
+ * The entries of several manifests grouped by the file they are for, so that each file is only read once.
+ * The groups are made as they are iterated instead of all at once, so that validating a bag with millions of files
+ * doesn't create an object for every entry of every manifest (see {@link com.github.jscancella.domain.internal.CompactManifestEntryList}).
+ * <p>
+ * The largest manifest is walked in order, and the entry for the same file in each of the other manifests is looked up by its index,
+ * as manifests of the same bag normally list their files in the same order. Only a manifest that lists its files in a different order
+ * has its paths indexed. Entries that don't line up with the largest manifest, like those of the tag manifests, are grouped the same way afterwards.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+final class ManifestEntriesByFile implements Iterable<Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>>> {
+  private final List<Source> sources;
+
+  ManifestEntriesByFile(final Collection<Manifest> manifests) {
+    sources = new ArrayList<>();
+    for(final Manifest manifest : manifests) {
+      if(!manifest.getEntries().isEmpty()) {
+        sources.add(new Source(manifest.getBagitAlgorithmName(), manifest.getEntries()));
+      }
+    }
+  }
+
+  @Override
+  public Iterator<Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>>> iterator() {
+    return new GroupingIterator(sources);
+  }
+
+  /*
+   * the entries of a single manifest, or the ones left over from it after a round of grouping
+   */
+  private static final class Source {
+    private final String algorithm;
+    private final List<ManifestEntry> entries;
+
+    private Source(final String algorithm, final List<ManifestEntry> entries) {
+      this.algorithm = algorithm;
+      this.entries = entries;
+    }
+  }
+
+  /*
+   * a manifest being matched against the largest one, and which of its entries have been used
+   */
+  private static final class Follower {
+    private final Source source;
+    private final BitSet matched;
+    private Map<Path, Integer> indexByPath;
+
+    private Follower(final Source source) {
+      this.source = source;
+      this.matched = new BitSet(source.entries.size());
+    }
+
+    /*
+     * @return the entry for the file, or null if this manifest doesn't list it
+     */
+    private ManifestEntry take(final Path file, final int index) {
+      if(index < source.entries.size() && !matched.get(index)) {
+        final ManifestEntry entry = source.entries.get(index);
+        if(entry.getPhysicalLocation().equals(file)) {
+          matched.set(index);
+          return entry;
+        }
+      }
+      if(indexByPath == null) {
+        indexByPath = new HashMap<>();
+        for(int position = 0; position < source.entries.size(); position++) {
+          indexByPath.putIfAbsent(source.entries.get(position).getPhysicalLocation(), position);
+        }
+      }
+      final Integer position = indexByPath.get(file);
+      if(position == null || matched.get(position)) {
+        return null;
+      }
+      matched.set(position);
+      return source.entries.get(position);
+    }
+
+    /*
+     * @return the entries that weren't for any file of the largest manifest, if any
+     */
+    private Source leftOver() {
+      final List<ManifestEntry> leftOver = new ArrayList<>();
+      for(int index = matched.nextClearBit(0); index < source.entries.size(); index = matched.nextClearBit(index + 1)) {
+        leftOver.add(source.entries.get(index));
+      }
+      return leftOver.isEmpty() ? null : new Source(source.algorithm, leftOver);
+    }
+  }
+
+  /*
+   * groups one round of sources at a time, the entries left over from a round are grouped in the next one
+   */
+  private static final class GroupingIterator implements Iterator<Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>>> {
+    private final Deque<List<Source>> rounds = new ArrayDeque<>();
+    private Source largest;
+    private List<Follower> followers;
+    private int index;
+
+    private GroupingIterator(final List<Source> sources) {
+      if(!sources.isEmpty()) {
+        rounds.add(sources);
+      }
+      startNextRound();
+    }
+
+    private void startNextRound() {
+      largest = null;
+      followers = new ArrayList<>();
+      index = 0;
+      final List<Source> sources = rounds.poll();
+      if(sources != null) {
+        for(final Source source : sources) {
+          if(largest == null || source.entries.size() > largest.entries.size()) {
+            largest = source;
+          }
+        }
+        for(final Source source : sources) {
+          if(source != largest) {
+            followers.add(new Follower(source));
+          }
+        }
+      }
+    }
+
+    private void finishRound() {
+      final List<Source> leftOvers = new ArrayList<>();
+      for(final Follower follower : followers) {
+        final Source leftOver = follower.leftOver();
+        if(leftOver != null) {
+          leftOvers.add(leftOver);
+        }
+      }
+      if(!leftOvers.isEmpty()) {
+        rounds.add(leftOvers);
+      }
+      startNextRound();
+    }
+
+    @Override
+    public boolean hasNext() {
+      while(largest != null && index >= largest.entries.size()) {
+        finishRound();
+      }
+      return largest != null;
+    }
+
+    @Override
+    public Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>> next() {
+      if(!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final ManifestEntry entry = largest.entries.get(index);
+      final Path file = entry.getPhysicalLocation();
+      final List<SimpleImmutableEntry<String, ManifestEntry>> entries = new ArrayList<>(followers.size() + 1);
+      entries.add(new SimpleImmutableEntry<>(largest.algorithm, entry));
+      for(final Follower follower : followers) {
+        final ManifestEntry other = follower.take(file, index);
+        if(other != null) {
+          entries.add(new SimpleImmutableEntry<>(follower.source.algorithm, other));
+        }
+      }
+      index++;
+      return new SimpleImmutableEntry<>(file, entries);
+    }
+  }
+}
@@ -6,9 +6,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.Normalizer;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,12 +16,14 @@ import org.slf4j.helpers.MessageFormatter;
 
 import com.github.jscancella.domain.Bag;
 import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.ManifestEntry;
 import com.github.jscancella.domain.Version;
 import com.github.jscancella.exceptions.FileNotInPayloadDirectoryException;
-import com.github.jscancella.exceptions.InvalidBagitFileFormatException;
 import com.github.jscancella.exceptions.MaliciousPathException;
-import com.github.jscancella.internal.ManifestFilter;
-import com.github.jscancella.reader.internal.ManifestReader;
+import com.github.jscancella.internal.jfr.TreeWalkedEvent;
+import com.github.jscancella.verify.ValidationOptions;
+import com.github.jscancella.verify.ValidationOptions.ValidationOptionsBuilder;
+import com.github.jscancella.verify.ValidationReport.ValidationReportBuilder;
 
 /**
  * Responsible for all things related to the manifest during verification.
@@ -30,6 +32,49 @@ public enum ManifestVerifier {; //using enum to enforce singleton
   private static final Logger logger = LoggerFactory.getLogger(ManifestVerifier.class);
   private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
 
+  /**
+   * Verify that all the files in the payload directory are listed in the payload manifest and
+   * all files listed in all manifests exist.
+   *
+   * @param bag the bag which contains the manifests to check
+   * @param ignoreHiddenFiles to include hidden files when checking
+   * @param options if set to use bounded memory, checks using {@link SortedManifestVerifier} instead
+   *
+   * @throws IOException if there is an error while reading a file from the filesystem
+   * @throws MaliciousPathException if a path is outside the bag
+   * @throws FileNotInPayloadDirectoryException if a file listed in a manifest is not in the payload directory
+   */
+  public static void verifyManifests(final Bag bag, final boolean ignoreHiddenFiles, final ValidationOptions options)throws IOException{
+    verifyManifests(bag, ignoreHiddenFiles, options, FileFailures.THROW);
+  }
+
+  /**
+   * Same as {@link #verifyManifests(Bag, boolean, ValidationOptions)} but instead of stopping at the first problem 
+   * every missing file and every file not listed in a manifest is added to the report.
+   *
+   * @param bag the bag which contains the manifests to check
+   * @param ignoreHiddenFiles to include hidden files when checking
+   * @param options if set to use bounded memory, checks using {@link SortedManifestVerifier} instead
+   * @param report where to add the missing and extra files
+   *
+   * @throws IOException if there is an error while reading a file from the filesystem
+   * @throws MaliciousPathException if a path is outside the bag
+   */
+  public static void verifyManifests(final Bag bag, final boolean ignoreHiddenFiles, final ValidationOptions options, 
+      final ValidationReportBuilder report)throws IOException{
+    verifyManifests(bag, ignoreHiddenFiles, options, FileFailures.recordTo(report));
+  }
+
+  private static void verifyManifests(final Bag bag, final boolean ignoreHiddenFiles, final ValidationOptions options, 
+      final FileFailures failures)throws IOException{
+    if(options.isBoundedMemory()) {
+      SortedManifestVerifier.verifyManifests(bag, ignoreHiddenFiles, options.getMaxPathsInMemory(), failures);
+    }
+    else {
+      verifyManifestsInMemory(bag, ignoreHiddenFiles, options, failures);
+    }
+  }
+
   /**
    * Verify that all the files in the payload directory are listed in the payload manifest and
    * all files listed in all manifests exist.
@@ -39,18 +84,22 @@ public enum ManifestVerifier {; //using enum to enforce singleton
    *
    * @throws IOException if there is an error while reading a file from the filesystem
    * @throws MaliciousPathException if a path is outside the bag
-   * @throws InvalidBagitFileFormatException if a manifest is not formatted correctly
    * @throws FileNotInPayloadDirectoryException if a file listed in a manifest is not in the payload directory
    */
   public static void verifyManifests(final Bag bag, final boolean ignoreHiddenFiles)throws IOException{
+    verifyManifestsInMemory(bag, ignoreHiddenFiles, new ValidationOptionsBuilder().build(), FileFailures.THROW);
+  }
+
+  private static void verifyManifestsInMemory(final Bag bag, final boolean ignoreHiddenFiles, final ValidationOptions options, 
+      final FileFailures failures)throws IOException{
 
     final Set<Path> allFilesListedInManifests = getAllFilesListedInManifests(bag);
-    checkAllFilesListedInManifestExist(allFilesListedInManifests);
+    checkAllFilesListedInManifestExist(allFilesListedInManifests, options, failures);
 
     if (bag.getVersion().isOlder(Version.VERSION_1_0())) {
-      checkAllFilesInPayloadDirAreListedInAtLeastOneAManifest(allFilesListedInManifests, bag.getDataDir(), ignoreHiddenFiles);
+      checkAllFilesInPayloadDirAreListedInAtLeastOneAManifest(allFilesListedInManifests, bag.getDataDir(), ignoreHiddenFiles, failures);
     } else {
-      CheckAllFilesInPayloadDirAreListedInAllManifests(bag, ignoreHiddenFiles);
+      CheckAllFilesInPayloadDirAreListedInAllManifests(bag, ignoreHiddenFiles, failures);
     }
   }
 
@@ -64,41 +113,45 @@ public enum ManifestVerifier {; //using enum to enforce singleton
   }
 
   /*
-   * get the full path (absolute) of all the files listed in all the manifests
+   * get the full path (absolute) of all the files listed in all the manifests.
+   * Uses the manifests already parsed when the bag was read instead of reading them again from disk
    */
-  private static Set<Path> getAllFilesListedInManifests(final Bag bag) throws IOException {
+  private static Set<Path> getAllFilesListedInManifests(final Bag bag) {
     logger.debug(messages.getString("all_files_in_manifests"));
 
     final Set<Path> filesListedInManifests = new HashSet<>();
+    addAllFilesListedInManifests(bag.getPayLoadManifests(), filesListedInManifests);
+    addAllFilesListedInManifests(bag.getTagManifests(), filesListedInManifests);
 
-    try(DirectoryStream<Path> directoryStream = Files.newDirectoryStream(bag.getTagFileDir(), new ManifestFilter())){
-      for(final Path path : directoryStream) {
-        logger.debug(messages.getString("get_listing_in_manifest"), path);
-        final Manifest manifest = ManifestReader.readManifest(path, bag.getRootDir(), bag.getVersion(), bag.getFileEncoding());
-        filesListedInManifests.addAll(manifest.getEntries().stream().map(entry -> entry.getPhysicalLocation()).collect(Collectors.toList()));
+    return filesListedInManifests;
+  }
+  
+  private static void addAllFilesListedInManifests(final Set<Manifest> manifests, final Set<Path> filesListedInManifests) {
+    for(final Manifest manifest : manifests) {
+      logger.debug(messages.getString("get_listing_in_manifest"), manifest.getBagitAlgorithmName());
+      for(final ManifestEntry entry : manifest.getEntries()) {
+        filesListedInManifests.add(entry.getPhysicalLocation());
       }
     }
-
-    return filesListedInManifests;
   }
 
   /*
-   * Make sure all the listed files actually exist
+   * Make sure all the listed files actually exist, using a thread per file if the options say to
    */
-  private static void checkAllFilesListedInManifestExist(final Set<Path> files) {
+  private static void checkAllFilesListedInManifestExist(final Set<Path> files, final ValidationOptions options, final FileFailures failures) throws IOException {
     logger.info(messages.getString("check_all_files_in_manifests_exist"));
 
-    for (final Path file : files) {
+    PerFileChecks.forEach(files, options, file -> {
       if(!Files.exists(file)){
         if(existsNormalized(file)){
           logger.warn(messages.getString("different_normalization_on_filesystem_warning"), file);
         }
         else{
           final String formattedMessage = messages.getString("missing_payload_files_error");
-          throw new FileNotInPayloadDirectoryException(MessageFormatter.format(formattedMessage, file).getMessage());
+          failures.missing(file, MessageFormatter.format(formattedMessage, file).getMessage());
         }
       }
-    }
+    });
   }
 
   /**
@@ -109,7 +162,13 @@ public enum ManifestVerifier {; //using enum to enforce singleton
    * @return true if the normalized filename matches one on disk in the specified folder
    */
   protected static boolean existsNormalized(final Path file){
-    boolean existsNormalized = false;
+    return findNormalized(file).isPresent();
+  }
+
+  /*
+   * @return the file on disk whose name has a different normalization than the one given, if there is one
+   */
+  static Optional<Path> findNormalized(final Path file){
     final String normalizedFile = toNormalizedString(file);
     final Path parent = file.getParent();
     if(parent != null){
@@ -117,8 +176,7 @@ public enum ManifestVerifier {; //using enum to enforce singleton
         for(final Path fileToCheck : files){
           final String normalizedFileToCheck = toNormalizedString(fileToCheck);
           if(normalizedFile.equals(normalizedFileToCheck)){
-            existsNormalized = true;
-            break;
+            return Optional.of(fileToCheck);
           }
         }
       }
@@ -127,26 +185,28 @@ public enum ManifestVerifier {; //using enum to enforce singleton
       }
     }
 
-    return existsNormalized;
+    return Optional.empty();
   }
 
   /*
    * Make sure all files in the directory are in at least 1 manifest
    */
-  private static void checkAllFilesInPayloadDirAreListedInAtLeastOneAManifest(final Set<Path> filesListedInManifests, final Path payloadDir, final boolean ignoreHiddenFiles) throws IOException {
+  private static void checkAllFilesInPayloadDirAreListedInAtLeastOneAManifest(final Set<Path> filesListedInManifests, final Path payloadDir, 
+      final boolean ignoreHiddenFiles, final FileFailures failures) throws IOException {
     logger.debug(messages.getString("checking_file_in_at_least_one_manifest"), payloadDir);
     if (Files.exists(payloadDir)) {
-      Files.walkFileTree(payloadDir, new PayloadFileExistsInAtLeastOneManifestVistor(filesListedInManifests, ignoreHiddenFiles));
+      TreeWalkedEvent.walkFileTree(payloadDir, new PayloadFileExistsInAtLeastOneManifestVistor(filesListedInManifests, ignoreHiddenFiles, failures), "completeness");
     }
   }
 
   /*
    * as per the bagit-spec 1.0+ all files have to be listed in all manifests
    */
-  private static void CheckAllFilesInPayloadDirAreListedInAllManifests(final Bag bag, final boolean ignoreHiddenFiles) throws IOException {
+  private static void CheckAllFilesInPayloadDirAreListedInAllManifests(final Bag bag, final boolean ignoreHiddenFiles, final FileFailures failures) throws IOException {
     logger.debug(messages.getString("checking_file_in_all_manifests"), bag.getDataDir());
     if (Files.exists(bag.getDataDir())) {
-      Files.walkFileTree(bag.getDataDir(), new PayloadFileExistsInAllManifestsVistor(bag.getPayLoadManifests(), bag.getRootDir(), ignoreHiddenFiles));
+      TreeWalkedEvent.walkFileTree(bag.getDataDir(), new PayloadFileExistsInAllManifestsVistor(bag.getPayLoadManifests(), bag.getRootDir(), ignoreHiddenFiles, failures), 
+          "completeness");
     }
   }
 }
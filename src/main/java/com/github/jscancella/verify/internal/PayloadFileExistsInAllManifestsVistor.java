@@ -6,17 +6,18 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.HashSet;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.MessageFormatter;
 
 import com.github.jscancella.domain.Manifest;
-import com.github.jscancella.exceptions.FileNotInManifestException;
+import com.github.jscancella.domain.ManifestEntry;
 
 /**
  * Implements {@link SimpleFileVisitor} to ensure that the encountered file is in one of the manifests.
@@ -25,8 +26,10 @@ import com.github.jscancella.exceptions.FileNotInManifestException;
 public final class PayloadFileExistsInAllManifestsVistor extends AbstractPayloadFileExistsInManifestsVistor {
   private static final Logger logger = LoggerFactory.getLogger(PayloadFileExistsInAllManifestsVistor.class);
   private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
-  private final Set<Manifest> manifests;
+  //bagit algorithm name paired with the normalized relative paths listed in that manifest
+  private final List<SimpleImmutableEntry<String, Set<String>>> manifests;
   private final Path rootDir;
+  private final FileFailures failures;
 
   /**
    * Implements {@link SimpleFileVisitor} to ensure that the encountered file is in one of the manifests.
@@ -36,24 +39,33 @@ public final class PayloadFileExistsInAllManifestsVistor extends AbstractPayload
    * @param ignoreHiddenFiles if the checker should ignore hidden files or not
    */
   public PayloadFileExistsInAllManifestsVistor(final Set<Manifest> manifests, final Path rootDir, final boolean ignoreHiddenFiles) {
+    this(manifests, rootDir, ignoreHiddenFiles, FileFailures.THROW);
+  }
+
+  PayloadFileExistsInAllManifestsVistor(final Set<Manifest> manifests, final Path rootDir, final boolean ignoreHiddenFiles, final FileFailures failures) {
     super(ignoreHiddenFiles);
-    this.manifests = new HashSet<>(manifests);
+    this.manifests = new ArrayList<>(manifests.size());
     this.rootDir = rootDir;
+    this.failures = failures;
+    
+    for(final Manifest manifest : manifests) {
+      final List<Path> relativePaths = new ArrayList<>(manifest.getEntries().size());
+      for(final ManifestEntry entry : manifest.getEntries()) {
+        relativePaths.add(entry.getRelativeLocation());
+      }
+      this.manifests.add(new SimpleImmutableEntry<>(manifest.getBagitAlgorithmName(), toNormalizedStrings(relativePaths)));
+    }
   }
 
   @Override
   public FileVisitResult visitFile(final Path path, final BasicFileAttributes attrs) throws IOException {
     if(Files.isRegularFile(path)){
-      for(final Manifest manifest : manifests){
-        final Set<Path> relativePaths = manifest
-                                    .getEntries().stream()
-                                    .map(entry -> entry.getRelativeLocation())
-                                    .collect(Collectors.toSet());
-        final Path relativePath = rootDir.relativize(path);
-
-        if(!inManifest(relativePath, relativePaths)){
+      final Path relativePath = rootDir.relativize(path);
+      for(final SimpleImmutableEntry<String, Set<String>> manifest : manifests){
+        if(!inManifest(relativePath, manifest.getValue())){
           final String formattedMessage = messages.getString("file_not_in_manifest_error");
-          throw new FileNotInManifestException(MessageFormatter.format(formattedMessage, path, manifest.getBagitAlgorithmName()).getMessage());
+          failures.notInManifest(path, MessageFormatter.format(formattedMessage, path, manifest.getKey()).getMessage());
+          break; //only reached when recording, and the file only needs to be recorded once
         }
       }
     }
@@ -6,7 +6,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.HashSet;
 import java.util.ResourceBundle;
 import java.util.Set;
 
@@ -14,8 +13,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.MessageFormatter;
 
-import com.github.jscancella.exceptions.FileNotInManifestException;
-
 /**
  * Implements {@link SimpleFileVisitor} to ensure that the encountered file is in one of the manifests.
  */
@@ -23,7 +20,8 @@ import com.github.jscancella.exceptions.FileNotInManifestException;
 public final class PayloadFileExistsInAtLeastOneManifestVistor extends AbstractPayloadFileExistsInManifestsVistor {
   private static final Logger logger = LoggerFactory.getLogger(PayloadFileExistsInAtLeastOneManifestVistor.class);
   private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
-  private final Set<Path> filesListedInManifests;
+  private final Set<String> filesListedInManifests;
+  private final FileFailures failures;
 
   /**
    * Implements {@link SimpleFileVisitor} to ensure that the encountered file is in one of the manifests.
@@ -32,8 +30,13 @@ public final class PayloadFileExistsInAtLeastOneManifestVistor extends AbstractP
    * @param ignoreHiddenFiles if the checker should ignore hidden files or not
    */
   public PayloadFileExistsInAtLeastOneManifestVistor(final Set<Path> filesListedInManifests, final boolean ignoreHiddenFiles) {
+    this(filesListedInManifests, ignoreHiddenFiles, FileFailures.THROW);
+  }
+
+  PayloadFileExistsInAtLeastOneManifestVistor(final Set<Path> filesListedInManifests, final boolean ignoreHiddenFiles, final FileFailures failures) {
     super(ignoreHiddenFiles);
-    this.filesListedInManifests = new HashSet<>(filesListedInManifests);
+    this.filesListedInManifests = toNormalizedStrings(filesListedInManifests);
+    this.failures = failures;
   }
 
   @Override
@@ -44,7 +47,7 @@ public final class PayloadFileExistsInAtLeastOneManifestVistor extends AbstractP
 	else {
 	  if(Files.isRegularFile(path) && !inManifest(path.toAbsolutePath(), filesListedInManifests)){
       final String formattedMessage = messages.getString("file_not_in_any_manifest_error");
-      throw new FileNotInManifestException(MessageFormatter.format(formattedMessage, path).getMessage());
+      failures.notInManifest(path, MessageFormatter.format(formattedMessage, path).getMessage());
     }
     logger.debug(messages.getString("file_in_at_least_one_manifest"), path);
 	}
@@ -0,0 +1,181 @@
+package com.github.jscancella.verify.internal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.MessageFormatter;
+
+import com.github.jscancella.domain.Bag;
+import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.ManifestEntry;
+import com.github.jscancella.exceptions.FileNotInPayloadDirectoryException;
+import com.github.jscancella.exceptions.InvalidPayloadOxumException;
+import com.github.jscancella.exceptions.PayloadOxumDoesNotExistException;
+import com.github.jscancella.internal.PhaseTimer;
+import com.github.jscancella.progress.BagOperationListener;
+import com.github.jscancella.progress.BagOperationListener.Phase;
+import com.github.jscancella.verify.ValidationOptions;
+import com.github.jscancella.verify.ValidationOptions.PayloadOxumCheck;
+import com.github.jscancella.verify.ValidationOptions.ValidationOptionsBuilder;
+import com.github.jscancella.verify.internal.PerFileChecks.FileSource;
+
+/**
+ * Responsible for the cheap checks done before any file is hashed: that every payload file exists and that
+ * their sizes and count add up to the Payload-Oxum in the bag metadata.
+ * This finds incomplete transfers using only file metadata (stat), instead of after hours of hashing.
+ */
+public enum PayloadOxumVerifier {; //using enum to enforce singleton
+  private static final Logger logger = LoggerFactory.getLogger(PayloadOxumVerifier.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  private static final String PAYLOAD_OXUM = "Payload-Oxum";
+
+  /**
+   * Check that the total size and number of the files listed in the payload manifests match the Payload-Oxum.
+   * Only the file metadata is read, and a missing file is found without having to hash anything.
+   * Files on disk that aren't listed in a manifest are found when checking if the bag is complete.
+   *
+   * @param bag the bag to check
+   * @param required if the bag must have a Payload-Oxum, otherwise a bag without one isn't checked
+   *
+   * @throws IOException if there is a problem reading the metadata of a file
+   * @throws PayloadOxumDoesNotExistException if the Payload-Oxum is required and the bag doesn't have one
+   * @throws InvalidPayloadOxumException if the Payload-Oxum is malformed or the files don't add up to it
+   * @throws FileNotInPayloadDirectoryException if a file listed in a payload manifest doesn't exist
+   */
+  public static void checkPayloadOxum(final Bag bag, final boolean required) throws IOException{
+    checkPayloadOxum(bag, required, BagOperationListener.NONE);
+  }
+
+  /**
+   * Check the Payload-Oxum if the options say to, telling the listener how long it took and the size of the payload.
+   *
+   * @param bag the bag to check
+   * @param options if the Payload-Oxum should be checked and who to tell about it
+   *
+   * @throws IOException if there is a problem reading the metadata of a file
+   * @throws PayloadOxumDoesNotExistException if the Payload-Oxum is required and the bag doesn't have one
+   * @throws InvalidPayloadOxumException if the Payload-Oxum is malformed or the files don't add up to it
+   * @throws FileNotInPayloadDirectoryException if a file listed in a payload manifest doesn't exist
+   */
+  public static void checkPayloadOxum(final Bag bag, final ValidationOptions options) throws IOException{
+    if(options.getPayloadOxumCheck() != PayloadOxumCheck.SKIP) {
+      PhaseTimer.time(options.getListener(), Phase.CHECK_PAYLOAD_OXUM, () -> 
+        checkPayloadOxum(bag, options.getPayloadOxumCheck() == PayloadOxumCheck.REQUIRED, options.getListener(), options));
+    }
+  }
+
+  /**
+   * Same as {@link #checkPayloadOxum(Bag, boolean)}, and once the payload matches tell the listener its size.
+   *
+   * @param bag the bag to check
+   * @param required if the bag must have a Payload-Oxum, otherwise a bag without one isn't checked
+   * @param listener who to tell the size of the payload
+   *
+   * @throws IOException if there is a problem reading the metadata of a file
+   * @throws PayloadOxumDoesNotExistException if the Payload-Oxum is required and the bag doesn't have one
+   * @throws InvalidPayloadOxumException if the Payload-Oxum is malformed or the files don't add up to it
+   * @throws FileNotInPayloadDirectoryException if a file listed in a payload manifest doesn't exist
+   */
+  public static void checkPayloadOxum(final Bag bag, final boolean required, final BagOperationListener listener) throws IOException{
+    checkPayloadOxum(bag, required, listener, new ValidationOptionsBuilder().build());
+  }
+
+  /*
+   * with a thread per file the size of each file is read on its own thread
+   */
+  private static void checkPayloadOxum(final Bag bag, final boolean required, final BagOperationListener listener, 
+      final ValidationOptions options) throws IOException{
+    final List<String> values = bag.getMetadata().get(PAYLOAD_OXUM);
+    if(values.isEmpty()) {
+      if(required) {
+        final String formattedMessage = messages.getString("payload_oxum_does_not_exist_error");
+        throw new PayloadOxumDoesNotExistException(MessageFormatter.format(formattedMessage, bag.getRootDir()).getMessage());
+      }
+      logger.debug(messages.getString("no_payload_oxum_to_check"), bag.getRootDir());
+      return;
+    }
+
+    final String payloadOxum = values.get(0).trim();
+    final long[] expected = parse(payloadOxum);
+    logger.info(messages.getString("checking_payload_oxum"), payloadOxum);
+
+    final LongAdder sizes = new LongAdder();
+    final LongAdder count = new LongAdder();
+    PerFileChecks.forEach(getPayloadFiles(bag.getPayLoadManifests(), options), options, file -> {
+      sizes.add(size(file));
+      count.increment();
+    });
+    final long totalSize = sizes.sum();
+    final long numberOfFiles = count.sum();
+
+    if(totalSize != expected[0] || numberOfFiles != expected[1]) {
+      final String formattedMessage = messages.getString("invalid_payload_oxum_error");
+      throw new InvalidPayloadOxumException(MessageFormatter.format(formattedMessage, payloadOxum, totalSize + "." + numberOfFiles).getMessage());
+    }
+    listener.payloadSizeKnown(totalSize, numberOfFiles);
+  }
+
+  /*
+   * @return the octet count and the file count
+   */
+  private static long[] parse(final String payloadOxum) {
+    final String[] parts = payloadOxum.split("\\.");
+    try {
+      if(parts.length == 2) {
+        return new long[] {Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+      }
+    }
+    catch(NumberFormatException e) {
+      logger.debug(e.getMessage(), e);
+    }
+    final String formattedMessage = messages.getString("malformed_payload_oxum_error");
+    throw new InvalidPayloadOxumException(MessageFormatter.format(formattedMessage, payloadOxum).getMessage());
+  }
+
+  /*
+   * the same file is usually listed in every payload manifest, but it is only counted once. 
+   * With bounded memory the duplicates are found by sorting on disk instead of holding every path in a set
+   */
+  private static FileSource getPayloadFiles(final Collection<Manifest> payloadManifests, final ValidationOptions options) {
+    if(options.isBoundedMemory()) {
+      return each -> SortedManifestVerifier.forEachDistinctFile(payloadManifests, options.getMaxPathsInMemory(), each);
+    }
+    return each -> {
+      final Set<Path> files = new HashSet<>();
+      for(final Manifest manifest : payloadManifests) {
+        for(final ManifestEntry entry : manifest.getEntries()) {
+          if(files.add(entry.getPhysicalLocation())) {
+            each.check(entry.getPhysicalLocation());
+          }
+        }
+      }
+    };
+  }
+
+  private static long size(final Path file) throws IOException {
+    try {
+      return Files.readAttributes(file, BasicFileAttributes.class).size();
+    }
+    catch(NoSuchFileException e) {
+      //same as when checking if the bag is complete, a file with a different unicode normalization on disk is still counted
+      final Optional<Path> normalized = ManifestVerifier.findNormalized(file);
+      if(normalized.isPresent()) {
+        return Files.readAttributes(normalized.get(), BasicFileAttributes.class).size();
+      }
+      final String formattedMessage = messages.getString("missing_payload_files_error");
+      throw new FileNotInPayloadDirectoryException(MessageFormatter.format(formattedMessage, file).getMessage());
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.github.jscancella.verify.internal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.jscancella.exceptions.ValidationCancelledException;
+import com.github.jscancella.internal.PerFileExecutors;
+import com.github.jscancella.verify.ValidationOptions;
+
+/**
+ * Runs a cheap check, like reading the size of a file, for each file when checking if a bag is complete.
+ * With a thread per file (see {@link ValidationOptions#isThreadPerFile()}) the checks are run on the per file executor,
+ * so that the latency of millions of stats overlaps instead of adding up. Otherwise they are run on the calling thread.
+ */
+@SuppressWarnings({"PMD.DoNotUseThreads"})
+enum PerFileChecks {; //using enum to enforce singleton
+  private static final Logger logger = LoggerFactory.getLogger(PerFileChecks.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  //checks waiting for a thread, for each thread, so that streamed files aren't all queued at once
+  private static final int QUEUED_CHECKS_PER_THREAD = 4;
+
+  /**
+   * Check each file, stopping at the first check that throws an exception.
+   *
+   * @param files the files to check
+   * @param options if each file should be checked on its own thread
+   * @param check what to do with each file, must be thread safe
+   *
+   * @throws IOException if a check throws one
+   * @throws ValidationCancelledException if the checking was interrupted
+   */
+  static void forEach(final Iterable<Path> files, final ValidationOptions options, final FileCheck check) throws IOException {
+    forEach(each -> {
+      for(final Path file : files) {
+        each.check(file);
+      }
+    }, options, check);
+  }
+
+  /**
+   * Same as {@link #forEach(Iterable, ValidationOptions, FileCheck)} but for files that are streamed, for example from disk.
+   * Only a few checks are queued at once, so the files are never all held in memory.
+   *
+   * @param files hands each file to check in turn
+   * @param options if each file should be checked on its own thread
+   * @param check what to do with each file, must be thread safe
+   *
+   * @throws IOException if a check throws one
+   * @throws ValidationCancelledException if the checking was interrupted
+   */
+  static void forEach(final FileSource files, final ValidationOptions options, final FileCheck check) throws IOException {
+    if(!options.isThreadPerFile() || options.getExecutor().isPresent()) {
+      files.forEach(check);
+      return;
+    }
+
+    logger.debug(messages.getString("checking_files_thread_per_file"), options.getMaxConcurrentIo(), PerFileExecutors.isUsingVirtualThreads());
+    final ExecutorService executor = PerFileExecutors.newExecutor(options.getMaxConcurrentIo());
+    final int maxQueued = options.getMaxConcurrentIo() * QUEUED_CHECKS_PER_THREAD;
+    final Deque<Future<Void>> futures = new ArrayDeque<>();
+    try {
+      files.forEach(file -> {
+        if(futures.size() >= maxQueued) {
+          await(futures.removeFirst());
+        }
+        futures.addLast(executor.submit(() -> {
+          check.check(file);
+          return null;
+        }));
+      });
+      while(!futures.isEmpty()) {
+        await(futures.removeFirst());
+      }
+    }
+    finally {
+      for(final Future<Void> future : futures) {
+        future.cancel(true);
+      }
+      executor.shutdownNow();
+    }
+  }
+
+  @SuppressWarnings("PMD.PreserveStackTrace")
+  private static void await(final Future<Void> future) throws IOException {
+    try {
+      future.get();
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw CancellationChecker.interrupted();
+    }
+    catch(ExecutionException e) {
+      ChecksumVerifier.rethrow(e.getCause());
+    }
+  }
+
+  /**
+   * A check of a single file
+   */
+  @FunctionalInterface
+  interface FileCheck {
+    /**
+     * @param file the file to check
+     * @throws IOException if there is a problem reading the file
+     */
+    void check(Path file) throws IOException;
+  }
+
+  /**
+   * The files to check, handed out one at a time
+   */
+  @FunctionalInterface
+  interface FileSource {
+    /**
+     * @param each what to do with each file
+     * @throws IOException if there is a problem getting the files, or the check throws one
+     */
+    void forEach(FileCheck each) throws IOException;
+  }
+}
@@ -0,0 +1,237 @@
+package com.github.jscancella.verify.internal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ResourceBundle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.MessageFormatter;
+
+import com.github.jscancella.domain.Bag;
+import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.ManifestEntry;
+import com.github.jscancella.domain.Version;
+import com.github.jscancella.exceptions.FileNotInManifestException;
+import com.github.jscancella.exceptions.FileNotInPayloadDirectoryException;
+import com.github.jscancella.internal.ExternalSorter;
+import com.github.jscancella.internal.ExternalSorter.SortedStrings;
+import com.github.jscancella.internal.jfr.TreeWalkedEvent;
+
+/**
+ * Same checks as {@link ManifestVerifier} but uses a bounded amount of memory regardless of how many files are in the bag.
+ * The files listed in the manifests and the files found in the payload directory are each sorted using temporary files on disk,
+ * and then compared in a single streaming pass (a merge join) to find the missing and extra files.
+ */
+public enum SortedManifestVerifier {; //using enum to enforce singleton
+  private static final Logger logger = LoggerFactory.getLogger(SortedManifestVerifier.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  //can't be in a path, so it safely separates the normalized path from the original. Also sorts before any other character
+  private static final char SEPARATOR = '\0';
+  private static final Comparator<String> ORDER = Comparator.naturalOrder();
+
+  /**
+   * Verify that all the files in the payload directory are listed in the payload manifest and
+   * all files listed in all manifests exist.
+   *
+   * @param bag the bag which contains the manifests to check
+   * @param ignoreHiddenFiles to include hidden files when checking
+   * @param maxPathsInMemory the maximum number of paths to hold in memory at once
+   *
+   * @throws IOException if there is an error while reading a file from the filesystem
+   * @throws FileNotInPayloadDirectoryException if a file listed in a manifest is not in the payload directory
+   * @throws FileNotInManifestException if a file in the payload directory is not listed in a manifest
+   */
+  public static void verifyManifests(final Bag bag, final boolean ignoreHiddenFiles, final int maxPathsInMemory) throws IOException {
+    verifyManifests(bag, ignoreHiddenFiles, maxPathsInMemory, FileFailures.THROW);
+  }
+  
+  static void verifyManifests(final Bag bag, final boolean ignoreHiddenFiles, final int maxPathsInMemory, final FileFailures failures) throws IOException {
+    final boolean isOlderThanVersion1 = bag.getVersion().isOlder(Version.VERSION_1_0());
+    final Path tempDir = Files.createTempDirectory("bagging-completeness");
+
+    try(ExternalSorter payloadFiles = new ExternalSorter(tempDir, maxPathsInMemory, ORDER)){
+      if(Files.exists(bag.getDataDir())) {
+        //as with the in memory checks, older versions also skip hidden files, not just hidden directories
+        TreeWalkedEvent.walkFileTree(bag.getDataDir(), new SortingPayloadFileVistor(payloadFiles, ignoreHiddenFiles, isOlderThanVersion1), "completeness");
+      }
+
+      final List<Manifest> allManifests = new ArrayList<>(bag.getPayLoadManifests());
+      allManifests.addAll(bag.getTagManifests());
+      try(ExternalSorter listedFiles = sortManifestEntries(allManifests, tempDir, maxPathsInMemory)){
+        logger.info(messages.getString("check_all_files_in_manifests_exist"));
+        join(listedFiles, payloadFiles, record -> checkListedFileExists(record, failures), null);
+
+        if(isOlderThanVersion1) {
+          logger.debug(messages.getString("checking_file_in_at_least_one_manifest"), bag.getDataDir());
+          join(listedFiles, payloadFiles, null, record -> notInAnyManifest(record, failures));
+        }
+      }
+
+      if(!isOlderThanVersion1) {
+        logger.debug(messages.getString("checking_file_in_all_manifests"), bag.getDataDir());
+        for(final Manifest manifest : bag.getPayLoadManifests()) {
+          try(ExternalSorter listedFiles = sortManifestEntries(List.of(manifest), tempDir, maxPathsInMemory)){
+            join(listedFiles, payloadFiles, null, record -> notInManifest(record, manifest.getBagitAlgorithmName(), failures));
+          }
+        }
+      }
+    }
+    finally {
+      Files.deleteIfExists(tempDir);
+    }
+  }
+
+  /**
+   * Hand each distinct file listed in the manifests to the check once, using a bounded amount of memory regardless of how many files are listed.
+   * The same file is usually listed in every manifest, so the entries are sorted on disk to find the duplicates.
+   *
+   * @param manifests the manifests listing the files
+   * @param maxPathsInMemory the maximum number of paths to hold in memory at once
+   * @param check what to do with each file
+   *
+   * @throws IOException if there is a problem sorting the files, or the check throws one
+   */
+  static void forEachDistinctFile(final Collection<Manifest> manifests, final int maxPathsInMemory, final PerFileChecks.FileCheck check) throws IOException {
+    final Path tempDir = Files.createTempDirectory("bagging-listed-files");
+    try(ExternalSorter listedFiles = sortManifestEntries(manifests, tempDir, maxPathsInMemory); SortedStrings records = listedFiles.read()){
+      String record = nextDistinct(records, null);
+      while(record != null) {
+        check.check(originalPart(record));
+        record = nextDistinct(records, record);
+      }
+    }
+    finally {
+      Files.deleteIfExists(tempDir);
+    }
+  }
+
+  private static ExternalSorter sortManifestEntries(final Collection<Manifest> manifests, final Path tempDir, final int maxPathsInMemory) throws IOException {
+    final ExternalSorter sorter = new ExternalSorter(tempDir, maxPathsInMemory, ORDER);
+    for(final Manifest manifest : manifests) {
+      for(final ManifestEntry entry : manifest.getEntries()) {
+        sorter.add(toRecord(entry.getPhysicalLocation()));
+      }
+    }
+    logger.debug(messages.getString("sorted_paths_using_runs"), sorter.getNumberOfRuns());
+    return sorter;
+  }
+
+  /**
+   * Create a sortable record of the normalized path followed by the original path.
+   *
+   * @param path the path to create a record for
+   * @return the record
+   */
+  static String toRecord(final Path path) {
+    final Path absolutePath = path.toAbsolutePath().normalize();
+    return ManifestVerifier.toNormalizedString(absolutePath) + SEPARATOR + absolutePath.toString();
+  }
+
+  private static String normalizedPart(final String record) {
+    return record.substring(0, record.indexOf(SEPARATOR));
+  }
+
+  private static Path originalPart(final String record) {
+    return Paths.get(record.substring(record.indexOf(SEPARATOR) + 1));
+  }
+
+  /*
+   * Step through both sorted lists at the same time, handing off the records that are only in one of them.
+   * Duplicate paths (for example the same file listed in multiple manifests) are only handled once
+   */
+  private static void join(final ExternalSorter listed, final ExternalSorter found,
+      final RecordHandler onlyListed, final RecordHandler onlyFound) throws IOException {
+    try(SortedStrings listedRecords = listed.read(); SortedStrings foundRecords = found.read()){
+      String listedRecord = nextDistinct(listedRecords, null);
+      String foundRecord = nextDistinct(foundRecords, null);
+
+      while(listedRecord != null || foundRecord != null) {
+        final int comparison = compare(listedRecord, foundRecord);
+        if(comparison < 0) {
+          handle(onlyListed, listedRecord);
+          listedRecord = nextDistinct(listedRecords, listedRecord);
+        }
+        else if(comparison > 0) {
+          handle(onlyFound, foundRecord);
+          foundRecord = nextDistinct(foundRecords, foundRecord);
+        }
+        else {
+          listedRecord = nextDistinct(listedRecords, listedRecord);
+          foundRecord = nextDistinct(foundRecords, foundRecord);
+        }
+      }
+    }
+  }
+
+  /*
+   * a missing record sorts after everything so that the rest of the other list is handled
+   */
+  private static int compare(final String first, final String second) {
+    final int comparison;
+    if(first == null) {
+      comparison = 1;
+    }
+    else if(second == null) {
+      comparison = -1;
+    }
+    else {
+      comparison = ORDER.compare(normalizedPart(first), normalizedPart(second));
+    }
+    return comparison;
+  }
+
+  private static String nextDistinct(final SortedStrings records, final String previous) throws IOException {
+    String record = records.next();
+    while(record != null && previous != null && normalizedPart(record).equals(normalizedPart(previous))) {
+      record = records.next();
+    }
+    return record;
+  }
+
+  private static void handle(final RecordHandler handler, final String record) throws IOException {
+    if(handler != null) {
+      handler.handle(record);
+    }
+  }
+
+  /*
+   * The file wasn't found while walking the payload directory, but it might be a tag file, hidden, or have a different normalization
+   */
+  private static void checkListedFileExists(final String record, final FileFailures failures) {
+    final Path file = originalPart(record);
+    if(!Files.exists(file)){
+      if(ManifestVerifier.existsNormalized(file)){
+        logger.warn(messages.getString("different_normalization_on_filesystem_warning"), file);
+      }
+      else{
+        final String formattedMessage = messages.getString("missing_payload_files_error");
+        failures.missing(file, MessageFormatter.format(formattedMessage, file).getMessage());
+      }
+    }
+  }
+
+  private static void notInAnyManifest(final String record, final FileFailures failures) {
+    final String formattedMessage = messages.getString("file_not_in_any_manifest_error");
+    failures.notInManifest(originalPart(record), MessageFormatter.format(formattedMessage, originalPart(record)).getMessage());
+  }
+
+  private static void notInManifest(final String record, final String bagitAlgorithmName, final FileFailures failures) {
+    final String formattedMessage = messages.getString("file_not_in_manifest_error");
+    failures.notInManifest(originalPart(record), MessageFormatter.format(formattedMessage, originalPart(record), bagitAlgorithmName).getMessage());
+  }
+
+  /**
+   * What to do with a record that is only in one of the sorted lists
+   */
+  @FunctionalInterface
+  private interface RecordHandler {
+    void handle(String record) throws IOException;
+  }
+}
@@ -0,0 +1,48 @@
+package com.github.jscancella.verify.internal;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ResourceBundle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.jscancella.internal.ExternalSorter;
+
+/**
+ * Implements {@link SimpleFileVisitor} to add every file in the payload directory to a {@link ExternalSorter} 
+ * so that they can later be compared against the sorted manifest entries.
+ */
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize"})
+public final class SortingPayloadFileVistor extends AbstractPayloadFileExistsInManifestsVistor {
+  private static final Logger logger = LoggerFactory.getLogger(SortingPayloadFileVistor.class);
+  private static final ResourceBundle messages = ResourceBundle.getBundle("MessageBundle");
+  private final ExternalSorter sorter;
+  private final boolean ignoreHiddenFilesInDirectories;
+
+  /**
+   * @param sorter where to add each file
+   * @param ignoreHiddenFiles if the hidden directories should be skipped
+   * @param ignoreHiddenFilesInDirectories if hidden files should also be skipped, not just hidden directories
+   */
+  public SortingPayloadFileVistor(final ExternalSorter sorter, final boolean ignoreHiddenFiles, final boolean ignoreHiddenFilesInDirectories) {
+    super(ignoreHiddenFiles);
+    this.sorter = sorter;
+    this.ignoreHiddenFilesInDirectories = ignoreHiddenFilesInDirectories;
+  }
+
+  @Override
+  public FileVisitResult visitFile(final Path path, final BasicFileAttributes attrs) throws IOException {
+    if(ignoreHiddenFilesInDirectories && ignoreHiddenFiles && Files.isHidden(path)){
+      logger.debug(messages.getString("skipping_hidden_file"), path);
+    }
+    else if(Files.isRegularFile(path)){
+      sorter.add(SortedManifestVerifier.toRecord(path));
+    }
+    return FileVisitResult.CONTINUE;
+  }
+}
@@ -0,0 +1,31 @@
+package com.github.jscancella.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executors used to work on one task per file, for example when validating or writing a bag. 
+ * This is the Java 21 version of this class, packaged in the multi-release jar, which starts a cheap virtual thread 
+ * for each file and limits how many may do I/O at the same time.
+ */
+public enum PerFileExecutors {; //using enum to enforce singleton
+
+  /**
+   * @param maxConcurrentIo the maximum number of files being worked on at the same time
+   * @return an executor that works on at most maxConcurrentIo files at once. The caller must shut it down.
+   */
+  public static ExecutorService newExecutor(final int maxConcurrentIo) {
+    if(maxConcurrentIo < 1) {
+      throw new IllegalArgumentException("Must allow at least 1 file at a time but was [" + maxConcurrentIo + "]");
+    }
+    final ExecutorService virtualThreads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bagging-virtual-", 0).factory());
+    return new BoundedExecutorService(virtualThreads, maxConcurrentIo);
+  }
+
+  /**
+   * @return true if each file is worked on by its own virtual thread
+   */
+  public static boolean isUsingVirtualThreads() {
+    return true;
+  }
+}
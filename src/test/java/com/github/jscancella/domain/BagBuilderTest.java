@@ -14,6 +14,9 @@ import org.junit.jupiter.api.Test;
 import com.github.jscancella.TempFolderTest;
 import com.github.jscancella.exceptions.InvalidBagStateException;
 import com.github.jscancella.exceptions.NoSuchBagitAlgorithmException;
+import com.github.jscancella.hash.read.ReadAheadReadStrategy;
+import com.github.jscancella.progress.BagOperationListener.Phase;
+import com.github.jscancella.progress.ProgressAggregator;
 
 public class BagBuilderTest extends TempFolderTest{
 
@@ -162,4 +165,62 @@ public class BagBuilderTest extends TempFolderTest{
     Path expectedOutput = dst.resolve("data").resolve("foo").resolve("baginfoFiles").resolve("bag-info.txt");
     Assertions.assertTrue(Files.exists(expectedOutput), "Expected "+ expectedOutput + " to exist but it doesn't!");
   }
-}
+  
+  @Test
+  public void builderHashWhileCopyingCreatesSameBag() throws IOException {
+    Path src = Paths.get("src", "test", "resources", "baginfoFiles");
+    //not a bag-info.txt, as its Payload-Oxum wouldn't match this payload
+    Path tagFile = Paths.get("src", "test", "resources", "bags", "v1_0", "bag", "data", "foo.txt");
+    
+    Bag expected = new BagBuilder().addAlgorithm("md5").addAlgorithm("sha256")
+      .addPayloadFile(src)
+      .addTagFile(tagFile)
+      .bagLocation(createDirectory("hashThenCopy"))
+      .write();
+    Bag bag = new BagBuilder().addAlgorithm("md5").addAlgorithm("sha256")
+      .addPayloadFile(src)
+      .addTagFile(tagFile)
+      .bagLocation(createDirectory("hashWhileCopying"))
+      .hashWhileCopying(true)
+      .write();
+    
+    Assertions.assertEquals(expected.getPayLoadManifests().size(), bag.getPayLoadManifests().size());
+    for(Manifest manifest : bag.getPayLoadManifests()) {
+      for(ManifestEntry entry : manifest.getEntries()) {
+        Assertions.assertTrue(entry.getPhysicalLocation().startsWith(bag.getRootDir()));
+      }
+    }
+    Assertions.assertEquals(Files.readAllLines(expected.getRootDir().resolve("manifest-sha256.txt")), 
+        Files.readAllLines(bag.getRootDir().resolve("manifest-sha256.txt")));
+    Assertions.assertTrue(Bag.read(bag.getRootDir()).isValid(false));
+  }
+  
+  @Test
+  public void builderTellsListenerAboutProgress() throws IOException {
+    ProgressAggregator progress = new ProgressAggregator();
+    
+    new BagBuilder().addAlgorithm("md5")
+      .addPayloadFile(Paths.get("src", "test", "resources", "baginfoFiles"))
+      .bagLocation(createDirectory("listenerBag"))
+      .listener(progress)
+      .write();
+    
+    Assertions.assertEquals(Set.of(Phase.BUILD_PAYLOAD_MANIFESTS, Phase.BUILD_TAG_MANIFESTS, Phase.WRITE_BAG), progress.getPhaseTimings().keySet());
+    Assertions.assertTrue(progress.getFilesProcessed() > 0);
+    Assertions.assertTrue(progress.getBytesProcessed() > 0);
+  }
+  
+  @Test
+  public void builderHashesWithTheReadStrategy() throws IOException {
+    Path src = Paths.get("src", "test", "resources", "baginfoFiles");
+    Bag expected = new BagBuilder().addAlgorithm("sha256").addPayloadFile(src).bagLocation(createDirectory("heapRead")).write();
+    
+    Bag bag = new BagBuilder().addAlgorithm("sha256").addPayloadFile(src).bagLocation(createDirectory("readAhead"))
+      .readStrategy(new ReadAheadReadStrategy(16, 2, 0))
+      .write();
+    
+    Assertions.assertEquals(Files.readAllLines(expected.getRootDir().resolve("manifest-sha256.txt")), 
+        Files.readAllLines(bag.getRootDir().resolve("manifest-sha256.txt")));
+    Assertions.assertTrue(Bag.read(bag.getRootDir()).isValid(false));
+  }
+}
\ No newline at end of file
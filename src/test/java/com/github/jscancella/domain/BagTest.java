@@ -107,6 +107,19 @@ public class BagTest extends TempFolderTest{
     Assertions.assertArrayEquals(Files.readAllBytes(tagFile), Files.readAllBytes(expectedTagFile));
   }
   
+  @Test
+  public void testWriteCopiesFilesConcurrently() throws Exception{
+    Bag bag = Bag.read(Paths.get("src", "test", "resources", "bags", "v1_0", "bag"));
+    Path writeTo = createDirectory("concurrentlyWrittenBag");
+    
+    Bag written = bag.write(writeTo, 4);
+    
+    Assertions.assertEquals(writeTo, written.getRootDir());
+    Assertions.assertTrue(written.isValid(true));
+    Assertions.assertTrue(Bag.read(writeTo).isValid(true));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> bag.write(createDirectory("invalidBag"), 0));
+  }
+  
   @Test
   public void concurrentTest() throws IOException {
     List<Path> bags = new ArrayList<>();
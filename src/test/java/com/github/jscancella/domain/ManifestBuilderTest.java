@@ -2,11 +2,18 @@ package com.github.jscancella.domain;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
 
 import com.github.jscancella.domain.Manifest.ManifestBuilder;
+import com.github.jscancella.domain.Manifest.MultiManifestBuilder;
+import com.github.jscancella.hash.read.FileReadStrategy;
+import com.github.jscancella.hash.read.HeapBufferReadStrategy;
 
 public class ManifestBuilderTest {
 
@@ -37,4 +44,47 @@ public class ManifestBuilderTest {
     ManifestBuilder sut = new ManifestBuilder("md5");
     Assertions.assertNotNull(sut.build());
   }
+  
+  @Test
+  public void multiBuilderCreatesSameManifestsAsSingleBuilders() throws Exception {
+    Path directory = Paths.get("src", "test", "resources", "md5Bag", "data");
+    Path relative = Paths.get("data");
+    MultiManifestBuilder sut = new MultiManifestBuilder(Arrays.asList("md5", "sha1", "sha512"));
+    Set<Manifest> manifests = sut.addFile(directory, relative).build();
+    
+    Assertions.assertEquals(3, manifests.size());
+    for(String algorithm : Arrays.asList("md5", "sha1", "sha512")) {
+      Manifest expected = new ManifestBuilder(algorithm).addFile(directory, relative).build();
+      Assertions.assertTrue(manifests.contains(expected));
+    }
+  }
+  
+  @Test
+  public void buildersReadFilesWithTheReadStrategy() throws Exception {
+    Path directory = Paths.get("src", "test", "resources", "md5Bag", "data");
+    Path relative = Paths.get("data");
+    Set<Path> read = new HashSet<>();
+    FileReadStrategy heap = new HeapBufferReadStrategy();
+    FileReadStrategy recording = (file, handler) -> {
+      read.add(file);
+      heap.read(file, handler);
+    };
+    
+    Manifest manifest = new ManifestBuilder("md5").readStrategy(recording).addFile(directory, relative).build();
+    Assertions.assertEquals(new ManifestBuilder("md5").addFile(directory, relative).build(), manifest);
+    Assertions.assertEquals(manifest.getEntries().size(), read.size());
+    
+    read.clear();
+    Set<Manifest> manifests = new MultiManifestBuilder(Arrays.asList("md5", "sha1")).readStrategy(recording).addFile(directory, relative).build();
+    Assertions.assertTrue(manifests.contains(manifest));
+    Assertions.assertEquals(manifest.getEntries().size(), read.size());
+  }
+  
+  @Test
+  public void multiBuilderReturnsNoManifestsWithoutAlgorithms() throws Exception {
+    MultiManifestBuilder sut = new MultiManifestBuilder(Collections.emptyList());
+    Path file = Paths.get("src", "test", "resources", "md5Bag", "bagit.txt");
+    
+    Assertions.assertTrue(sut.addFile(file, Paths.get("")).build().isEmpty());
+  }
 }
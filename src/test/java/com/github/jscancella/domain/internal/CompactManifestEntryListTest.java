@@ -0,0 +1,69 @@
+package com.github.jscancella.domain.internal;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.jscancella.domain.ManifestEntry;
+
+public class CompactManifestEntryListTest {
+  private final Path rootDir = Paths.get("src", "test", "resources", "bags", "v1_0", "bag").toAbsolutePath();
+
+  @Test
+  public void testEntriesAreTheSameAsWhatWasAdded() {
+    List<ManifestEntry> expected = new ArrayList<>();
+    expected.add(entry("data/foo.txt", "b1946ac92492d2347c6235b4d2611184"));
+    expected.add(entry("data/dir/bar.txt", "B1946AC92492D2347C6235B4D2611184"));
+    expected.add(entry("data/dir/ham.txt", "0123456789012345678901234567890"));
+    expected.add(entry("data/dir/mixed.txt", "b1946AC92492d2347c6235b4d2611184"));
+    expected.add(entry("data/dir/notHex.txt", "not a checksum, but still needs to be kept"));
+    expected.add(entry("bagit.txt", "12345678901234567890123456789012"));
+
+    CompactManifestEntryList sut = new CompactManifestEntryList(rootDir);
+    sut.addAll(expected);
+    sut.trimToSize();
+
+    Assertions.assertEquals(expected, sut);
+    Assertions.assertEquals(expected.size(), sut.size());
+  }
+
+  @Test
+  public void testPathSegmentsAreShared() {
+    CompactManifestEntryList sut = new CompactManifestEntryList(rootDir);
+    sut.add(entry("data/dir/foo.txt", "b1946ac92492d2347c6235b4d2611184"));
+    sut.add(entry("data/dir/bar.txt", "b1946ac92492d2347c6235b4d2611184"));
+    sut.add(entry("data/ham.txt", "b1946ac92492d2347c6235b4d2611184"));
+
+    //data, dir, foo.txt, bar.txt, ham.txt
+    Assertions.assertEquals(5, sut.getNumberOfPathSegments());
+  }
+
+  @Test
+  public void testCanAddAfterTrimming() {
+    CompactManifestEntryList sut = new CompactManifestEntryList(rootDir);
+    ManifestEntry first = entry("data/foo.txt", "b1946ac92492d2347c6235b4d2611184");
+    ManifestEntry second = entry("data/bar.txt", "a1946ac92492d2347c6235b4d2611184");
+    sut.add(first);
+    sut.trimToSize();
+    sut.add(second);
+
+    Assertions.assertEquals(first, sut.get(0));
+    Assertions.assertEquals(second, sut.get(1));
+    Assertions.assertEquals(3, sut.getNumberOfPathSegments());
+  }
+
+  @Test
+  public void testIndexOutOfBounds() {
+    CompactManifestEntryList sut = new CompactManifestEntryList(rootDir);
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> { sut.get(0); });
+  }
+
+  private ManifestEntry entry(final String relative, final String checksum) {
+    Path relativePath = Paths.get(relative);
+    return new ManifestEntry(rootDir.resolve(relativePath), relativePath, checksum);
+  }
+}
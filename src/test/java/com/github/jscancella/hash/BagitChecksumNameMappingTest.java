@@ -3,11 +3,15 @@ package com.github.jscancella.hash;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import com.github.jscancella.exceptions.HasherInitializationException;
+import com.github.jscancella.hash.standard.MD5Hasher;
+import com.github.jscancella.hash.standard.SHA1Hasher;
 
 public class BagitChecksumNameMappingTest {
 
@@ -19,6 +23,53 @@ public class BagitChecksumNameMappingTest {
       BagitChecksumNameMapping.get("not-valid");
     });
   }
+  
+  @Test
+  public void testAddUsingSupplier() {
+    BagitChecksumNameMapping.add("md5-supplier", MD5Hasher::new);
+    try {
+      Assertions.assertTrue(BagitChecksumNameMapping.isSupported("md5-supplier"));
+      Assertions.assertTrue(BagitChecksumNameMapping.get("md5-supplier") instanceof MD5Hasher);
+    }
+    finally {
+      BagitChecksumNameMapping.clear("md5-supplier");
+    }
+  }
+  
+  @Test
+  public void testHasherIsFoundUsingServiceLoader() {
+    Assertions.assertTrue(BagitChecksumNameMapping.isSupported(ServiceLoadedHasher.BAGIT_ALGORITHM_NAME));
+    Assertions.assertTrue(BagitChecksumNameMapping.get(ServiceLoadedHasher.BAGIT_ALGORITHM_NAME) instanceof ServiceLoadedHasher);
+  }
+  
+  @Test
+  public void testGetForCurrentThreadReusesHasherOnlyOnSameThread() throws Exception {
+    Hasher hasher = BagitChecksumNameMapping.getForCurrentThread("md5");
+    Assertions.assertSame(hasher, BagitChecksumNameMapping.getForCurrentThread("md5"));
+    Assertions.assertNotSame(hasher, BagitChecksumNameMapping.get("md5"));
+    
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Hasher otherThreadHasher = executor.submit(() -> BagitChecksumNameMapping.getForCurrentThread("md5")).get();
+      Assertions.assertNotSame(hasher, otherThreadHasher);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+  
+  @Test
+  public void testGetForCurrentThreadUsesNewlyAddedImplementation() {
+    BagitChecksumNameMapping.add("reused", MD5Hasher::new);
+    try {
+      Assertions.assertTrue(BagitChecksumNameMapping.getForCurrentThread("reused") instanceof MD5Hasher);
+      BagitChecksumNameMapping.add("reused", SHA1Hasher::new);
+      Assertions.assertTrue(BagitChecksumNameMapping.getForCurrentThread("reused") instanceof SHA1Hasher);
+    }
+    finally {
+      BagitChecksumNameMapping.clear("reused");
+    }
+  }
 }
 
 class NonValidHasher implements Hasher{
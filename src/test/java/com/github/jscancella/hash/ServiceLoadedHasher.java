@@ -0,0 +1,14 @@
+package com.github.jscancella.hash;
+
+import com.github.jscancella.hash.standard.AbstractMessageDigestHasher;
+
+/**
+ * Registered in META-INF/services to test that hashers are found using the ServiceLoader
+ */
+public class ServiceLoadedHasher extends AbstractMessageDigestHasher {
+  public static final String BAGIT_ALGORITHM_NAME = "md5-from-service-loader";
+
+  public ServiceLoadedHasher() {
+    super("MD5", BAGIT_ALGORITHM_NAME);
+  }
+}
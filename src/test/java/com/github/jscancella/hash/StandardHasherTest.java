@@ -1,8 +1,12 @@
 package com.github.jscancella.hash;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HexFormat;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -67,4 +71,98 @@ public class StandardHasherTest {
     
     Assertions.assertEquals("9e5ad981e0d29adc278f6a294b8c2aca", hasher.hash(testFile));
   }
+  
+  @Test
+  public void testUpdatePartOfArray() throws Exception{
+    Hasher hasher = BagitChecksumNameMapping.get("md5");
+    byte[] bytes = "foobarham".getBytes(StandardCharsets.UTF_8);
+    hasher.update(bytes, 3, 3);
+    
+    Assertions.assertEquals(hashOf("bar"), hasher.getHash());
+  }
+  
+  @Test
+  public void testUpdateDirectByteBuffer() throws Exception{
+    Hasher hasher = BagitChecksumNameMapping.get("md5");
+    Path testFile = Paths.get("src", "test", "resources", "md5Bag", "bagit.txt");
+    byte[] bytes = Files.readAllBytes(testFile);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+    buffer.put(bytes).flip();
+    
+    hasher.reset();
+    hasher.update(buffer);
+    
+    Assertions.assertFalse(buffer.hasRemaining());
+    Assertions.assertEquals("9e5ad981e0d29adc278f6a294b8c2aca", hasher.getHash());
+  }
+  
+  @Test
+  public void testDigestInto() throws Exception{
+    Hasher hasher = BagitChecksumNameMapping.get("md5");
+    Path testFile = Paths.get("src", "test", "resources", "md5Bag", "bagit.txt");
+    hasher.update(Files.readAllBytes(testFile));
+    byte[] digest = new byte[16];
+    
+    Assertions.assertEquals(16, hasher.digestInto(digest));
+    Assertions.assertEquals("9e5ad981e0d29adc278f6a294b8c2aca", HexFormat.of().formatHex(digest));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> hasher.digestInto(new byte[4]));
+  }
+  
+  @Test
+  public void testDefaultMethodsGiveSameResult() throws Exception{
+    Hasher hasher = new OnlyWholeArrayHasher();
+    hasher.initialize();
+    hasher.update("foobarham".getBytes(StandardCharsets.UTF_8), 3, 3);
+    hasher.update(ByteBuffer.wrap("foobarham".getBytes(StandardCharsets.UTF_8), 6, 3));
+    ByteBuffer direct = ByteBuffer.allocateDirect(3);
+    direct.put("foo".getBytes(StandardCharsets.UTF_8)).flip();
+    hasher.update(direct);
+    byte[] digest = new byte[16];
+    
+    Assertions.assertEquals(16, hasher.digestInto(digest));
+    Assertions.assertEquals(hashOf("barhamfoo"), HexFormat.of().formatHex(digest));
+  }
+  
+  private static String hashOf(String value) {
+    Hasher hasher = BagitChecksumNameMapping.get("md5");
+    hasher.update(value.getBytes(StandardCharsets.UTF_8));
+    return hasher.getHash();
+  }
+  
+  /**
+   * only implements the required methods, so that the default methods are used
+   */
+  private static class OnlyWholeArrayHasher implements Hasher {
+    private final Hasher delegate = BagitChecksumNameMapping.get("md5");
+    
+    @Override
+    public String hash(Path path) throws IOException {
+      return delegate.hash(path);
+    }
+
+    @Override
+    public void initialize() {
+      delegate.initialize();
+    }
+
+    @Override
+    public void update(byte[] bytes) {
+      delegate.update(bytes);
+    }
+
+    @Override
+    public String getHash() {
+      return delegate.getHash();
+    }
+
+    @Override
+    public void reset() {
+      delegate.reset();
+    }
+
+    @Override
+    public String getBagitAlgorithmName() {
+      return delegate.getBagitAlgorithmName();
+    }
+  }
 }
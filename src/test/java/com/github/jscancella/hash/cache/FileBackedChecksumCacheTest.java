@@ -0,0 +1,82 @@
+package com.github.jscancella.hash.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.jscancella.TempFolderTest;
+
+public class FileBackedChecksumCacheTest extends TempFolderTest {
+  private static final Instant NOW = Instant.parse("2020-01-01T00:00:00Z");
+  
+  @Test
+  public void testPutThenGet() throws Exception{
+    Path file = createFile("foo.txt");
+    FileBackedChecksumCache sut = new FileBackedChecksumCache(folder.resolve("cache"), Duration.ofDays(1));
+    ChecksumCacheKey key = ChecksumCacheKey.of(file, "md5");
+    
+    Assertions.assertEquals(Optional.empty(), sut.get(key));
+    sut.put(key, "abc123");
+    Assertions.assertEquals(Optional.of("abc123"), sut.get(key));
+    Assertions.assertEquals(Optional.empty(), sut.get(ChecksumCacheKey.of(file, "sha256")));
+  }
+  
+  @Test
+  public void testSaveAndReload() throws Exception{
+    Path file = createFile("foo.txt");
+    Path cacheFile = folder.resolve("cache");
+    ChecksumCacheKey key = ChecksumCacheKey.of(file, "md5");
+    FileBackedChecksumCache sut = new FileBackedChecksumCache(cacheFile, Duration.ofDays(1));
+    sut.put(key, "abc123");
+    sut.save();
+    
+    FileBackedChecksumCache reloaded = new FileBackedChecksumCache(cacheFile, Duration.ofDays(1));
+    Assertions.assertEquals(1, reloaded.size());
+    Assertions.assertEquals(Optional.of("abc123"), reloaded.get(key));
+  }
+  
+  @Test
+  public void testExpiredChecksumsAreNotUsed() throws Exception{
+    Path file = createFile("foo.txt");
+    Path cacheFile = folder.resolve("cache");
+    ChecksumCacheKey key = ChecksumCacheKey.of(file, "md5");
+    FileBackedChecksumCache sut = new FileBackedChecksumCache(cacheFile, Duration.ofDays(1), Clock.fixed(NOW, ZoneOffset.UTC));
+    sut.put(key, "abc123");
+    sut.save();
+    
+    Clock later = Clock.fixed(NOW.plus(Duration.ofDays(2)), ZoneOffset.UTC);
+    FileBackedChecksumCache reloaded = new FileBackedChecksumCache(cacheFile, Duration.ofDays(1), later);
+    Assertions.assertEquals(Optional.empty(), reloaded.get(key));
+    
+    reloaded.save();
+    Assertions.assertEquals(0, new FileBackedChecksumCache(cacheFile, Duration.ofDays(1), later).size());
+  }
+  
+  @Test
+  public void testModifiedFileIsNotFound() throws Exception{
+    Path file = createFile("foo.txt");
+    FileBackedChecksumCache sut = new FileBackedChecksumCache(folder.resolve("cache"), Duration.ofDays(1));
+    sut.put(ChecksumCacheKey.of(file, "md5"), "abc123");
+    
+    Files.write(file, "changed".getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(file, FileTime.from(NOW));
+    Assertions.assertEquals(Optional.empty(), sut.get(ChecksumCacheKey.of(file, "md5")));
+  }
+  
+  @Test
+  public void testBadLinesAreSkipped() throws Exception{
+    Path cacheFile = folder.resolve("cache");
+    Files.write(cacheFile, "not a cache line\nmd5\tNaN\t1\t1\tabc\t\t/foo\n".getBytes(StandardCharsets.UTF_8));
+    
+    Assertions.assertEquals(0, new FileBackedChecksumCache(cacheFile, Duration.ofDays(1)).size());
+  }
+}
@@ -0,0 +1,99 @@
+package com.github.jscancella.hash.read;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.jscancella.TempFolderTest;
+
+public class FileReadStrategyTest extends TempFolderTest {
+  //small buffers so that files are read in many chunks
+  private static final List<FileReadStrategy> STRATEGIES = Arrays.asList(
+      new HeapBufferReadStrategy(1000), 
+      new DirectBufferReadStrategy(1000), 
+      new MemoryMappedReadStrategy(1000, 1), 
+      new MemoryMappedReadStrategy(1000, 1_000_000, 1000), //reads the file instead of mapping it
+      new MemoryMappedReadStrategy(),
+      new DirectIOReadStrategy(1000),
+      new DirectIOReadStrategy(),
+      new ReadAheadReadStrategy(1000, 2, 0),
+      new ReadAheadReadStrategy(1000, 4, 0),
+      new ReadAheadReadStrategy());
+
+  @Test
+  public void testAllStrategiesReadTheWholeFile() throws Exception{
+    byte[] bytes = new byte[123_457];
+    new Random(42).nextBytes(bytes);
+    Path file = createFile("random.bin");
+    Files.write(file, bytes);
+    String expected = md5(bytes);
+    
+    for(FileReadStrategy strategy : STRATEGIES) {
+      Assertions.assertEquals(expected, read(strategy, file), strategy.toString());
+    }
+  }
+
+  @Test
+  public void testAllStrategiesReadEmptyFile() throws Exception{
+    Path file = createFile("empty.txt");
+    String expected = md5(new byte[0]);
+    
+    for(FileReadStrategy strategy : STRATEGIES) {
+      Assertions.assertEquals(expected, read(strategy, file), strategy.toString());
+    }
+  }
+
+  @Test
+  public void testMissingFileThrowsException() throws Exception{
+    Path file = folder.resolve("doesNotExist.txt");
+    
+    for(FileReadStrategy strategy : STRATEGIES) {
+      Assertions.assertThrows(NoSuchFileException.class, () -> read(strategy, file));
+    }
+  }
+
+  @Test
+  public void testReadAheadStopsWhenHandlerFails() throws Exception{
+    byte[] bytes = new byte[100_000];
+    new Random(7).nextBytes(bytes);
+    Path file = createFile("random.bin");
+    Files.write(file, bytes);
+    ReadAheadReadStrategy sut = new ReadAheadReadStrategy(1000, 2, 0);
+    
+    for(int attempt = 0; attempt < 10; attempt++) {
+      IOException thrown = Assertions.assertThrows(IOException.class, () -> sut.read(file, chunk -> { throw new IOException("stop"); }));
+      Assertions.assertEquals("stop", thrown.getMessage());
+    }
+    //the buffers can still be used afterwards
+    Assertions.assertEquals(md5(bytes), read(sut, file));
+  }
+
+  @Test
+  public void testReadAheadNeedsAtLeastTwoBuffers() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ReadAheadReadStrategy(1000, 1, 0));
+  }
+
+  @Test
+  public void testBufferSizeMustBePositive() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new DirectBufferReadStrategy(0));
+  }
+
+  private static String read(FileReadStrategy strategy, Path file) throws Exception{
+    MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+    strategy.read(file, messageDigest::update);
+    return HexFormat.of().formatHex(messageDigest.digest());
+  }
+
+  private static String md5(byte[] bytes) throws Exception{
+    return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(bytes));
+  }
+}
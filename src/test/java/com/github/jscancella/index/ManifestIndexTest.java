@@ -0,0 +1,142 @@
+package com.github.jscancella.index;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.jscancella.TempFolderTest;
+import com.github.jscancella.exceptions.InvalidBagitFileFormatException;
+
+public class ManifestIndexTest extends TempFolderTest {
+  private static final String FOO_CHECKSUM = "d41d8cd98f00b204e9800998ecf8427e";
+  private Path manifest;
+  private Path cacheDir;
+
+  @BeforeEach
+  public void setupBag() throws Exception{
+    Path bag = createDirectory("bag");
+    Files.write(bag.resolve("bagit.txt"), Arrays.asList("BagIt-Version: 1.0", "Tag-File-Character-Encoding: UTF-8"), StandardCharsets.UTF_8);
+    manifest = bag.resolve("manifest-md5.txt");
+    Files.write(manifest, Arrays.asList(
+        "8ddd8be4b179a529afa5f2ffae4b9858  data/zoo.txt", 
+        FOO_CHECKSUM + "  data/foo.txt", 
+        "D41D8CD98F00B204E9800998ECF8427F  data/images/a.png",
+        "0cc175b9c0f1b6a831c399e269772661  data/images/b.png",
+        "92eb5ffee6ae2fec3ad71c777531578f  data/imagesX.txt"), StandardCharsets.UTF_8);
+    cacheDir = folder.resolve("cache");
+  }
+
+  @Test
+  public void testLookup() throws Exception{
+    try(ManifestIndex sut = ManifestIndex.openOrCreate(manifest, cacheDir)){
+      Assertions.assertEquals(5, sut.size());
+      Assertions.assertEquals(16, sut.getDigestLength());
+      Assertions.assertEquals(FOO_CHECKSUM, sut.getChecksum("data/foo.txt").get());
+      Assertions.assertEquals("d41d8cd98f00b204e9800998ecf8427f", sut.getChecksum("data/images/a.png").get());
+      Assertions.assertFalse(sut.getChecksum("data/bar.txt").isPresent());
+      Assertions.assertFalse(sut.getChecksum("data/images").isPresent());
+
+      byte[] digest = new byte[sut.getDigestLength()];
+      Assertions.assertTrue(sut.copyDigest("data/foo.txt", digest));
+      Assertions.assertArrayEquals(HexFormat.of().parseHex(FOO_CHECKSUM), digest);
+      Assertions.assertFalse(sut.copyDigest("zzz", digest));
+    }
+  }
+
+  @Test
+  public void testScanPrefix() throws Exception{
+    try(ManifestIndex sut = ManifestIndex.openOrCreate(manifest, cacheDir)){
+      List<String> paths = new ArrayList<>();
+      Assertions.assertEquals(2, sut.scanPrefix("data/images/", entry -> paths.add(entry.getRelativePath())));
+      Assertions.assertEquals(Arrays.asList("data/images/a.png", "data/images/b.png"), paths);
+
+      paths.clear();
+      Assertions.assertEquals(5, sut.scanPrefix("", entry -> paths.add(entry.getRelativePath())));
+      Assertions.assertEquals(Arrays.asList("data/foo.txt", "data/images/a.png", "data/images/b.png", "data/imagesX.txt", "data/zoo.txt"), paths);
+
+      Assertions.assertEquals(0, sut.scanPrefix("tagfiles/", entry -> Assertions.fail("should not match anything")));
+    }
+  }
+
+  @Test
+  public void testExistingIndexIsReused() throws Exception{
+    Path indexFile;
+    try(ManifestIndex sut = ManifestIndex.openOrCreate(manifest, cacheDir)){
+      indexFile = sut.getIndexFile();
+    }
+    FileTime created = Files.getLastModifiedTime(indexFile);
+    Files.setLastModifiedTime(indexFile, FileTime.fromMillis(created.toMillis() - 10_000));
+    FileTime backdated = Files.getLastModifiedTime(indexFile);
+
+    try(ManifestIndex sut = ManifestIndex.openOrCreate(manifest, cacheDir)){
+      Assertions.assertEquals(indexFile, sut.getIndexFile());
+      Assertions.assertFalse(sut.isStale(manifest));
+    }
+    Assertions.assertEquals(backdated, Files.getLastModifiedTime(indexFile));
+  }
+
+  @Test
+  public void testStaleIndexIsRecreated() throws Exception{
+    try(ManifestIndex sut = ManifestIndex.openOrCreate(manifest, cacheDir)){
+      Assertions.assertEquals(5, sut.size());
+    }
+    Files.write(manifest, Arrays.asList(FOO_CHECKSUM + "  data/foo.txt"), StandardCharsets.UTF_8);
+
+    try(ManifestIndex sut = ManifestIndex.openOrCreate(manifest, cacheDir)){
+      Assertions.assertEquals(1, sut.size());
+      Assertions.assertFalse(sut.isStale(manifest));
+    }
+  }
+
+  @Test
+  public void testCorruptIndexIsRecreated() throws Exception{
+    Path indexFile;
+    try(ManifestIndex sut = ManifestIndex.openOrCreate(manifest, cacheDir)){
+      indexFile = sut.getIndexFile();
+    }
+    Files.write(indexFile, "not an index".getBytes(StandardCharsets.UTF_8));
+
+    try(ManifestIndex sut = ManifestIndex.openOrCreate(manifest, cacheDir)){
+      Assertions.assertEquals(FOO_CHECKSUM, sut.getChecksum("data/foo.txt").get());
+    }
+  }
+
+  @Test
+  public void testInvalidChecksumThrowsException() throws Exception{
+    Files.write(manifest, Arrays.asList(FOO_CHECKSUM + "  data/foo.txt", "abc  data/bar.txt"), StandardCharsets.UTF_8);
+    Assertions.assertThrows(InvalidBagitFileFormatException.class, () -> ManifestIndex.openOrCreate(manifest, cacheDir));
+
+    Files.write(manifest, Arrays.asList("not hex  data/foo.txt"), StandardCharsets.UTF_8);
+    Assertions.assertThrows(InvalidBagitFileFormatException.class, () -> ManifestIndex.openOrCreate(manifest, cacheDir));
+  }
+
+  @Test
+  public void testIndexOfAnotherManifestIsStale() throws Exception{
+    Path otherBag = createDirectory("otherBag");
+    Path otherManifest = Files.copy(manifest, otherBag.resolve("manifest-md5.txt"), StandardCopyOption.COPY_ATTRIBUTES);
+
+    try(ManifestIndex sut = ManifestIndex.openOrCreate(manifest, cacheDir);
+        ManifestIndex other = ManifestIndex.openOrCreate(otherManifest, cacheDir)){
+      Assertions.assertNotEquals(sut.getIndexFile(), other.getIndexFile());
+      Assertions.assertFalse(sut.isStale(manifest));
+      Assertions.assertTrue(sut.isStale(otherManifest), "same size and modified time, but a different manifest");
+    }
+  }
+
+  @Test
+  public void testDuplicatePathThrowsException() throws Exception{
+    Files.write(manifest, Arrays.asList(FOO_CHECKSUM + "  data/foo.txt", "8ddd8be4b179a529afa5f2ffae4b9858  data/zoo.txt", 
+        "0cc175b9c0f1b6a831c399e269772661  data/foo.txt"), StandardCharsets.UTF_8);
+    Assertions.assertThrows(InvalidBagitFileFormatException.class, () -> ManifestIndex.openOrCreate(manifest, cacheDir));
+  }
+}
@@ -0,0 +1,88 @@
+package com.github.jscancella.internal;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.jscancella.TempFolderTest;
+import com.github.jscancella.internal.ExternalSorter.SortedStrings;
+
+public class ExternalSorterTest extends TempFolderTest {
+  private static final List<String> VALUES = Arrays.asList("foo", "bar", "ham", "data/baz", "bar", "zoo", "a");
+
+  @Test
+  public void testSortInMemory() throws Exception{
+    try(ExternalSorter sut = new ExternalSorter(folder, 100, Comparator.naturalOrder())){
+      add(sut);
+      Assertions.assertEquals(0, sut.getNumberOfRuns());
+      Assertions.assertEquals(sorted(), read(sut));
+    }
+  }
+
+  @Test
+  public void testSortUsingRuns() throws Exception{
+    try(ExternalSorter sut = new ExternalSorter(folder, 2, Comparator.naturalOrder())){
+      add(sut);
+      Assertions.assertEquals(sorted(), read(sut));
+      Assertions.assertEquals(4, sut.getNumberOfRuns());
+      //can be read multiple times
+      Assertions.assertEquals(sorted(), read(sut));
+    }
+    Assertions.assertEquals(0, Files.list(folder).count());
+  }
+
+  @Test
+  public void testMergesRunsInPassesWhenThereAreTooManyToOpenAtOnce() throws Exception{
+    try(ExternalSorter sut = new ExternalSorter(folder, 1, Comparator.naturalOrder(), 2)){
+      add(sut);
+      Assertions.assertEquals(sorted(), read(sut));
+      Assertions.assertEquals(2, sut.getNumberOfRuns());
+      Assertions.assertEquals(2, Files.list(folder).count());
+      Assertions.assertEquals(sorted(), read(sut));
+    }
+    Assertions.assertEquals(0, Files.list(folder).count());
+    Assertions.assertThrows(IllegalArgumentException.class, () -> { new ExternalSorter(folder, 1, Comparator.naturalOrder(), 1); });
+  }
+
+  @Test
+  public void testCanNotAddAfterReading() throws Exception{
+    try(ExternalSorter sut = new ExternalSorter(folder, 2, Comparator.naturalOrder())){
+      add(sut);
+      read(sut);
+      Assertions.assertThrows(IllegalStateException.class, () -> { sut.add("too late"); });
+    }
+  }
+
+  @Test
+  public void testMustKeepAtLeastOneInMemory() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> { new ExternalSorter(folder, 0, Comparator.naturalOrder()); });
+  }
+
+  private static void add(final ExternalSorter sorter) throws Exception{
+    for(String value : VALUES) {
+      sorter.add(value);
+    }
+  }
+
+  private static List<String> sorted(){
+    return VALUES.stream().sorted().collect(Collectors.toList());
+  }
+
+  private static List<String> read(final ExternalSorter sorter) throws Exception{
+    List<String> values = new ArrayList<>();
+    try(SortedStrings sorted = sorter.read()){
+      String value = sorted.next();
+      while(value != null) {
+        values.add(value);
+        value = sorted.next();
+      }
+    }
+    return values;
+  }
+}
@@ -0,0 +1,105 @@
+package com.github.jscancella.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PerFileExecutorsTest {
+
+  @Test
+  public void testLimitsConcurrentTasks() throws Exception{
+    ExecutorService sut = PerFileExecutors.newExecutor(3);
+    try {
+      Assertions.assertEquals(3, runTasks(sut, 50));
+    }
+    finally {
+      sut.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testBoundedExecutorServiceLimitsConcurrentTasks() throws Exception{
+    ExecutorService sut = new BoundedExecutorService(Executors.newCachedThreadPool(), 2);
+    Assertions.assertEquals(2, runTasks(sut, 20));
+    
+    sut.shutdown();
+    Assertions.assertTrue(sut.awaitTermination(10, TimeUnit.SECONDS));
+    Assertions.assertTrue(sut.isShutdown());
+    Assertions.assertTrue(sut.isTerminated());
+  }
+
+  @Test
+  public void testTaskInterruptedWhileWaitingIsCancelled() throws Exception{
+    List<Thread> created = Collections.synchronizedList(new ArrayList<>());
+    ExecutorService threads = Executors.newCachedThreadPool(task -> {
+      Thread thread = new Thread(task);
+      created.add(thread);
+      return thread;
+    });
+    ExecutorService sut = new BoundedExecutorService(threads, 1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      Future<?> running = sut.submit(() -> { started.countDown(); release.await(); return null; });
+      Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+      Future<?> waiting = sut.submit(() -> null);
+      Thread waitingThread = created.get(1);
+      while(waitingThread.getState() != Thread.State.WAITING) {
+        Thread.sleep(1);
+      }
+      waitingThread.interrupt(); //only the task waiting for a permit, the running one keeps holding it
+      
+      Assertions.assertThrows(CancellationException.class, () -> waiting.get(10, TimeUnit.SECONDS));
+      Assertions.assertTrue(waiting.isCancelled());
+      release.countDown();
+      running.get(10, TimeUnit.SECONDS);
+    }
+    finally {
+      release.countDown();
+      threads.shutdownNow();
+    }
+  }
+  
+  @Test
+  public void testUsesVirtualThreadsWhenRunningTheJava21Classes() {
+    //set by the java21Test task, which puts the Java 21 classes ahead of the rest
+    Assertions.assertEquals(Boolean.getBoolean("bagging.expectVirtualThreads"), PerFileExecutors.isUsingVirtualThreads());
+  }
+
+  @Test
+  public void testMustAllowAtLeastOneTask() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> PerFileExecutors.newExecutor(0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new BoundedExecutorService(Executors.newCachedThreadPool(), 0));
+  }
+  
+  /*
+   * @return the most tasks that were running at the same time
+   */
+  private static int runTasks(final ExecutorService executor, final int numberOfTasks) throws Exception{
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger mostRunning = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    for(int index = 0; index < numberOfTasks; index++) {
+      futures.add(executor.submit(() -> {
+        mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(5);
+        running.decrementAndGet();
+        return null;
+      }));
+    }
+    for(Future<?> future : futures) {
+      future.get();
+    }
+    return mostRunning.get();
+  }
+}
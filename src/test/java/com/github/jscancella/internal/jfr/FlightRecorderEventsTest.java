@@ -0,0 +1,57 @@
+package com.github.jscancella.internal.jfr;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.jscancella.TempFolderTest;
+import com.github.jscancella.domain.Bag;
+import com.github.jscancella.domain.BagBuilder;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightRecorderEventsTest extends TempFolderTest {
+  
+  @Test
+  public void testEventsAreRecorded() throws Exception{
+    Path recordingFile = folder.resolve("bagging.jfr");
+    try(Recording recording = new Recording()){
+      recording.enable(FileHashedEvent.class).withThreshold(Duration.ZERO);
+      recording.enable(ManifestParsedEvent.class).withThreshold(Duration.ZERO);
+      recording.enable(TreeWalkedEvent.class).withThreshold(Duration.ZERO);
+      recording.enable(FileCopiedEvent.class).withThreshold(Duration.ZERO);
+      recording.start();
+      
+      Bag bag = Bag.read(Paths.get("src", "test", "resources", "bags", "v1_0", "bag"));
+      Assertions.assertTrue(bag.isValid(true));
+      new BagBuilder().addAlgorithm("md5")
+        .addPayloadFile(Paths.get("src", "test", "resources", "baginfoFiles"))
+        .bagLocation(createDirectory("jfrBag"))
+        .write();
+      
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+    
+    List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+    List<String> names = events.stream().map(event -> event.getEventType().getName()).distinct().collect(Collectors.toList());
+    Assertions.assertTrue(names.contains("com.github.jscancella.FileHashed"), names.toString());
+    Assertions.assertTrue(names.contains("com.github.jscancella.ManifestParsed"), names.toString());
+    Assertions.assertTrue(names.contains("com.github.jscancella.TreeWalked"), names.toString());
+    Assertions.assertTrue(names.contains("com.github.jscancella.FileCopied"), names.toString());
+    
+    RecordedEvent hashed = events.stream()
+        .filter(event -> "com.github.jscancella.FileHashed".equals(event.getEventType().getName()))
+        .filter(event -> event.getString("path").endsWith("foo.txt"))
+        .findFirst().get();
+    Assertions.assertEquals(6, hashed.getLong("bytes"));
+    Assertions.assertEquals("sha512", hashed.getString("algorithms"));
+  }
+}
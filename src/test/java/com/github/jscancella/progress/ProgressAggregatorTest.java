@@ -0,0 +1,123 @@
+package com.github.jscancella.progress;
+
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.jscancella.progress.BagOperationListener.Phase;
+
+public class ProgressAggregatorTest {
+  private static final long MEGABYTE = 1024 * 1024;
+  
+  @Test
+  public void testThroughput() {
+    SteppingClock clock = new SteppingClock();
+    ProgressAggregator sut = new ProgressAggregator(clock);
+    Assertions.assertEquals(0.0, sut.getFilesPerSecond(), 0.001);
+    Assertions.assertEquals(Optional.empty(), sut.getCurrentPhase());
+    
+    sut.phaseStarted(Phase.CHECK_TAG_CHECKSUMS);
+    sut.fileProcessed(Paths.get("foo"), 2 * MEGABYTE, Duration.ofSeconds(1));
+    sut.fileProcessed(Paths.get("bar"), 2 * MEGABYTE, Duration.ofSeconds(1));
+    clock.advance(Duration.ofSeconds(2));
+    
+    Assertions.assertEquals(2, sut.getFilesProcessed());
+    Assertions.assertEquals(4 * MEGABYTE, sut.getBytesProcessed());
+    Assertions.assertEquals(1.0, sut.getFilesPerSecond(), 0.001);
+    Assertions.assertEquals(2.0, sut.getMegabytesPerSecond(), 0.001);
+    Assertions.assertEquals(Optional.of(Phase.CHECK_TAG_CHECKSUMS), sut.getCurrentPhase());
+  }
+  
+  @Test
+  public void testEstimatedTimeRemaining() {
+    SteppingClock clock = new SteppingClock();
+    ProgressAggregator sut = new ProgressAggregator(clock);
+    sut.payloadSizeKnown(100, 4);
+    
+    //tag files don't count towards the payload
+    sut.phaseStarted(Phase.CHECK_TAG_CHECKSUMS);
+    sut.fileProcessed(Paths.get("tag"), 1000, Duration.ofSeconds(1));
+    Assertions.assertEquals(Optional.empty(), sut.getEstimatedTimeRemaining());
+    
+    sut.phaseStarted(Phase.CHECK_PAYLOAD_CHECKSUMS);
+    clock.advance(Duration.ofSeconds(10));
+    sut.fileProcessed(Paths.get("data/foo"), 25, Duration.ofSeconds(10));
+    Assertions.assertEquals(Optional.of(Duration.ofSeconds(30)), sut.getEstimatedTimeRemaining());
+    Assertions.assertEquals(Optional.of(100L), sut.getExpectedPayloadBytes());
+    Assertions.assertEquals(Optional.of(4L), sut.getExpectedPayloadFiles());
+  }
+  
+  @Test
+  public void testEstimateCoversEveryOperationUsingTheAggregator() {
+    SteppingClock clock = new SteppingClock();
+    ProgressAggregator sut = new ProgressAggregator(clock);
+    sut.payloadSizeKnown(100, 4);
+    sut.phaseStarted(Phase.CHECK_PAYLOAD_CHECKSUMS);
+    clock.advance(Duration.ofSeconds(10));
+    sut.fileProcessed(Paths.get("first/data/foo"), 100, Duration.ofSeconds(10));
+    
+    //a second bag validated with the same aggregator
+    sut.payloadSizeKnown(300, 2);
+    sut.phaseStarted(Phase.CHECK_PAYLOAD_CHECKSUMS);
+    clock.advance(Duration.ofSeconds(10));
+    sut.fileProcessed(Paths.get("second/data/foo"), 100, Duration.ofSeconds(10));
+    
+    Assertions.assertEquals(Optional.of(400L), sut.getExpectedPayloadBytes());
+    Assertions.assertEquals(Optional.of(6L), sut.getExpectedPayloadFiles());
+    //200 bytes left at 10 bytes a second
+    Assertions.assertEquals(Optional.of(Duration.ofSeconds(20)), sut.getEstimatedTimeRemaining());
+  }
+  
+  @Test
+  public void testNoEstimateWithoutPayloadOxum() {
+    SteppingClock clock = new SteppingClock();
+    ProgressAggregator sut = new ProgressAggregator(clock);
+    sut.phaseStarted(Phase.CHECK_PAYLOAD_CHECKSUMS);
+    clock.advance(Duration.ofSeconds(10));
+    sut.fileProcessed(Paths.get("data/foo"), 25, Duration.ofSeconds(10));
+    
+    Assertions.assertEquals(Optional.empty(), sut.getEstimatedTimeRemaining());
+  }
+  
+  @Test
+  public void testPhaseTimingsAddUp() {
+    ProgressAggregator sut = new ProgressAggregator();
+    sut.phaseFinished(Phase.CHECK_COMPLETENESS, Duration.ofSeconds(1));
+    sut.phaseFinished(Phase.CHECK_COMPLETENESS, Duration.ofSeconds(2));
+    sut.phaseFinished(Phase.WRITE_BAG, Duration.ofSeconds(5));
+    
+    Assertions.assertEquals(Duration.ofSeconds(3), sut.getPhaseTimings().get(Phase.CHECK_COMPLETENESS));
+    Assertions.assertEquals(Duration.ofSeconds(5), sut.getPhaseTimings().get(Phase.WRITE_BAG));
+    Assertions.assertEquals(2, sut.getPhaseTimings().size());
+  }
+  
+  private static final class SteppingClock extends Clock {
+    private Instant now = Instant.parse("2020-01-01T00:00:00Z");
+    
+    private void advance(final Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -3,6 +3,9 @@ package com.github.jscancella.reader.internal;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -11,6 +14,7 @@ import org.junit.jupiter.api.condition.OS;
 
 import com.github.jscancella.TempFolderTest;
 import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.ManifestEntry;
 import com.github.jscancella.domain.Version;
 import com.github.jscancella.exceptions.InvalidBagitFileFormatException;
 import com.github.jscancella.exceptions.MaliciousPathException;
@@ -31,6 +35,28 @@ public class ManifestReaderTest extends TempFolderTest {
     Assertions.assertEquals("md5", manifest.getBagitAlgorithmName());
   }
   
+  @Test
+  public void testStreamManifest() throws Exception {
+    Version version = new Version(0, 97);
+    Path rootBag = Paths.get(getClass().getClassLoader().getResource("bags/v0_97/bag").toURI());
+    Path manifestFile = rootBag.resolve("manifest-md5.txt");
+    Manifest manifest = ManifestReader.readManifest(manifestFile, rootBag, version, StandardCharsets.UTF_8);
+    
+    try(Stream<ManifestEntry> entries = ManifestReader.streamManifest(manifestFile, rootBag, version, StandardCharsets.UTF_8)){
+      List<ManifestEntry> streamedEntries = entries.collect(Collectors.toList());
+      Assertions.assertEquals(manifest.getEntries(), streamedEntries);
+    }
+    Assertions.assertEquals("md5", ManifestReader.getBagitAlgorithmName(manifestFile));
+  }
+  
+  @Test
+  public void testStreamMaliciousManifestThrowsExceptionWhenRead() throws Exception{
+    Path manifestFile = Paths.get(getClass().getClassLoader().getResource("maliciousManifestFile/upAdirectoryReference-md5.txt").toURI());
+    try(Stream<ManifestEntry> entries = ManifestReader.streamManifest(manifestFile, manifestFile.getParent(), Version.VERSION_1_0(), StandardCharsets.UTF_8)){
+      Assertions.assertThrows(MaliciousPathException.class, () -> { entries.collect(Collectors.toList()); });
+    }
+  }
+  
   @Test
   public void testReadUpDirectoryMaliciousManifestThrowsException() throws Exception{
     Path manifestFile = Paths.get(getClass().getClassLoader().getResource("maliciousManifestFile/upAdirectoryReference-md5.txt").toURI());
@@ -0,0 +1,162 @@
+package com.github.jscancella.verify;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.jscancella.TempFolderTest;
+import com.github.jscancella.domain.BagBuilder;
+import com.github.jscancella.hash.read.FileReadStrategy;
+import com.github.jscancella.hash.read.HeapBufferReadStrategy;
+import com.github.jscancella.verify.ValidationOptions.ValidationOptionsBuilder;
+
+public class BagBatchValidatorTest extends TempFolderTest {
+  
+  @Test
+  public void testEachBagGetsItsOwnResult() throws Exception{
+    Path validBag = Paths.get("src", "test", "resources", "bags", "v1_0", "bag");
+    Path corruptBag = Paths.get("src", "test", "resources", "corruptPayloadFile");
+    Path notABag = createDirectory("notABag");
+    ValidationOptions options = new ValidationOptionsBuilder().parallelism(2).build();
+    
+    List<BagBatchResult> results = new BagBatchValidator(options).validate(Arrays.asList(validBag, corruptBag, notABag), true);
+    
+    Assertions.assertEquals(3, results.size());
+    Assertions.assertEquals(validBag, results.get(0).getRootDir());
+    Assertions.assertTrue(results.get(0).isValid());
+    
+    Assertions.assertEquals(corruptBag, results.get(1).getRootDir());
+    Assertions.assertFalse(results.get(1).isValid());
+    Assertions.assertEquals(1, results.get(1).getReport().get().getCorruptFiles().size());
+    Assertions.assertFalse(results.get(1).getError().isPresent());
+    
+    Assertions.assertEquals(notABag, results.get(2).getRootDir());
+    Assertions.assertFalse(results.get(2).isValid());
+    Assertions.assertFalse(results.get(2).getReport().isPresent());
+    Assertions.assertTrue(results.get(2).getError().isPresent());
+  }
+  
+  @Test
+  public void testBagsAreCheckedForCompletenessWithoutAThreadPerFile() throws Exception{
+    Path validBag = Paths.get("src", "test", "resources", "bags", "v1_0", "bag");
+    Path corruptBag = Paths.get("src", "test", "resources", "corruptPayloadFile");
+    ValidationOptions options = new ValidationOptionsBuilder().threadPerFile(8).boundedMemory(2).build();
+    ValidationOptions completenessOptions = options.withoutThreadPerFile();
+    
+    Assertions.assertFalse(completenessOptions.isThreadPerFile());
+    Assertions.assertEquals(options.getMaxPathsInMemory(), completenessOptions.getMaxPathsInMemory());
+    Assertions.assertEquals(options.getParallelism(), completenessOptions.getParallelism());
+    
+    List<BagBatchResult> results = new BagBatchValidator(options).validate(Arrays.asList(validBag, corruptBag), true);
+    Assertions.assertTrue(results.get(0).isValid());
+    Assertions.assertEquals(1, results.get(1).getReport().get().getCorruptFiles().size());
+  }
+  
+  @Test
+  public void testLargestFilesAreHashedFirstWithinTheFileStoreLimit() throws Exception{
+    List<Path> bags = Arrays.asList(createBag("first", 1, 50, 7), createBag("second", 30, 2, 100));
+    List<Long> sizesInOrderRead = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger reading = new AtomicInteger();
+    AtomicInteger mostAtOnce = new AtomicInteger();
+    FileReadStrategy heap = new HeapBufferReadStrategy();
+    FileReadStrategy recording = (file, handler) -> {
+      mostAtOnce.accumulateAndGet(reading.incrementAndGet(), Math::max);
+      sizesInOrderRead.add(Files.size(file));
+      try {
+        heap.read(file, handler);
+      }
+      finally {
+        reading.decrementAndGet();
+      }
+    };
+    ValidationOptions options = new ValidationOptionsBuilder().parallelism(4).readStrategy(recording).build();
+    
+    List<BagBatchResult> results = new BagBatchValidator(options, 1).validate(bags, true);
+    
+    Assertions.assertTrue(results.get(0).isValid());
+    Assertions.assertTrue(results.get(1).isValid());
+    Assertions.assertEquals(1, mostAtOnce.get(), "both bags are on the same file store, so only one file should be read at once");
+    List<Long> largestFirst = new ArrayList<>(sizesInOrderRead);
+    largestFirst.sort(Collections.reverseOrder());
+    Assertions.assertEquals(largestFirst, sizesInOrderRead);
+  }
+  
+  @Test
+  public void testFilesAreHashedConcurrentlyWithAnExecutor() throws Exception{
+    List<Path> bags = Arrays.asList(createBag("first", 1, 1, 1), createBag("second", 1, 1, 1));
+    CountDownLatch bothReading = new CountDownLatch(2);
+    AtomicInteger reading = new AtomicInteger();
+    AtomicInteger mostAtOnce = new AtomicInteger();
+    FileReadStrategy heap = new HeapBufferReadStrategy();
+    FileReadStrategy waitForAnother = (file, handler) -> {
+      mostAtOnce.accumulateAndGet(reading.incrementAndGet(), Math::max);
+      try {
+        bothReading.countDown();
+        bothReading.await(5, TimeUnit.SECONDS);
+        heap.read(file, handler);
+      }
+      catch(InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      finally {
+        reading.decrementAndGet();
+      }
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      ValidationOptions options = new ValidationOptionsBuilder().executor(executor).readStrategy(waitForAnother).build();
+      BagBatchValidator validator = new BagBatchValidator(options);
+      
+      List<BagBatchResult> results = validator.validate(bags, true);
+      
+      Assertions.assertEquals(4, validator.getThreads());
+      Assertions.assertTrue(results.get(0).isValid());
+      Assertions.assertTrue(results.get(1).isValid());
+      Assertions.assertTrue(mostAtOnce.get() > 1, "the threads of the executor should hash files at the same time");
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+  
+  @Test
+  public void testThreadsMustBeGivenForAnExecutorOfUnknownSize() {
+    ExecutorService executor = Executors.newCachedThreadPool();
+    try {
+      ValidationOptions options = new ValidationOptionsBuilder().executor(executor).build();
+      Assertions.assertThrows(IllegalArgumentException.class, () -> new BagBatchValidator(options));
+      Assertions.assertEquals(8, new BagBatchValidator(options, 4, 8).getThreads());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+  
+  @Test
+  public void testFileStoreLimitMustBePositive() {
+    ValidationOptions options = new ValidationOptionsBuilder().build();
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new BagBatchValidator(options, 0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new BagBatchValidator(options, 4, 0));
+  }
+  
+  private Path createBag(final String name, final int... kilobytes) throws IOException{
+    Path payload = createDirectory(name + "Payload");
+    for(int index = 0; index < kilobytes.length; index++) {
+      Files.write(payload.resolve("file" + index + ".txt"), new byte[kilobytes[index] * 1024]);
+    }
+    return new BagBuilder().addAlgorithm("md5").addPayloadFile(payload).bagLocation(createDirectory(name)).write().getRootDir();
+  }
+}
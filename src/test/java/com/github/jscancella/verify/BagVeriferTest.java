@@ -1,10 +1,24 @@
 package com.github.jscancella.verify;
 
 import java.io.File;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.Security;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
 
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.junit.jupiter.api.AfterAll;
@@ -14,10 +28,29 @@ import org.junit.jupiter.api.Test;
 import com.github.jscancella.TempFolderTest;
 import com.github.jscancella.TestUtils;
 import com.github.jscancella.domain.Bag;
+import com.github.jscancella.domain.BagBuilder;
+import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.ManifestEntry;
 import com.github.jscancella.exceptions.CorruptChecksumException;
 import com.github.jscancella.exceptions.FileNotInManifestException;
+import com.github.jscancella.exceptions.FileNotInPayloadDirectoryException;
+import com.github.jscancella.exceptions.InvalidPayloadOxumException;
 import com.github.jscancella.exceptions.NoSuchBagitAlgorithmException;
+import com.github.jscancella.exceptions.PayloadOxumDoesNotExistException;
+import com.github.jscancella.exceptions.ValidationCancelledException;
 import com.github.jscancella.hash.BagitChecksumNameMapping;
+import com.github.jscancella.hash.cache.ChecksumCacheKey;
+import com.github.jscancella.hash.cache.FileBackedChecksumCache;
+import com.github.jscancella.hash.read.DirectIOReadStrategy;
+import com.github.jscancella.hash.read.FileReadStrategy;
+import com.github.jscancella.hash.read.HeapBufferReadStrategy;
+import com.github.jscancella.hash.read.MemoryMappedReadStrategy;
+import com.github.jscancella.progress.BagOperationListener;
+import com.github.jscancella.progress.BagOperationListener.Phase;
+import com.github.jscancella.progress.ProgressAggregator;
+import com.github.jscancella.verify.ValidationOptions.PayloadOxumCheck;
+import com.github.jscancella.verify.ValidationOptions.ValidationOptionsBuilder;
+import com.github.jscancella.verify.ValidationReport.UnreadableFile;
 
 public class BagVeriferTest extends TempFolderTest {
   static {
@@ -127,6 +160,404 @@ public class BagVeriferTest extends TempFolderTest {
     Assertions.assertThrows(CorruptChecksumException.class, () -> { bag.isValid(true); });
   }
 
+  @Test
+  public void testParallelValidation() throws Exception{
+    Path bagDir = Paths.get("src", "test", "resources", "sha512Bag");
+    Bag bag = Bag.read(bagDir);
+    ValidationOptions options = new ValidationOptionsBuilder().parallelism(4).build();
+
+    Assertions.assertTrue(bag.isValid(true, options));
+  }
+
+  @Test
+  public void testParallelValidationWithSuppliedExecutor() throws Exception{
+    Bag bag = Bag.read(rootDir);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      ValidationOptions options = new ValidationOptionsBuilder().executor(executor).build();
+      Assertions.assertTrue(bag.justValidate(options));
+      Assertions.assertFalse(executor.isShutdown());
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testCorruptPayloadFileInParallel() throws Exception{
+    rootDir = Paths.get(new File("src/test/resources/corruptPayloadFile").toURI());
+    Bag bag = Bag.read(rootDir);
+    ValidationOptions options = new ValidationOptionsBuilder().parallelism(4).build();
+
+    Assertions.assertThrows(CorruptChecksumException.class, () -> { bag.isValid(true, options); });
+  }
+
+  @Test
+  public void testValidationWithMultiplePayloadManifests() throws Exception{
+    Path payloadFile = Paths.get("src", "test", "resources", "bags", "v1_0", "bag", "data", "foo.txt");
+    Bag bag = new BagBuilder().addAlgorithm("md5").addAlgorithm("sha256").addAlgorithm("sha512")
+        .addPayloadFile(payloadFile)
+        .bagLocation(createDirectory("multipleManifestsBag"))
+        .write();
+
+    Assertions.assertEquals(3, bag.getPayLoadManifests().size());
+    Assertions.assertTrue(bag.isValid(true));
+    Assertions.assertTrue(bag.isValid(true, new ValidationOptionsBuilder().parallelism(2).build()));
+  }
+
+  @Test
+  public void testCorruptFileWithMultiplePayloadManifests() throws Exception{
+    Path payloadFile = Paths.get("src", "test", "resources", "bags", "v1_0", "bag", "data", "foo.txt");
+    Bag bag = new BagBuilder().addAlgorithm("md5").addAlgorithm("sha512")
+        .addPayloadFile(payloadFile)
+        .bagLocation(createDirectory("corruptMultipleManifestsBag"))
+        .write();
+    Files.write(bag.getDataDir().resolve("foo.txt"), "corrupted".getBytes(StandardCharsets.UTF_8));
+
+    Assertions.assertThrows(CorruptChecksumException.class, () -> { bag.justValidate(); });
+  }
+
+  @Test
+  public void testValidationUsesChecksumCache() throws Exception{
+    Path payloadFile = Paths.get("src", "test", "resources", "bags", "v1_0", "bag", "data", "foo.txt");
+    Bag bag = new BagBuilder().addAlgorithm("md5")
+        .addPayloadFile(payloadFile)
+        .bagLocation(createDirectory("checksumCacheBag"))
+        .write();
+    Path cacheFile = folder.resolve("checksums.cache");
+    FileBackedChecksumCache cache = new FileBackedChecksumCache(cacheFile, Duration.ofDays(30));
+    ValidationOptions options = new ValidationOptionsBuilder().checksumCache(cache).build();
+    
+    Assertions.assertTrue(bag.justValidate(options));
+    Assertions.assertTrue(Files.exists(cacheFile));
+    
+    //the cached checksum is used instead of reading the file, so a wrong one means validation fails
+    cache.put(ChecksumCacheKey.of(bag.getDataDir().resolve("foo.txt"), "md5"), "0123456789abcdef0123456789abcdef");
+    Assertions.assertThrows(CorruptChecksumException.class, () -> { bag.justValidate(options); });
+  }
+
+  @Test
+  public void testValidationWithDifferentReadStrategies() throws Exception{
+    ValidationOptions directIO = new ValidationOptionsBuilder().readStrategy(new DirectIOReadStrategy()).build();
+    ValidationOptions mapped = new ValidationOptionsBuilder().readStrategy(new MemoryMappedReadStrategy(4096, 1)).parallelism(2).build();
+    
+    Assertions.assertTrue(Bag.read(rootDir).isValid(true, directIO));
+    Assertions.assertTrue(Bag.read(rootDir).isValid(true, mapped));
+    Assertions.assertThrows(CorruptChecksumException.class, 
+        () -> Bag.read(Paths.get("src", "test", "resources", "corruptPayloadFile")).justValidate(directIO));
+  }
+
+  @Test
+  public void testAsynchronousReads() throws Exception{
+    Path payload = createDirectory("asyncPayload");
+    Random random = new Random(11);
+    for(int index = 0; index < 50; index++) {
+      byte[] bytes = new byte[random.nextInt(5000)];
+      random.nextBytes(bytes);
+      Files.write(payload.resolve("small" + index + ".bin"), bytes);
+    }
+    byte[] large = new byte[1024 * 1024 * 2 + 17];
+    random.nextBytes(large);
+    Files.write(payload.resolve("large.bin"), large);
+    Files.createFile(payload.resolve("empty.txt"));
+    Bag bag = new BagBuilder().addAlgorithm("md5").addAlgorithm("sha256")
+        .addPayloadFile(payload)
+        .bagLocation(createDirectory("asyncBag"))
+        .write();
+    ValidationOptions options = new ValidationOptionsBuilder().asynchronousReads(4).parallelism(2).build();
+    
+    Assertions.assertTrue(bag.isValid(true, options));
+    Assertions.assertTrue(Bag.read(rootDir).isValid(true, options));
+    
+    Files.write(bag.getDataDir().resolve("asyncPayload").resolve("small7.bin"), "changed".getBytes(StandardCharsets.UTF_8));
+    Assertions.assertThrows(CorruptChecksumException.class, () -> { bag.justValidate(options); });
+    Assertions.assertThrows(CorruptChecksumException.class, 
+        () -> Bag.read(Paths.get("src", "test", "resources", "corruptPayloadFile")).justValidate(options));
+  }
+
+  @Test
+  public void testThreadPerFileValidation() throws Exception{
+    ValidationOptions options = new ValidationOptionsBuilder().threadPerFile(2).build();
+    
+    Assertions.assertTrue(options.isParallel());
+    Assertions.assertTrue(Bag.read(Paths.get("src", "test", "resources", "sha512Bag")).isValid(true, options));
+    Assertions.assertThrows(CorruptChecksumException.class, 
+        () -> Bag.read(Paths.get("src", "test", "resources", "corruptPayloadFile")).justValidate(options));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ValidationOptionsBuilder().threadPerFile(0));
+  }
+
+  @Test
+  public void testThreadPerFileCompleteness() throws Exception{
+    ValidationOptions options = new ValidationOptionsBuilder().threadPerFile(2).build();
+    
+    Assertions.assertTrue(Bag.read(Paths.get("src", "test", "resources", "bags", "v1_0", "bag")).isComplete(true, options));
+    Assertions.assertThrows(FileNotInPayloadDirectoryException.class, 
+        () -> Bag.read(Paths.get("src", "test", "resources", "filesInManifestDontExist")).isComplete(true, options));
+    Assertions.assertThrows(InvalidPayloadOxumException.class, 
+        () -> Bag.read(Paths.get("src", "test", "resources", "badPayloadOxumByteSize", "bag")).isComplete(true, options));
+  }
+
+  @Test
+  public void testCancelledValidation() throws Exception{
+    CancellationToken token = new CancellationToken();
+    ValidationOptions cancellable = new ValidationOptionsBuilder().cancellationToken(token).build();
+    Assertions.assertTrue(Bag.read(rootDir).isValid(true, cancellable));
+    
+    token.cancel();
+    Assertions.assertThrows(ValidationCancelledException.class, () -> Bag.read(rootDir).isValid(true, cancellable));
+    ValidationOptions parallel = new ValidationOptionsBuilder().cancellationToken(token).parallelism(2).build();
+    Assertions.assertThrows(ValidationCancelledException.class, () -> Bag.read(rootDir).justValidate(parallel));
+    ValidationOptions async = new ValidationOptionsBuilder().cancellationToken(token).asynchronousReads(2).build();
+    Assertions.assertThrows(ValidationCancelledException.class, () -> Bag.read(rootDir).justValidate(async));
+  }
+  
+  @Test
+  public void testValidationDeadline() throws Exception{
+    ValidationOptions future = new ValidationOptionsBuilder().deadline(Instant.now().plus(Duration.ofDays(1))).build();
+    Assertions.assertTrue(Bag.read(rootDir).isValid(true, future));
+    
+    ValidationOptions past = new ValidationOptionsBuilder().deadline(Instant.now().minusSeconds(1)).threadPerFile(2).build();
+    Assertions.assertThrows(ValidationCancelledException.class, () -> Bag.read(rootDir).justValidate(past));
+  }
+  
+  @Test
+  public void testInterruptedValidation() throws Exception{
+    Bag bag = Bag.read(rootDir);
+    Thread.currentThread().interrupt();
+    try {
+      Assertions.assertThrows(ValidationCancelledException.class, () -> bag.justValidate());
+    }
+    finally {
+      Thread.interrupted();
+    }
+  }
+  
+  @Test
+  public void testCheckpointResumesValidation() throws Exception{
+    Path payload = createDirectory("checkpointPayload");
+    Files.write(payload.resolve("first.txt"), "first".getBytes(StandardCharsets.UTF_8));
+    Files.write(payload.resolve("second.txt"), "second".getBytes(StandardCharsets.UTF_8));
+    Bag bag = new BagBuilder().addAlgorithm("md5")
+        .addPayloadFile(payload)
+        .bagLocation(createDirectory("checkpointBag"))
+        .write();
+    Path first = bag.getDataDir().resolve("checkpointPayload").resolve("first.txt");
+    Path second = bag.getDataDir().resolve("checkpointPayload").resolve("second.txt");
+    Path checkpointFile = folder.resolve("validation.checkpoint");
+    ValidationOptions options = new ValidationOptionsBuilder().checkpoint(new ValidationCheckpoint(checkpointFile)).build();
+    
+    //the first file is verified even though the second one fails, and is remembered for when validation is restarted
+    Files.write(second, "SECOND".getBytes(StandardCharsets.UTF_8));
+    Assertions.assertFalse(bag.validate(true, options).isValid());
+    ValidationCheckpoint restarted = new ValidationCheckpoint(checkpointFile);
+    Assertions.assertTrue(restarted.isVerified(first, checksumsOf(bag, first)));
+    Assertions.assertFalse(restarted.isVerified(second, checksumsOf(bag, second)));
+    
+    //a file already verified isn't read again as long as its size and modified time are the same
+    FileTime modified = Files.getLastModifiedTime(first);
+    Files.write(first, "FIRST".getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(first, modified);
+    Files.write(second, "second".getBytes(StandardCharsets.UTF_8));
+    Assertions.assertTrue(bag.justValidate(new ValidationOptionsBuilder().checkpoint(restarted).build()));
+    
+    //once the whole bag is valid the checkpoint is cleared
+    Assertions.assertFalse(Files.exists(checkpointFile));
+    Assertions.assertEquals(0, restarted.size());
+  }
+
+  @Test
+  public void testInterruptedReadCancelsValidation() throws Exception{
+    //as if the validation was cancelled by interrupting the thread while it was reading a file
+    FileReadStrategy interrupting = (file, handler) -> {
+      Thread.currentThread().interrupt();
+      new HeapBufferReadStrategy().read(file, handler);
+    };
+    ValidationOptions options = new ValidationOptionsBuilder().readStrategy(interrupting).build();
+    Bag bag = Bag.read(rootDir);
+    try {
+      ValidationCancelledException thrown = Assertions.assertThrows(ValidationCancelledException.class, () -> bag.justValidate(options));
+      Assertions.assertTrue(thrown.getCause() instanceof ClosedByInterruptException);
+      Assertions.assertTrue(Thread.interrupted());
+      //instead of reporting the file as unreadable
+      Assertions.assertThrows(ValidationCancelledException.class, () -> bag.validate(true, options));
+    }
+    finally {
+      Thread.interrupted();
+    }
+  }
+
+  @Test
+  public void testListenerReceivesProgress() throws Exception{
+    List<Phase> phases = new CopyOnWriteArrayList<>();
+    ProgressAggregator progress = new ProgressAggregator();
+    BagOperationListener listener = new BagOperationListener() {
+      @Override
+      public void phaseStarted(final Phase phase) {
+        phases.add(phase);
+        progress.phaseStarted(phase);
+      }
+      @Override
+      public void phaseFinished(final Phase phase, final Duration elapsed) {
+        progress.phaseFinished(phase, elapsed);
+      }
+      @Override
+      public void payloadSizeKnown(final long totalBytes, final long totalFiles) {
+        progress.payloadSizeKnown(totalBytes, totalFiles);
+      }
+      @Override
+      public void fileProcessed(final Path file, final long bytes, final Duration elapsed) {
+        progress.fileProcessed(file, bytes, elapsed);
+      }
+    };
+    ValidationOptions options = new ValidationOptionsBuilder().listener(listener).parallelism(2).build();
+    
+    Assertions.assertTrue(Bag.read(Paths.get("src", "test", "resources", "bags", "v1_0", "bag")).isValid(true, options));
+    Assertions.assertEquals(List.of(Phase.CHECK_MANDATORY_FILES, Phase.CHECK_PAYLOAD_OXUM, Phase.CHECK_COMPLETENESS, 
+        Phase.CHECK_TAG_CHECKSUMS, Phase.CHECK_PAYLOAD_CHECKSUMS), phases);
+    Assertions.assertEquals(phases, List.copyOf(progress.getPhaseTimings().keySet()));
+    Assertions.assertEquals(Optional.of(6L), progress.getExpectedPayloadBytes());
+    //bagit.txt, bag-info.txt, manifest-sha512.txt, and the single payload file
+    Assertions.assertEquals(4, progress.getFilesProcessed());
+  }
+
+  @Test
+  public void testBadPayloadOxumFailsBeforeHashing() throws Exception{
+    Bag badByteSize = Bag.read(Paths.get("src", "test", "resources", "badPayloadOxumByteSize", "bag"));
+    Bag badFileCount = Bag.read(Paths.get("src", "test", "resources", "badPayloadOxumFileCount", "bag"));
+    
+    Assertions.assertThrows(InvalidPayloadOxumException.class, () -> { badByteSize.isValid(true); });
+    Assertions.assertThrows(InvalidPayloadOxumException.class, () -> { badFileCount.isComplete(true); });
+    
+    ValidationOptions skip = new ValidationOptionsBuilder().payloadOxumCheck(PayloadOxumCheck.SKIP).build();
+    Assertions.assertTrue(badFileCount.isComplete(true, skip));
+  }
+
+  @Test
+  public void testBoundedMemoryPayloadOxumCountsEachFileOnce() throws Exception{
+    Path payload = createDirectory("oxumPayload");
+    long totalSize = 0;
+    for(int index = 0; index < 5; index++) {
+      byte[] content = ("content " + index).getBytes(StandardCharsets.UTF_8);
+      Files.write(payload.resolve("file" + index + ".txt"), content);
+      totalSize += content.length;
+    }
+    Bag bag = new BagBuilder().addAlgorithm("md5").addAlgorithm("sha256")
+        .addPayloadFile(payload)
+        .addMetadata("Payload-Oxum", totalSize + ".5")
+        .bagLocation(createDirectory("oxumBag"))
+        .write();
+    
+    ValidationOptions bounded = new ValidationOptionsBuilder().boundedMemory(2).build();
+    Assertions.assertTrue(bag.isComplete(true, bounded));
+    Assertions.assertTrue(bag.isComplete(true, new ValidationOptionsBuilder().boundedMemory(2).threadPerFile(2).build()));
+    Assertions.assertThrows(InvalidPayloadOxumException.class, 
+        () -> Bag.read(Paths.get("src", "test", "resources", "badPayloadOxumFileCount", "bag")).isComplete(true, bounded));
+  }
+
+  @Test
+  public void testTruncatedFileFailsPayloadOxumCheck() throws Exception{
+    Path payload = createFile("truncated.txt");
+    Files.write(payload, "some content that gets cut off".getBytes(StandardCharsets.UTF_8));
+    Bag bag = new BagBuilder().addAlgorithm("md5")
+        .addPayloadFile(payload)
+        .addMetadata("Payload-Oxum", Files.size(payload) + ".1")
+        .bagLocation(createDirectory("truncatedBag"))
+        .write();
+    Assertions.assertTrue(bag.isValid(true));
+    
+    Files.write(bag.getDataDir().resolve("truncated.txt"), "some".getBytes(StandardCharsets.UTF_8));
+    Assertions.assertThrows(InvalidPayloadOxumException.class, () -> { bag.isValid(true); });
+    Assertions.assertThrows(CorruptChecksumException.class, () -> { bag.justValidate(); }); //only checks the checksums
+    
+    Files.delete(bag.getDataDir().resolve("truncated.txt"));
+    Assertions.assertThrows(FileNotInPayloadDirectoryException.class, () -> { bag.isValid(true); });
+  }
+
+  @Test
+  public void testRequiredPayloadOxum() throws Exception{
+    ValidationOptions required = new ValidationOptionsBuilder().payloadOxumCheck(PayloadOxumCheck.REQUIRED).build();
+    Bag bag = new BagBuilder().addAlgorithm("md5")
+        .addPayloadFile(Paths.get("src", "test", "resources", "bags", "v1_0", "bag", "data", "foo.txt"))
+        .bagLocation(createDirectory("bagWithoutPayloadOxum"))
+        .write();
+    
+    Assertions.assertTrue(bag.isValid(true));
+    Assertions.assertThrows(PayloadOxumDoesNotExistException.class, () -> { bag.isValid(true, required); });
+    Assertions.assertTrue(Bag.read(Paths.get("src", "test", "resources", "bags", "v1_0", "bag")).isValid(true, required));
+  }
+
+  @Test
+  public void testValidationReportFindsEveryProblem() throws Exception{
+    Path payload = createDirectory("reportPayload");
+    for(int index = 0; index < 10; index++) {
+      Files.write(payload.resolve("file" + index + ".txt"), ("content " + index).getBytes(StandardCharsets.UTF_8));
+    }
+    Bag bag = new BagBuilder().addAlgorithm("md5").addAlgorithm("sha256")
+        .addPayloadFile(payload)
+        .bagLocation(createDirectory("reportBag"))
+        .write();
+    Path files = bag.getDataDir().resolve("reportPayload");
+    Assertions.assertTrue(bag.validate(true).isValid());
+    
+    Files.write(files.resolve("file1.txt"), "changed".getBytes(StandardCharsets.UTF_8));
+    Files.write(files.resolve("file7.txt"), "also changed".getBytes(StandardCharsets.UTF_8));
+    Files.delete(files.resolve("file3.txt"));
+    Files.delete(files.resolve("file5.txt"));
+    Files.createDirectory(files.resolve("file5.txt")); //exists but can't be read as a file
+    Files.write(files.resolve("extra.txt"), "not in the manifests".getBytes(StandardCharsets.UTF_8));
+    Files.delete(files.resolve("file9.txt"));
+    
+    ValidationOptions[] allOptions = {new ValidationOptionsBuilder().build(), 
+        new ValidationOptionsBuilder().parallelism(4).build(),
+        new ValidationOptionsBuilder().asynchronousReads(4).build(),
+        new ValidationOptionsBuilder().boundedMemory(2).build(),
+        new ValidationOptionsBuilder().threadPerFile(4).build()};
+    for(ValidationOptions options : allOptions) {
+      ValidationReport report = bag.validate(true, options);
+      
+      Assertions.assertFalse(report.isValid());
+      Assertions.assertEquals(List.of(files.resolve("file3.txt"), files.resolve("file9.txt")), report.getMissingFiles());
+      Assertions.assertEquals(List.of(files.resolve("extra.txt")), report.getExtraFiles());
+      Assertions.assertEquals(4, report.getCorruptFiles().size());
+      Assertions.assertEquals(files.resolve("file1.txt"), report.getCorruptFiles().get(0).getFile());
+      Assertions.assertEquals("md5", report.getCorruptFiles().get(0).getBagitAlgorithmName());
+      Assertions.assertEquals("8977dfac2f8e04cb96e66882235f5aba", report.getCorruptFiles().get(0).getActualChecksum());
+      Assertions.assertEquals(files.resolve("file7.txt"), report.getCorruptFiles().get(3).getFile());
+      Assertions.assertEquals(List.of(files.resolve("file5.txt")), 
+          report.getUnreadableFiles().stream().map(UnreadableFile::getFile).collect(Collectors.toList()));
+      Assertions.assertFalse(report.getPayloadOxumError().isPresent());
+    }
+  }
+
+  @Test
+  public void testValidationReportIncludesPayloadOxum() throws Exception{
+    ValidationReport report = Bag.read(Paths.get("src", "test", "resources", "badPayloadOxumByteSize", "bag")).validate(true);
+    
+    Assertions.assertFalse(report.isValid());
+    Assertions.assertTrue(report.getPayloadOxumError().isPresent());
+    Assertions.assertTrue(Bag.read(Paths.get("src", "test", "resources", "bags", "v1_0", "bag")).validate(true).isValid());
+  }
+
+  @Test
+  public void testBoundedMemoryCompleteness() throws Exception{
+    ValidationOptions options = new ValidationOptionsBuilder().boundedMemory(1).build();
+    
+    Assertions.assertTrue(Bag.read(rootDir).isValid(true, options));
+    Assertions.assertTrue(Bag.read(Paths.get("src", "test", "resources", "bags", "v1_0", "bag")).isComplete(true, options));
+  }
+
+  @Test
+  public void testBoundedMemoryCompletenessFindsMissingAndExtraFiles() throws Exception{
+    ValidationOptions options = new ValidationOptionsBuilder().boundedMemory(1).build();
+    Bag missingFiles = Bag.read(Paths.get("src", "test", "resources", "filesInManifestDontExist"));
+    Bag extraFiles = Bag.read(Paths.get("src", "test", "resources", "filesInPayloadDirAreNotInManifest"));
+    Bag notInAllManifests = Bag.read(Paths.get("src", "test", "resources", "notAllFilesListedInAllManifestsBag"));
+    
+    Assertions.assertThrows(FileNotInPayloadDirectoryException.class, () -> { missingFiles.isComplete(true, options); });
+    Assertions.assertThrows(FileNotInManifestException.class, () -> { extraFiles.isComplete(true, options); });
+    Assertions.assertThrows(FileNotInManifestException.class, () -> { notInAllManifests.isComplete(true, options); });
+  }
+
   @Test
   public void testCorruptTagFile() throws Exception{
     rootDir = Paths.get(new File("src/test/resources/corruptTagFile").toURI());
@@ -162,4 +593,19 @@ public class BagVeriferTest extends TempFolderTest {
 
     Assertions.assertTrue(bag.isValid(true));
   }
+  
+  /*
+   * the bagit algorithm name mapped to the checksum each payload manifest lists for the file
+   */
+  private static Map<String, String> checksumsOf(final Bag bag, final Path file) {
+    Map<String, String> checksums = new HashMap<>();
+    for(Manifest manifest : bag.getPayLoadManifests()) {
+      for(ManifestEntry entry : manifest.getEntries()) {
+        if(entry.getPhysicalLocation().equals(file)) {
+          checksums.put(manifest.getBagitAlgorithmName(), entry.getChecksum());
+        }
+      }
+    }
+    return checksums;
+  }
 }
@@ -0,0 +1,153 @@
+package com.github.jscancella.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.jscancella.TempFolderTest;
+
+public class ValidationCheckpointTest extends TempFolderTest {
+  private static final Map<String, String> CHECKSUMS = Map.of("md5", "d41d8cd98f00b204e9800998ecf8427e");
+  
+  @Test
+  public void testMarkVerifiedAndReload() throws Exception{
+    Path file = createFile("foo.txt");
+    Path checkpointFile = folder.resolve("checkpoint");
+    ValidationCheckpoint sut = new ValidationCheckpoint(checkpointFile, Duration.ZERO);
+    
+    Assertions.assertFalse(sut.isVerified(file, CHECKSUMS));
+    sut.markVerified(file, CHECKSUMS);
+    Assertions.assertTrue(sut.isVerified(file, CHECKSUMS));
+    
+    ValidationCheckpoint reloaded = new ValidationCheckpoint(checkpointFile, Duration.ZERO);
+    Assertions.assertEquals(1, reloaded.size());
+    Assertions.assertTrue(reloaded.isVerified(file, CHECKSUMS));
+    
+    Path other = createFile("bar.txt");
+    reloaded.markVerified(other, CHECKSUMS);
+    Assertions.assertTrue(new ValidationCheckpoint(checkpointFile).isVerified(other, CHECKSUMS));
+  }
+  
+  @Test
+  public void testChangedFileIsNotVerified() throws Exception{
+    Path file = createFile("foo.txt");
+    ValidationCheckpoint sut = new ValidationCheckpoint(folder.resolve("checkpoint"), Duration.ZERO);
+    sut.markVerified(file, CHECKSUMS);
+    
+    Files.write(file, "a different size".getBytes(StandardCharsets.UTF_8));
+    Assertions.assertFalse(sut.isVerified(file, CHECKSUMS));
+  }
+  
+  @Test
+  public void testFileChangedAfterItsAttributesWereReadIsNotVerified() throws Exception{
+    Path file = createFile("foo.txt");
+    ValidationCheckpoint sut = new ValidationCheckpoint(folder.resolve("checkpoint"), Duration.ZERO);
+    BasicFileAttributes beforeHashing = Files.readAttributes(file, BasicFileAttributes.class);
+    Assertions.assertFalse(sut.isVerified(file, beforeHashing, CHECKSUMS));
+    
+    Files.write(file, "changed while it was being hashed".getBytes(StandardCharsets.UTF_8));
+    sut.markVerified(file, beforeHashing, CHECKSUMS);
+    Assertions.assertTrue(sut.isVerified(file, beforeHashing, CHECKSUMS));
+    Assertions.assertFalse(sut.isVerified(file, CHECKSUMS));
+  }
+  
+  @Test
+  public void testDifferentChecksumsAreNotVerified() throws Exception{
+    Path file = createFile("foo.txt");
+    ValidationCheckpoint sut = new ValidationCheckpoint(folder.resolve("checkpoint"), Duration.ZERO);
+    sut.markVerified(file, CHECKSUMS);
+    
+    Assertions.assertTrue(sut.isVerified(file, Map.of("md5", "D41D8CD98F00B204E9800998ECF8427E")));
+    Assertions.assertFalse(sut.isVerified(file, Map.of("md5", "00000000000000000000000000000000")));
+    Assertions.assertFalse(sut.isVerified(file, Map.of("sha1", "da39a3ee5e6b4b0d3255bfef95601890afd80709")));
+    Assertions.assertFalse(sut.isVerified(file, Map.of("md5", "d41d8cd98f00b204e9800998ecf8427e", "sha1", "da39a3ee5e6b4b0d3255bfef95601890afd80709")));
+  }
+  
+  @Test
+  public void testCloseWritesTheCheckpointAndCanBeReopened() throws Exception{
+    Path file = createFile("foo.txt");
+    Path checkpointFile = folder.resolve("checkpoint");
+    ValidationCheckpoint sut = new ValidationCheckpoint(checkpointFile, Duration.ofDays(1));
+    sut.markVerified(file, CHECKSUMS);
+    sut.close();
+    Assertions.assertEquals(1, new ValidationCheckpoint(checkpointFile).size());
+    
+    Path other = createFile("bar.txt");
+    sut.markVerified(other, CHECKSUMS);
+    sut.close();
+    Assertions.assertTrue(new ValidationCheckpoint(checkpointFile).isVerified(other, CHECKSUMS));
+  }
+  
+  @Test
+  public void testUnflushedFilesAreNotWritten() throws Exception{
+    Path file = createFile("foo.txt");
+    Path checkpointFile = folder.resolve("checkpoint");
+    ValidationCheckpoint sut = new ValidationCheckpoint(checkpointFile, Duration.ofDays(1));
+    sut.markVerified(file, CHECKSUMS);
+    Assertions.assertEquals(0, new ValidationCheckpoint(checkpointFile).size());
+    
+    sut.flush();
+    Assertions.assertEquals(1, new ValidationCheckpoint(checkpointFile).size());
+  }
+  
+  @Test
+  public void testSkipsBadLines() throws Exception{
+    Path file = createFile("foo.txt");
+    Path checkpointFile = folder.resolve("checkpoint");
+    ValidationCheckpoint sut = new ValidationCheckpoint(checkpointFile, Duration.ZERO);
+    sut.markVerified(file, CHECKSUMS);
+    //as if the host crashed part way through writing a line
+    Files.write(checkpointFile, "12\t3".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    
+    ValidationCheckpoint reloaded = new ValidationCheckpoint(checkpointFile, Duration.ZERO);
+    Assertions.assertEquals(1, reloaded.size());
+    Assertions.assertTrue(reloaded.isVerified(file, CHECKSUMS));
+    
+    Path other = createFile("bar.txt");
+    reloaded.markVerified(other, CHECKSUMS);
+    Assertions.assertTrue(new ValidationCheckpoint(checkpointFile).isVerified(other, CHECKSUMS));
+  }
+  
+  @Test
+  public void testClear() throws Exception{
+    Path file = createFile("foo.txt");
+    Path checkpointFile = folder.resolve("checkpoint");
+    ValidationCheckpoint sut = new ValidationCheckpoint(checkpointFile, Duration.ZERO);
+    sut.markVerified(file, CHECKSUMS);
+    Assertions.assertTrue(Files.exists(checkpointFile));
+    
+    sut.clear();
+    Assertions.assertFalse(Files.exists(checkpointFile));
+    Assertions.assertFalse(sut.isVerified(file, CHECKSUMS));
+    
+    sut.markVerified(file, CHECKSUMS);
+    Assertions.assertTrue(new ValidationCheckpoint(checkpointFile).isVerified(file, CHECKSUMS));
+  }
+  
+  @Test
+  public void testClearingABagKeepsTheFilesOfOtherBags() throws Exception{
+    Path file = Files.createFile(Files.createDirectories(folder.resolve("firstBag/data")).resolve("foo.txt"));
+    Path other = Files.createFile(Files.createDirectories(folder.resolve("secondBag/data")).resolve("foo.txt"));
+    Path checkpointFile = folder.resolve("checkpoint");
+    ValidationCheckpoint sut = new ValidationCheckpoint(checkpointFile, Duration.ZERO);
+    sut.markVerified(file, CHECKSUMS);
+    sut.markVerified(other, CHECKSUMS);
+    
+    sut.clear(folder.resolve("firstBag"));
+    Assertions.assertFalse(sut.isVerified(file, CHECKSUMS));
+    Assertions.assertTrue(sut.isVerified(other, CHECKSUMS));
+    ValidationCheckpoint reloaded = new ValidationCheckpoint(checkpointFile, Duration.ZERO);
+    Assertions.assertEquals(1, reloaded.size());
+    Assertions.assertTrue(reloaded.isVerified(other, CHECKSUMS));
+    
+    sut.clear(folder.resolve("secondBag"));
+    Assertions.assertFalse(Files.exists(checkpointFile));
+  }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.github.jscancella.verify.internal;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.jscancella.domain.Manifest;
+import com.github.jscancella.domain.Manifest.ManifestBuilder;
+import com.github.jscancella.domain.ManifestEntry;
+
+public class ManifestEntriesByFileTest {
+  private static final Path ROOT_DIR = Paths.get("/bag");
+
+  @Test
+  public void testEachFileIsGroupedOnceWithEveryAlgorithmThatListsIt() {
+    List<Manifest> manifests = Arrays.asList(
+        manifest("md5", "data/a", "data/b", "data/c"),
+        manifest("sha1", "data/c", "data/a", "data/b"), //listed in a different order
+        manifest("sha256", "data/a", "data/b"), //missing a file
+        manifest("md5", "bagit.txt", "manifest-md5.txt")); //a tag manifest
+
+    Map<Path, Set<String>> algorithmsByFile = new HashMap<>();
+    for(Entry<Path, List<SimpleImmutableEntry<String, ManifestEntry>>> file : new ManifestEntriesByFile(manifests)) {
+      Set<String> algorithms = new HashSet<>();
+      for(SimpleImmutableEntry<String, ManifestEntry> entry : file.getValue()) {
+        Assertions.assertEquals(file.getKey(), entry.getValue().getPhysicalLocation());
+        algorithms.add(entry.getKey());
+      }
+      Assertions.assertEquals(file.getValue().size(), algorithms.size());
+      Assertions.assertNull(algorithmsByFile.put(file.getKey(), algorithms), "each file should only be grouped once");
+    }
+
+    Assertions.assertEquals(Set.of("md5", "sha1", "sha256"), algorithmsByFile.get(ROOT_DIR.resolve("data/a")));
+    Assertions.assertEquals(Set.of("md5", "sha1", "sha256"), algorithmsByFile.get(ROOT_DIR.resolve("data/b")));
+    Assertions.assertEquals(Set.of("md5", "sha1"), algorithmsByFile.get(ROOT_DIR.resolve("data/c")));
+    Assertions.assertEquals(Set.of("md5"), algorithmsByFile.get(ROOT_DIR.resolve("bagit.txt")));
+    Assertions.assertEquals(Set.of("md5"), algorithmsByFile.get(ROOT_DIR.resolve("manifest-md5.txt")));
+    Assertions.assertEquals(5, algorithmsByFile.size());
+  }
+
+  @Test
+  public void testNoManifestsHaveNoFiles() {
+    Assertions.assertFalse(new ManifestEntriesByFile(Arrays.asList()).iterator().hasNext());
+  }
+
+  private static Manifest manifest(final String algorithm, final String... files) {
+    ManifestBuilder builder = new ManifestBuilder(algorithm);
+    for(String file : files) {
+      builder.addEntry(new ManifestEntry(ROOT_DIR.resolve(file), Paths.get(file), "abc123"));
+    }
+    return builder.build();
+  }
+}
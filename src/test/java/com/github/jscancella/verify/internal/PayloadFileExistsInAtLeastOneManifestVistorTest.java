@@ -1,6 +1,11 @@
 package com.github.jscancella.verify.internal;
 
+import java.nio.file.FileVisitResult;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.Normalizer;
 import java.util.HashSet;
+import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -17,4 +22,14 @@ public class PayloadFileExistsInAtLeastOneManifestVistorTest extends TempFolderT
     Assertions.assertThrows(FileNotInManifestException.class, 
         () -> { sut.visitFile(createFile("aNewFile"), null); });
   }
+  
+  @Test
+  public void testFileWithDifferentNormalizationIsInManifest() throws Exception{
+    Path file = createFile(Normalizer.normalize("caf\u00e9.txt", Normalizer.Form.NFC));
+    Set<Path> filesListedInManifests = new HashSet<>();
+    filesListedInManifests.add(Paths.get(Normalizer.normalize(file.toAbsolutePath().toString(), Normalizer.Form.NFD)));
+    
+    PayloadFileExistsInAtLeastOneManifestVistor sut = new PayloadFileExistsInAtLeastOneManifestVistor(filesListedInManifests, true);
+    Assertions.assertEquals(FileVisitResult.CONTINUE, sut.visitFile(file, null));
+  }
 }